@@ -32,7 +32,9 @@ import org.openbravo.advpaymentmngt.dao.MatchTransactionDao;
 import org.openbravo.advpaymentmngt.dao.TransactionsDao;
 import org.openbravo.advpaymentmngt.utility.APRM_MatchingUtility;
 import org.openbravo.advpaymentmngt.utility.FIN_MatchedTransaction;
+import org.openbravo.advpaymentmngt.utility.FIN_MatchingCandidates;
 import org.openbravo.advpaymentmngt.utility.FIN_MatchingTransaction;
+import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.client.kernel.BaseActionHandler;
 import org.openbravo.dal.core.OBContext;
 import org.openbravo.dal.service.OBDal;
@@ -46,6 +48,12 @@ import org.openbravo.service.db.DbUtility;
 public class MatchStatementOnLoadActionHandler extends BaseActionHandler {
   private static final Logger log = LogManager.getLogger();
 
+  /**
+   * When enabled, the candidate transactions of the financial account are read once and all the
+   * bank statement lines are matched against them in memory, if the matching algorithm supports it.
+   */
+  private static final String BULK_MATCHING_PROPERTY = "aprm.matching.bulk";
+
   @Override
   protected JSONObject execute(Map<String, Object> parameters, String content) {
     JSONObject jsonResponse = new JSONObject();
@@ -124,6 +132,8 @@ public class MatchStatementOnLoadActionHandler extends BaseActionHandler {
         .getPendingToBeMatchedBankStatementLines(strFinancialAccountId, strReconciliationId);
     final List<FIN_FinaccTransaction> excluded = new ArrayList<FIN_FinaccTransaction>();
     int matchedLines = 0, i = 0;
+    long t = System.currentTimeMillis();
+    FIN_MatchingCandidates candidates = null;
     try {
       List<String> bankLines = new ArrayList<String>();
       while (bankLinesSR.next()) {
@@ -135,6 +145,10 @@ public class MatchStatementOnLoadActionHandler extends BaseActionHandler {
         i++;
       }
       bankLinesSR.close();
+      if (matchingTransaction.isBulkMatchingSupported() && OBPropertiesProvider.getInstance()
+          .getBooleanProperty(BULK_MATCHING_PROPERTY)) {
+        candidates = FIN_MatchingCandidates.load(strFinancialAccountId);
+      }
       i = 0;
       for (i = 0; i < bankLines.size(); i++) {
         final FIN_BankStatementLine bankStatementLine = OBDal.getInstance()
@@ -142,7 +156,11 @@ public class MatchStatementOnLoadActionHandler extends BaseActionHandler {
         FIN_MatchedTransaction matched;
         // try to match if exception is thrown continue
         try {
-          matched = matchingTransaction.match(bankStatementLine, excluded);
+          if (candidates != null) {
+            matched = matchingTransaction.match(bankStatementLine, candidates);
+          } else {
+            matched = matchingTransaction.match(bankStatementLine, excluded);
+          }
         } catch (Exception e) {
           matched = new FIN_MatchedTransaction(null, FIN_MatchedTransaction.NOMATCH);
         }
@@ -151,6 +169,9 @@ public class MatchStatementOnLoadActionHandler extends BaseActionHandler {
         if (transaction != null && APRM_MatchingUtility.matchBankStatementLine(bankStatementLine,
             transaction, reconciliation, matched.getMatchLevel(), false)) {
           excluded.add(transaction);
+          if (candidates != null) {
+            candidates.exclude(transaction);
+          }
           matchedLines++;
           // Required to persist current matching so that it is not rollbacked afterwards because
           // of
@@ -167,6 +188,9 @@ public class MatchStatementOnLoadActionHandler extends BaseActionHandler {
     } catch (Exception e) {
       OBDal.getInstance().rollbackAndClose();
     }
+    log.debug("Matched {} bank statement lines in {} ms{}", matchedLines,
+        System.currentTimeMillis() - t,
+        candidates != null ? " against " + candidates.size() + " candidates in memory" : "");
 
     return matchedLines;
   }
@@ -19,6 +19,7 @@
 
 package org.openbravo.advpaymentmngt.algorithm;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -27,8 +28,9 @@ import javax.servlet.ServletException;
 
 import org.openbravo.advpaymentmngt.dao.MatchTransactionDao;
 import org.openbravo.advpaymentmngt.utility.APRM_MatchingUtility;
+import org.openbravo.advpaymentmngt.utility.FIN_BulkMatchingAlgorithm;
 import org.openbravo.advpaymentmngt.utility.FIN_MatchedTransaction;
-import org.openbravo.advpaymentmngt.utility.FIN_MatchingAlgorithm;
+import org.openbravo.advpaymentmngt.utility.FIN_MatchingCandidates;
 import org.openbravo.base.secureApp.VariablesSecureApp;
 import org.openbravo.dal.core.OBContext;
 import org.openbravo.database.ConnectionProvider;
@@ -38,7 +40,7 @@ import org.openbravo.model.financialmgmt.payment.FIN_Payment;
 import org.openbravo.model.financialmgmt.payment.MatchingAlgorithm;
 import org.openbravo.service.db.DalConnectionProvider;
 
-public class StandardMatchingAlgorithm implements FIN_MatchingAlgorithm {
+public class StandardMatchingAlgorithm implements FIN_BulkMatchingAlgorithm {
 
   @Override
   public FIN_MatchedTransaction match(FIN_BankStatementLine line,
@@ -94,6 +96,46 @@ public class StandardMatchingAlgorithm implements FIN_MatchingAlgorithm {
     return new FIN_MatchedTransaction(null, FIN_MatchedTransaction.NOMATCH);
   }
 
+  @Override
+  public FIN_MatchedTransaction match(FIN_BankStatementLine line,
+      FIN_MatchingCandidates candidates) throws ServletException {
+
+    MatchingAlgorithm algorithm = line.getBankStatement().getAccount().getMatchingAlgorithm();
+
+    Date transactionDate = (algorithm.isMatchtransactiondate()) ? line.getTransactionDate() : null;
+    String reference = (algorithm.isMatchreference()) ? line.getReferenceNo() : "";
+    BigDecimal amount = line.getCramount().subtract(line.getDramount());
+
+    FIN_FinaccTransaction transaction;
+    if (line.getGLItem() != null) {
+      transaction = candidates.getMatchingGLItemTransaction(line.getGLItem(),
+          line.getTransactionDate(), amount);
+      if (transaction != null) {
+        return new FIN_MatchedTransaction(transaction, FIN_MatchedTransaction.STRONG);
+      }
+      transaction = candidates.getMatchingGLItemTransaction(line.getGLItem(), null, amount);
+      if (transaction != null) {
+        return new FIN_MatchedTransaction(transaction, FIN_MatchedTransaction.WEAK);
+      }
+    }
+    if (algorithm.isMatchbpname()) {
+      transaction = candidates.getMatchingFinancialTransaction(transactionDate, reference, amount,
+          line.getBpartnername());
+    } else {
+      transaction = candidates.getMatchingFinancialTransaction(transactionDate, reference, amount);
+    }
+    if (transaction != null) {
+      return new FIN_MatchedTransaction(transaction, FIN_MatchedTransaction.STRONG);
+    }
+    transaction = candidates.getMatchingFinancialTransaction(
+        algorithm.isMatchtransactiondate() ? line.getTransactionDate() : null, amount);
+    if (transaction != null) {
+      return new FIN_MatchedTransaction(transaction, FIN_MatchedTransaction.WEAK);
+    }
+
+    return new FIN_MatchedTransaction(null, FIN_MatchedTransaction.NOMATCH);
+  }
+
   @Override
   public void unmatch(FIN_FinaccTransaction _transaction) throws ServletException {
     if (_transaction == null) {
@@ -0,0 +1,40 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.advpaymentmngt.utility;
+
+import javax.servlet.ServletException;
+
+import org.openbravo.model.financialmgmt.payment.FIN_BankStatementLine;
+
+/**
+ * A matching algorithm able to match the lines of a bank statement against the candidate
+ * transactions loaded in memory, instead of querying them for each line.
+ */
+public interface FIN_BulkMatchingAlgorithm extends FIN_MatchingAlgorithm {
+
+  /**
+   * Matches a bank statement line with the same criteria as
+   * {@link FIN_MatchingAlgorithm#match(FIN_BankStatementLine, java.util.List)}, looking up the
+   * transactions in the given candidates. The transactions excluded from the candidates are never
+   * returned.
+   */
+  public FIN_MatchedTransaction match(FIN_BankStatementLine _bankStatementLine,
+      FIN_MatchingCandidates candidates) throws ServletException;
+}
@@ -0,0 +1,271 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.advpaymentmngt.utility;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.hibernate.query.Query;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.model.financialmgmt.gl.GLItem;
+import org.openbravo.model.financialmgmt.payment.FIN_FinaccTransaction;
+import org.openbravo.model.financialmgmt.payment.FIN_Payment;
+
+/**
+ * In-memory index of the financial account transactions which can be matched with the lines of a
+ * bank statement: the processed transactions of the account that are not reconciled yet, excluding
+ * the ones in 'RPPC' status. The transactions are indexed by amount and looked up with the same
+ * criteria as the queries of {@link org.openbravo.advpaymentmngt.dao.MatchTransactionDao}, so a
+ * whole statement can be matched reading the candidates only once.
+ *
+ * The transactions matched while the index is in use must be excluded with
+ * {@link #exclude(FIN_FinaccTransaction)} so they are not returned again. This class is not thread
+ * safe.
+ */
+public class FIN_MatchingCandidates {
+  private final Map<BigDecimal, List<Candidate>> candidatesByAmount = new HashMap<>();
+  private final Set<String> excludedIds = new HashSet<>();
+  private int size;
+
+  private FIN_MatchingCandidates() {
+  }
+
+  /**
+   * Creates an index with the given transactions. The transactions are returned as they are, so
+   * they should be still attached to the session when they are used.
+   */
+  public FIN_MatchingCandidates(Collection<FIN_FinaccTransaction> transactions) {
+    for (FIN_FinaccTransaction transaction : transactions) {
+      FIN_Payment payment = transaction.getFinPayment();
+      Candidate candidate = new Candidate(transaction.getId(),
+          transaction.getTransactionDate(),
+          transaction.getGLItem() != null ? transaction.getGLItem().getId() : null,
+          payment != null, payment != null && payment.getBusinessPartner() != null,
+          payment != null && payment.getBusinessPartner() != null
+              ? payment.getBusinessPartner().getName()
+              : null,
+          payment != null ? payment.getReferenceNo() : null,
+          payment != null ? payment.getDocumentNo() : null);
+      candidate.transaction = transaction;
+      add(transaction.getDepositAmount().subtract(transaction.getPaymentAmount()), candidate);
+    }
+  }
+
+  /**
+   * Reads the candidate transactions of a financial account with a single query. As the
+   * {@link org.openbravo.advpaymentmngt.dao.MatchTransactionDao} queries, only the active
+   * transactions of the organizations and clients readable by the current user are read.
+   *
+   * @param financialAccountId
+   *          the id of the financial account whose transactions are loaded
+   * @return the index with the transactions pending to be matched of the account
+   */
+  public static FIN_MatchingCandidates load(String financialAccountId) {
+    FIN_MatchingCandidates candidates = new FIN_MatchingCandidates();
+    OBContext.setAdminMode(true);
+    try {
+      //@formatter:off
+      final String hql = "select ft.id, ft.depositAmount - ft.paymentAmount, ft.transactionDate,"
+          + "   gl.id, p.id, bp.id, bp.name, p.referenceNo, p.documentNo"
+          + " from FIN_Finacc_Transaction as ft"
+          + "   left join ft.gLItem as gl"
+          + "   left join ft.finPayment as p"
+          + "   left join p.businessPartner as bp"
+          + " where ft.account.id = :financialAccountId"
+          + "   and ft.reconciliation is null"
+          + "   and ft.processed = true"
+          + "   and ft.status <> 'RPPC'"
+          + "   and ft.active = true"
+          + "   and ft.organization.id in (:readableOrgs)"
+          + "   and ft.client.id in (:readableClients)"
+          + " order by ft.transactionDate, ft.id";
+      //@formatter:on
+      final Query<Object[]> query = OBDal.getInstance()
+          .getSession()
+          .createQuery(hql, Object[].class)
+          .setParameter("financialAccountId", financialAccountId)
+          .setParameterList("readableOrgs", OBContext.getOBContext().getReadableOrganizations())
+          .setParameterList("readableClients", OBContext.getOBContext().getReadableClients());
+      for (Object[] row : query.list()) {
+        candidates.add((BigDecimal) row[1],
+            new Candidate((String) row[0], (Date) row[2], (String) row[3], row[4] != null,
+                row[5] != null, (String) row[6], (String) row[7], (String) row[8]));
+      }
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+    return candidates;
+  }
+
+  private void add(BigDecimal amount, Candidate candidate) {
+    candidatesByAmount.computeIfAbsent(amount.stripTrailingZeros(), k -> new ArrayList<>())
+        .add(candidate);
+    size++;
+  }
+
+  /**
+   * @return the number of transactions in the index, including the excluded ones
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Excludes a transaction, usually because it has just been matched, so it is not returned by any
+   * further lookup.
+   */
+  public void exclude(FIN_FinaccTransaction transaction) {
+    if (transaction != null) {
+      excludedIds.add(transaction.getId());
+    }
+  }
+
+  /**
+   * Excludes all the given transactions.
+   *
+   * @see #exclude(FIN_FinaccTransaction)
+   */
+  public void exclude(Collection<FIN_FinaccTransaction> transactions) {
+    for (FIN_FinaccTransaction transaction : transactions) {
+      exclude(transaction);
+    }
+  }
+
+  /**
+   * Equivalent to
+   * {@link org.openbravo.advpaymentmngt.dao.MatchTransactionDao#getMatchingGLItemTransaction(String, GLItem, Date, BigDecimal, List)}
+   *
+   * @param maxTransactionDate
+   *          if not null, only the transactions up to this date are returned
+   * @return the first transaction of the given GL item and amount, null if there is none
+   */
+  public FIN_FinaccTransaction getMatchingGLItemTransaction(GLItem glItem, Date maxTransactionDate,
+      BigDecimal amount) {
+    final String glItemId = glItem.getId();
+    return find(amount, c -> glItemId.equals(c.glItemId)
+        && (maxTransactionDate == null || c.transactionDate != null
+            && c.transactionDate.getTime() <= maxTransactionDate.getTime()));
+  }
+
+  /**
+   * Equivalent to
+   * {@link org.openbravo.advpaymentmngt.dao.MatchTransactionDao#getMatchingFinancialTransaction(String, Date, String, BigDecimal, String, List)}
+   *
+   * @return the first transaction of the given amount whose payment belongs to a business partner
+   *         with the given name, null if there is none
+   */
+  public FIN_FinaccTransaction getMatchingFinancialTransaction(Date transactionDate,
+      String reference, BigDecimal amount, String businessPartnerName) {
+    return find(amount,
+        c -> c.hasBusinessPartner && Objects.equals(businessPartnerName, c.businessPartnerName)
+            && isSameDate(c, transactionDate) && hasReference(c, reference));
+  }
+
+  /**
+   * Equivalent to
+   * {@link org.openbravo.advpaymentmngt.dao.MatchTransactionDao#getMatchingFinancialTransaction(String, Date, String, BigDecimal, List)}
+   *
+   * @return the first transaction of the given amount, null if there is none
+   */
+  public FIN_FinaccTransaction getMatchingFinancialTransaction(Date transactionDate,
+      String reference, BigDecimal amount) {
+    return find(amount, c -> isSameDate(c, transactionDate) && hasReference(c, reference));
+  }
+
+  /**
+   * Equivalent to
+   * {@link org.openbravo.advpaymentmngt.dao.MatchTransactionDao#getMatchingFinancialTransaction(String, Date, BigDecimal, List)}
+   *
+   * @return the first transaction of the given amount, null if there is none
+   */
+  public FIN_FinaccTransaction getMatchingFinancialTransaction(Date transactionDate,
+      BigDecimal amount) {
+    return find(amount, c -> isSameDate(c, transactionDate));
+  }
+
+  private FIN_FinaccTransaction find(BigDecimal amount, Predicate<Candidate> criteria) {
+    final List<Candidate> candidates = candidatesByAmount
+        .getOrDefault(amount.stripTrailingZeros(), Collections.emptyList());
+    for (Candidate candidate : candidates) {
+      if (!excludedIds.contains(candidate.id) && criteria.test(candidate)) {
+        return candidate.getTransaction();
+      }
+    }
+    return null;
+  }
+
+  private static boolean isSameDate(Candidate candidate, Date transactionDate) {
+    return transactionDate == null || candidate.transactionDate != null
+        && candidate.transactionDate.getTime() == transactionDate.getTime();
+  }
+
+  private static boolean hasReference(Candidate candidate, String reference) {
+    if ("".equals(reference) || "**".equals(reference)) {
+      return true;
+    }
+    // as in the queries, a null reference does not match any payment
+    return reference != null && candidate.hasPayment
+        && (reference.equals(candidate.referenceNo) || reference.equals(candidate.documentNo));
+  }
+
+  private static class Candidate {
+    private final String id;
+    private final Date transactionDate;
+    private final String glItemId;
+    private final boolean hasPayment;
+    private final boolean hasBusinessPartner;
+    private final String businessPartnerName;
+    private final String referenceNo;
+    private final String documentNo;
+    private FIN_FinaccTransaction transaction;
+
+    private Candidate(String id, Date transactionDate, String glItemId, boolean hasPayment,
+        boolean hasBusinessPartner, String businessPartnerName, String referenceNo,
+        String documentNo) {
+      this.id = id;
+      this.transactionDate = transactionDate;
+      this.glItemId = glItemId;
+      this.hasPayment = hasPayment;
+      this.hasBusinessPartner = hasBusinessPartner;
+      this.businessPartnerName = businessPartnerName;
+      this.referenceNo = referenceNo;
+      this.documentNo = documentNo;
+    }
+
+    private FIN_FinaccTransaction getTransaction() {
+      if (transaction != null) {
+        return transaction;
+      }
+      // the session can be cleared while matching, so the transaction is read when it is needed
+      return OBDal.getInstance().get(FIN_FinaccTransaction.class, id);
+    }
+  }
+}
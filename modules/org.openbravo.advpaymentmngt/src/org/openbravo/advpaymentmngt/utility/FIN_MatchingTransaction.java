@@ -61,6 +61,24 @@ public class FIN_MatchingTransaction {
     }
   }
 
+  /**
+   * @return true if the algorithm can match the lines against the candidates loaded in memory
+   * @see FIN_BulkMatchingAlgorithm
+   */
+  public boolean isBulkMatchingSupported() {
+    return algorithm instanceof FIN_BulkMatchingAlgorithm;
+  }
+
+  public FIN_MatchedTransaction match(FIN_BankStatementLine _bankstatementLine,
+      FIN_MatchingCandidates candidates) throws ServletException, NoAlgorithmFoundException {
+    if (algorithm instanceof FIN_BulkMatchingAlgorithm) {
+      return ((FIN_BulkMatchingAlgorithm) algorithm).match(_bankstatementLine, candidates);
+    } else {
+      throw new NoAlgorithmFoundException(
+          "No algorithm has been defined to match bank statement lines in bulk");
+    }
+  }
+
   public void unmatch(FIN_FinaccTransaction _transaction)
       throws ServletException, NoAlgorithmFoundException {
     if (algorithm != null) {
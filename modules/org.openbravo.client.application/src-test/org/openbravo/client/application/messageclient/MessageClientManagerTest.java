@@ -0,0 +1,116 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.messageclient;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Tests the delivery of the pending messages done by the {@link MessageClientManager} thread when
+ * the messages are read after a cursor.
+ */
+public class MessageClientManagerTest extends OBBaseTest {
+
+  private List<MessageClientMsg> pendingMessages;
+  private List<String> deliveredMessages;
+  private MessageClientManager.MessageClientManagerThread managerThread;
+
+  @Before
+  public void initManagerThread() {
+    pendingMessages = new ArrayList<>();
+    deliveredMessages = new ArrayList<>();
+    managerThread = new MessageClientManager.MessageClientManagerThread(
+        new MessageClientManager(), new TestMessageRegistry()) {
+      @Override
+      void deliver(MessageClientMsg message) {
+        deliveredMessages.add(message.getId());
+      }
+    };
+  }
+
+  @Test
+  public void messagesAfterCursorAreDeliveredOnce() {
+    addPendingMessage("M1", new Date());
+    managerThread.deliverMessagesAfterCursor();
+    managerThread.deliverMessagesAfterCursor();
+    managerThread.deliverAllPendingMessages();
+
+    assertThat(deliveredMessages, contains("M1"));
+  }
+
+  @Test
+  public void lateCommittedMessageIsDeliveredByTheFullRead() {
+    addPendingMessage("M1", new Date());
+    managerThread.deliverMessagesAfterCursor();
+
+    // committed one hour after its creation, when the cursor has already passed it
+    addPendingMessage("M2", new Date(System.currentTimeMillis() - 3_600_000L));
+    managerThread.deliverMessagesAfterCursor();
+    assertThat(deliveredMessages, contains("M1"));
+
+    managerThread.deliverAllPendingMessages();
+    assertThat(deliveredMessages, contains("M1", "M2"));
+  }
+
+  @Test
+  public void expiredMessagesAreNotTrackedAfterTheFullRead() {
+    addPendingMessage("M1", new Date());
+    managerThread.deliverAllPendingMessages();
+    deliveredMessages.clear();
+
+    pendingMessages.clear();
+    managerThread.deliverAllPendingMessages();
+    assertThat(deliveredMessages, empty());
+
+    // the same id is delivered again once it is no longer tracked
+    addPendingMessage("M1", new Date());
+    managerThread.deliverAllPendingMessages();
+    assertThat(deliveredMessages, contains("M1"));
+  }
+
+  private void addPendingMessage(String id, Date creationDate) {
+    pendingMessages.add(new MessageClientMsg(id, "test", Collections.emptyMap(), "{}",
+        new Date(System.currentTimeMillis() + 3_600_000L), creationDate));
+  }
+
+  private class TestMessageRegistry extends MessageRegistry {
+    @Override
+    public List<MessageClientMsg> getPendingMessages() {
+      return new ArrayList<>(pendingMessages);
+    }
+
+    @Override
+    public List<MessageClientMsg> getPendingMessages(Date createdAfter) {
+      return pendingMessages.stream()
+          .filter(message -> message.getCreationDate().after(createdAfter))
+          .collect(Collectors.toList());
+    }
+  }
+}
@@ -20,13 +20,19 @@
 package org.openbravo.client.application.test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalToIgnoringCase;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.isEmptyString;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assume.assumeTrue;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
@@ -37,6 +43,7 @@ import org.openbravo.base.weld.WeldUtils;
 import org.openbravo.base.weld.test.WeldBaseTest;
 import org.openbravo.client.application.WindowSettingsActionHandler;
 import org.openbravo.client.application.window.ApplicationDictionaryCachedStructures;
+import org.openbravo.client.application.window.FormPlan;
 import org.openbravo.client.application.window.StandardWindowComponent;
 import org.openbravo.client.kernel.ComponentGenerator;
 import org.openbravo.dal.service.OBDal;
@@ -140,6 +147,61 @@ public class ADCSTest extends WeldBaseTest {
     assertThat(anyColumnReference.getOBCLKERREFMASKList().size(), greaterThanOrEqualTo(0));
   }
 
+  @Test
+  public void formPlanIsCachedUntilADCSIsReset() {
+    // given a clean ADCS with the plan of a tab
+    adcs.init();
+    FormPlan plan = adcs.getFormPlan(Tabs.SALES_INVOICE_HEADER);
+
+    // when the plan is requested again, it is taken from the cache
+    assertThat(adcs.getFormPlan(Tabs.SALES_INVOICE_HEADER), sameInstance(plan));
+
+    // then it is built again once ADCS is reset
+    adcs.init();
+    assertThat(adcs.getFormPlan(Tabs.SALES_INVOICE_HEADER), not(sameInstance(plan)));
+  }
+
+  @Test
+  public void formPlanComputesClientAndOrganizationFirst() {
+    // given the plan of a tab
+    FormPlan plan = adcs.getFormPlan(Tabs.SALES_INVOICE_HEADER);
+
+    // when the columns are sorted to create a new record
+    List<String> sortedColumns = plan.getSortedColumns("NEW", null);
+
+    // then client and organization are computed before any other column
+    assertThat(sortedColumns.get(0), equalToIgnoringCase("AD_Client_ID"));
+    assertThat(sortedColumns.get(1), equalToIgnoringCase("AD_Org_ID"));
+  }
+
+  @Test
+  public void formPlanOnlyComputesDependantColumnsOnChange() {
+    // given the plan of a tab
+    FormPlan plan = adcs.getFormPlan(Tabs.SALES_INVOICE_HEADER);
+
+    // when the columns are sorted because the business partner changes
+    List<String> sortedColumns = plan.getSortedColumns("CHANGE", "inpcBpartnerId");
+
+    // then only the columns whose validation depends on it are computed, the same way every time
+    assertThat(sortedColumns, not(hasItem(equalToIgnoringCase("C_BPartner_ID"))));
+    assertThat(sortedColumns.size(), lessThan(plan.getAllColumns().size()));
+    assertThat(plan.getSortedColumns("CHANGE", "inpcBpartnerId"), sameInstance(sortedColumns));
+  }
+
+  @Test
+  public void formPlanDoesNotCacheChangesOfUnknownColumns() {
+    // given the plan of a tab
+    FormPlan plan = adcs.getFormPlan(Tabs.SALES_INVOICE_HEADER);
+
+    // when the columns are sorted because a column which is not in the tab changes
+    List<String> sortedColumns = plan.getSortedColumns("CHANGE", "inpunknownColumn");
+
+    // then nothing is computed and the result is not kept in the plan
+    assertThat(sortedColumns, empty());
+    assertThat(plan.getSortedColumns("CHANGE", "inpunknownColumn"),
+        not(sameInstance(sortedColumns)));
+  }
+
   private static class WindowSettingsActionHandlerTest extends WindowSettingsActionHandler {
 
     public void execute(String windowId) {
@@ -0,0 +1,51 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html 
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.test.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.event.Observes;
+
+import org.openbravo.client.kernel.event.EntityDeleteEvent;
+
+/**
+ * Test observer used by {@link PersistenceEventDispatcherTest}. It does not extend
+ * {@link org.openbravo.client.kernel.event.EntityPersistenceEventObserver}, so it receives the
+ * delete events of every entity. The received entities are only recorded while it is active.
+ */
+public class AnyEntityTestObserver {
+  private static boolean active = false;
+  private static List<String> deletedEntities = new ArrayList<>();
+
+  public void onDelete(@Observes EntityDeleteEvent event) {
+    if (active) {
+      deletedEntities.add(event.getTargetInstance().getEntityName());
+    }
+  }
+
+  static void setActive(boolean isActive) {
+    active = isActive;
+    deletedEntities.clear();
+  }
+
+  static List<String> getDeletedEntities() {
+    return deletedEntities;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html 
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.test.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+
+import javax.inject.Inject;
+
+import org.hibernate.type.Type;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.base.model.Property;
+import org.openbravo.base.provider.OBProvider;
+import org.openbravo.base.structure.BaseOBObject;
+import org.openbravo.base.weld.test.WeldBaseTest;
+import org.openbravo.client.kernel.event.PersistenceEventDispatcher;
+import org.openbravo.client.kernel.event.PersistenceEventOBInterceptor;
+import org.openbravo.model.common.currency.Currency;
+import org.openbravo.model.common.uom.UOM;
+
+/**
+ * Test cases ensuring the {@link PersistenceEventDispatcher} sends the persistence events to the
+ * observers of their entity. The events are sent through the {@link PersistenceEventOBInterceptor}
+ * on transient objects, so nothing is persisted.
+ */
+public class PersistenceEventDispatcherTest extends WeldBaseTest {
+
+  @Inject
+  private PersistenceEventDispatcher dispatcher;
+
+  @Inject
+  private PersistenceEventOBInterceptor interceptor;
+
+  private boolean wasEnabled;
+
+  @Before
+  public void enableDispatchTable() {
+    wasEnabled = dispatcher.isEnabled();
+    dispatcher.setEnabled(true);
+    UOMTestObserver.resetExecutionCount();
+    AnyEntityTestObserver.setActive(true);
+  }
+
+  @After
+  public void restoreDispatchTable() {
+    AnyEntityTestObserver.setActive(false);
+    dispatcher.setEnabled(wasEnabled);
+  }
+
+  @Test
+  public void entityWithoutObserversIsSkipped() {
+    long skippedEvents = dispatcher.getSkippedEvents();
+    long dispatchedEvents = dispatcher.getDispatchedEvents();
+
+    boolean stateUpdated = sendNewEvent(OBProvider.getInstance().get(Currency.class));
+
+    assertThat("State updated", stateUpdated, is(false));
+    assertThat("Skipped events", dispatcher.getSkippedEvents(), is(skippedEvents + 1));
+    assertThat("Dispatched events", dispatcher.getDispatchedEvents(), is(dispatchedEvents));
+  }
+
+  @Test
+  public void widenedObserverReceivesEvents() {
+    long dispatchedEvents = dispatcher.getDispatchedEvents();
+
+    sendNewEvent(OBProvider.getInstance().get(UOM.class));
+
+    assertThat("Observer executions", UOMTestObserver.getNumberOfExecutions(), is(1));
+    assertThat("Dispatched events", dispatcher.getDispatchedEvents(), is(dispatchedEvents + 1));
+  }
+
+  @Test
+  public void observerNotExtendingEntityPersistenceEventObserverReceivesEveryEntity() {
+    sendDeleteEvent(OBProvider.getInstance().get(Currency.class));
+    sendDeleteEvent(OBProvider.getInstance().get(UOM.class));
+
+    assertThat("Deleted entities", AnyEntityTestObserver.getDeletedEntities(),
+        contains(Currency.ENTITY_NAME, UOM.ENTITY_NAME));
+  }
+
+  @Test
+  public void stateUpdatedIsPropagatedToTheInterceptor() {
+    UOM uom = OBProvider.getInstance().get(UOM.class);
+    String[] propertyNames = getPropertyNames(uom);
+    Object[] state = new Object[propertyNames.length];
+
+    boolean stateUpdated = interceptor.onSave(uom, null, state, propertyNames,
+        new Type[propertyNames.length]);
+
+    assertThat("State updated", stateUpdated, is(true));
+    assertThat("Forced name", state[Arrays.asList(propertyNames).indexOf(UOM.PROPERTY_NAME)],
+        equalTo(UOMTestObserver.FORCED_NAME));
+  }
+
+  private boolean sendNewEvent(BaseOBObject bob) {
+    String[] propertyNames = getPropertyNames(bob);
+    return interceptor.onSave(bob, null, new Object[propertyNames.length], propertyNames,
+        new Type[propertyNames.length]);
+  }
+
+  private void sendDeleteEvent(BaseOBObject bob) {
+    String[] propertyNames = getPropertyNames(bob);
+    interceptor.onDelete(bob, null, new Object[propertyNames.length], propertyNames,
+        new Type[propertyNames.length]);
+  }
+
+  private String[] getPropertyNames(BaseOBObject bob) {
+    return bob.getEntity()
+        .getProperties()
+        .stream()
+        .filter(property -> !property.isOneToMany())
+        .map(Property::getName)
+        .toArray(String[]::new);
+  }
+}
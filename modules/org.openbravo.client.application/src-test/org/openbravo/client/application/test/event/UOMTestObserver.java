@@ -0,0 +1,71 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html 
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.test.event;
+
+import javax.enterprise.event.Observes;
+
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.client.kernel.event.EntityNewEvent;
+import org.openbravo.client.kernel.event.EntityPersistenceEvent;
+import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
+import org.openbravo.model.common.uom.UOM;
+
+/**
+ * Test persistence observer used by {@link PersistenceEventDispatcherTest}. It does not declare any
+ * observed entity but widens {@link #observesEntity(Entity)} to observe the UOM entity, forcing the
+ * name of the new units of measure.
+ */
+public class UOMTestObserver extends EntityPersistenceEventObserver {
+  static final String FORCED_NAME = "test name";
+  private static Entity[] entities = {};
+  private static int executionCount = 0;
+
+  public void onNew(@Observes EntityNewEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    final Entity uom = ModelProvider.getInstance().getEntity(UOM.ENTITY_NAME);
+    event.setCurrentState(uom.getProperty(UOM.PROPERTY_NAME), FORCED_NAME);
+    executionCount++;
+  }
+
+  @Override
+  protected Entity[] getObservedEntities() {
+    return entities;
+  }
+
+  @Override
+  protected boolean observesEntity(Entity entity) {
+    return UOM.ENTITY_NAME.equals(entity.getName());
+  }
+
+  @Override
+  protected boolean isValidEvent(EntityPersistenceEvent event) {
+    return event.getTargetInstance() instanceof UOM;
+  }
+
+  static void resetExecutionCount() {
+    executionCount = 0;
+  }
+
+  static int getNumberOfExecutions() {
+    return executionCount;
+  }
+}
@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2023 Openbravo SLU
+ * All portions are Copyright (C) 2023-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -20,6 +20,7 @@ package org.openbravo.client.application.event;
 
 import javax.enterprise.event.Observes;
 
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.openbravo.base.GridConfigurationCache;
 import org.openbravo.base.model.Entity;
 import org.openbravo.base.model.ModelProvider;
@@ -28,37 +29,56 @@ import org.openbravo.client.kernel.event.EntityDeleteEvent;
 import org.openbravo.client.kernel.event.EntityNewEvent;
 import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
 import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionBeginEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
 
 /**
- * Invalidates the System Grid Configuration cache when this table changes to update its value
+ * Invalidates the System Grid Configuration cache when this table changes to update its value. The
+ * cache is invalidated once the transaction is committed, so it is not loaded again with the
+ * previous configuration, neither in this node nor in the rest of the cluster.
  */
 public class GCSystemHandler extends EntityPersistenceEventObserver {
   private static Entity[] entities = {
       ModelProvider.getInstance().getEntity(GCSystem.ENTITY_NAME) };
+  private static ThreadLocal<Boolean> changed = new ThreadLocal<>();
 
   @Override
   protected Entity[] getObservedEntities() {
     return entities;
   }
 
+  public void onTransactionBegin(@Observes TransactionBeginEvent event) {
+    changed.remove();
+  }
+
   public void onUpdate(@Observes EntityUpdateEvent event) {
     if (!isValidEvent(event)) {
       return;
     }
-    GridConfigurationCache.getInstance().clearSystemGridConfiguration();
+    changed.set(true);
   }
 
   public void onNew(@Observes EntityNewEvent event) {
     if (!isValidEvent(event)) {
       return;
     }
-    GridConfigurationCache.getInstance().clearSystemGridConfiguration();
+    changed.set(true);
   }
 
   public void onDelete(@Observes EntityDeleteEvent event) {
     if (!isValidEvent(event)) {
       return;
     }
+    changed.set(true);
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    Boolean systemConfigChanged = changed.get();
+    changed.remove();
+    if (systemConfigChanged == null
+        || event.getTransaction().getStatus() == TransactionStatus.ROLLED_BACK) {
+      return;
+    }
     GridConfigurationCache.getInstance().clearSystemGridConfiguration();
   }
 }
@@ -11,41 +11,66 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2023 Openbravo SLU
+ * All portions are Copyright (C) 2023-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
  */
 package org.openbravo.client.application.event;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import javax.enterprise.event.Observes;
 
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.openbravo.base.GridConfigurationCache;
 import org.openbravo.base.model.Entity;
 import org.openbravo.base.model.ModelProvider;
 import org.openbravo.client.application.GCTab;
 import org.openbravo.client.kernel.event.EntityDeleteEvent;
+import org.openbravo.client.kernel.event.EntityNewEvent;
 import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
 import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionBeginEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
+import org.openbravo.model.ad.ui.Tab;
 
 /**
  * Invalidates the Tab Grid Configuration cache when this table changes for a cached tab to update
- * its value
+ * its value. The tabs are invalidated once the transaction is committed, so the cache is not
+ * loaded again with the previous configuration, neither in this node nor in the rest of the
+ * cluster.
  */
 public class GCTabHandler extends EntityPersistenceEventObserver {
   private static Entity[] entities = { ModelProvider.getInstance().getEntity(GCTab.ENTITY_NAME) };
+  private static ThreadLocal<Set<String>> changedTabs = new ThreadLocal<>();
 
   @Override
   protected Entity[] getObservedEntities() {
     return entities;
   }
 
+  public void onTransactionBegin(@Observes TransactionBeginEvent event) {
+    changedTabs.remove();
+  }
+
   public void onUpdate(@Observes EntityUpdateEvent event) {
     if (!isValidEvent(event)) {
       return;
     }
     GCTab tabConfig = (GCTab) event.getTargetInstance();
-    GridConfigurationCache.getInstance().clearTabGridConfiguration(tabConfig.getTab().getId());
+    addChangedTab(tabConfig.getTab());
+    // the configuration could have been moved from another tab
+    addChangedTab((Tab) event.getPreviousState(entities[0].getProperty(GCTab.PROPERTY_TAB)));
+  }
+
+  public void onNew(@Observes EntityNewEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    GCTab tabConfig = (GCTab) event.getTargetInstance();
+    addChangedTab(tabConfig.getTab());
   }
 
   public void onDelete(@Observes EntityDeleteEvent event) {
@@ -53,6 +78,29 @@ public class GCTabHandler extends EntityPersistenceEventObserver {
       return;
     }
     GCTab tabConfig = (GCTab) event.getTargetInstance();
-    GridConfigurationCache.getInstance().clearTabGridConfiguration(tabConfig.getTab().getId());
+    addChangedTab(tabConfig.getTab());
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    Set<String> tabIds = changedTabs.get();
+    changedTabs.remove();
+    if (tabIds == null || event.getTransaction().getStatus() == TransactionStatus.ROLLED_BACK) {
+      return;
+    }
+    for (String tabId : tabIds) {
+      GridConfigurationCache.getInstance().clearTabGridConfiguration(tabId);
+    }
+  }
+
+  private void addChangedTab(Tab tab) {
+    if (tab == null) {
+      return;
+    }
+    Set<String> tabIds = changedTabs.get();
+    if (tabIds == null) {
+      tabIds = new HashSet<>();
+      changedTabs.set(tabIds);
+    }
+    tabIds.add(tab.getId());
   }
 }
@@ -22,6 +22,7 @@ package org.openbravo.client.application.event;
 import javax.enterprise.event.Observes;
 
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.openbravo.base.exception.OBException;
 import org.openbravo.base.model.Entity;
 import org.openbravo.base.model.ModelProvider;
@@ -29,6 +30,7 @@ import org.openbravo.base.model.Property;
 import org.openbravo.client.kernel.event.EntityNewEvent;
 import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
 import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
 import org.openbravo.dal.core.OBContext;
 import org.openbravo.dal.service.OBCriteria;
 import org.openbravo.dal.service.OBDal;
@@ -36,13 +38,16 @@ import org.openbravo.database.ConnectionProvider;
 import org.openbravo.erpCommon.utility.Utility;
 import org.openbravo.model.ad.datamodel.Table;
 import org.openbravo.model.ad.utility.TableTree;
+import org.openbravo.service.datasource.TreeAncestorIndex;
 import org.openbravo.service.db.DalConnectionProvider;
 
 /**
  * This event handler listen to events that are fired in the TableTree table. This table is used to
  * define trees for the Tables.
  * 
- * This event handler is in charge of ensuring that each table define at most one ADTree table
+ * This event handler is in charge of ensuring that each table define at most one ADTree table, and
+ * of discarding the trees of the table kept in the {@link TreeAncestorIndex} when their definition
+ * changes
  * 
  */
 class TableTreeEventHandler extends EntityPersistenceEventObserver {
@@ -65,6 +70,7 @@ class TableTreeEventHandler extends EntityPersistenceEventObserver {
     String treeStructureValue = (String) event.getCurrentState(treeStructureProperty);
     Table tableValue = (Table) event.getCurrentState(tableProperty);
     checkTreeStructure(tableValue, treeStructureValue, null);
+    TreeAncestorIndex.getInstance().treeChanged(tableValue.getId());
   }
 
   public void onUpdate(@Observes EntityUpdateEvent event) {
@@ -77,6 +83,16 @@ class TableTreeEventHandler extends EntityPersistenceEventObserver {
     String recordId = event.getId();
     Table tableValue = (Table) event.getCurrentState(tableProperty);
     checkTreeStructure(tableValue, treeStructureValue, recordId);
+    TreeAncestorIndex.getInstance().treeChanged(tableValue.getId());
+    Table previousTable = (Table) event.getPreviousState(tableProperty);
+    if (previousTable != null) {
+      TreeAncestorIndex.getInstance().treeChanged(previousTable.getId());
+    }
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    TreeAncestorIndex.getInstance()
+        .transactionCompleted(event.getTransaction().getStatus() != TransactionStatus.ROLLED_BACK);
   }
 
   /**
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
@@ -32,6 +33,7 @@ import org.apache.logging.log4j.Logger;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.openbravo.base.model.Entity;
 import org.openbravo.base.model.ModelProvider;
 import org.openbravo.base.model.Property;
@@ -39,19 +41,27 @@ import org.openbravo.base.structure.BaseOBObject;
 import org.openbravo.client.kernel.event.EntityDeleteEvent;
 import org.openbravo.client.kernel.event.EntityNewEvent;
 import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
+import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
 import org.openbravo.dal.core.OBContext;
 import org.openbravo.dal.service.OBCriteria;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.model.ad.datamodel.Table;
 import org.openbravo.model.ad.utility.TableTree;
+import org.openbravo.model.ad.utility.Tree;
+import org.openbravo.model.ad.utility.TreeNode;
 import org.openbravo.service.datasource.DataSourceService;
 import org.openbravo.service.datasource.DataSourceServiceProvider;
+import org.openbravo.service.datasource.TreeAncestorIndex;
 
 /**
  * This event handler listens to events that are fired in all the tables with the flag isTree
  * checked. When a record is created or deleted in one of these tables, the add or remove method of
  * the corresponding datasource is executed.
  * 
+ * It also discards the trees kept in the {@link TreeAncestorIndex} when their records are created,
+ * deleted or moved to another parent, including the changes in the nodes of the ADTrees.
+ * 
  */
 class TreeTablesEventHandler extends EntityPersistenceEventObserver {
 
@@ -77,6 +87,9 @@ class TreeTablesEventHandler extends EntityPersistenceEventObserver {
     if (!isValidEvent(event)) {
       return;
     }
+    if (treeChanged(event.getTargetInstance())) {
+      return;
+    }
     OBContext.setAdminMode(true);
     try {
       BaseOBObject bob = event.getTargetInstance();
@@ -93,10 +106,34 @@ class TreeTablesEventHandler extends EntityPersistenceEventObserver {
     }
   }
 
+  public void onUpdate(@Observes EntityUpdateEvent event) {
+    if (!isValidEvent(event) || !TreeAncestorIndex.getInstance().isEnabled()) {
+      return;
+    }
+    BaseOBObject bob = event.getTargetInstance();
+    if (bob instanceof TreeNode) {
+      treeChanged(bob);
+      return;
+    }
+    Entity entity = bob.getEntity();
+    for (String propertyName : TreeAncestorIndex.getInstance()
+        .getParentProperties(entity.getTableId())) {
+      Property parentProperty = entity.getProperty(propertyName);
+      if (!Objects.equals(getId(event.getPreviousState(parentProperty)),
+          getId(event.getCurrentState(parentProperty)))) {
+        TreeAncestorIndex.getInstance().treeChanged(entity.getTableId());
+        return;
+      }
+    }
+  }
+
   public void onDelete(@Observes EntityDeleteEvent event) {
     if (!isValidEvent(event)) {
       return;
     }
+    if (treeChanged(event.getTargetInstance())) {
+      return;
+    }
     OBContext.setAdminMode(true);
     try {
       BaseOBObject bob = event.getTargetInstance();
@@ -113,6 +150,33 @@ class TreeTablesEventHandler extends EntityPersistenceEventObserver {
     }
   }
 
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    TreeAncestorIndex.getInstance()
+        .transactionCompleted(event.getTransaction().getStatus() != TransactionStatus.ROLLED_BACK);
+  }
+
+  /**
+   * Marks the table of the record as changed in the {@link TreeAncestorIndex}
+   * 
+   * @return true if the record is an ADTree node, which does not need any other processing
+   */
+  private boolean treeChanged(BaseOBObject bob) {
+    TreeAncestorIndex index = TreeAncestorIndex.getInstance();
+    if (bob instanceof TreeNode) {
+      Tree tree = ((TreeNode) bob).getTree();
+      if (index.isEnabled() && tree != null && tree.getTable() != null) {
+        index.treeChanged(tree.getTable().getId());
+      }
+      return true;
+    }
+    index.treeChanged(bob.getEntity().getTableId());
+    return false;
+  }
+
+  private static Object getId(Object value) {
+    return value instanceof BaseOBObject ? ((BaseOBObject) value).getId() : value;
+  }
+
   private DataSourceService getDataSource(String tableId) {
     Table table = OBDal.getInstance().getProxy(Table.class, tableId);
     OBCriteria<TableTree> obq = OBDal.getInstance().createCriteria(TableTree.class);
@@ -173,6 +237,7 @@ class TreeTablesEventHandler extends EntityPersistenceEventObserver {
       for (Table treeTable : treeTableList) {
         entityArray.add(ModelProvider.getInstance().getEntityByTableId(treeTable.getId()));
       }
+      entityArray.add(ModelProvider.getInstance().getEntity(TreeNode.ENTITY_NAME));
       return entityArray.toArray(new Entity[entityArray.size()]);
     } finally {
       OBContext.restorePreviousMode();
@@ -64,6 +64,10 @@ public class DatabaseMessageRegistryPersistence implements MessageRegistryPersis
       persistedMessage.setContext(getContext(messageClientMsg));
       OBDal.getInstance().save(persistedMessage);
       OBDal.getInstance().flush();
+      if (MessageClientManager.isCursorDelivery()) {
+        // wakes up the message client managers of the cluster once the message is committed
+        MessageClientNotificationListener.notifyNewMessage();
+      }
     } finally {
       OBContext.restorePreviousMode();
     }
@@ -71,7 +75,13 @@ public class DatabaseMessageRegistryPersistence implements MessageRegistryPersis
 
   @Override
   public List<MessageClientMsg> getPendingMessages() {
-    List<PersistedMessage> persistedMsgs = getPendingPersistedMessages();
+    List<PersistedMessage> persistedMsgs = getPendingPersistedMessages(null);
+    return mapPersistedMessageToMessageClientMsg(persistedMsgs);
+  }
+
+  @Override
+  public List<MessageClientMsg> getPendingMessages(Date createdAfter) {
+    List<PersistedMessage> persistedMsgs = getPendingPersistedMessages(createdAfter);
     return mapPersistedMessageToMessageClientMsg(persistedMsgs);
   }
 
@@ -80,7 +90,7 @@ public class DatabaseMessageRegistryPersistence implements MessageRegistryPersis
     return contextJson.toString();
   }
 
-  private List<PersistedMessage> getPendingPersistedMessages() {
+  private List<PersistedMessage> getPendingPersistedMessages(Date createdAfter) {
     List<PersistedMessage> persistedMsgs = new ArrayList<>();
     try {
       OBContext.setAdminMode();
@@ -90,6 +100,9 @@ public class DatabaseMessageRegistryPersistence implements MessageRegistryPersis
       criteria.setFilterOnReadableClients(false);
       criteria.setFilterOnActive(true);
       criteria.add(Restrictions.ge(PersistedMessage.PROPERTY_EXPIRATIONDATE, new Date()));
+      if (createdAfter != null) {
+        criteria.add(Restrictions.gt(PersistedMessage.PROPERTY_CREATIONDATE, createdAfter));
+      }
       criteria.addOrder(Order.asc(PersistedMessage.PROPERTY_CREATIONDATE));
       persistedMsgs = criteria.list();
     } finally {
@@ -100,22 +113,34 @@ public class DatabaseMessageRegistryPersistence implements MessageRegistryPersis
 
   private List<MessageClientMsg> mapPersistedMessageToMessageClientMsg(
       List<PersistedMessage> persistedMsgs) {
-    return persistedMsgs.stream().map(msg -> {
-      try {
-        JSONObject contextJson = new JSONObject(msg.getContext());
-        Map<String, String> mappedContext = jsonToStringMap(contextJson);
-        return new MessageClientMsg(msg.getId(), msg.getType(), mappedContext, msg.getPayload(),
-            msg.getExpirationdate(), msg.getCreationDate());
-      } catch (JSONException e) {
-        log.error(
-            "Failed to extract context from PersistedMessage with ID ({}). Skipping the message, it must be fixed.",
-            msg.getId(), e);
-        return null;
-      }
-    }).filter(Objects::nonNull).collect(Collectors.toList());
+    return persistedMsgs.stream()
+        .map(DatabaseMessageRegistryPersistence::toMessageClientMsg)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Maps a PersistedMessage into a MessageClientMsg
+   *
+   * @param msg
+   *          The persisted message
+   * @return the MessageClientMsg or null if the context of the persisted message is not valid
+   */
+  static MessageClientMsg toMessageClientMsg(PersistedMessage msg) {
+    try {
+      JSONObject contextJson = new JSONObject(msg.getContext());
+      Map<String, String> mappedContext = jsonToStringMap(contextJson);
+      return new MessageClientMsg(msg.getId(), msg.getType(), mappedContext, msg.getPayload(),
+          msg.getExpirationdate(), msg.getCreationDate());
+    } catch (JSONException e) {
+      log.error(
+          "Failed to extract context from PersistedMessage with ID ({}). Skipping the message, it must be fixed.",
+          msg.getId(), e);
+      return null;
+    }
   }
 
-  private Map<String, String> jsonToStringMap(JSONObject json) throws JSONException {
+  private static Map<String, String> jsonToStringMap(JSONObject json) throws JSONException {
     Map<String, String> result = new HashMap<>();
     Iterator<?> keys = json.keys();
     while (json.keys().hasNext()) {
@@ -37,7 +37,8 @@ public class MessageClientConnectionHandler {
   private static final Logger log = LogManager.getLogger();
 
   /**
-   * Handles connection establishment by registering the message client
+   * Handles connection establishment by registering the message client and sending it the pending
+   * messages
    * 
    * @param messageClient
    *          Message Client to be registered
@@ -45,7 +46,11 @@ public class MessageClientConnectionHandler {
    *         the connection should be closed by the caller.
    */
   static boolean connectionEstablished(MessageClient messageClient) {
-    return MessageClientRegistry.getInstance().registerClient(messageClient);
+    boolean registered = MessageClientRegistry.getInstance().registerClient(messageClient);
+    if (registered) {
+      MessageClientManager.getInstance().clientConnected(messageClient);
+    }
+    return registered;
   }
 
   /**
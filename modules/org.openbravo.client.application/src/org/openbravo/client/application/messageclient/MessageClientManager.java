@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2024 Openbravo SLU
+ * All portions are Copyright (C) 2024-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -22,26 +22,58 @@ import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.base.weld.WeldUtils;
+import org.openbravo.cache.CacheInvalidationBus;
+import org.openbravo.cache.CacheInvalidationListener;
 import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
 import org.openbravo.erpCommon.businessUtility.Preferences;
 import org.openbravo.erpCommon.utility.PropertyException;
+import org.openbravo.jmx.MBeanRegistry;
 
 /**
- * Class that manages a MessageClientManagerThread that regularly checks for pending messages and
- * sends them to their corresponding recipients
+ * Class that manages a MessageClientManagerThread that sends the pending messages to their
+ * corresponding recipients.
+ *
+ * By default the thread regularly reads all the pending messages. If the
+ * messageclient.cursor.delivery property is enabled, the thread keeps a cursor with the creation
+ * date of the last message read and only reads the messages created after it. In this mode the
+ * thread waits until it is woken up: the messages committed in this node are pushed directly to
+ * it, the rest of the nodes are notified through the database notifications (PostgreSQL) or the
+ * {@link CacheInvalidationBus}. All the pending messages are still read periodically, as a safety
+ * net for the messages whose transactions were committed after the cursor moved past their creation
+ * date.
  */
-public class MessageClientManager {
+public class MessageClientManager implements MessageClientManagerMBean {
   public static final String MESSAGE_MANAGER_ENABLED_PREFERENCE = "OBUIAPP_Enable_Message_Manager";
   private static final Logger log = LogManager.getLogger();
   private static final long WAITING_TIME_FOR_POLLING = MessageClientUtils
       .getOBProperty("messageclient.wait.time", 10000, 5000);
+  private static final boolean CURSOR_DELIVERY = OBPropertiesProvider.getInstance()
+      .getBooleanProperty("messageclient.cursor.delivery");
+  // time read again before the cursor, to get the messages of the transactions committed after
+  // the ones which moved the cursor forward
+  private static final long CURSOR_OVERLAP = MessageClientUtils
+      .getOBProperty("messageclient.cursor.overlap", 5000, 0);
+  private static final String MBEAN_NAME = "MessageClientManager";
 
   private static MessageClientManager instance;
 
@@ -49,8 +81,18 @@ public class MessageClientManager {
   private boolean threadsStarted = false;
   private boolean isShutDown = false;
   private MessageClientManagerThread managerThread;
+  private MessageClientNotificationListener notificationListener;
   private ExecutorService executorService;
 
+  private final Queue<MessageClientMsg> pushedMessages = new ConcurrentLinkedQueue<>();
+  private final Queue<MessageClient> connectedClients = new ConcurrentLinkedQueue<>();
+  private final Semaphore wakeUps = new Semaphore(0);
+  private final AtomicBoolean readDatabase = new AtomicBoolean(true);
+
+  private final LongAdder deliveredMessages = new LongAdder();
+  private final LongAdder totalDeliveryLatency = new LongAdder();
+  private final LongAccumulator maxDeliveryLatency = new LongAccumulator(Long::max, 0);
+
   @Inject
   @Any
   private Instance<MessageHandler> messageHandlers;
@@ -62,6 +104,14 @@ public class MessageClientManager {
     return instance;
   }
 
+  /**
+   * @return true if the messages are delivered tracking a cursor, false if all the pending messages
+   *         are read periodically
+   */
+  static boolean isCursorDelivery() {
+    return CURSOR_DELIVERY;
+  }
+
   /**
    * Starts the MessageClientManager thread and its corresponding message registry
    */
@@ -76,15 +126,37 @@ public class MessageClientManager {
 
     threadsStarted = true;
 
-    log.info("Starting Message Client Manager");
+    log.info("Starting Message Client Manager, delivery mode: {}", getDeliveryMode());
 
     executorService = Executors.newCachedThreadPool();
 
     // create, start the manager thread
-    managerThread = new MessageClientManagerThread(this);
     messageRegistry = MessageRegistry.getInstance();
-    executorService.submit(managerThread);
+    managerThread = new MessageClientManagerThread(this, messageRegistry);
     isShutDown = false;
+    readDatabase.set(true);
+    executorService.submit(managerThread);
+
+    if (CURSOR_DELIVERY) {
+      if (MessageClientNotificationListener.isSupported()) {
+        notificationListener = new MessageClientNotificationListener(this);
+        executorService.submit(notificationListener);
+      } else {
+        CacheInvalidationBus.getInstance().register(MBEAN_NAME, new CacheInvalidationListener() {
+          @Override
+          public void invalidate(String key) {
+            wakeUp(true);
+          }
+
+          @Override
+          public void invalidateAll() {
+            wakeUp(true);
+          }
+        });
+      }
+    }
+
+    MBeanRegistry.registerMBean(MBEAN_NAME, this);
   }
 
   /**
@@ -98,6 +170,12 @@ public class MessageClientManager {
 
     isShutDown = true;
 
+    if (notificationListener != null) {
+      notificationListener.stop();
+    } else if (CURSOR_DELIVERY) {
+      CacheInvalidationBus.getInstance().unregister(MBEAN_NAME);
+    }
+
     if (executorService != null) {
       executorService.shutdownNow();
     }
@@ -105,15 +183,129 @@ public class MessageClientManager {
     executorService = null;
     threadsStarted = false;
     managerThread = null;
+    notificationListener = null;
     messageRegistry = null;
+    pushedMessages.clear();
+    connectedClients.clear();
+  }
+
+  /**
+   * Delivers the messages just committed in this node without waiting for the next read of the
+   * pending messages, and notifies the rest of the cluster nodes about them if the database
+   * notifications are not available. It has no effect unless the messages are delivered tracking a
+   * cursor.
+   *
+   * @param messages
+   *          Messages committed in the current transaction
+   */
+  void messagesCommitted(List<MessageClientMsg> messages) {
+    if (!CURSOR_DELIVERY || messages.isEmpty()) {
+      return;
+    }
+    if (!MessageClientNotificationListener.isSupported()) {
+      CacheInvalidationBus.getInstance().publish(MBEAN_NAME, null);
+    }
+    if (!threadsStarted) {
+      return;
+    }
+    pushedMessages.addAll(messages);
+    wakeUp(false);
+  }
+
+  /**
+   * Sends the pending messages to a message client which has just connected. When the messages are
+   * delivered tracking a cursor, the already read messages are not sent again to the new clients
+   * by the manager thread.
+   *
+   * @param messageClient
+   *          The message client which has just been registered
+   */
+  void clientConnected(MessageClient messageClient) {
+    if (!CURSOR_DELIVERY || !threadsStarted) {
+      return;
+    }
+    connectedClients.add(messageClient);
+    wakeUp(false);
+  }
+
+  /**
+   * Wakes up the manager thread if it is waiting for new messages.
+   *
+   * @param readPendingMessages
+   *          true if the pending messages should be read, false if it should only deliver the
+   *          messages pushed to it
+   */
+  void wakeUp(boolean readPendingMessages) {
+    if (readPendingMessages) {
+      readDatabase.set(true);
+    }
+    wakeUps.release();
+  }
+
+  @Override
+  public String getDeliveryMode() {
+    return CURSOR_DELIVERY ? "cursor" : "poll";
+  }
+
+  @Override
+  public boolean isListeningDatabaseNotifications() {
+    return notificationListener != null && notificationListener.isListening();
+  }
+
+  @Override
+  public int getQueuedMessages() {
+    return pushedMessages.size();
+  }
+
+  @Override
+  public long getDeliveredMessages() {
+    return deliveredMessages.sum();
+  }
+
+  @Override
+  public long getAverageDeliveryLatency() {
+    long delivered = deliveredMessages.sum();
+    return delivered == 0 ? 0 : totalDeliveryLatency.sum() / delivered;
+  }
+
+  @Override
+  public long getMaxDeliveryLatency() {
+    return maxDeliveryLatency.get();
+  }
+
+  @Override
+  public void resetStatistics() {
+    deliveredMessages.reset();
+    totalDeliveryLatency.reset();
+    maxDeliveryLatency.reset();
+  }
+
+  @Override
+  public void notifyNewMessages() {
+    wakeUp(true);
+  }
+
+  private void recordDelivery(MessageClientMsg messageClientMsg) {
+    long latency = Math.max(0, System.currentTimeMillis()
+        - messageClientMsg.getCreationDate().getTime());
+    deliveredMessages.increment();
+    totalDeliveryLatency.add(latency);
+    maxDeliveryLatency.accumulate(latency);
   }
 
   static class MessageClientManagerThread implements Runnable {
 
     MessageClientManager manager;
+    private final MessageRegistry messageRegistry;
 
-    MessageClientManagerThread(MessageClientManager manager) {
+    // ids of the messages already delivered, they are kept until the messages are no longer pending
+    private final Set<String> deliveredMessageIds = new HashSet<>();
+    private Date cursor = new Date(System.currentTimeMillis() - CURSOR_OVERLAP);
+    private long lastFullRead = 0;
+
+    MessageClientManagerThread(MessageClientManager manager, MessageRegistry messageRegistry) {
       this.manager = manager;
+      this.messageRegistry = messageRegistry;
     }
 
     @Override
@@ -121,17 +313,19 @@ public class MessageClientManager {
       if (manager.isShutDown) {
         return;
       }
+      if (CURSOR_DELIVERY) {
+        runCursorDelivery();
+        return;
+      }
       while (true) {
         if (manager.isShutDown) {
           return;
         }
-        List<MessageClientMsg> pendingMessages = manager.messageRegistry.getPendingMessages();
+        List<MessageClientMsg> pendingMessages = messageRegistry.getPendingMessages();
         if (!pendingMessages.isEmpty()) {
           log.debug(
               "[Message Client] There are " + pendingMessages.size() + " pending to be sent.");
-          pendingMessages.forEach(message -> {
-            MessageClientBroadcaster.send(message, getMessageRecipients(message));
-          });
+          pendingMessages.forEach(this::deliver);
         }
         try {
           log.debug(
@@ -144,20 +338,125 @@ public class MessageClientManager {
       }
     }
 
+    private void runCursorDelivery() {
+      while (!manager.isShutDown) {
+        try {
+          sendPendingMessagesToConnectedClients();
+          deliverPushedMessages();
+          if (System.currentTimeMillis() - lastFullRead >= WAITING_TIME_FOR_POLLING) {
+            manager.readDatabase.set(false);
+            deliverAllPendingMessages();
+          } else if (manager.readDatabase.getAndSet(false)) {
+            deliverMessagesAfterCursor();
+          }
+        } catch (Exception e) {
+          log.error("Error delivering messages, trying again in {} ms", WAITING_TIME_FOR_POLLING,
+              e);
+        } finally {
+          OBDal.getInstance().commitAndClose();
+        }
+        try {
+          manager.wakeUps.tryAcquire(WAITING_TIME_FOR_POLLING, TimeUnit.MILLISECONDS);
+          // several wake ups are handled at once
+          manager.wakeUps.drainPermits();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+
+    private void sendPendingMessagesToConnectedClients() {
+      if (manager.connectedClients.isEmpty()) {
+        return;
+      }
+      List<MessageClientMsg> pendingMessages = messageRegistry.getPendingMessages();
+      MessageClient messageClient;
+      while ((messageClient = manager.connectedClients.poll()) != null) {
+        for (MessageClientMsg message : pendingMessages) {
+          MessageHandler messageHandler = getMessageHandler(message);
+          if (messageHandler != null && messageHandler.isRecipient(message, messageClient)) {
+            MessageClientBroadcaster.send(message, List.of(messageClient));
+          }
+        }
+      }
+    }
+
+    private void deliverPushedMessages() {
+      MessageClientMsg message;
+      while ((message = manager.pushedMessages.poll()) != null) {
+        if (deliveredMessageIds.add(message.getId())) {
+          deliver(message);
+        }
+      }
+    }
+
+    void deliverMessagesAfterCursor() {
+      Date readFrom = new Date(cursor.getTime() - CURSOR_OVERLAP);
+      List<MessageClientMsg> messages = messageRegistry.getPendingMessages(readFrom);
+      log.debug("[Message Client] {} messages read after {}", messages.size(), readFrom);
+      for (MessageClientMsg message : messages) {
+        deliverOnce(message);
+      }
+    }
+
+    /**
+     * Reads all the pending messages, delivering those not delivered yet. This is done periodically
+     * because a message whose transaction is committed once the cursor overlap has passed its
+     * creation date is never read after the cursor.
+     */
+    void deliverAllPendingMessages() {
+      lastFullRead = System.currentTimeMillis();
+      List<MessageClientMsg> messages = messageRegistry.getPendingMessages();
+      log.debug("[Message Client] {} pending messages read", messages.size());
+      for (MessageClientMsg message : messages) {
+        deliverOnce(message);
+      }
+      // the messages which are no longer pending cannot be read again
+      deliveredMessageIds.retainAll(
+          messages.stream().map(MessageClientMsg::getId).collect(Collectors.toSet()));
+    }
+
+    private void deliverOnce(MessageClientMsg message) {
+      if (deliveredMessageIds.add(message.getId())) {
+        deliver(message);
+      }
+      if (message.getCreationDate().after(cursor)) {
+        cursor = message.getCreationDate();
+      }
+    }
+
+    void deliver(MessageClientMsg message) {
+      List<MessageClient> recipients = getMessageRecipients(message);
+      if (recipients.isEmpty()) {
+        return;
+      }
+      MessageClientBroadcaster.send(message, recipients);
+      manager.recordDelivery(message);
+    }
+
     List<MessageClient> getMessageRecipients(MessageClientMsg messageClientMsg) {
+      MessageHandler messageHandler = getMessageHandler(messageClientMsg);
+      if (messageHandler == null) {
+        return Collections.emptyList();
+      }
+      return messageHandler.getRecipients(messageClientMsg);
+    }
+
+    private MessageHandler getMessageHandler(MessageClientMsg messageClientMsg) {
       Instance<MessageHandler> messageHandler = manager.messageHandlers
           .select(new MessageHandler.Selector(messageClientMsg.getTopic()));
       if (messageHandler.isUnsatisfied()) {
         log.warn("No available message handler for type: " + messageClientMsg.getTopic());
-        return Collections.emptyList();
+        return null;
       }
       if (messageHandler.isAmbiguous()) {
         log.error(
             "There are several message handlers for type {}. This is not supported, others must be removed. The message will not be handled.",
             messageClientMsg.getTopic());
-        return Collections.emptyList();
+        return null;
       }
-      return messageHandler.get().getRecipients(messageClientMsg);
+      return messageHandler.get();
     }
   }
 
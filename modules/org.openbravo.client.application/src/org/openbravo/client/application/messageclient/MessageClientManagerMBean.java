@@ -0,0 +1,59 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.client.application.messageclient;
+
+/** Exposes {@link MessageClientManager} as a JMX Bean to monitor the delivery of messages. */
+public interface MessageClientManagerMBean {
+
+  /**
+   * Returns the delivery mode of the MessageClientManager: "cursor" if only the messages created
+   * after the last ones read are retrieved, being woken up when new messages are committed, or
+   * "poll" if all the pending messages are read periodically.
+   */
+  String getDeliveryMode();
+
+  /**
+   * Returns true if the manager is woken up by the database notifications sent when a message is
+   * persisted in any node of the cluster.
+   */
+  boolean isListeningDatabaseNotifications();
+
+  /** Returns the number of messages committed in this node which are waiting to be delivered. */
+  int getQueuedMessages();
+
+  /** Returns the number of messages delivered to at least one recipient. */
+  long getDeliveredMessages();
+
+  /**
+   * Returns the average time in milliseconds from the creation of a message until it is delivered.
+   */
+  long getAverageDeliveryLatency();
+
+  /**
+   * Returns the maximum time in milliseconds from the creation of a message until it is delivered.
+   */
+  long getMaxDeliveryLatency();
+
+  /** Resets the delivery statistics. */
+  void resetStatistics();
+
+  /** Forces the MessageClientManager to read the pending messages if it was waiting idle. */
+  void notifyNewMessages();
+}
@@ -0,0 +1,148 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.client.application.messageclient;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.base.session.SessionFactoryController;
+import org.openbravo.dal.service.OBDal;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Wakes up the {@link MessageClientManager} as soon as a message is persisted in any node of the
+ * cluster, using the LISTEN/NOTIFY mechanism of PostgreSQL. The notification is sent within the
+ * transaction that persists the message, so it is only received once the message is committed.
+ *
+ * The listener keeps a connection of the pool while it is running. If the connection is lost, it
+ * is opened again after a while, in the meantime the manager falls back to polling.
+ */
+class MessageClientNotificationListener implements Runnable {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final String CHANNEL = "obuiapp_message_client";
+  private static final int NOTIFICATION_TIMEOUT = 5000;
+  private static final long RETRY_WAITING_TIME = 30000;
+
+  private final MessageClientManager manager;
+  private volatile boolean listening = false;
+  private volatile boolean stopped = false;
+
+  MessageClientNotificationListener(MessageClientManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * @return true if the database supports the notifications, false otherwise
+   */
+  static boolean isSupported() {
+    return "POSTGRE".equals(
+        OBPropertiesProvider.getInstance().getOpenbravoProperties().getProperty("bbdd.rdbms"));
+  }
+
+  /**
+   * Notifies the listeners of all the nodes that a new message has been persisted. It must be
+   * invoked within the transaction that persists the message.
+   */
+  static void notifyNewMessage() {
+    if (!isSupported()) {
+      return;
+    }
+    try (PreparedStatement ps = OBDal.getInstance()
+        .getConnection(false)
+        .prepareStatement("SELECT pg_notify(?, '')")) {
+      ps.setString(1, CHANNEL);
+      ps.execute();
+    } catch (SQLException e) {
+      log.warn("Could not notify the new message to the Message Client Managers", e);
+    }
+  }
+
+  boolean isListening() {
+    return listening;
+  }
+
+  void stop() {
+    stopped = true;
+  }
+
+  @Override
+  public void run() {
+    while (!stopped) {
+      try {
+        listen();
+      } catch (Exception e) {
+        if (stopped) {
+          return;
+        }
+        log.warn("Stopped listening to new message notifications, trying again in {} ms",
+            RETRY_WAITING_TIME, e);
+      }
+      try {
+        Thread.sleep(RETRY_WAITING_TIME);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void listen() throws SQLException {
+    ConnectionProvider connectionProvider = SessionFactoryController.getInstance()
+        .getSessionFactory()
+        .getSessionFactoryOptions()
+        .getServiceRegistry()
+        .getService(ConnectionProvider.class);
+    Connection connection = connectionProvider.getConnection();
+    boolean autoCommit = connection.getAutoCommit();
+    try {
+      // notifications are only received outside of transactions
+      connection.setAutoCommit(true);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + CHANNEL);
+      }
+      PGConnection pgConnection = connection.unwrap(PGConnection.class);
+      listening = true;
+      log.debug("Listening to new message notifications");
+      // read the messages that could be persisted while not listening
+      manager.wakeUp(true);
+      while (!stopped) {
+        PGNotification[] notifications = pgConnection.getNotifications(NOTIFICATION_TIMEOUT);
+        if (notifications != null && notifications.length > 0) {
+          manager.wakeUp(true);
+        }
+      }
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("UNLISTEN " + CHANNEL);
+      }
+    } finally {
+      listening = false;
+      connection.setAutoCommit(autoCommit);
+      connectionProvider.closeConnection(connection);
+    }
+  }
+}
@@ -47,20 +47,45 @@ public abstract class MessageHandler {
         .getRegisteredClientsOfClientId(clientId);
 
     // Filters those connectedClients who already received the message
-    List<MessageClient> relevantClients = connectedClients.stream().filter(messageClient -> {
-      if (!messageClient.getSubscribedTopics().contains(messageClientMsg.getTopic())) {
-        // Filter non-subscribed-for topics
-        return false;
-      }
-      if (messageClient.getTimestampLastMsgSent() == null) {
-        return true;
-      }
-      return messageClient.getTimestampLastMsgSent().before(messageClientMsg.getCreationDate());
-    }).collect(Collectors.toList());
+    List<MessageClient> relevantClients = connectedClients.stream()
+        .filter(messageClient -> isPendingFor(messageClientMsg, messageClient))
+        .collect(Collectors.toList());
 
     return getRecipients(messageClientMsg, relevantClients);
   }
 
+  /**
+   * Returns if the message should be sent to a single message client, applying the same filters
+   * used by {@link #getRecipients(MessageClientMsg)}
+   *
+   * @param messageClientMsg
+   *          Message to be sent
+   * @param messageClient
+   *          Message client to be checked
+   * @return true if the message client should receive the message, false otherwise
+   */
+  final boolean isRecipient(MessageClientMsg messageClientMsg, MessageClient messageClient) {
+    String clientId = messageClientMsg.getContext().get("client");
+    if (clientId != null && !"0".equals(clientId)
+        && !clientId.equals(messageClient.getClientId())) {
+      return false;
+    }
+    return isPendingFor(messageClientMsg, messageClient)
+        && isValidRecipient(messageClientMsg, messageClient);
+  }
+
+  private static boolean isPendingFor(MessageClientMsg messageClientMsg,
+      MessageClient messageClient) {
+    if (!messageClient.getSubscribedTopics().contains(messageClientMsg.getTopic())) {
+      // Filter non-subscribed-for topics
+      return false;
+    }
+    if (messageClient.getTimestampLastMsgSent() == null) {
+      return true;
+    }
+    return messageClient.getTimestampLastMsgSent().before(messageClientMsg.getCreationDate());
+  }
+
   /**
    * Defines if a message client is allowed to subscribe to the current MessageHandler topic, each
    * message handler must implement this method and define rules to identify when a message client
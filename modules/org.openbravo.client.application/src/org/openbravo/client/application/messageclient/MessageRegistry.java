@@ -21,6 +21,7 @@ package org.openbravo.client.application.messageclient;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -78,6 +79,21 @@ public class MessageRegistry {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Returns the list of messages pending to be sent which were created after the given date, it
+   * must exclude expired messages.
+   *
+   * @param createdAfter
+   *          Only the messages created after this date are returned
+   * @return non-expired messages created after the given date
+   */
+  public List<MessageClientMsg> getPendingMessages(Date createdAfter) {
+    List<MessageClientMsg> messages = messageRegistryPersistence.getPendingMessages(createdAfter);
+    return messages.stream()
+        .filter(this::checkMessageHandlerExistsForType)
+        .collect(Collectors.toList());
+  }
+
   private boolean checkMessageHandlerExistsForType(MessageClientMsg messageClientMsg) {
     Instance<MessageHandler> messageHandler = messageHandlers
         .select(new MessageHandler.Selector(messageClientMsg.getTopic()));
@@ -18,7 +18,9 @@
  */
 package org.openbravo.client.application.messageclient;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Interface that defines the methods that a Message persistence layer must implement to properly
@@ -40,4 +42,19 @@ public interface MessageRegistryPersistence {
    * @return Non-expired MessageClientMsg to be sent
    */
   List<MessageClientMsg> getPendingMessages();
+
+  /**
+   * Returns the pending messages created after the given date, excluding the expired ones. It is
+   * used to read only the messages not seen yet when the messages are delivered tracking a cursor,
+   * so implementations should override it to avoid reading all the pending messages.
+   *
+   * @param createdAfter
+   *          Only the messages created after this date are returned
+   * @return Non-expired MessageClientMsg created after the given date, sorted by creation date
+   */
+  default List<MessageClientMsg> getPendingMessages(Date createdAfter) {
+    return getPendingMessages().stream()
+        .filter(msg -> msg.getCreationDate().after(createdAfter))
+        .collect(Collectors.toList());
+  }
 }
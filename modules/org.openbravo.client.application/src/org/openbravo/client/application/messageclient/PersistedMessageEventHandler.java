@@ -0,0 +1,80 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.messageclient;
+
+import javax.enterprise.event.Observes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.client.kernel.event.EntityNewEvent;
+import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
+import org.openbravo.client.kernel.event.TransactionBeginEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
+import org.openbravo.model.ad.utility.PersistedMessage;
+
+/**
+ * Pushes the messages persisted in a transaction to the MessageClientManager once the transaction
+ * is committed, so they are delivered without waiting for the next read of the pending messages.
+ * It is only used when the messages are delivered tracking a cursor.
+ */
+public class PersistedMessageEventHandler extends EntityPersistenceEventObserver {
+
+  private static final Entity[] ENTITIES = {
+      ModelProvider.getInstance().getEntity(PersistedMessage.ENTITY_NAME) };
+  private static ThreadLocal<List<PersistedMessage>> newMessages = new ThreadLocal<>();
+
+  @Override
+  protected Entity[] getObservedEntities() {
+    return ENTITIES;
+  }
+
+  public void onTransactionBegin(@Observes TransactionBeginEvent event) {
+    newMessages.remove();
+  }
+
+  public void onSave(@Observes EntityNewEvent event) {
+    if (!isValidEvent(event) || !MessageClientManager.isCursorDelivery()) {
+      return;
+    }
+    List<PersistedMessage> messages = newMessages.get();
+    if (messages == null) {
+      messages = new ArrayList<>();
+      newMessages.set(messages);
+    }
+    messages.add((PersistedMessage) event.getTargetInstance());
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    List<PersistedMessage> messages = newMessages.get();
+    newMessages.remove();
+    if (messages == null || event.getTransaction().getStatus() == TransactionStatus.ROLLED_BACK) {
+      return;
+    }
+    MessageClientManager.getInstance()
+        .messagesCommitted(messages.stream()
+            .map(DatabaseMessageRegistryPersistence::toMessageClientMsg)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
+  }
+}
@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2014-2023 Openbravo SLU 
+ * All portions are Copyright (C) 2014-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -26,8 +26,12 @@ import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.http.HttpSession;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -54,6 +58,7 @@ import org.openbravo.client.application.Parameter;
 import org.openbravo.client.application.Process;
 import org.openbravo.client.application.ReportDefinition;
 import org.openbravo.client.application.process.FileExportActionHandler;
+import org.openbravo.client.application.report.ReportExecutionService.Priority;
 import org.openbravo.client.application.report.ReportingUtils.ExportType;
 import org.openbravo.client.application.report.language.ReportLanguageHandler;
 import org.openbravo.client.kernel.KernelConstants;
@@ -68,6 +73,8 @@ import org.openbravo.erpCommon.utility.OBMessageUtils;
 import org.openbravo.userinterface.selector.reference.FKMultiSelectorUIDefinition;
 
 import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.j2ee.servlets.ImageServlet;
 
 /**
  * Action Handler used as base for jasper reports generated from process definition. This handler
@@ -193,7 +200,14 @@ public class BaseReportActionHandler extends FileExportActionHandler {
 
     log.debug("Report: {}. Start export JR process.", report.getId());
     long t1 = System.currentTimeMillis();
-    doJRExport(jrTemplatePath, expType, tmpFile, allParametersMap);
+    ReportOutputCache.Key cacheKey = getOutputCacheKey(report, jrTemplatePath, expType, parameters,
+        jrParams, jsonContent);
+    if (ReportOutputCache.getInstance().restore(cacheKey, tmpFile)) {
+      log.debug("Report: {}. Output restored from cache.", report.getId());
+      return tmpFile;
+    }
+    doJRExport(report.getProcessDefintion().getName(), jrTemplatePath, expType, tmpFile,
+        allParametersMap, cacheKey);
     log.debug("Report: {}. Finish export JR process. Elapsed time: {}", report.getId(),
         System.currentTimeMillis() - t1);
 
@@ -391,26 +405,152 @@ public class BaseReportActionHandler extends FileExportActionHandler {
     return true;
   }
 
-  private void doJRExport(String jrTemplatePath, ExportType expType, Path file,
-      Map<String, Object> parameters) {
-    ReportSemaphoreHandling.getInstance().acquire();
+  /**
+   * Returns the priority of the report in the queue of the {@link ReportExecutionService}. The
+   * reports requested through an HTTP request are interactive, the rest are generated by background
+   * processes. Override this method to change the priority of a report.
+   *
+   * @param parameters
+   *          Map including the parameters of the call.
+   * @return the priority of the report
+   */
+  protected Priority getExecutionPriority(Map<String, Object> parameters) {
+    return RequestContext.get().getRequest() == null ? Priority.BACKGROUND : Priority.INTERACTIVE;
+  }
+
+  /**
+   * Returns the documents shown by the report when its output only depends on them and on the
+   * parameters of the report, so it can be kept in the {@link ReportOutputCache} and reused until
+   * any of the documents is updated. Reports are not cached by default, override this method to
+   * enable the cache for a report. Note that the parameters sent to the report must be set before
+   * the report is generated, the ones added by {@link #getReportData(Map)} are not taken into
+   * account.
+   *
+   * @param report
+   *          the Report Definition.
+   * @param parameters
+   *          Map including the parameters of the call.
+   * @param jsonContent
+   *          JSONObject with the values set in the filter parameters.
+   * @return the documents shown by the report or null if its output must not be cached
+   */
+  protected List<BaseOBObject> getOutputCacheSourceDocuments(ReportDefinition report,
+      Map<String, Object> parameters, JSONObject jsonContent) {
+    return null;
+  }
+
+  private ReportOutputCache.Key getOutputCacheKey(ReportDefinition report, String jrTemplatePath,
+      ExportType expType, Map<String, Object> parameters, Map<String, Object> jrParams,
+      JSONObject jsonContent) {
+    // HTML reports point to images generated along with them
+    if (ExportType.HTML.equals(expType) || !ReportOutputCache.getInstance().isEnabled()) {
+      return null;
+    }
+    List<BaseOBObject> documents = getOutputCacheSourceDocuments(report, parameters, jsonContent);
+    if (documents == null) {
+      return null;
+    }
+    OBContext obContext = OBContext.getOBContext();
+    ReportOutputCache.Key key = ReportOutputCache
+        .newKey(jrTemplatePath, expType, obContext.getLanguage().getLanguage())
+        .with("class", getClass().getName())
+        .withAccess(obContext)
+        .withParameters(jrParams);
+    documents.forEach(key::withSourceDocument);
+    return key;
+  }
+
+  private void doJRExport(String reportName, String jrTemplatePath, ExportType expType, Path file,
+      Map<String, Object> parameters, ReportOutputCache.Key cacheKey) {
     @SuppressWarnings("unchecked")
     Map<String, Object> jrParameters = (Map<String, Object>) parameters
         .get(JASPER_REPORT_PARAMETERS);
     Map<Object, Object> localExportParameters = null;
+    if (ExportType.HTML.equals(expType)) {
+      // Define the parameter for the URI to display images properly
+      localExportParameters = new HashMap<Object, Object>();
+      final String localAddress = HttpBaseUtils
+          .getLocalAddress(RequestContext.get().getRequest());
+      localExportParameters.put(ReportingUtils.IMAGES_URI,
+          localAddress + "/servlets/image?image={0}");
+    }
+    final Map<Object, Object> exportParameters = localExportParameters;
+    // The report is generated in other thread, with its own DAL session: the entities are loaded
+    // again there and the HTTP session is only used by this request
+    final Map<String, Object> reportParameters = detachEntities(jrParameters);
+    final HttpSession session = (HttpSession) reportParameters.remove("HTTP_SESSION");
+    final AtomicReference<JasperPrint> htmlPrint = new AtomicReference<>();
+    ReportTicket ticket = ReportExecutionService.getInstance()
+        .submit(reportName, getExecutionPriority(parameters), reportTicket -> {
+          Map<String, Object> reportJRParameters = loadEntities(reportParameters);
+          Map<String, Object> allParameters = new HashMap<>(parameters);
+          allParameters.put(JASPER_REPORT_PARAMETERS, reportJRParameters);
+          ReportingUtils.exportJR(jrTemplatePath, expType, reportJRParameters, file.toFile(), true,
+              getReportConnectionProvider(), getReportData(allParameters), exportParameters,
+              jasperPrint -> {
+                reportTicket.filled();
+                if (ExportType.HTML.equals(expType)) {
+                  htmlPrint.set(jasperPrint);
+                }
+              });
+          ReportOutputCache.getInstance().store(cacheKey, file);
+          return file;
+        });
+    waitForReport(ticket);
+    if (session != null && htmlPrint.get() != null) {
+      session.setAttribute(ImageServlet.DEFAULT_JASPER_PRINT_SESSION_ATTRIBUTE, htmlPrint.get());
+    }
+  }
+
+  /**
+   * Returns a copy of the parameters of the report replacing its entities by their ids, which are
+   * loaded again by {@link #loadEntities(Map)} in the thread which generates the report.
+   */
+  private static Map<String, Object> detachEntities(Map<String, Object> jrParameters) {
+    Map<String, Object> detachedParameters = new HashMap<>(jrParameters.size());
+    jrParameters.forEach((name, value) -> detachedParameters.put(name,
+        value instanceof BaseOBObject ? new EntityId((BaseOBObject) value) : value));
+    return detachedParameters;
+  }
+
+  private static Map<String, Object> loadEntities(Map<String, Object> detachedParameters) {
+    Map<String, Object> loadedParameters = new HashMap<>(detachedParameters.size());
+    detachedParameters.forEach((name, value) -> loadedParameters.put(name,
+        value instanceof EntityId ? ((EntityId) value).load() : value));
+    return loadedParameters;
+  }
+
+  /** Identifies an entity sent as parameter of a report generated in other thread. */
+  private static class EntityId {
+    private final String entityName;
+    private final Object id;
+
+    private EntityId(BaseOBObject entity) {
+      entityName = entity.getEntityName();
+      id = entity.getId();
+    }
+
+    private BaseOBObject load() {
+      return OBDal.getInstance().get(entityName, id);
+    }
+  }
+
+  /**
+   * Waits until the report is generated, the request answers once the file is available as when it
+   * was generated in the same thread.
+   */
+  private void waitForReport(ReportTicket ticket) {
     try {
-      if (ExportType.HTML.equals(expType)) {
-        // Define the parameter for the URI to display images properly
-        localExportParameters = new HashMap<Object, Object>();
-        final String localAddress = HttpBaseUtils
-            .getLocalAddress(RequestContext.get().getRequest());
-        localExportParameters.put(ReportingUtils.IMAGES_URI,
-            localAddress + "/servlets/image?image={0}");
-      }
-      ReportingUtils.exportJR(jrTemplatePath, expType, jrParameters, file.toFile(), true,
-          getReportConnectionProvider(), getReportData(parameters), localExportParameters);
-    } finally {
-      ReportSemaphoreHandling.getInstance().release();
+      ticket.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OBException(e);
+    }
+    Throwable error = ticket.getError();
+    if (error instanceof RuntimeException) {
+      throw (RuntimeException) error;
+    } else if (error != null) {
+      throw new OBException(error);
     }
   }
 
@@ -0,0 +1,351 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.report;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.exception.OBException;
+import org.openbravo.base.provider.OBSingleton;
+import org.openbravo.base.secureApp.VariablesSecureApp;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.client.kernel.RequestContext;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.erpCommon.utility.OBMessageUtils;
+import org.openbravo.jmx.MBeanRegistry;
+import org.openbravo.service.importprocess.ImportEntryManager.DaemonThreadFactory;
+
+/**
+ * Generates reports asynchronously in a bounded pool of threads. The reports that cannot be
+ * generated immediately wait in a queue, where the interactive reports go before the background
+ * ones and the reports with the same priority are generated in the order they were submitted.
+ *
+ * The number of threads is defined by the OBUIAPP_MaxReportThreads System preference. Each thread
+ * acquires the {@link ReportSemaphoreHandling} before generating a report, so the reports generated
+ * by this service and the ones limited by the semaphore never exceed that number altogether. The
+ * size of the queue is defined by the report.queue.size property of Openbravo.properties (50 by
+ * default), a report is only rejected if the queue is full.
+ *
+ * Each submitted report gets a {@link ReportTicket} which can be used to wait for the report and
+ * to retrieve the file with its result.
+ */
+public class ReportExecutionService implements OBSingleton, ReportExecutionServiceMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "ReportExecutionService";
+
+  private static final int DEFAULT_MAX_QUEUE_SIZE = 50;
+
+  /** The priority of a report in the queue. */
+  public enum Priority {
+    /** Reports requested by a user who is waiting for them */
+    INTERACTIVE,
+    /** Reports generated by background processes */
+    BACKGROUND
+  }
+
+  /** Generates a report submitted to the service. */
+  @FunctionalInterface
+  public interface ReportGenerator {
+    /**
+     * Generates the report.
+     *
+     * @param ticket
+     *          the ticket of the report, where {@link ReportTicket#filled()} marks the end of its
+     *          filling to measure separately the time spent exporting it
+     * @return the file with the generated report
+     */
+    Path generate(ReportTicket ticket) throws Exception;
+  }
+
+  private static ReportExecutionService instance;
+
+  private final ReportSemaphoreHandling semaphore;
+  private final int maxThreads;
+  private final int maxQueueSize;
+  private final ThreadPoolExecutor executor;
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<String, ReportStatistics> statistics = new ConcurrentHashMap<>();
+
+  public static synchronized ReportExecutionService getInstance() {
+    if (instance == null) {
+      instance = new ReportExecutionService();
+      MBeanRegistry.registerMBean(MBEAN_NAME, instance);
+    }
+    return instance;
+  }
+
+  private ReportExecutionService() {
+    this(ReportSemaphoreHandling.getInstance(),
+        OBPropertiesProvider.getInstance()
+            .getIntProperty("report.queue.size", DEFAULT_MAX_QUEUE_SIZE));
+  }
+
+  /**
+   * Creates a service which is not shared with the rest of the application, to be used in tests.
+   *
+   * @param semaphore
+   *          the semaphore shared with the reports not generated by this service
+   * @param maxQueueSize
+   *          the maximum number of reports waiting in the queue
+   */
+  ReportExecutionService(ReportSemaphoreHandling semaphore, int maxQueueSize) {
+    this.semaphore = semaphore;
+    this.maxThreads = semaphore.getMaxThreads();
+    this.maxQueueSize = maxQueueSize;
+    executor = new ThreadPoolExecutor(maxThreads, maxThreads, 0L, TimeUnit.MILLISECONDS,
+        new PriorityBlockingQueue<>(), new DaemonThreadFactory("Report Execution"));
+    log.info("Report execution service started with {} threads and a queue of {} reports",
+        maxThreads, maxQueueSize);
+  }
+
+  /**
+   * Queues a report to be generated by the service. The report is generated with the
+   * {@link OBContext} of the caller and the {@link VariablesSecureApp} of its request, if any.
+   *
+   * @param reportName
+   *          Name of the report, used to group its statistics
+   * @param priority
+   *          Priority of the report in the queue
+   * @param report
+   *          Generates the report and returns the file with its result
+   * @return the ticket to track the report
+   * @throws OBException
+   *           if the queue is full
+   */
+  public synchronized ReportTicket submit(String reportName, Priority priority,
+      ReportGenerator report) {
+    if (executor.getQueue().size() >= maxQueueSize) {
+      log.error("All available threads ({}) occupied and {} reports queued.", maxThreads,
+          maxQueueSize);
+      throw new OBException(OBMessageUtils.messageBD("OBUIAPP_ReportProcessOccupied"));
+    }
+    ReportTicket ticket = new ReportTicket(reportName, priority);
+    executor.execute(new ReportTask(ticket, report, sequence.getAndIncrement(),
+        OBContext.getOBContext(), getVariablesSecureApp()));
+    return ticket;
+  }
+
+  private static VariablesSecureApp getVariablesSecureApp() {
+    try {
+      return RequestContext.get().getVariablesSecureApp();
+    } catch (OBException noRequest) {
+      // not submitted from a request
+      return null;
+    }
+  }
+
+  @Override
+  public int getMaxThreads() {
+    return maxThreads;
+  }
+
+  @Override
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  @Override
+  public int getQueuedReports() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public int getRunningReports() {
+    return executor.getActiveCount();
+  }
+
+  @Override
+  public long getAverageQueueWaitTime() {
+    long count = 0;
+    long total = 0;
+    for (ReportStatistics reportStatistics : statistics.values()) {
+      synchronized (reportStatistics) {
+        count += reportStatistics.count;
+        total += reportStatistics.totalWaitTime;
+      }
+    }
+    return count == 0 ? 0 : total / count;
+  }
+
+  @Override
+  public long getAverageFillTime() {
+    long count = 0;
+    long total = 0;
+    for (ReportStatistics reportStatistics : statistics.values()) {
+      synchronized (reportStatistics) {
+        count += reportStatistics.count;
+        total += reportStatistics.totalFillTime;
+      }
+    }
+    return count == 0 ? 0 : total / count;
+  }
+
+  @Override
+  public long getAverageExportTime() {
+    long count = 0;
+    long total = 0;
+    for (ReportStatistics reportStatistics : statistics.values()) {
+      synchronized (reportStatistics) {
+        count += reportStatistics.count;
+        total += reportStatistics.totalExportTime;
+      }
+    }
+    return count == 0 ? 0 : total / count;
+  }
+
+  @Override
+  public String[] getReportStatistics() {
+    return statistics.values()
+        .stream()
+        .map(ReportStatistics::toString)
+        .sorted()
+        .toArray(String[]::new);
+  }
+
+  @Override
+  public void resetStatistics() {
+    statistics.clear();
+  }
+
+  private void recordStatistics(ReportTicket ticket) {
+    ReportStatistics reportStatistics = statistics.computeIfAbsent(ticket.getReportName(),
+        ReportStatistics::new);
+    reportStatistics.add(ticket);
+    log.debug("Report {}: waited {} ms in the queue, filled in {} ms, exported in {} ms",
+        ticket.getReportName(), ticket.getQueueWaitTime(), ticket.getFillTime(),
+        ticket.getExportTime());
+  }
+
+  private static class ReportStatistics {
+    private final String reportName;
+    private long count;
+    private long failed;
+    private long totalWaitTime;
+    private long maxWaitTime;
+    private long totalFillTime;
+    private long maxFillTime;
+    private long totalExportTime;
+    private long maxExportTime;
+
+    private ReportStatistics(String reportName) {
+      this.reportName = reportName;
+    }
+
+    private synchronized void add(ReportTicket ticket) {
+      long waitTime = ticket.getQueueWaitTime();
+      long fillTime = ticket.getFillTime();
+      long exportTime = ticket.getExportTime();
+      count++;
+      if (ticket.getStatus() == ReportTicket.Status.FAILED) {
+        failed++;
+      }
+      totalWaitTime += waitTime;
+      maxWaitTime = Math.max(maxWaitTime, waitTime);
+      totalFillTime += fillTime;
+      maxFillTime = Math.max(maxFillTime, fillTime);
+      totalExportTime += exportTime;
+      maxExportTime = Math.max(maxExportTime, exportTime);
+    }
+
+    @Override
+    public synchronized String toString() {
+      return String.format(
+          "%s: count=%d, failed=%d, avgWait=%d ms, maxWait=%d ms, avgFill=%d ms, maxFill=%d ms, "
+              + "avgExport=%d ms, maxExport=%d ms",
+          reportName, count, failed, totalWaitTime / count, maxWaitTime, totalFillTime / count,
+          maxFillTime, totalExportTime / count, maxExportTime);
+    }
+  }
+
+  /**
+   * Generates a queued report. The tasks are sorted by priority and, within the same priority, by
+   * the order in which they were submitted.
+   */
+  private class ReportTask implements Runnable, Comparable<ReportTask> {
+    private final ReportTicket ticket;
+    private final ReportGenerator report;
+    private final long order;
+    private final OBContext obContext;
+    private final VariablesSecureApp variablesSecureApp;
+
+    private ReportTask(ReportTicket ticket, ReportGenerator report, long order,
+        OBContext obContext, VariablesSecureApp variablesSecureApp) {
+      this.ticket = ticket;
+      this.report = report;
+      this.order = order;
+      this.obContext = obContext;
+      this.variablesSecureApp = variablesSecureApp;
+    }
+
+    @Override
+    public int compareTo(ReportTask other) {
+      int priorityComparison = ticket.getPriority().compareTo(other.ticket.getPriority());
+      return priorityComparison != 0 ? priorityComparison : Long.compare(order, other.order);
+    }
+
+    @Override
+    public void run() {
+      try {
+        // wait for the reports limited by the semaphore that are not generated by this service
+        semaphore.acquireWaiting();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        ticket.finished(null, e);
+        return;
+      }
+      try {
+        generate();
+      } finally {
+        semaphore.release();
+      }
+    }
+
+    private void generate() {
+      ticket.started();
+      OBContext.setOBContext(obContext);
+      RequestContext.get().setVariableSecureApp(variablesSecureApp);
+      try {
+        Path result = null;
+        Throwable error = null;
+        try {
+          result = report.generate(ticket);
+          OBDal.getInstance().commitAndClose();
+        } catch (Throwable t) {
+          log.error("Error generating report {}", ticket.getReportName(), t);
+          OBDal.getInstance().rollbackAndClose();
+          error = t;
+        }
+        ticket.finished(result, error);
+        recordStatistics(ticket);
+      } finally {
+        OBContext.setOBContext((OBContext) null);
+        RequestContext.clear();
+      }
+    }
+  }
+}
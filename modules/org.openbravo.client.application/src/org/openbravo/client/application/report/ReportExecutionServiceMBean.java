@@ -0,0 +1,53 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.report;
+
+/**
+ * Exposes the {@link ReportExecutionService} as a JMX Bean to monitor the queue of reports and the
+ * time spent generating them.
+ */
+public interface ReportExecutionServiceMBean {
+
+  /** @return the number of reports which can be generated in parallel */
+  int getMaxThreads();
+
+  /** @return the maximum number of reports which can wait in the queue */
+  int getMaxQueueSize();
+
+  /** @return the number of reports waiting in the queue */
+  int getQueuedReports();
+
+  /** @return the number of reports being generated */
+  int getRunningReports();
+
+  /** @return the average time in milliseconds the reports waited in the queue */
+  long getAverageQueueWaitTime();
+
+  /** @return the average time in milliseconds spent filling the reports */
+  long getAverageFillTime();
+
+  /** @return the average time in milliseconds spent exporting the filled reports */
+  long getAverageExportTime();
+
+  /** @return the queue wait, fill and export time statistics of each report */
+  String[] getReportStatistics();
+
+  /** Resets the statistics of the reports. */
+  void resetStatistics();
+}
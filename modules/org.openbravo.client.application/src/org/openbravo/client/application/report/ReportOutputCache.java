@@ -0,0 +1,487 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.base.structure.BaseOBObject;
+import org.openbravo.base.structure.Traceable;
+import org.openbravo.client.application.report.ReportingUtils.ExportType;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.jmx.MBeanRegistry;
+
+import net.sf.jasperreports.engine.JRParameter;
+
+/**
+ * Keeps in disk the output of the reports whose content only depends on their template, their
+ * parameters, the language and a set of source documents, like the printout of a completed invoice.
+ * Reprinting them does not require to fill and export the report again.
+ *
+ * The cache is disabled by default, it is enabled with the report.outputCache property of
+ * Openbravo.properties. The outputs are stored in the folder defined by the
+ * report.outputCache.folder property (a subfolder of the reporting temporary folder by default) up
+ * to report.outputCache.maxSize megabytes (512 by default), once this size is exceeded the least
+ * recently used outputs are removed.
+ *
+ * The outputs are identified by a {@link Key} which includes the last modification time of the
+ * template files and of the source documents, so an output is not used anymore as soon as any of
+ * them changes.
+ */
+public class ReportOutputCache implements ReportOutputCacheMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "ReportOutputCache";
+
+  private static final long DEFAULT_MAX_SIZE = 512;
+  private static final String TMP_EXTENSION = ".tmp";
+
+  // parameters which do not take part in the content of the report
+  private static final Set<String> IGNORED_PARAMETERS = Set.of(JRParameter.REPORT_VIRTUALIZER,
+      JRParameter.REPORT_CONNECTION, "HTTP_SESSION", ReportingUtils.JASPER_PARAM_HBSESSION,
+      ReportingUtils.JASPER_PARAM_OBCONTEXT);
+
+  private static ReportOutputCache instance;
+
+  private final boolean enabled;
+  private final Path folder;
+  private final long maxSize;
+  private final Map<String, CachedOutput> outputs = new ConcurrentHashMap<>();
+  private final AtomicLong size = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public static synchronized ReportOutputCache getInstance() {
+    if (instance == null) {
+      instance = new ReportOutputCache();
+      MBeanRegistry.registerMBean(MBEAN_NAME, instance);
+    }
+    return instance;
+  }
+
+  private ReportOutputCache() {
+    this(OBPropertiesProvider.getInstance().getBooleanProperty("report.outputCache"),
+        getFolderProperty(), getMaxSizeProperty());
+  }
+
+  /**
+   * Creates a cache which is not registered in JMX, to be used in tests.
+   *
+   * @param enabled
+   *          whether the outputs are cached
+   * @param folder
+   *          the folder where the outputs are stored
+   * @param maxSize
+   *          the maximum size in bytes of the stored outputs
+   */
+  ReportOutputCache(boolean enabled, Path folder, long maxSize) {
+    this.enabled = enabled;
+    this.folder = folder;
+    this.maxSize = maxSize;
+    if (enabled) {
+      loadCachedOutputs();
+      log.info("Report output cache enabled in {}, max size {} MB", folder,
+          maxSize / 1024 / 1024);
+    }
+  }
+
+  private static Path getFolderProperty() {
+    String folderName = OBPropertiesProvider.getInstance()
+        .getOpenbravoProperties()
+        .getProperty("report.outputCache.folder");
+    return folderName != null ? Paths.get(folderName)
+        : Paths.get(ReportingUtils.getTempFolder(), "report-output-cache");
+  }
+
+  private static long getMaxSizeProperty() {
+    long megabytes = OBPropertiesProvider.getInstance()
+        .getLongProperty("report.outputCache.maxSize", DEFAULT_MAX_SIZE);
+    return megabytes * 1024 * 1024;
+  }
+
+  private void loadCachedOutputs() {
+    try {
+      Files.createDirectories(folder);
+      try (Stream<Path> files = Files.list(folder)) {
+        files.forEach(file -> {
+          try {
+            if (file.getFileName().toString().endsWith(TMP_EXTENSION)) {
+              Files.deleteIfExists(file);
+            } else {
+              long fileSize = Files.size(file);
+              outputs.put(file.getFileName().toString(),
+                  new CachedOutput(fileSize, Files.getLastModifiedTime(file).toMillis()));
+              size.addAndGet(fileSize);
+            }
+          } catch (IOException e) {
+            log.warn("Could not read cached report output {}", file, e);
+          }
+        });
+      }
+      evict();
+    } catch (IOException e) {
+      log.error("Could not load the report output cache from {}", folder, e);
+    }
+  }
+
+  /**
+   * Creates the key of the output of a report.
+   *
+   * @param templatePath
+   *          The path to the JR template of the report
+   * @param expType
+   *          The output type of the report
+   * @param language
+   *          The language of the report
+   * @return the key of the report output, the rest of the values which determine the content of
+   *         the report must be added to it
+   */
+  public static Key newKey(String templatePath, ExportType expType, String language) {
+    return new Key(templatePath, expType, language);
+  }
+
+  /**
+   * Copies the cached output of a report into the target file.
+   *
+   * @param key
+   *          The key of the report output, if it is null the output is not looked up in the cache
+   * @param target
+   *          The file where the output is copied
+   * @return true if the output was cached, false if the report must be generated
+   */
+  public boolean restore(Key key, Path target) {
+    if (!enabled || key == null || !key.isCacheable()) {
+      return false;
+    }
+    String hash = key.getHash();
+    CachedOutput output = outputs.get(hash);
+    if (output != null) {
+      try {
+        Files.copy(folder.resolve(hash), target, StandardCopyOption.REPLACE_EXISTING);
+        output.lastAccess = System.currentTimeMillis();
+        hits.increment();
+        log.debug("Report output {} served from cache", hash);
+        return true;
+      } catch (IOException e) {
+        log.warn("Could not read cached report output {}", hash, e);
+        remove(hash);
+      }
+    }
+    misses.increment();
+    return false;
+  }
+
+  /**
+   * Stores the output of a report in the cache.
+   *
+   * @param key
+   *          The key of the report output, if it is null the output is not stored
+   * @param output
+   *          The file with the generated output
+   */
+  public void store(Key key, Path output) {
+    if (!enabled || key == null || !key.isCacheable()) {
+      return;
+    }
+    String hash = key.getHash();
+    if (outputs.containsKey(hash)) {
+      return;
+    }
+    try {
+      long outputSize = Files.size(output);
+      if (outputSize > maxSize) {
+        return;
+      }
+      Path tmpFile = folder.resolve(hash + TMP_EXTENSION);
+      Files.copy(output, tmpFile, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(tmpFile, folder.resolve(hash), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      if (outputs.putIfAbsent(hash,
+          new CachedOutput(outputSize, System.currentTimeMillis())) == null) {
+        size.addAndGet(outputSize);
+      }
+      evict();
+    } catch (IOException e) {
+      log.warn("Could not store report output {} in cache", hash, e);
+    }
+  }
+
+  private synchronized void evict() {
+    while (size.get() > maxSize && !outputs.isEmpty()) {
+      outputs.entrySet()
+          .stream()
+          .min(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+          .map(Map.Entry::getKey)
+          .ifPresent(hash -> {
+            remove(hash);
+            evictions.increment();
+          });
+    }
+  }
+
+  private void remove(String hash) {
+    CachedOutput output = outputs.remove(hash);
+    if (output == null) {
+      return;
+    }
+    size.addAndGet(-output.size);
+    try {
+      Files.deleteIfExists(folder.resolve(hash));
+    } catch (IOException e) {
+      log.warn("Could not remove cached report output {}", hash, e);
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public int getEntries() {
+    return outputs.size();
+  }
+
+  @Override
+  public long getSize() {
+    return size.get();
+  }
+
+  @Override
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public long getHits() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public synchronized void clear() {
+    outputs.keySet().forEach(this::remove);
+  }
+
+  private static class CachedOutput {
+    private final long size;
+    private volatile long lastAccess;
+
+    private CachedOutput(long size, long lastAccess) {
+      this.size = size;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  /**
+   * Identifies the output of a report by all the values which determine its content. If any of the
+   * added values cannot be identified, like an object without a deterministic representation, the
+   * key is not cacheable and the report is always generated.
+   */
+  public static class Key {
+    private final StringBuilder content = new StringBuilder();
+    private boolean cacheable = true;
+
+    private Key(String templatePath, ExportType expType, String language) {
+      with("template", templatePath);
+      with("templateModified", getTemplatesLastModified(templatePath));
+      with("type", expType.name());
+      with("language", language);
+    }
+
+    // the sub-reports are placed in the same folder as the main report
+    private static long getTemplatesLastModified(String templatePath) {
+      File templateFolder = new File(templatePath).getAbsoluteFile().getParentFile();
+      File[] templates = templateFolder != null
+          ? templateFolder.listFiles(
+              (dir, name) -> name.endsWith(".jrxml") || name.endsWith(".jasper"))
+          : null;
+      long lastModified = new File(templatePath).lastModified();
+      if (templates != null) {
+        for (File template : templates) {
+          lastModified = Math.max(lastModified, template.lastModified());
+        }
+      }
+      return lastModified;
+    }
+
+    /**
+     * Adds a value which determines the content of the report.
+     */
+    public Key with(String name, Object value) {
+      content.append(name).append('=');
+      if (!append(value)) {
+        log.debug("Report output not cacheable, value of {} cannot be identified: {}", name,
+            value);
+        cacheable = false;
+      }
+      content.append('\n');
+      return this;
+    }
+
+    /**
+     * Adds the client, role and readable organizations of the context, so the output is only reused
+     * by the contexts with the same access to the data shown by the report.
+     */
+    public Key withAccess(OBContext obContext) {
+      return with("client", obContext.getCurrentClient().getId())
+          .with("role", obContext.getRole().getId())
+          .with("organizations",
+              new TreeSet<>(Arrays.asList(obContext.getReadableOrganizations())));
+    }
+
+    /**
+     * Adds the parameters sent to the report, except those which do not take part in its content,
+     * like the virtualizer or the HTTP session.
+     *
+     * @param parameters
+     *          The parameters of the report
+     * @param ignoredParameters
+     *          Additional parameters to be excluded, because their values are already identified
+     *          by other values of the key
+     */
+    public Key withParameters(Map<String, Object> parameters, String... ignoredParameters) {
+      Set<String> ignored = Set.of(ignoredParameters);
+      new TreeMap<>(parameters).forEach((name, value) -> {
+        if (!IGNORED_PARAMETERS.contains(name) && !ignored.contains(name)) {
+          with(name, value);
+        }
+      });
+      return this;
+    }
+
+    /**
+     * Adds a document shown by the report. The output is not used once the document is updated.
+     */
+    public Key withSourceDocument(BaseOBObject document) {
+      if (document == null) {
+        cacheable = false;
+        return this;
+      }
+      return with("document", document);
+    }
+
+    /**
+     * @return true if all the values added to the key could be identified
+     */
+    public boolean isCacheable() {
+      return cacheable;
+    }
+
+    private boolean append(Object value) {
+      if (value == null) {
+        content.append("null");
+      } else if (value instanceof String || value instanceof Number || value instanceof Boolean
+          || value instanceof Character || value instanceof JSONObject
+          || value instanceof JSONArray) {
+        content.append(value);
+      } else if (value instanceof Enum) {
+        content.append(value.getClass().getName()).append('.').append(((Enum<?>) value).name());
+      } else if (value instanceof Date) {
+        content.append(((Date) value).getTime());
+      } else if (value instanceof DecimalFormat) {
+        DecimalFormat format = (DecimalFormat) value;
+        content.append(format.toPattern())
+            .append(format.getDecimalFormatSymbols().getDecimalSeparator())
+            .append(format.getDecimalFormatSymbols().getGroupingSeparator());
+      } else if (value instanceof BaseOBObject) {
+        BaseOBObject bob = (BaseOBObject) value;
+        if (!(bob instanceof Traceable)) {
+          return false;
+        }
+        content.append(bob.getEntityName())
+            .append(':')
+            .append(bob.getId())
+            .append(':')
+            .append(((Traceable) bob).getUpdated().getTime());
+      } else if (value instanceof Map) {
+        content.append('{');
+        for (Map.Entry<?, ?> entry : new TreeMap<>((Map<?, ?>) value).entrySet()) {
+          content.append(entry.getKey()).append(':');
+          if (!append(entry.getValue())) {
+            return false;
+          }
+          content.append(',');
+        }
+        content.append('}');
+      } else if (value instanceof Collection) {
+        content.append('[');
+        for (Object element : (Collection<?>) value) {
+          if (!append(element)) {
+            return false;
+          }
+          content.append(',');
+        }
+        content.append(']');
+      } else {
+        return false;
+      }
+      return true;
+    }
+
+    private String getHash() {
+      try {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+            .digest(content.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest) {
+          hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
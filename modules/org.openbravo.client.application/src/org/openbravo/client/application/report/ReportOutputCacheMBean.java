@@ -0,0 +1,50 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.report;
+
+/**
+ * Exposes the {@link ReportOutputCache} as a JMX Bean to monitor and clear the cached report
+ * outputs.
+ */
+public interface ReportOutputCacheMBean {
+
+  /** @return {@code true} if the cache is enabled, {@code false} otherwise */
+  boolean isEnabled();
+
+  /** @return the number of cached report outputs */
+  int getEntries();
+
+  /** @return the size in bytes of the cached report outputs */
+  long getSize();
+
+  /** @return the maximum size in bytes of the cached report outputs */
+  long getMaxSize();
+
+  /** @return the number of reports served from the cache */
+  long getHits();
+
+  /** @return the number of cacheable reports which had to be generated */
+  long getMisses();
+
+  /** @return the number of cached report outputs removed to keep the cache within its size */
+  long getEvictions();
+
+  /** Removes all the cached report outputs. */
+  void clear();
+}
@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2014-2015 Openbravo SLU
+ * All portions are Copyright (C) 2014-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -36,7 +36,10 @@ import org.openbravo.erpCommon.utility.PropertyException;
  * This semaphore handler can/should be used by heavy resource intensive reporting processes.To
  * prevent too many to run at the same time.
  * 
- * Implementation is based on {@link java.util.concurrent.Semaphore}.
+ * Implementation is based on {@link java.util.concurrent.Semaphore}. The reports generated by the
+ * {@link BaseReportActionHandler} are queued by the {@link ReportExecutionService} instead of
+ * failing when no semaphore is available, its threads wait for the semaphore before generating
+ * them.
  * 
  * The {@link #acquire()} and {@link #release()} methods should be called using a try finally block:
  * 
@@ -113,8 +116,28 @@ public class ReportSemaphoreHandling implements OBSingleton {
     }
   }
 
+  /**
+   * Increments the threadCounter by one unit, waiting until it is below its max value. Used by the
+   * {@link ReportExecutionService} threads, so the reports it queues do not exceed the limit along
+   * with the ones that use {@link #acquire()}.
+   *
+   * @throws InterruptedException
+   *           if the thread is interrupted while waiting
+   */
+  void acquireWaiting() throws InterruptedException {
+    semaphore.acquire();
+  }
+
   /** Decreases the threadCounter by one unit. */
   public void release() {
     semaphore.release();
   }
+
+  /**
+   * @return the maximum number of reporting processes allowed to run in parallel, configured with
+   *         the OBUIAPP_MaxReportThreads System preference
+   */
+  public int getMaxThreads() {
+    return maxThreads;
+  }
 }
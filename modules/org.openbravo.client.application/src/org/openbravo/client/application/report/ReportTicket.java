@@ -0,0 +1,174 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.report;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openbravo.client.application.report.ReportExecutionService.Priority;
+
+/**
+ * Keeps track of a report submitted to the {@link ReportExecutionService}. It can be used to wait
+ * for the report to be generated and to retrieve the file with its result.
+ */
+public class ReportTicket {
+
+  /** The status of the execution of the report. */
+  public enum Status {
+    QUEUED, RUNNING, DONE, FAILED
+  }
+
+  private final String reportName;
+  private final Priority priority;
+  private final long queuedTime = System.currentTimeMillis();
+  private final CountDownLatch finished = new CountDownLatch(1);
+  private volatile Status status = Status.QUEUED;
+  private volatile long startTime;
+  private volatile long fillEndTime;
+  private volatile long endTime;
+  private volatile Path result;
+  private volatile Throwable error;
+
+  ReportTicket(String reportName, Priority priority) {
+    this.reportName = reportName;
+    this.priority = priority;
+  }
+
+  public String getReportName() {
+    return reportName;
+  }
+
+  public Priority getPriority() {
+    return priority;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * @return true if the report has already been generated or its generation failed
+   */
+  public boolean isFinished() {
+    return status == Status.DONE || status == Status.FAILED;
+  }
+
+  /**
+   * @return the file with the generated report or null if it is not generated yet
+   */
+  public Path getResult() {
+    return result;
+  }
+
+  /**
+   * @return the error thrown by the report generation or null if it did not fail
+   */
+  public String getErrorMessage() {
+    return error != null ? error.getMessage() : null;
+  }
+
+  Throwable getError() {
+    return error;
+  }
+
+  /**
+   * @return the time in milliseconds the report waited in the queue, until now if it is still
+   *         queued
+   */
+  public long getQueueWaitTime() {
+    return (startTime == 0 ? System.currentTimeMillis() : startTime) - queuedTime;
+  }
+
+  /**
+   * @return the time in milliseconds spent filling and exporting the report, until now if it is
+   *         still running
+   */
+  public long getExecutionTime() {
+    if (startTime == 0) {
+      return 0;
+    }
+    return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+  }
+
+  /**
+   * @return the time in milliseconds spent filling the report, which is the whole execution time if
+   *         the end of the filling was not marked with {@link #filled()}
+   */
+  public long getFillTime() {
+    if (fillEndTime == 0) {
+      return getExecutionTime();
+    }
+    return fillEndTime - startTime;
+  }
+
+  /**
+   * @return the time in milliseconds spent exporting the filled report, until now if it is still
+   *         being exported
+   */
+  public long getExportTime() {
+    if (fillEndTime == 0) {
+      return 0;
+    }
+    return (endTime == 0 ? System.currentTimeMillis() : endTime) - fillEndTime;
+  }
+
+  /**
+   * Marks the report as filled, the rest of its execution time is spent exporting it.
+   */
+  public void filled() {
+    fillEndTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Waits until the report is generated or the given time elapses.
+   *
+   * @return true if the report is finished, false if the waiting time elapsed before
+   */
+  public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+    return finished.await(timeout, unit);
+  }
+
+  /**
+   * Waits until the report is generated.
+   */
+  public void await() throws InterruptedException {
+    finished.await();
+  }
+
+  void started() {
+    startTime = System.currentTimeMillis();
+    status = Status.RUNNING;
+  }
+
+  /**
+   * Marks the report as finished.
+   */
+  void finished(Path reportResult, Throwable reportError) {
+    endTime = System.currentTimeMillis();
+    result = reportResult;
+    error = reportError;
+    if (reportError != null) {
+      status = Status.FAILED;
+    } else {
+      status = Status.DONE;
+    }
+    finished.countDown();
+  }
+}
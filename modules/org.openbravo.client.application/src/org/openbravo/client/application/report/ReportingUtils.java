@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpSession;
@@ -175,6 +176,21 @@ public class ReportingUtils {
       Map<String, Object> parameters, File target, boolean addProcessDefinitionParameters,
       ConnectionProvider connectionProvider, JRDataSource data,
       Map<Object, Object> additionalExportParameters) throws OBException {
+    exportJR(jasperFilePath, expType, parameters, target, addProcessDefinitionParameters,
+        connectionProvider, data, additionalExportParameters, null);
+  }
+
+  /**
+   * Exports the report to a file, notifying the filled report before it is exported.
+   * 
+   * @param onFilled
+   *          Receives the filled report before it is exported, it can be null.
+   * @see #exportJR(String, ExportType, Map, File, boolean, ConnectionProvider, JRDataSource, Map)
+   */
+  static void exportJR(String jasperFilePath, ExportType expType, Map<String, Object> parameters,
+      File target, boolean addProcessDefinitionParameters, ConnectionProvider connectionProvider,
+      JRDataSource data, Map<Object, Object> additionalExportParameters,
+      Consumer<JasperPrint> onFilled) throws OBException {
 
     JRSwapFileVirtualizer virtualizer = null;
     Map<Object, Object> exportParameters = new HashMap<>();
@@ -202,6 +218,9 @@ public class ReportingUtils {
         session.setAttribute(ImageServlet.DEFAULT_JASPER_PRINT_SESSION_ATTRIBUTE, jasperPrint);
       }
     }
+    if (onFilled != null) {
+      onFilled.accept(jasperPrint);
+    }
     try {
       saveReport(jasperPrint, expType, exportParameters, target);
     } catch (JRException e) {
@@ -57,9 +57,10 @@ import org.openbravo.userinterface.selector.SelectorField;
 
 /**
  * This class caches some AD structures used by the Form Initialization component. Basically, it
- * caches: AD components (fields, columns, auxiliary inputs) and ComboTableData instances. This
- * caching occurs to obtain better performance in FIC computations. For this cache to be used, the
- * system needs to be on 'production' mode, that is, all the modules need to be not in development
+ * caches: AD components (fields, columns, auxiliary inputs), ComboTableData instances and the
+ * {@link FormPlan} of the tabs. This caching occurs to obtain better performance in FIC
+ * computations. For this cache to be used, the system needs to be on 'production' mode, that is,
+ * all the modules need to be not in development
  */
 @ApplicationScoped
 public class ApplicationDictionaryCachedStructures {
@@ -73,6 +74,7 @@ public class ApplicationDictionaryCachedStructures {
   private Map<String, List<AuxiliaryInput>> auxInputMap;
   private Map<String, ComboTableData> comboTableDataMap;
   private Map<String, List<Parameter>> attMethodMetadataMap;
+  private Map<String, FormPlan> formPlanMap;
   private List<String> initializedWindows;
   private Set<String> inDevelopmentModules;
 
@@ -99,6 +101,7 @@ public class ApplicationDictionaryCachedStructures {
     auxInputMap = new ConcurrentHashMap<>();
     comboTableDataMap = new ConcurrentHashMap<>();
     attMethodMetadataMap = new ConcurrentHashMap<>();
+    formPlanMap = new ConcurrentHashMap<>();
     initializedWindows = new ArrayList<>();
     tabLocks = new ConcurrentHashMap<>();
     windowLocks = new ConcurrentHashMap<>();
@@ -426,6 +429,24 @@ public class ApplicationDictionaryCachedStructures {
     return auxInputs;
   }
 
+  /**
+   * Returns the plan of the computations of the Form Initialization Component which only depend on
+   * the definition of the given tab. If cache is enabled, the plan is built the first time it is
+   * requested and kept until the cache is reset.
+   */
+  public FormPlan getFormPlan(String tabId) {
+    FormPlan plan = useCache() ? formPlanMap.get(tabId) : null;
+    if (plan != null) {
+      return plan;
+    }
+    plan = new FormPlan(getTab(tabId), getFieldsOfTab(tabId), getAuxiliarInputList(tabId));
+    if (useCache()) {
+      formPlanMap.put(tabId, plan);
+      log.debug("Built form plan of tab {}", tabId);
+    }
+    return plan;
+  }
+
   private void initializeDALObject(Object obj) {
     if (obj == null) {
       return;
@@ -555,6 +576,14 @@ public class ApplicationDictionaryCachedStructures {
         .executeUpdate();
   }
 
+  boolean isFormPlanCached(String tabId) {
+    return useCache() && formPlanMap.containsKey(tabId);
+  }
+
+  int getCachedFormPlans() {
+    return formPlanMap.size();
+  }
+
   Collection<String> getCachedWindows() {
     return windowMap.values()
         .stream() //
@@ -11,13 +11,14 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2010-2023 Openbravo SLU
+ * All portions are Copyright (C) 2010-2026 Openbravo SLU
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
  */
 package org.openbravo.client.application.window;
 
+import java.lang.reflect.Constructor;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
@@ -70,7 +71,6 @@ import org.openbravo.erpCommon.ad_callouts.SimpleCallout;
 import org.openbravo.erpCommon.ad_callouts.SimpleCalloutInformationProvider;
 import org.openbravo.erpCommon.utility.Utility;
 import org.openbravo.model.ad.datamodel.Column;
-import org.openbravo.model.ad.domain.ReferencedTable;
 import org.openbravo.model.ad.ui.AuxiliaryInput;
 import org.openbravo.model.ad.ui.Field;
 import org.openbravo.model.ad.ui.Tab;
@@ -118,6 +118,7 @@ public class FormInitializationComponent extends BaseActionHandler {
     OBContext.setAdminMode(true);
     long iniTime = System.currentTimeMillis();
     String mode = null, tabId = null, rowId = null;
+    boolean cachedPlan = false;
     try {
       // Execution mode. It can be:
       // - NEW: used when the user clicks on the "New record" button
@@ -134,6 +135,9 @@ public class FormInitializationComponent extends BaseActionHandler {
       // The column changed by the user. Only relevant on CHANGE mode
       String changedColumn = readParameter(parameters, "CHANGED_COLUMN");
       Tab tab = getTab(tabId);
+      cachedPlan = cachedStructures.isFormPlanCached(tabId);
+      // built once per request, as it is built on each call when the cache is disabled
+      FormPlan plan = cachedStructures.getFormPlan(tabId);
       BaseOBObject row = null;
       BaseOBObject parentRecord = null;
       Map<String, JSONObject> columnValues = new HashMap<String, JSONObject>();
@@ -253,25 +257,25 @@ public class FormInitializationComponent extends BaseActionHandler {
 
       // Calculation of validation dependencies
       long t3 = System.currentTimeMillis();
-      computeListOfColumnsSortedByValidationDependencies(mode, tab, allColumns, columnsInValidation,
-          changeEventCols, changedColumn);
+      computeListOfColumnsSortedByValidationDependencies(mode, plan, allColumns,
+          columnsInValidation, changeEventCols, changedColumn);
 
       // Computation of the Auxiliary Input values
       long t4 = System.currentTimeMillis();
       // allColumns cannot be used here because in change mode it only contains the modified columns
-      List<String> allColumnsInTab = getAllColumnsInTab(tab);
+      List<String> allColumnsInTab = plan.getAllColumns();
       computeAuxiliaryInputs(mode, tab, allColumnsInTab, columnValues, overwrittenAuxiliaryInputs);
 
       // Computation of Column Values (using UIDefinition, so including combo values and all
       // relevant additional information)
       long t5 = System.currentTimeMillis();
-      computeColumnValues(mode, tab, allColumns, columnValues, parentRecord, parentId,
+      computeColumnValues(mode, tab, plan, allColumns, columnValues, parentRecord, parentId,
           changedColumn, jsContent, changeEventCols, calloutsToCall, lastfieldChanged,
           visibleProperties, gridVisibleProperties);
 
       // Execution of callouts
       long t6 = System.currentTimeMillis();
-      List<String> changedCols = executeCallouts(mode, tab, columnValues, changedColumn,
+      List<String> changedCols = executeCallouts(mode, tab, plan, columnValues, changedColumn,
           calloutsToCall, lastfieldChanged, calloutMessages, changeEventCols, jsExcuteCode,
           hiddenInputs, overwrittenAuxiliaryInputs);
 
@@ -336,20 +340,12 @@ public class FormInitializationComponent extends BaseActionHandler {
       OBDal.getInstance().getSession().clear();
 
       OBContext.restorePreviousMode();
-    }
-    return null;
-  }
-
-  /** Returns an unsorted list of all columns present in the tab */
-  private List<String> getAllColumnsInTab(Tab tab) {
-    List<String> allColumns = new ArrayList<String>();
-    for (Field field : getADFieldList(tab.getId())) {
-      if (field.getColumn() == null) {
-        continue;
+      if (mode != null) {
+        FormInitializationStatistics.getInstance()
+            .record(mode, cachedPlan, System.currentTimeMillis() - iniTime);
       }
-      allColumns.add(field.getColumn().getDBColumnName());
     }
-    return allColumns;
+    return null;
   }
 
   private void analyzeResponse(Tab tab, Map<String, JSONObject> columnValues) {
@@ -622,7 +618,7 @@ public class FormInitializationComponent extends BaseActionHandler {
         && field.getColumn().getDefaultValue() == null && !field.getColumn().isMandatory();
   }
 
-  private void computeColumnValues(String mode, Tab tab, List<String> allColumns,
+  private void computeColumnValues(String mode, Tab tab, FormPlan plan, List<String> allColumns,
       Map<String, JSONObject> columnValues, BaseOBObject parentRecord, String parentId,
       String changedColumn, JSONObject jsContent, List<String> changeEventCols,
       List<String> calloutsToCall, List<String> lastfieldChanged, List<String> visibleProperties,
@@ -648,8 +644,9 @@ public class FormInitializationComponent extends BaseActionHandler {
       columnsOfFields.put(colName, field);
     }
     List<String> changedCols = new ArrayList<String>();
+    List<String> auxiliaryInputNames = plan.getAuxiliaryInputNames();
     for (String col : allColumns) {
-      if (mode.equals("NEW") && containsIgnoreCase(getAuxiliaryInputNamesList(tab.getId()), col)) {
+      if (mode.equals("NEW") && containsIgnoreCase(auxiliaryInputNames, col)) {
         // creating a new record, there is an auxiliary input that has the same name than the
         // field's column, in this case auxiliary input is used to calculate the default, so there
         // is no need of calculating it here as it will be done in computeAuxiliaryInputs
@@ -1142,174 +1139,18 @@ public class FormInitializationComponent extends BaseActionHandler {
     return referencedEntity.equals(parentEntity);
   }
 
-  private void computeListOfColumnsSortedByValidationDependencies(String mode, Tab tab,
+  private void computeListOfColumnsSortedByValidationDependencies(String mode, FormPlan plan,
       List<String> sortedColumns, Map<String, List<String>> columnsInValidation,
       List<String> changeEventCols, String changedColumn) {
-    List<Field> fields = getADFieldList(tab.getId());
-    ArrayList<String> columns = new ArrayList<String>();
-    List<String> columnsWithValidation = new ArrayList<String>();
-    HashMap<String, String> validations = new HashMap<String, String>();
-    for (Field field : fields) {
-      if (field.getColumn() == null) {
-        continue;
-      }
-
-      String colName = null;
-      if (field.getProperty() != null && !field.getProperty().isEmpty()) {
-        colName = "_propertyField_" + Sqlc.TransformaNombreColumna(field.getName()).replace(" ", "")
-            + "_" + field.getColumn().getDBColumnName();
-        columns.add(colName);
-      } else {
-        colName = field.getColumn().getDBColumnName();
-        columns.add(colName.toUpperCase());
-      }
-
-      String validation = getValidation(field);
-      if (!validation.equals("")) {
-        columnsWithValidation.add(colName);
-        validations.put(colName, validation);
-      }
-    }
-    for (String column : columnsWithValidation) {
-      columnsInValidation.put(column, parseValidation(column, validations.get(column), columns));
-      if (log.isDebugEnabled()) {
-        String cols = "";
-        for (String col : columnsInValidation.get(column)) {
-          cols += col + ",";
-        }
-        log.debug("Column: " + column);
-        log.debug("Validation: '" + validations.get(column) + "'");
-        log.debug("Columns in validation: '" + cols + "'");
-      }
-    }
-
-    if (mode.equals("CHANGE") && changedColumn != null && !changedColumn.equals("inpadOrgId")) {
-      // In case of a CHANGE event, we only add the changed column, to avoid firing reloads for
-      // every column in the tab, instead firing reloads just for the dependant columns
-      String changedCol = "";
-      for (Field field : fields) {
-        if (field.getColumn() == null) {
-          continue;
-        }
-        String colName = field.getColumn().getDBColumnName();
-        if (changedColumn.equalsIgnoreCase("inp" + Sqlc.TransformaNombreColumna(colName))) {
-          sortedColumns.add(colName);
-          changedCol = colName;
-        }
-      }
-      String depColumn = pickDependantColumn(sortedColumns, columnsWithValidation,
-          columnsInValidation);
-      while (depColumn != null) {
-        sortedColumns.add(depColumn);
-        depColumn = pickDependantColumn(sortedColumns, columnsWithValidation, columnsInValidation);
-      }
-      sortedColumns.remove(changedCol);
-    } else {
-      // Add client and org first to compute dependencies correctly
-      for (Field field : fields) {
-        if (field.getColumn() == null) {
-          continue;
-        }
-        String colName = field.getColumn().getDBColumnName();
-        if (colName.equalsIgnoreCase("Ad_Client_Id")) {
-          sortedColumns.add(colName);
-        }
-      }
-      for (Field field : fields) {
-        if (field.getColumn() == null) {
-          continue;
-        }
-        String colName = field.getColumn().getDBColumnName();
-        if (colName.equalsIgnoreCase("Ad_Org_Id")) {
-          sortedColumns.add(colName);
-        }
-      }
-      // we add the columns not included in the sortedColumns
-      // (the ones which don't have validations)
-      for (Field field : fields) {
-        if (field.getColumn() == null) {
-          continue;
-        }
-        String colName = null;
-        if (field.getProperty() != null && !field.getProperty().isEmpty()) {
-          colName = "_propertyField_"
-              + Sqlc.TransformaNombreColumna(field.getName()).replace(" ", "") + "_"
-              + field.getColumn().getDBColumnName();
-        } else {
-          colName = field.getColumn().getDBColumnName();
-        }
-        if (!columnsWithValidation.contains(field.getColumn().getDBColumnName())
-            && !sortedColumns.contains(colName) && !colName.equalsIgnoreCase("documentno")) {
-          sortedColumns.add(colName);
-        }
-      }
-      String nonDepColumn = pickNonDependantColumn(sortedColumns, columnsWithValidation,
-          columnsInValidation);
-      while (nonDepColumn != null) {
-        sortedColumns.add(nonDepColumn);
-        nonDepColumn = pickNonDependantColumn(sortedColumns, columnsWithValidation,
-            columnsInValidation);
-      }
-    }
-    if (!mode.equalsIgnoreCase("CHANGE")) {
-      for (Field field : fields) {
-        if (field.getColumn() == null) {
-          continue;
-        }
-        String colName = field.getColumn().getDBColumnName();
-        if (colName.equalsIgnoreCase("documentno")) {
-          if (field.getProperty() != null && !field.getProperty().isEmpty()) {
-            colName = "_propertyField_"
-                + Sqlc.TransformaNombreColumna(field.getName()).replace(" ", "") + "_"
-                + field.getColumn().getDBColumnName();
-          }
-          sortedColumns.add(colName);
-        }
-      }
-
-      String validationErrors = "";
-      for (String col : columnsWithValidation) {
-        if (!sortedColumns.contains(col)) {
-          if (!validationErrors.isEmpty()) {
-            validationErrors += " -- ";
-          }
-          validationErrors += col + " column has a validation that depends on columns "
-              + columnsInValidation.get(col) + " which creates a cycle";
-        }
-      }
-      if (!validationErrors.equals("")) {
-        throw new OBException(validationErrors + " -- List of sorted columns: " + sortedColumns,
-            false);
-      }
-    }
-    String finalCols = "";
-    for (String col : sortedColumns) {
-      finalCols += col + ",";
-    }
-    log.debug("Final order of column computation: " + finalCols);
+    columnsInValidation.putAll(plan.getColumnsInValidation());
+    sortedColumns.addAll(plan.getSortedColumns(mode, changedColumn));
+    log.debug("Final order of column computation: " + sortedColumns);
 
     // We also fill the changeEventCols
     // These are the columns which should trigger a CHANGE request to the FIC (because either they
     // require a combo reload because they are used in a validation, or there is a callout
     // associated with them)
-    for (Field field : fields) {
-      if (field.getColumn() == null) {
-        continue;
-      }
-      String column = field.getColumn().getDBColumnName();
-      String columninp = "inp" + Sqlc.TransformaNombreColumna(column);
-      if (column.equalsIgnoreCase("Ad_Org_Id") && !changeEventCols.contains(columninp)) {
-        changeEventCols.add(columninp);
-      }
-      if (columnsInValidation.get(column) != null && columnsInValidation.get(column).size() > 0) {
-        for (String colInVal : columnsInValidation.get(column)) {
-          final String columnName = "inp" + Sqlc.TransformaNombreColumna(colInVal);
-          if (!changeEventCols.contains(columnName)) {
-            changeEventCols.add(columnName);
-          }
-        }
-      }
-    }
+    changeEventCols.addAll(plan.getChangeEventColumns());
   }
 
   private void setValueOfColumnInRequest(BaseOBObject obj, String columnName, Tab tab) {
@@ -1423,22 +1264,11 @@ public class FormInitializationComponent extends BaseActionHandler {
     }
   }
 
-  private HashMap<String, Field> buildInpField(List<Field> fields) {
-    HashMap<String, Field> inpFields = new HashMap<String, Field>();
-    for (Field field : fields) {
-      if (field.getColumn() == null) {
-        continue;
-      }
-      inpFields.put("inp" + Sqlc.TransformaNombreColumna(field.getColumn().getDBColumnName()),
-          field);
-    }
-    return inpFields;
-  }
-
-  private List<String> executeCallouts(String mode, Tab tab, Map<String, JSONObject> columnValues,
-      String changedColumn, List<String> calloutsToCall, List<String> lastfieldChanged,
-      List<JSONObject> messages, List<String> dynamicCols, List<String> jsExecuteCode,
-      Map<String, Object> hiddenInputs, List<String> overwrittenAuxiliaryInputs) {
+  private List<String> executeCallouts(String mode, Tab tab, FormPlan plan,
+      Map<String, JSONObject> columnValues, String changedColumn, List<String> calloutsToCall,
+      List<String> lastfieldChanged, List<JSONObject> messages, List<String> dynamicCols,
+      List<String> jsExecuteCode, Map<String, Object> hiddenInputs,
+      List<String> overwrittenAuxiliaryInputs) {
 
     // In CHANGE mode, we will add the initial callout call for the changed column, if there is
     // one
@@ -1459,19 +1289,18 @@ public class FormInitializationComponent extends BaseActionHandler {
     if (calloutsToCall.isEmpty()) {
       return new ArrayList<String>();
     }
-    return runCallouts(columnValues, tab, calledCallouts, calloutsToCall, lastfieldChanged,
+    return runCallouts(columnValues, tab, plan, calledCallouts, calloutsToCall, lastfieldChanged,
         messages, dynamicCols, jsExecuteCode, hiddenInputs, overwrittenAuxiliaryInputs);
 
   }
 
-  private List<String> runCallouts(Map<String, JSONObject> columnValues, Tab tab,
+  private List<String> runCallouts(Map<String, JSONObject> columnValues, Tab tab, FormPlan plan,
       List<String> calledCallouts, List<String> calloutsToCall, List<String> lastfieldChangedList,
       List<JSONObject> messages, List<String> dynamicCols, List<String> jsExecuteCode,
       Map<String, Object> hiddenInputs, List<String> overwrittenAuxiliaryInputs) {
     HashMap<String, Object> calloutInstances = new HashMap<String, Object>();
     List<String> changedCols = new ArrayList<String>();
-    List<Field> fields = getADFieldList(tab.getId());
-    HashMap<String, Field> inpFields = buildInpField(fields);
+    Map<String, Field> inpFields = plan.getInpFields();
     String lastCalledCallout = "";
     String lastFieldOfLastCalloutCalled = "";
 
@@ -1486,12 +1315,8 @@ public class FormInitializationComponent extends BaseActionHandler {
         continue;
       }
       log.debug("Calling callout " + calloutClassName + " with field changed " + lastFieldChanged);
-      Class<?> calloutClass;
-      try {
-        calloutClass = Class.forName(calloutClassName);
-      } catch (ClassNotFoundException e) {
-        throw new OBException("Couldn't find class " + calloutClassName, e);
-      }
+      Constructor<?> calloutConstructor = plan.getCalloutConstructor(calloutClassName);
+      Class<?> calloutClass = calloutConstructor.getDeclaringClass();
       try {
         calloutsToCall.remove(calloutClassName);
         lastfieldChangedList.remove(lastFieldChanged);
@@ -1500,7 +1325,7 @@ public class FormInitializationComponent extends BaseActionHandler {
         if (calloutInstances.get(calloutClassName) != null) {
           calloutObject = calloutInstances.get(calloutClassName);
         } else {
-          calloutObject = calloutClass.getDeclaredConstructor().newInstance();
+          calloutObject = calloutConstructor.newInstance();
           calloutInstances.put(calloutClassName, calloutObject);
         }
 
@@ -1557,7 +1382,7 @@ public class FormInitializationComponent extends BaseActionHandler {
       List<String> calloutsToCall, List<String> lastfieldChangedList, List<JSONObject> messages,
       List<String> dynamicCols, List<String> jsExecuteCode, Map<String, Object> hiddenInputs,
       List<String> overwrittenAuxiliaryInputs, List<String> changedCols,
-      HashMap<String, Field> inpFields, String calloutClassName, RequestContext request,
+      Map<String, Field> inpFields, String calloutClassName, RequestContext request,
       CalloutInformationProvider calloutInformationProvider) throws JSONException {
     Object element = calloutInformationProvider.getNextElement();
     while (element != null) {
@@ -1725,45 +1550,6 @@ public class FormInitializationComponent extends BaseActionHandler {
     }
   }
 
-  private String pickDependantColumn(List<String> sortedColumns, List<String> columns,
-      Map<String, List<String>> columnsInValidation) {
-    for (String col : columns) {
-      if (sortedColumns.contains(col)) {
-        continue;
-      }
-      for (String depCol : columnsInValidation.get(col)) {
-        if (containsIgnoreCase(sortedColumns, depCol)) {
-          return col;
-        }
-      }
-    }
-
-    return null;
-  }
-
-  private String pickNonDependantColumn(List<String> sortedColumns, List<String> columns,
-      Map<String, List<String>> columnsInValidation) {
-    for (String col : columns) {
-      if (sortedColumns.contains(col)) {
-        continue;
-      }
-      if (columnsInValidation.get(col) == null || columnsInValidation.get(col).isEmpty()) {
-        return col;
-      }
-      boolean allColsSorted = true;
-      for (String depCol : columnsInValidation.get(col)) {
-        if (!containsIgnoreCase(sortedColumns, depCol)) {
-          allColsSorted = false;
-        }
-      }
-      if (allColsSorted) {
-        return col;
-      }
-    }
-
-    return null;
-  }
-
   private boolean containsIgnoreCase(List<String> list, String element) {
     for (String e : list) {
       if (e.equalsIgnoreCase(element)) {
@@ -1773,52 +1559,6 @@ public class FormInitializationComponent extends BaseActionHandler {
     return false;
   }
 
-  private String getValidation(Field field) {
-    if (field.getColumn() == null) {
-      return "";
-    }
-
-    Column c = field.getColumn();
-    String val = "";
-    if (c.getValidation() != null && c.getValidation().getValidationCode() != null) {
-      val += c.getValidation().getValidationCode();
-    }
-    if (c.getReference().getId().equals("18")) {
-      if (c.getReferenceSearchKey() != null) {
-        for (ReferencedTable t : c.getReferenceSearchKey().getADReferencedTableList()) {
-          val += " AND " + t.getSQLWhereClause();
-        }
-      }
-    }
-    return val;
-
-  }
-
-  private ArrayList<String> parseValidation(String column, String validation,
-      List<String> possibleColumns) {
-    String token = validation;
-    ArrayList<String> columns = new ArrayList<String>();
-    int i = token.indexOf("@");
-    while (i != -1) {
-      token = token.substring(i + 1);
-      if (!token.startsWith("SQL")) {
-        i = token.indexOf("@");
-        if (i != -1) {
-          String strAux = token.substring(0, i);
-          token = token.substring(i + 1);
-          if (!columns.contains(strAux)) {
-            if (!strAux.equalsIgnoreCase(column)
-                && possibleColumns.contains(strAux.toUpperCase())) {
-              columns.add(strAux);
-            }
-          }
-        }
-      }
-      i = token.indexOf("@");
-    }
-    return columns;
-  }
-
   private Object computeAuxiliaryInput(AuxiliaryInput auxIn, String windowId) {
     try {
       String code = auxIn.getValidationCode();
@@ -1894,14 +1634,6 @@ public class FormInitializationComponent extends BaseActionHandler {
         .collect(Collectors.toList());
   }
 
-  private List<String> getAuxiliaryInputNamesList(String tabId) {
-    List<String> result = new ArrayList<String>();
-    for (AuxiliaryInput ai : cachedStructures.getAuxiliarInputList(tabId)) {
-      result.add(ai.getName());
-    }
-    return result;
-  }
-
   private String readParameter(Map<String, Object> parameters, String parameterName) {
     String paramValue = (String) parameters.get(parameterName);
     if (paramValue != null && paramValue.equalsIgnoreCase("null")) {
@@ -0,0 +1,114 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.client.application.window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openbravo.jmx.MBeanRegistry;
+
+/**
+ * Keeps the latency of the requests of the {@link FormInitializationComponent} by execution mode
+ * (NEW, EDIT, CHANGE, SETSESSION) and whether the {@link FormPlan} of the tab was already cached.
+ */
+public class FormInitializationStatistics implements FormInitializationStatisticsMBean {
+  public static final String MBEAN_NAME = "FormInitializationComponent";
+
+  private static FormInitializationStatistics instance;
+
+  private final Map<String, ModeStatistics> statisticsByMode = new ConcurrentHashMap<>();
+
+  /**
+   * @return the statistics of the Form Initialization Component of this node
+   */
+  public static synchronized FormInitializationStatistics getInstance() {
+    if (instance == null) {
+      instance = new FormInitializationStatistics();
+      MBeanRegistry.registerMBean(MBEAN_NAME, instance);
+    }
+    return instance;
+  }
+
+  private FormInitializationStatistics() {
+  }
+
+  /**
+   * Records the execution of a request.
+   *
+   * @param mode
+   *          the execution mode of the request
+   * @param cachedPlan
+   *          true if the plan of the tab was taken from the cache
+   * @param millis
+   *          the duration of the request in milliseconds
+   */
+  void record(String mode, boolean cachedPlan, long millis) {
+    ModeStatistics statistics = statisticsByMode.computeIfAbsent(mode, m -> new ModeStatistics());
+    statistics.executions.increment();
+    if (cachedPlan) {
+      statistics.cachedPlans.increment();
+    }
+    statistics.totalLatency.add(millis);
+    statistics.maxLatency.accumulate(millis);
+  }
+
+  @Override
+  public long getExecutions() {
+    return statisticsByMode.values().stream().mapToLong(s -> s.executions.sum()).sum();
+  }
+
+  @Override
+  public List<String> getLatencyByMode() {
+    List<String> result = new ArrayList<>();
+    for (Map.Entry<String, ModeStatistics> entry : new TreeMap<>(statisticsByMode).entrySet()) {
+      ModeStatistics statistics = entry.getValue();
+      long executions = statistics.executions.sum();
+      result.add(entry.getKey() + ": " + executions + " executions ("
+          + statistics.cachedPlans.sum() + " with cached plan), average "
+          + (executions == 0 ? 0 : statistics.totalLatency.sum() / executions) + " ms, max "
+          + statistics.maxLatency.get() + " ms");
+    }
+    return result;
+  }
+
+  @Override
+  public long getAverageLatency(String mode) {
+    ModeStatistics statistics = statisticsByMode.get(mode);
+    long executions = statistics == null ? 0 : statistics.executions.sum();
+    return executions == 0 ? 0 : statistics.totalLatency.sum() / executions;
+  }
+
+  @Override
+  public void resetStatistics() {
+    statisticsByMode.clear();
+  }
+
+  private static class ModeStatistics {
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder cachedPlans = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final LongAccumulator maxLatency = new LongAccumulator(Long::max, 0);
+  }
+}
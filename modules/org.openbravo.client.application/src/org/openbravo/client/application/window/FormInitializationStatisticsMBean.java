@@ -0,0 +1,41 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.client.application.window;
+
+import java.util.List;
+
+/** Exposes {@link FormInitializationStatistics} as a JMX Bean. */
+public interface FormInitializationStatisticsMBean {
+
+  /** Returns the number of requests executed by the Form Initialization Component. */
+  long getExecutions();
+
+  /**
+   * Returns, for each execution mode, the number of requests, how many of them found the plan of
+   * the tab already cached and their average and maximum latency in milliseconds.
+   */
+  List<String> getLatencyByMode();
+
+  /** Returns the average latency in milliseconds of the requests of the given execution mode. */
+  long getAverageLatency(String mode);
+
+  /** Resets the statistics. */
+  void resetStatistics();
+}
@@ -0,0 +1,430 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.client.application.window;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.exception.OBException;
+import org.openbravo.data.Sqlc;
+import org.openbravo.model.ad.datamodel.Column;
+import org.openbravo.model.ad.domain.ReferencedTable;
+import org.openbravo.model.ad.ui.AuxiliaryInput;
+import org.openbravo.model.ad.ui.Field;
+import org.openbravo.model.ad.ui.Tab;
+
+/**
+ * The part of the computations done by the {@link FormInitializationComponent} that only depends on
+ * the Application Dictionary definition of a tab: the order in which its columns are computed
+ * according to the dependencies of their validations, the columns which fire a CHANGE request, the
+ * auxiliary inputs and the callout classes.
+ *
+ * A plan is immutable once created, except for the sort orders of the CHANGE mode and the callout
+ * classes, which are resolved the first time they are needed. The plans are kept by
+ * {@link ApplicationDictionaryCachedStructures}, so they are discarded together with the rest of
+ * its cached structures.
+ */
+public final class FormPlan {
+  private static final Logger log = LogManager.getLogger();
+
+  private final String tabId;
+  private final List<Field> fields;
+  private final List<String> allColumns;
+  private final Map<String, Field> inpFields;
+  private final List<String> columnsWithValidation;
+  private final Map<String, List<String>> columnsInValidation;
+  private final List<String> sortedColumns;
+  private final List<String> sortedColumnsInChangeMode;
+  private final String validationErrors;
+  private final List<String> changeEventColumns;
+  private final List<String> auxiliaryInputNames;
+  private final Map<String, List<String>> sortedColumnsByChangedColumn = new ConcurrentHashMap<>();
+  private final Map<String, Constructor<?>> calloutConstructors = new ConcurrentHashMap<>();
+
+  FormPlan(Tab tab, List<Field> fields, List<AuxiliaryInput> auxiliaryInputs) {
+    tabId = tab.getId();
+    this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+
+    List<String> columns = new ArrayList<>();
+    List<String> tabColumns = new ArrayList<>();
+    Map<String, Field> fieldsByInpName = new HashMap<>();
+    List<String> withValidation = new ArrayList<>();
+    Map<String, String> validations = new HashMap<>();
+    for (Field field : fields) {
+      if (field.getColumn() == null) {
+        continue;
+      }
+      String dbColumnName = field.getColumn().getDBColumnName();
+      tabColumns.add(dbColumnName);
+      fieldsByInpName.put("inp" + Sqlc.TransformaNombreColumna(dbColumnName), field);
+
+      String colName = getColumnName(field);
+      columns.add(isPropertyField(field) ? colName : colName.toUpperCase());
+
+      String validation = getValidation(field);
+      if (!validation.equals("")) {
+        withValidation.add(colName);
+        validations.put(colName, validation);
+      }
+    }
+    allColumns = Collections.unmodifiableList(tabColumns);
+    inpFields = Collections.unmodifiableMap(fieldsByInpName);
+    columnsWithValidation = Collections.unmodifiableList(withValidation);
+
+    Map<String, List<String>> dependencies = new HashMap<>();
+    for (String column : columnsWithValidation) {
+      dependencies.put(column, Collections
+          .unmodifiableList(parseValidation(column, validations.get(column), columns)));
+      if (log.isDebugEnabled()) {
+        log.debug("Column: " + column);
+        log.debug("Validation: '" + validations.get(column) + "'");
+        log.debug("Columns in validation: '" + String.join(",", dependencies.get(column)) + "'");
+      }
+    }
+    columnsInValidation = Collections.unmodifiableMap(dependencies);
+
+    List<String> sorted = sortColumns();
+    sortedColumnsInChangeMode = Collections.unmodifiableList(new ArrayList<>(sorted));
+    // the document number is computed the last one, except in CHANGE mode
+    for (Field field : fields) {
+      if (field.getColumn() != null
+          && field.getColumn().getDBColumnName().equalsIgnoreCase("documentno")) {
+        sorted.add(getColumnName(field));
+      }
+    }
+    sortedColumns = Collections.unmodifiableList(sorted);
+    validationErrors = getValidationErrors();
+
+    changeEventColumns = Collections.unmodifiableList(computeChangeEventColumns());
+
+    List<String> auxInputNames = new ArrayList<>();
+    for (AuxiliaryInput auxIn : auxiliaryInputs) {
+      auxInputNames.add(auxIn.getName());
+    }
+    auxiliaryInputNames = Collections.unmodifiableList(auxInputNames);
+  }
+
+  /** Returns the id of the tab of this plan. */
+  public String getTabId() {
+    return tabId;
+  }
+
+  /** Returns the fields of the tab. */
+  public List<Field> getFields() {
+    return fields;
+  }
+
+  /** Returns the unsorted list of the database names of all the columns present in the tab. */
+  public List<String> getAllColumns() {
+    return allColumns;
+  }
+
+  /** Returns the fields of the tab with a column, by the name of their input in the request. */
+  public Map<String, Field> getInpFields() {
+    return inpFields;
+  }
+
+  /**
+   * Returns, for every column with a validation, the columns of the tab referenced in the
+   * validation.
+   */
+  public Map<String, List<String>> getColumnsInValidation() {
+    return columnsInValidation;
+  }
+
+  /**
+   * Returns the columns of the tab in the order they have to be computed for the given execution
+   * mode, so each column is computed after the columns its validation depends on.
+   *
+   * @param mode
+   *          the execution mode of the Form Initialization Component
+   * @param changedColumn
+   *          the input name of the column changed by the user in CHANGE mode. In this case only the
+   *          columns depending on it are returned.
+   * @throws OBException
+   *           if some validations depend on each other, except in CHANGE mode
+   */
+  public List<String> getSortedColumns(String mode, String changedColumn) {
+    if (!mode.equalsIgnoreCase("CHANGE")) {
+      if (validationErrors != null) {
+        throw new OBException(validationErrors + " -- List of sorted columns: " + sortedColumns,
+            false);
+      }
+      return sortedColumns;
+    }
+    if (!mode.equals("CHANGE") || changedColumn == null || changedColumn.equals("inpadOrgId")) {
+      return sortedColumnsInChangeMode;
+    }
+    if (!inpFields.containsKey(changedColumn)) {
+      // the parameter comes from the request: only the columns of the tab are kept
+      return Collections.unmodifiableList(sortDependantColumns(changedColumn));
+    }
+    return sortedColumnsByChangedColumn.computeIfAbsent(changedColumn,
+        col -> Collections.unmodifiableList(sortDependantColumns(col)));
+  }
+
+  /**
+   * Returns the input names of the columns which should trigger a CHANGE request because there are
+   * validations that depend on them.
+   */
+  public List<String> getChangeEventColumns() {
+    return changeEventColumns;
+  }
+
+  /** Returns the names of the auxiliary inputs of the tab. */
+  public List<String> getAuxiliaryInputNames() {
+    return auxiliaryInputNames;
+  }
+
+  /**
+   * Returns the constructor used to create instances of a callout, resolving the class only the
+   * first time it is requested.
+   *
+   * @throws OBException
+   *           if the class cannot be found or it does not have a default constructor
+   */
+  public Constructor<?> getCalloutConstructor(String calloutClassName) {
+    Constructor<?> constructor = calloutConstructors.get(calloutClassName);
+    if (constructor != null) {
+      return constructor;
+    }
+    Class<?> calloutClass;
+    try {
+      calloutClass = Class.forName(calloutClassName);
+    } catch (ClassNotFoundException e) {
+      throw new OBException("Couldn't find class " + calloutClassName, e);
+    }
+    try {
+      constructor = calloutClass.getDeclaredConstructor();
+    } catch (NoSuchMethodException e) {
+      throw new OBException("Couldn't execute callout (class " + calloutClassName + ")", e);
+    }
+    calloutConstructors.put(calloutClassName, constructor);
+    return constructor;
+  }
+
+  private List<String> sortDependantColumns(String changedColumn) {
+    // In case of a CHANGE event, we only add the changed column, to avoid firing reloads for
+    // every column in the tab, instead firing reloads just for the dependant columns
+    List<String> sorted = new ArrayList<>();
+    String changedCol = "";
+    for (Field field : fields) {
+      if (field.getColumn() == null) {
+        continue;
+      }
+      String colName = field.getColumn().getDBColumnName();
+      if (changedColumn.equalsIgnoreCase("inp" + Sqlc.TransformaNombreColumna(colName))) {
+        sorted.add(colName);
+        changedCol = colName;
+      }
+    }
+    String depColumn = pickDependantColumn(sorted);
+    while (depColumn != null) {
+      sorted.add(depColumn);
+      depColumn = pickDependantColumn(sorted);
+    }
+    sorted.remove(changedCol);
+    log.debug("Order of column computation of tab {} when {} changes: {}", tabId, changedColumn,
+        sorted);
+    return sorted;
+  }
+
+  private List<String> sortColumns() {
+    List<String> sorted = new ArrayList<>();
+    // Add client and org first to compute dependencies correctly
+    for (Field field : fields) {
+      if (field.getColumn() != null
+          && field.getColumn().getDBColumnName().equalsIgnoreCase("Ad_Client_Id")) {
+        sorted.add(field.getColumn().getDBColumnName());
+      }
+    }
+    for (Field field : fields) {
+      if (field.getColumn() != null
+          && field.getColumn().getDBColumnName().equalsIgnoreCase("Ad_Org_Id")) {
+        sorted.add(field.getColumn().getDBColumnName());
+      }
+    }
+    // we add the columns not included in the sorted columns
+    // (the ones which don't have validations)
+    for (Field field : fields) {
+      if (field.getColumn() == null) {
+        continue;
+      }
+      String colName = getColumnName(field);
+      if (!columnsWithValidation.contains(field.getColumn().getDBColumnName())
+          && !sorted.contains(colName) && !colName.equalsIgnoreCase("documentno")) {
+        sorted.add(colName);
+      }
+    }
+    String nonDepColumn = pickNonDependantColumn(sorted);
+    while (nonDepColumn != null) {
+      sorted.add(nonDepColumn);
+      nonDepColumn = pickNonDependantColumn(sorted);
+    }
+    log.debug("Order of column computation of tab {}: {}", tabId, sorted);
+    return sorted;
+  }
+
+  private String getValidationErrors() {
+    String errors = "";
+    for (String col : columnsWithValidation) {
+      if (!sortedColumns.contains(col)) {
+        if (!errors.isEmpty()) {
+          errors += " -- ";
+        }
+        errors += col + " column has a validation that depends on columns "
+            + columnsInValidation.get(col) + " which creates a cycle";
+      }
+    }
+    return errors.isEmpty() ? null : errors;
+  }
+
+  // These are the columns which should trigger a CHANGE request to the FIC (because either they
+  // require a combo reload because they are used in a validation, or there is a callout
+  // associated with them)
+  private List<String> computeChangeEventColumns() {
+    List<String> changeEventCols = new ArrayList<>();
+    for (Field field : fields) {
+      if (field.getColumn() == null) {
+        continue;
+      }
+      String column = field.getColumn().getDBColumnName();
+      String columninp = "inp" + Sqlc.TransformaNombreColumna(column);
+      if (column.equalsIgnoreCase("Ad_Org_Id") && !changeEventCols.contains(columninp)) {
+        changeEventCols.add(columninp);
+      }
+      if (columnsInValidation.get(column) != null && columnsInValidation.get(column).size() > 0) {
+        for (String colInVal : columnsInValidation.get(column)) {
+          final String columnName = "inp" + Sqlc.TransformaNombreColumna(colInVal);
+          if (!changeEventCols.contains(columnName)) {
+            changeEventCols.add(columnName);
+          }
+        }
+      }
+    }
+    return changeEventCols;
+  }
+
+  private String pickDependantColumn(List<String> sorted) {
+    for (String col : columnsWithValidation) {
+      if (sorted.contains(col)) {
+        continue;
+      }
+      for (String depCol : columnsInValidation.get(col)) {
+        if (containsIgnoreCase(sorted, depCol)) {
+          return col;
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private String pickNonDependantColumn(List<String> sorted) {
+    for (String col : columnsWithValidation) {
+      if (sorted.contains(col)) {
+        continue;
+      }
+      if (columnsInValidation.get(col) == null || columnsInValidation.get(col).isEmpty()) {
+        return col;
+      }
+      boolean allColsSorted = true;
+      for (String depCol : columnsInValidation.get(col)) {
+        if (!containsIgnoreCase(sorted, depCol)) {
+          allColsSorted = false;
+        }
+      }
+      if (allColsSorted) {
+        return col;
+      }
+    }
+
+    return null;
+  }
+
+  private static boolean containsIgnoreCase(List<String> list, String element) {
+    for (String e : list) {
+      if (e.equalsIgnoreCase(element)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isPropertyField(Field field) {
+    return field.getProperty() != null && !field.getProperty().isEmpty();
+  }
+
+  private static String getColumnName(Field field) {
+    if (isPropertyField(field)) {
+      return "_propertyField_" + Sqlc.TransformaNombreColumna(field.getName()).replace(" ", "")
+          + "_" + field.getColumn().getDBColumnName();
+    }
+    return field.getColumn().getDBColumnName();
+  }
+
+  private static String getValidation(Field field) {
+    Column c = field.getColumn();
+    String val = "";
+    if (c.getValidation() != null && c.getValidation().getValidationCode() != null) {
+      val += c.getValidation().getValidationCode();
+    }
+    if (c.getReference().getId().equals("18")) {
+      if (c.getReferenceSearchKey() != null) {
+        for (ReferencedTable t : c.getReferenceSearchKey().getADReferencedTableList()) {
+          val += " AND " + t.getSQLWhereClause();
+        }
+      }
+    }
+    return val;
+  }
+
+  private static List<String> parseValidation(String column, String validation,
+      List<String> possibleColumns) {
+    String token = validation;
+    List<String> columns = new ArrayList<>();
+    int i = token.indexOf("@");
+    while (i != -1) {
+      token = token.substring(i + 1);
+      if (!token.startsWith("SQL")) {
+        i = token.indexOf("@");
+        if (i != -1) {
+          String strAux = token.substring(0, i);
+          token = token.substring(i + 1);
+          if (!columns.contains(strAux)) {
+            if (!strAux.equalsIgnoreCase(column)
+                && possibleColumns.contains(strAux.toUpperCase())) {
+              columns.add(strAux);
+            }
+          }
+        }
+      }
+      i = token.indexOf("@");
+    }
+    return columns;
+  }
+}
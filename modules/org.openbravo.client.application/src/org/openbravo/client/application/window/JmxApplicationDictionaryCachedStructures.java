@@ -47,4 +47,9 @@ public class JmxApplicationDictionaryCachedStructures
   public Collection<String> getCachedWindows() {
     return adcs.getCachedWindows();
   }
+
+  @Override
+  public int getCachedFormPlans() {
+    return adcs.getCachedFormPlans();
+  }
 }
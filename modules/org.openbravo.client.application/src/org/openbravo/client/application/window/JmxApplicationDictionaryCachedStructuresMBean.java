@@ -35,4 +35,7 @@ public interface JmxApplicationDictionaryCachedStructuresMBean {
 
   /** Lists Windows cached in ADCS. */
   Collection<String> getCachedWindows();
+
+  /** Returns the number of tabs whose Form Initialization Component plan is cached. */
+  int getCachedFormPlans();
 }
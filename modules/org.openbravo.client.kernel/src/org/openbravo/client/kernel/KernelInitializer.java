@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2011-2015 Openbravo SLU 
+ * All portions are Copyright (C) 2011-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -31,6 +31,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.base.session.SessionFactoryController;
+import org.openbravo.client.kernel.event.PersistenceEventDispatcher;
 import org.openbravo.client.kernel.event.PersistenceEventOBInterceptor;
 import org.openbravo.dal.core.OBInterceptor;
 import org.openbravo.database.ExternalConnectionPool;
@@ -50,6 +51,9 @@ public class KernelInitializer {
   @Inject
   private PersistenceEventOBInterceptor persistenceEventOBInterceptor;
 
+  @Inject
+  private PersistenceEventDispatcher persistenceEventDispatcher;
+
   @Inject
   @Any
   private Instance<ApplicationInitializer> applicationInitializers;
@@ -60,6 +64,7 @@ public class KernelInitializer {
 
   public void initialize() {
     setInterceptor();
+    persistenceEventDispatcher.initialize();
 
     for (ApplicationInitializer initializer : applicationInitializers) {
       initializer.initialize();
@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2011-2019 Openbravo SLU 
+ * All portions are Copyright (C) 2011-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -39,6 +39,25 @@ public abstract class EntityPersistenceEventObserver {
    */
   protected abstract Entity[] getObservedEntities();
 
+  /**
+   * Used by the {@link PersistenceEventDispatcher} to decide, once for every entity, whether the
+   * events of that entity must be sent to this observer. Subclasses which override
+   * {@link #isValidEvent(EntityPersistenceEvent)} to accept events of entities not returned by
+   * {@link #getObservedEntities()} must also override this method to accept those entities.
+   * 
+   * @param entity
+   *          an entity of the model
+   * @return true if the entity is one of the observed entities.
+   */
+  protected boolean observesEntity(Entity entity) {
+    for (Entity observedEntity : getObservedEntities()) {
+      if (observedEntity == entity) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Convenience method which can be used by subclass to check if a certain event is indeed targeted
    * for this observer.
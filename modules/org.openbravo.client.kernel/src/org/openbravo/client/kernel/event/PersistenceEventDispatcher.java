@@ -0,0 +1,360 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html 
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License. 
+ * The Original Code is Openbravo ERP. 
+ * The Initial Developer of the Original Code is Openbravo SLU 
+ * All portions are Copyright (C) 2026 Openbravo SLU 
+ * All Rights Reserved. 
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.kernel.event;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.event.TransactionPhase;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.ObserverMethod;
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.base.structure.BaseOBObject;
+import org.openbravo.jmx.MBeanRegistry;
+
+/**
+ * Sends the persistence events of the {@link PersistenceEventOBInterceptor} directly to the
+ * observer methods interested in the entity of the persisted object, instead of firing them through
+ * CDI to every observer of the event type.
+ *
+ * The dispatch table is disabled by default, it is enabled with the
+ * persistence.events.dispatchTable property of Openbravo.properties or through JMX. It is built
+ * when the kernel is initialized, or the first time it is used if it is enabled later: for each
+ * event type it maps every entity of the model to the observer methods of the event type, in the
+ * order CDI would notify them, whose {@link EntityPersistenceEventObserver} observes the entity
+ * according to {@link EntityPersistenceEventObserver#observesEntity(Entity)}. Observer methods
+ * declared in beans which do not extend {@link EntityPersistenceEventObserver} are mapped to every
+ * entity. The events of a type with transactional observer methods are always fired through CDI.
+ *
+ * The events whose entity has no observers are not created at all. The time spent by each observer
+ * method is measured and exposed through JMX.
+ */
+@ApplicationScoped
+public class PersistenceEventDispatcher implements PersistenceEventDispatcherMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "PersistenceEventDispatcher";
+
+  private static final String ENABLED_PROPERTY = "persistence.events.dispatchTable";
+
+  @Inject
+  private BeanManager beanManager;
+
+  private volatile boolean enabled;
+  private volatile Map<Class<?>, Map<String, TimedObserver[]>> table;
+  private final Map<ObserverMethod<?>, TimedObserver> observers = new IdentityHashMap<>();
+  private final LongAdder dispatchedEvents = new LongAdder();
+  private final LongAdder skippedEvents = new LongAdder();
+
+  @PostConstruct
+  private void init() {
+    enabled = OBPropertiesProvider.getInstance().getBooleanProperty(ENABLED_PROPERTY);
+    if (enabled) {
+      log.info("Persistence event dispatch table enabled");
+    }
+    MBeanRegistry.registerMBean(MBEAN_NAME, this);
+  }
+
+  /** Builds the dispatch table, if it is enabled and it has not been built yet. */
+  public void initialize() {
+    if (enabled) {
+      getTable();
+    }
+  }
+
+  /**
+   * Checks whether an event of the given type must be created for an object.
+   *
+   * @return false if the dispatch table is enabled and no observer method of the event type
+   *         observes the entity of the object, true otherwise
+   */
+  boolean isObserved(Class<? extends EntityPersistenceEvent> eventType, Object object) {
+    if (!enabled) {
+      return true;
+    }
+    final Map<String, TimedObserver[]> eventObservers = getTable().get(eventType);
+    if (eventObservers == null
+        || eventObservers.containsKey(((BaseOBObject) object).getEntityName())) {
+      return true;
+    }
+    skippedEvents.increment();
+    return false;
+  }
+
+  /**
+   * Sends an event to the observer methods of its type which observe the entity of its target
+   * instance.
+   *
+   * @return true if the event has been sent, false if it must be fired through CDI because the
+   *         dispatch table is disabled or does not handle its type
+   */
+  boolean dispatch(EntityPersistenceEvent event) {
+    if (!enabled) {
+      return false;
+    }
+    final Map<String, TimedObserver[]> eventObservers = getTable().get(event.getClass());
+    if (eventObservers == null) {
+      return false;
+    }
+    final TimedObserver[] entityObservers = eventObservers
+        .get(event.getTargetInstance().getEntityName());
+    if (entityObservers != null) {
+      for (TimedObserver observer : entityObservers) {
+        observer.send(event);
+      }
+    }
+    dispatchedEvents.increment();
+    return true;
+  }
+
+  private Map<Class<?>, Map<String, TimedObserver[]>> getTable() {
+    Map<Class<?>, Map<String, TimedObserver[]>> currentTable = table;
+    if (currentTable == null) {
+      synchronized (this) {
+        currentTable = table;
+        if (currentTable == null) {
+          currentTable = buildTable();
+          table = currentTable;
+        }
+      }
+    }
+    return currentTable;
+  }
+
+  private Map<Class<?>, Map<String, TimedObserver[]>> buildTable() {
+    final long t = System.currentTimeMillis();
+    final List<Entity> model = ModelProvider.getInstance().getModel();
+    final Map<Class<?>, EntityPersistenceEventObserver> instances = new HashMap<>();
+    final List<CreationalContext<?>> creationalContexts = new ArrayList<>();
+    final Map<Class<?>, Map<String, TimedObserver[]>> newTable = new HashMap<>();
+    try {
+      for (EntityPersistenceEvent event : new EntityPersistenceEvent[] { new EntityNewEvent(),
+          new EntityUpdateEvent(), new EntityDeleteEvent() }) {
+        final Map<String, TimedObserver[]> eventObservers = buildEventObservers(event, model,
+            instances, creationalContexts);
+        if (eventObservers != null) {
+          newTable.put(event.getClass(), eventObservers);
+        }
+      }
+    } finally {
+      // the observer instances are only needed to build the table
+      creationalContexts.forEach(CreationalContext::release);
+    }
+    log.info("Persistence event dispatch table built for {} observers in {} ms",
+        instances.size(), System.currentTimeMillis() - t);
+    return newTable;
+  }
+
+  private Map<String, TimedObserver[]> buildEventObservers(EntityPersistenceEvent event,
+      List<Entity> model, Map<Class<?>, EntityPersistenceEventObserver> instances,
+      List<CreationalContext<?>> creationalContexts) {
+    final Set<ObserverMethod<? super EntityPersistenceEvent>> observerMethods = beanManager
+        .resolveObserverMethods(event);
+    final Map<String, List<TimedObserver>> entityObservers = new HashMap<>();
+    for (ObserverMethod<? super EntityPersistenceEvent> observerMethod : observerMethods) {
+      if (observerMethod.isAsync()) {
+        // not notified when firing synchronously
+        continue;
+      }
+      if (observerMethod.getTransactionPhase() != TransactionPhase.IN_PROGRESS) {
+        log.warn("{} has a transactional observer method, its events are fired through CDI",
+            event.getClass().getSimpleName());
+        return null;
+      }
+      final TimedObserver timedObserver = getTimedObserver(observerMethod);
+      final EntityPersistenceEventObserver observer = instances
+          .computeIfAbsent(observerMethod.getBeanClass(),
+              beanClass -> getObserver(beanClass, creationalContexts));
+      for (Entity entity : model) {
+        if (observes(observer, entity)) {
+          entityObservers.computeIfAbsent(entity.getName(), name -> new ArrayList<>())
+              .add(timedObserver);
+        }
+      }
+    }
+    final Map<String, TimedObserver[]> result = new HashMap<>(entityObservers.size());
+    entityObservers.forEach((entityName, timedObservers) -> result.put(entityName,
+        timedObservers.toArray(new TimedObserver[timedObservers.size()])));
+    return result;
+  }
+
+  private TimedObserver getTimedObserver(ObserverMethod<?> observerMethod) {
+    synchronized (observers) {
+      return observers.computeIfAbsent(observerMethod, TimedObserver::new);
+    }
+  }
+
+  /**
+   * Returns the instance of an observer bean class, or null if it does not extend
+   * {@link EntityPersistenceEventObserver} and therefore its observed entities are unknown. The
+   * creational context of the instance is added to the given list, to be released by the caller.
+   */
+  private EntityPersistenceEventObserver getObserver(Class<?> beanClass,
+      List<CreationalContext<?>> creationalContexts) {
+    if (!EntityPersistenceEventObserver.class.isAssignableFrom(beanClass)) {
+      return null;
+    }
+    for (Bean<?> bean : beanManager.getBeans(beanClass, Any.Literal.INSTANCE)) {
+      if (bean.getBeanClass() == beanClass) {
+        final CreationalContext<?> creationalContext = beanManager.createCreationalContext(bean);
+        creationalContexts.add(creationalContext);
+        return (EntityPersistenceEventObserver) beanManager.getReference(bean, beanClass,
+            creationalContext);
+      }
+    }
+    return null;
+  }
+
+  private boolean observes(EntityPersistenceEventObserver observer, Entity entity) {
+    if (observer == null) {
+      return true;
+    }
+    try {
+      return observer.observesEntity(entity);
+    } catch (RuntimeException e) {
+      log.warn("Could not check if {} observes {}, it receives its events", observer.getClass(),
+          entity, e);
+      return true;
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void setEnabled(boolean enabled) {
+    log.info("Persistence event dispatch table {}", enabled ? "enabled" : "disabled");
+    this.enabled = enabled;
+  }
+
+  @Override
+  public int getObservedEntities() {
+    final Map<Class<?>, Map<String, TimedObserver[]>> currentTable = table;
+    if (currentTable == null) {
+      return 0;
+    }
+    return (int) currentTable.values()
+        .stream()
+        .flatMap(eventObservers -> eventObservers.keySet().stream())
+        .distinct()
+        .count();
+  }
+
+  @Override
+  public long getDispatchedEvents() {
+    return dispatchedEvents.sum();
+  }
+
+  @Override
+  public long getSkippedEvents() {
+    return skippedEvents.sum();
+  }
+
+  @Override
+  public String[] getObserverTimings() {
+    final List<TimedObserver> timedObservers;
+    synchronized (observers) {
+      timedObservers = new ArrayList<>(observers.values());
+    }
+    return timedObservers.stream()
+        .filter(observer -> observer.calls.sum() > 0)
+        .sorted(Comparator.comparingLong((TimedObserver observer) -> observer.nanos.sum())
+            .reversed())
+        .map(TimedObserver::toString)
+        .toArray(String[]::new);
+  }
+
+  @Override
+  public void resetObserverTimings() {
+    synchronized (observers) {
+      observers.values().forEach(TimedObserver::reset);
+    }
+  }
+
+  /** An observer method together with the time spent notifying it. */
+  private static class TimedObserver {
+    private final ObserverMethod<Object> observerMethod;
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+    @SuppressWarnings("unchecked")
+    private TimedObserver(ObserverMethod<?> observerMethod) {
+      this.observerMethod = (ObserverMethod<Object>) observerMethod;
+      final Type observedType = observerMethod.getObservedType();
+      this.name = observerMethod.getBeanClass().getName() + " ("
+          + (observedType instanceof Class ? ((Class<?>) observedType).getSimpleName()
+              : observedType.getTypeName())
+          + ")";
+    }
+
+    private void send(EntityPersistenceEvent event) {
+      final long start = System.nanoTime();
+      try {
+        observerMethod.notify(event);
+      } finally {
+        final long elapsed = System.nanoTime() - start;
+        calls.increment();
+        nanos.add(elapsed);
+        maxNanos.accumulate(elapsed);
+      }
+    }
+
+    private void reset() {
+      calls.reset();
+      nanos.reset();
+      maxNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+      final long count = calls.sum();
+      final long total = nanos.sum();
+      return String.format("%s: calls=%d, total=%.3f ms, avg=%.3f ms, max=%.3f ms", name, count,
+          toMillis(total), count == 0 ? 0d : toMillis(total / count), toMillis(maxNanos.get()));
+    }
+
+    private static double toMillis(long nanoseconds) {
+      return nanoseconds / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html 
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License. 
+ * The Original Code is Openbravo ERP. 
+ * The Initial Developer of the Original Code is Openbravo SLU 
+ * All portions are Copyright (C) 2026 Openbravo SLU 
+ * All Rights Reserved. 
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.kernel.event;
+
+/** Exposes the statistics of the {@link PersistenceEventDispatcher} as a JMX Bean. */
+public interface PersistenceEventDispatcherMBean {
+
+  /** Returns true if the persistence events are dispatched with the dispatch table. */
+  boolean isEnabled();
+
+  /**
+   * Enables or disables the dispatch table. When it is enabled, the table is built the first time
+   * it is used.
+   */
+  void setEnabled(boolean enabled);
+
+  /** Returns the number of entities with at least one observer, 0 if the table is not built. */
+  int getObservedEntities();
+
+  /** Returns the number of persistence events sent to their observers through the table. */
+  long getDispatchedEvents();
+
+  /** Returns the number of persistence events not created because their entity has no observers. */
+  long getSkippedEvents();
+
+  /**
+   * Returns the number of calls, the total, average and maximum time in milliseconds spent by each
+   * observer method, sorted from the slowest to the fastest total time.
+   */
+  String[] getObserverTimings();
+
+  /** Discards the timing statistics of all the observer methods. */
+  void resetObserverTimings();
+}
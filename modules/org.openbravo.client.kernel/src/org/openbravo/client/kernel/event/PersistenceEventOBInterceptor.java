@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2011-2012 Openbravo SLU 
+ * All portions are Copyright (C) 2011-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -33,6 +33,9 @@ import org.openbravo.base.structure.Traceable;
 /**
  * The interceptor which listens to persistence events and passes them on to observers.
  * 
+ * The entity events are sent through the {@link PersistenceEventDispatcher} when its dispatch table
+ * is enabled, otherwise they are fired through CDI.
+ * 
  * @author mtaal
  */
 @ApplicationScoped
@@ -55,16 +58,24 @@ public class PersistenceEventOBInterceptor extends EmptyInterceptor {
   @Inject
   private Event<TransactionCompletedEvent> transactionCompletedEventProducer;
 
+  @Inject
+  private PersistenceEventDispatcher persistenceEventDispatcher;
+
   @Override
   public void onDelete(Object entity, Serializable id, Object[] state, String[] propertyNames,
       Type[] types) {
+    if (!persistenceEventDispatcher.isObserved(EntityDeleteEvent.class, entity)) {
+      return;
+    }
     final EntityDeleteEvent entityEvent = new EntityDeleteEvent();
     entityEvent.setTargetInstance((BaseOBObject) entity);
     entityEvent.setPropertyNames(propertyNames);
     entityEvent.setCurrentState(state);
     entityEvent.setTypes(types);
     entityEvent.setId((String) id);
-    entityDeleteEventProducer.fire(entityEvent);
+    if (!persistenceEventDispatcher.dispatch(entityEvent)) {
+      entityDeleteEventProducer.fire(entityEvent);
+    }
   }
 
   @Override
@@ -85,18 +96,26 @@ public class PersistenceEventOBInterceptor extends EmptyInterceptor {
 
   private boolean sendNewEvent(Object entity, Serializable id, Object[] state,
       String[] propertyNames, Type[] types) {
+    if (!persistenceEventDispatcher.isObserved(EntityNewEvent.class, entity)) {
+      return false;
+    }
     final EntityNewEvent entityEvent = new EntityNewEvent();
     entityEvent.setTargetInstance((BaseOBObject) entity);
     entityEvent.setPropertyNames(propertyNames);
     entityEvent.setCurrentState(state);
     entityEvent.setTypes(types);
     entityEvent.setId((String) id);
-    entityNewEventProducer.fire(entityEvent);
+    if (!persistenceEventDispatcher.dispatch(entityEvent)) {
+      entityNewEventProducer.fire(entityEvent);
+    }
     return entityEvent.isStateUpdated();
   }
 
   private boolean sendUpdateEvent(Object entity, Serializable id, Object[] currentState,
       Object[] previousState, String[] propertyNames, Type[] types) {
+    if (!persistenceEventDispatcher.isObserved(EntityUpdateEvent.class, entity)) {
+      return false;
+    }
     final EntityUpdateEvent entityEvent = new EntityUpdateEvent();
     entityEvent.setTargetInstance((BaseOBObject) entity);
     entityEvent.setPropertyNames(propertyNames);
@@ -104,7 +123,9 @@ public class PersistenceEventOBInterceptor extends EmptyInterceptor {
     entityEvent.setPreviousState(previousState);
     entityEvent.setTypes(types);
     entityEvent.setId((String) id);
-    entityUpdateEventProducer.fire(entityEvent);
+    if (!persistenceEventDispatcher.dispatch(entityEvent)) {
+      entityUpdateEventProducer.fire(entityEvent);
+    }
     return entityEvent.isStateUpdated();
   }
 
@@ -22,9 +22,12 @@ package org.openbravo.service.datasource;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.ServletException;
 
@@ -657,10 +660,6 @@ public class ADTreeDatasourceService extends TreeDatasourceService {
 
     Entity entity = ModelProvider.getInstance().getEntityByTableId(tree.getTable().getId());
 
-    final DataToJsonConverter toJsonConverter = OBProvider.getInstance()
-        .get(DataToJsonConverter.class);
-    toJsonConverter.setAdditionalProperties(JsonUtils.getAdditionalProperties(parameters));
-
     JSONObject json = null;
     try {
       OBCriteria<TreeNode> treeNodeCriteria = OBDal.getInstance().createCriteria(TreeNode.class);
@@ -669,22 +668,115 @@ public class ADTreeDatasourceService extends TreeDatasourceService {
       treeNodeCriteria.add(Restrictions.eq(TreeNode.PROPERTY_NODE, bobId));
       TreeNode treeNode = (TreeNode) treeNodeCriteria.uniqueResult();
       BaseOBObject bob = OBDal.getInstance().get(entity.getName(), treeNode.getNode());
-      json = toJsonConverter.toJsonObject(bob, DataResolvingMode.FULL);
-      json.put("nodeId", bobId);
-      if (treeNode.getReportSet() == null) {
-        json.put("parentId", ROOT_NODE_CLIENT);
-      } else {
-        json.put("parentId", treeNode.getReportSet());
-      }
-
-      addNodeCommonAttributes(entity, bob, json);
-      json.put("_hasChildren", this.nodeHasChildren(entity, treeNode.getNode(), hqlWhereClause));
+      json = toJSONObject(parameters, entity, treeNode, bob,
+          this.nodeHasChildren(entity, treeNode.getNode(), hqlWhereClause));
     } catch (Exception e) {
       logger.error("Error on tree datasource", e);
     }
     return json;
   }
 
+  /**
+   * Reads the tree nodes, their records and whether they have children with a single query each
+   */
+  @Override
+  protected Map<String, JSONObject> getJSONObjectsByRecordIds(Map<String, String> parameters,
+      Map<String, Object> datasourceParameters, Collection<String> bobIds) {
+    String hqlWhereClause = getHqlWhereClause(parameters);
+    Tree tree = (Tree) datasourceParameters.get("tree");
+    Entity entity = ModelProvider.getInstance().getEntityByTableId(tree.getTable().getId());
+
+    Map<String, JSONObject> nodes = new HashMap<>();
+    try {
+      for (List<String> ids : partition(bobIds)) {
+        OBCriteria<TreeNode> treeNodeCriteria = OBDal.getInstance().createCriteria(TreeNode.class);
+        treeNodeCriteria.setFilterOnActive(false);
+        treeNodeCriteria.add(Restrictions.eq(TreeNode.PROPERTY_TREE, tree));
+        treeNodeCriteria.add(Restrictions.in(TreeNode.PROPERTY_NODE, ids));
+        List<TreeNode> treeNodes = treeNodeCriteria.list();
+
+        Map<Object, BaseOBObject> bobs = new HashMap<>();
+        for (BaseOBObject bob : OBDal.getInstance()
+            .createQuery(entity.getName(), "as e where e.id in (:ids)")
+            .setFilterOnActive(false)
+            .setFilterOnReadableClients(false)
+            .setFilterOnReadableOrganization(false)
+            .setNamedParameter("ids", ids)
+            .list()) {
+          bobs.put(bob.getId(), bob);
+        }
+
+        //@formatter:off
+        String joinClause = " as tn, " + entity.getName() + " as e "
+                          + " where tn.node = e.id "
+                          + "   and tn.reportSet in (:nodeIds) ";
+        //@formatter:on
+        if (hqlWhereClause != null) {
+          joinClause += " and (" + hqlWhereClause + ")";
+        }
+        Set<String> nodesWithChildren = new HashSet<>(OBDal.getInstance()
+            .createQuery("ADTreeNode", joinClause)
+            .setFilterOnActive(false)
+            .setFilterOnReadableOrganization(entity.getMappingClass() != Organization.class)
+            .setNamedParameter("nodeIds", ids)
+            .setSelectClause("distinct tn.reportSet")
+            .createQuery(String.class)
+            .list());
+
+        for (TreeNode treeNode : treeNodes) {
+          BaseOBObject bob = bobs.get(treeNode.getNode());
+          if (bob != null) {
+            nodes.put(treeNode.getNode(), toJSONObject(parameters, entity, treeNode, bob,
+                nodesWithChildren.contains(treeNode.getNode())));
+          }
+        }
+      }
+    } catch (JSONException e) {
+      logger.error("Error on tree datasource", e);
+    }
+    return nodes;
+  }
+
+  @Override
+  protected Map<String, JSONObject> getJSONObjectsByNodeIds(Map<String, String> parameters,
+      Map<String, Object> datasourceParameters, Collection<String> nodeIds) {
+    // In the ADTree structure, nodeId = recordId
+    return getJSONObjectsByRecordIds(parameters, datasourceParameters, nodeIds);
+  }
+
+  private JSONObject toJSONObject(Map<String, String> parameters, Entity entity,
+      TreeNode treeNode, BaseOBObject bob, boolean hasChildren) throws JSONException {
+    final DataToJsonConverter toJsonConverter = OBProvider.getInstance()
+        .get(DataToJsonConverter.class);
+    toJsonConverter.setAdditionalProperties(JsonUtils.getAdditionalProperties(parameters));
+
+    JSONObject json = toJsonConverter.toJsonObject(bob, DataResolvingMode.FULL);
+    json.put("nodeId", treeNode.getNode());
+    if (treeNode.getReportSet() == null) {
+      json.put("parentId", ROOT_NODE_CLIENT);
+    } else {
+      json.put("parentId", treeNode.getReportSet());
+    }
+
+    addNodeCommonAttributes(entity, bob, json);
+    json.put("_hasChildren", hasChildren);
+    return json;
+  }
+
+  private String getHqlWhereClause(Map<String, String> parameters) {
+    String tabId = parameters.get("tabId");
+    String treeReferenceId = parameters.get("treeReferenceId");
+    String hqlWhereClause = null;
+    if (tabId != null) {
+      hqlWhereClause = OBDal.getInstance().get(Tab.class, tabId).getHqlwhereclause();
+    } else if (treeReferenceId != null) {
+      hqlWhereClause = OBDal.getInstance()
+          .get(ReferencedTree.class, treeReferenceId)
+          .getHQLSQLWhereClause();
+    }
+    return hqlWhereClause == null ? null : this.substituteParameters(hqlWhereClause, parameters);
+  }
+
   /**
    * Checks if the provided node complies with the hql where clause
    */
@@ -711,6 +803,61 @@ public class ADTreeDatasourceService extends TreeDatasourceService {
         .count() > 0;
   }
 
+  @Override
+  protected Set<String> getNodesConformingToWhereClause(TableTree tableTree,
+      Collection<String> nodeIds, String hqlWhereClause) {
+    Entity entity = ModelProvider.getInstance().getEntityByTableId(tableTree.getTable().getId());
+
+    //@formatter:off
+    String joinClause = " as tn , " + entity.getName() + " as e"
+                      + " where tn.node = e.id"
+                      + "   and tn.node in (:nodeIds) ";
+    //@formatter:on
+
+    if (hqlWhereClause != null) {
+      joinClause += " and (" + hqlWhereClause + ")";
+    }
+
+    Set<String> conformingNodeIds = new HashSet<>();
+    for (List<String> ids : partition(nodeIds)) {
+      conformingNodeIds.addAll(OBDal.getInstance()
+          .createQuery("ADTreeNode", joinClause)
+          .setFilterOnActive(false)
+          .setNamedParameter("nodeIds", ids)
+          .setSelectClause("tn.node")
+          .createQuery(String.class)
+          .list());
+    }
+    return conformingNodeIds;
+  }
+
+  @Override
+  protected String getAncestorIndexKey(TableTree tableTree,
+      Map<String, Object> datasourceParameters) {
+    Tree tree = (Tree) datasourceParameters.get("tree");
+    return tree == null ? null : "ADTree|" + tree.getId();
+  }
+
+  @Override
+  protected Map<String, String> getNodeParentIds(TableTree tableTree,
+      Map<String, Object> datasourceParameters) {
+    Tree tree = (Tree) datasourceParameters.get("tree");
+    //@formatter:off
+    String hql = "select tn.node, tn.reportSet"
+               + "  from ADTreeNode as tn"
+               + " where tn.tree.id = :treeId";
+    //@formatter:on
+    Map<String, String> parentIds = new HashMap<>();
+    for (Object[] row : OBDal.getInstance()
+        .getSession()
+        .createQuery(hql, Object[].class)
+        .setParameter("treeId", tree.getId())
+        .list()) {
+      parentIds.put((String) row[0], (String) row[1]);
+    }
+    return parentIds;
+  }
+
   @Override
   protected JSONArray fetchFilteredNodesForTreesWithMultiParentNodes(Map<String, String> parameters,
       Map<String, Object> datasourceParameters, TableTree tableTree, List<String> filteredNodes,
@@ -46,6 +46,7 @@ import org.openbravo.base.exception.OBSecurityException;
 import org.openbravo.base.model.Entity;
 import org.openbravo.base.model.ModelProvider;
 import org.openbravo.base.secureApp.VariablesSecureApp;
+import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.base.weld.WeldUtils;
 import org.openbravo.client.application.Parameter;
 import org.openbravo.client.application.Process;
@@ -92,6 +93,8 @@ public class DataSourceServlet extends BaseKernelServlet {
 
   private static String servletPathPart = "org.openbravo.service.datasource";
 
+  private static final String STREAMING_FETCH_PROPERTY = "datasource.fetch.streaming";
+
   public static String getServletPathPart() {
     return servletPathPart;
   }
@@ -102,11 +105,15 @@ public class DataSourceServlet extends BaseKernelServlet {
   @Inject
   private ApplicationDictionaryCachedStructures cachedStructures;
 
+  private boolean streamingFetch;
+
   @Override
   public void init(ServletConfig config) {
     if (config.getInitParameter(DataSourceConstants.URL_NAME_PARAM) != null) {
       servletPathPart = config.getInitParameter(DataSourceConstants.URL_NAME_PARAM);
     }
+    streamingFetch = OBPropertiesProvider.getInstance()
+        .getBooleanProperty(STREAMING_FETCH_PROPERTY);
 
     super.init(config);
   }
@@ -268,8 +275,14 @@ public class DataSourceServlet extends BaseKernelServlet {
       } else {
         // Check security: continue only if the entity is accessible for current user/role.
         getDataSource(request).checkFetchDatasourceAccess(parameters);
-        String result = getDataSource(request).fetch(parameters);
-        writeResult(response, result);
+        DataSourceService dataSource = getDataSource(request);
+        if (streamingFetch && dataSource instanceof DefaultDataSourceService
+            && ((DefaultDataSourceService) dataSource).isStreamingFetchSupported()) {
+          writeStreamedResult(response, (DefaultDataSourceService) dataSource, parameters);
+        } else {
+          String result = dataSource.fetch(parameters);
+          writeResult(response, result);
+        }
       }
     } catch (Exception e) {
       handleException(e, response);
@@ -521,6 +534,29 @@ public class DataSourceServlet extends BaseKernelServlet {
     w.close();
   }
 
+  /**
+   * Writes the response of the fetch while it is generated, instead of building it in memory
+   * before.
+   */
+  private void writeStreamedResult(HttpServletResponse response,
+      DefaultDataSourceService dataSource, Map<String, String> parameters) throws IOException {
+    response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
+    response.setHeader("Content-Type", JsonConstants.JSON_CONTENT_TYPE);
+
+    final Writer w = response.getWriter();
+    try {
+      dataSource.fetch(parameters, w);
+    } catch (RuntimeException e) {
+      // discard the part of the response that has not been sent yet, so the error can be written
+      // instead if the response is not committed
+      if (!response.isCommitted()) {
+        response.resetBuffer();
+      }
+      throw e;
+    }
+    w.close();
+  }
+
   private String getRequestContent(HttpServletRequest request) throws IOException {
     final BufferedReader reader = request.getReader();
     if (reader == null) {
@@ -18,6 +18,7 @@
  */
 package org.openbravo.service.datasource;
 
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -104,6 +105,30 @@ public class DefaultDataSourceService extends BaseDataSourceService {
     }
   }
 
+  /**
+   * Fetches the data like {@link #fetch(Map)} does, but writes the response directly into the given
+   * writer instead of returning it as a String. See
+   * {@link DefaultJsonDataService#fetch(Map, boolean, Writer)}.
+   */
+  public void fetch(Map<String, String> parameters, Writer writer) {
+    OBContext.setAdminMode(true);
+    try {
+      addFetchParameters(parameters);
+      DefaultJsonDataService.getInstance().fetch(parameters, true, writer);
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  /**
+   * @return true if {@link #fetch(Map, Writer)} returns the same response as {@link #fetch(Map)}.
+   *         By default it is only the case for this class, subclasses overriding the fetch can
+   *         return true if they do not change the response.
+   */
+  public boolean isStreamingFetchSupported() {
+    return getClass() == DefaultDataSourceService.class;
+  }
+
   /**
    * Adds some extra parameters that will be used to fetch data.
    */
@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2013-2019 Openbravo SLU
+ * All portions are Copyright (C) 2013-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -20,9 +20,14 @@
 package org.openbravo.service.datasource;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.servlet.ServletException;
 
@@ -33,6 +38,7 @@ import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
 import org.openbravo.base.exception.OBException;
 import org.openbravo.base.model.Entity;
 import org.openbravo.base.model.ModelProvider;
@@ -613,45 +619,274 @@ public class LinkToParentTreeDatasourceService extends TreeDatasourceService {
     Entity entity = ModelProvider.getInstance().getEntityByTableId(table.getId());
     JSONObject json = null;
 
+    try {
+      BaseOBObject bob = OBDal.getInstance().get(entity.getName(), bobId);
+      json = toJSONObject(entity, linkToParentProperty, nodeIdProperty, bob,
+          fillNodeIdAndParentId,
+          this.nodeHasChildren(entity, linkToParentProperty, nodeIdProperty, bob, hqlWhereClause));
+    } catch (JSONException e) {
+      logger.error("Error on tree datasource", e);
+    }
+    return json;
+  }
+
+  private JSONObject toJSONObject(Entity entity, Property linkToParentProperty,
+      Property nodeIdProperty, BaseOBObject bob, boolean fillNodeIdAndParentId,
+      boolean hasChildren) throws JSONException {
     final DataToJsonConverter toJsonConverter = OBProvider.getInstance()
         .get(DataToJsonConverter.class);
+    JSONObject json = toJsonConverter.toJsonObject(bob, DataResolvingMode.FULL);
+    if (fillNodeIdAndParentId) {
+      String parentId = getIdValue(bob, linkToParentProperty);
+      if (parentId != null) {
+        json.put("parentId", parentId);
+      } else {
+        json.put("parentId", ROOT_NODE_CLIENT);
+      }
+      json.put("nodeId", getIdValue(bob, nodeIdProperty));
+    }
+    addNodeCommonAttributes(entity, bob, json);
+    json.put("_hasChildren", hasChildren);
+    return json;
+  }
+
+  /**
+   * Returns the value of a property that references a node, either as a string or as a foreign key
+   */
+  private static String getIdValue(BaseOBObject bob, Property property) {
+    Object value = bob.get(property.getName());
+    if (value instanceof String) {
+      return (String) value;
+    } else if (value instanceof BaseOBObject) {
+      return ((BaseOBObject) value).getId().toString();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the path of a property that references a node to be used in a query
+   */
+  private static String getIdPath(Property property) {
+    return property.isPrimitive() ? property.getName() : property.getName() + ".id";
+  }
+
+  /**
+   * Reads the records and whether they have children with a single query each
+   */
+  @Override
+  protected Map<String, JSONObject> getJSONObjectsByRecordIds(Map<String, String> parameters,
+      Map<String, Object> datasourceParameters, Collection<String> bobIds) {
+    TableTree tableTree = getTableTree(parameters);
+    if (tableTree == null) {
+      return new HashMap<>();
+    }
+    Entity entity = ModelProvider.getInstance().getEntityByTableId(tableTree.getTable().getId());
+    List<BaseOBObject> bobs = new ArrayList<>();
+    for (List<String> ids : partition(bobIds)) {
+      bobs.addAll(OBDal.getInstance()
+          .createQuery(entity.getName(), "as e where e.id in (:ids)")
+          .setFilterOnActive(false)
+          .setFilterOnReadableClients(false)
+          .setFilterOnReadableOrganization(false)
+          .setNamedParameter("ids", ids)
+          .list());
+    }
+    Map<String, JSONObject> nodes = new HashMap<>();
+    for (Entry<BaseOBObject, JSONObject> node : toJSONObjects(parameters, tableTree, bobs)
+        .entrySet()) {
+      nodes.put(node.getKey().getId().toString(), node.getValue());
+    }
+    return nodes;
+  }
 
+  /**
+   * Reads the records with a single query, the nodes with several records are not included
+   */
+  @Override
+  protected Map<String, JSONObject> getJSONObjectsByNodeIds(Map<String, String> parameters,
+      Map<String, Object> datasourceParameters, Collection<String> nodeIds) {
+    TableTree tableTree = getTableTree(parameters);
+    if (tableTree == null) {
+      return new HashMap<>();
+    }
+    Entity entity = ModelProvider.getInstance().getEntityByTableId(tableTree.getTable().getId());
+    Property nodeIdProperty = getNodeIdProperty(tableTree);
+    Map<String, List<BaseOBObject>> bobsByNodeId = new HashMap<>();
+    for (List<String> ids : partition(nodeIds)) {
+      for (BaseOBObject bob : OBDal.getInstance()
+          .createQuery(entity.getName(),
+              " as e where e." + getIdPath(nodeIdProperty) + " in (:nodeIds)")
+          .setNamedParameter("nodeIds", ids)
+          .list()) {
+        bobsByNodeId.computeIfAbsent(getIdValue(bob, nodeIdProperty), k -> new ArrayList<>())
+            .add(bob);
+      }
+    }
+    List<BaseOBObject> bobs = new ArrayList<>();
+    for (List<BaseOBObject> nodeBobs : bobsByNodeId.values()) {
+      if (nodeBobs.size() == 1) {
+        bobs.add(nodeBobs.get(0));
+      }
+    }
+    Map<String, JSONObject> nodes = new HashMap<>();
+    for (Entry<BaseOBObject, JSONObject> node : toJSONObjects(parameters, tableTree, bobs)
+        .entrySet()) {
+      nodes.put(getIdValue(node.getKey(), nodeIdProperty), node.getValue());
+    }
+    return nodes;
+  }
+
+  private Map<BaseOBObject, JSONObject> toJSONObjects(Map<String, String> parameters,
+      TableTree tableTree, List<BaseOBObject> bobs) {
+    Entity entity = ModelProvider.getInstance().getEntityByTableId(tableTree.getTable().getId());
+    Property linkToParentProperty = getLinkToParentProperty(tableTree);
+    Property nodeIdProperty = getNodeIdProperty(tableTree);
+    String hqlWhereClause = getHqlWhereClause(parameters);
+
+    Set<String> nodeIds = new HashSet<>();
+    for (BaseOBObject bob : bobs) {
+      nodeIds.add(getIdValue(bob, nodeIdProperty));
+    }
+    nodeIds.remove(null);
+    //@formatter:off
+    String whereClause = 
+            " as e " +
+            " where e." + getIdPath(linkToParentProperty) + " in (:nodeIds) ";
+    //@formatter:on
+    if (hqlWhereClause != null) {
+      whereClause += " and " + hqlWhereClause;
+    }
+    Set<String> nodesWithChildren = new HashSet<>();
+    for (List<String> ids : partition(nodeIds)) {
+      nodesWithChildren.addAll(OBDal.getInstance()
+          .createQuery(entity.getName(), whereClause)
+          .setFilterOnActive(false)
+          .setNamedParameter("nodeIds", ids)
+          .setSelectClause("distinct e." + getIdPath(linkToParentProperty))
+          .createQuery(String.class)
+          .list());
+    }
+
+    Map<BaseOBObject, JSONObject> nodes = new HashMap<>();
     try {
-      BaseOBObject bob = OBDal.getInstance().get(entity.getName(), bobId);
-      json = toJsonConverter.toJsonObject(bob, DataResolvingMode.FULL);
-      if (fillNodeIdAndParentId) {
-        String parentId = null;
-        if (linkToParentProperty.isPrimitive()) {
-          parentId = (String) bob.get(linkToParentProperty.getName());
-        } else {
-          BaseOBObject parent = (BaseOBObject) bob.get(linkToParentProperty.getName());
-          if (parent != null) {
-            parentId = parent.getId().toString();
-          }
-        }
-        if (parentId != null) {
-          json.put("parentId", parentId);
-        } else {
-          json.put("parentId", ROOT_NODE_CLIENT);
-        }
-        Object nodeId = bob.get(nodeIdProperty.getName());
-        String nodeIdStr = null;
-        if (nodeId instanceof String) {
-          nodeIdStr = (String) nodeId;
-        } else if (nodeId instanceof BaseOBObject) {
-          nodeIdStr = ((BaseOBObject) nodeId).getId().toString();
-        }
-        json.put("nodeId", nodeIdStr);
+      for (BaseOBObject bob : bobs) {
+        nodes.put(bob, toJSONObject(entity, linkToParentProperty, nodeIdProperty, bob, true,
+            nodesWithChildren.contains(getIdValue(bob, nodeIdProperty))));
       }
-      addNodeCommonAttributes(entity, bob, json);
-      json.put("_hasChildren",
-          (this.nodeHasChildren(entity, linkToParentProperty, nodeIdProperty, bob, hqlWhereClause))
-              ? true
-              : false);
     } catch (JSONException e) {
       logger.error("Error on tree datasource", e);
     }
-    return json;
+    return nodes;
+  }
+
+  private TableTree getTableTree(Map<String, String> parameters) {
+    String tabId = parameters.get("tabId");
+    String treeReferenceId = parameters.get("treeReferenceId");
+    if (tabId != null) {
+      return OBDal.getInstance().get(Tab.class, tabId).getTableTree();
+    } else if (treeReferenceId != null) {
+      return OBDal.getInstance()
+          .get(ReferencedTree.class, treeReferenceId)
+          .getTableTreeCategory();
+    }
+    return null;
+  }
+
+  private String getHqlWhereClause(Map<String, String> parameters) {
+    String tabId = parameters.get("tabId");
+    String treeReferenceId = parameters.get("treeReferenceId");
+    String hqlWhereClause = null;
+    if (tabId != null) {
+      hqlWhereClause = OBDal.getInstance().get(Tab.class, tabId).getHqlwhereclause();
+    } else if (treeReferenceId != null) {
+      hqlWhereClause = OBDal.getInstance()
+          .get(ReferencedTree.class, treeReferenceId)
+          .getHQLSQLWhereClause();
+    }
+    return hqlWhereClause == null ? null : this.substituteParameters(hqlWhereClause, parameters);
+  }
+
+  /**
+   * Checks the nodes with a single query, with the same criteria as
+   * {@link #nodeConformsToWhereClause(TableTree, String, String)}
+   */
+  @Override
+  protected Set<String> getNodesConformingToWhereClause(TableTree tableTree,
+      Collection<String> nodeIds, String hqlWhereClause) {
+    if (hqlWhereClause == null || hqlWhereClause.isEmpty()) {
+      return new HashSet<>(nodeIds);
+    }
+    Entity entity = ModelProvider.getInstance().getEntityByTableId(tableTree.getTable().getId());
+    Property nodeIdProperty = getNodeIdProperty(tableTree);
+
+    //@formatter:off
+    String whereClause = 
+            " as e " +
+            " where e." + getIdPath(nodeIdProperty) + " in (:nodeIds) " +
+            " and (" + hqlWhereClause + ")";
+    //@formatter:on
+    Map<String, Integer> records = new HashMap<>();
+    for (List<String> ids : partition(nodeIds)) {
+      for (String nodeId : OBDal.getInstance()
+          .createQuery(entity.getName(), whereClause)
+          .setNamedParameter("nodeIds", ids)
+          .setSelectClause("e." + getIdPath(nodeIdProperty))
+          .createQuery(String.class)
+          .list()) {
+        records.merge(nodeId, 1, Integer::sum);
+      }
+    }
+    Set<String> conformingNodeIds = new HashSet<>();
+    for (Entry<String, Integer> nodeRecords : records.entrySet()) {
+      // as in nodeConformsToWhereClause, the node must be identified by a single record
+      if (nodeRecords.getValue() == 1) {
+        conformingNodeIds.add(nodeRecords.getKey());
+      }
+    }
+    return conformingNodeIds;
+  }
+
+  /**
+   * The nodes of the trees are read for the clients readable by the current user, so each set of
+   * readable clients is kept as a different tree in the index.
+   */
+  @Override
+  protected String getAncestorIndexKey(TableTree tableTree,
+      Map<String, Object> datasourceParameters) {
+    return "LinkToParent|" + tableTree.getId() + "|" + String.join(",", getReadableClients());
+  }
+
+  private static String[] getReadableClients() {
+    String[] clients = OBContext.getOBContext().getReadableClients();
+    Arrays.sort(clients);
+    return clients;
+  }
+
+  @Override
+  protected String getAncestorIndexParentProperty(TableTree tableTree) {
+    return getLinkToParentProperty(tableTree).getName();
+  }
+
+  @Override
+  protected Map<String, String> getNodeParentIds(TableTree tableTree,
+      Map<String, Object> datasourceParameters) {
+    Entity entity = ModelProvider.getInstance().getEntityByTableId(tableTree.getTable().getId());
+    boolean filterByClient = entity.hasProperty("client");
+    //@formatter:off
+    String hql = "select e." + getIdPath(getNodeIdProperty(tableTree)) + ","
+               + "  e." + getIdPath(getLinkToParentProperty(tableTree))
+               + "  from " + entity.getName() + " as e"
+               + (filterByClient ? " where e.client.id in (:clients)" : "");
+    //@formatter:on
+    Query<Object[]> query = OBDal.getInstance().getSession().createQuery(hql, Object[].class);
+    if (filterByClient) {
+      query.setParameterList("clients", getReadableClients());
+    }
+    Map<String, String> parentIds = new HashMap<>();
+    for (Object[] row : query.list()) {
+      parentIds.put((String) row[0], (String) row[1]);
+    }
+    return parentIds;
   }
 
   /**
@@ -0,0 +1,268 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.service.datasource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.cache.CacheInvalidationBus;
+import org.openbravo.cache.CacheInvalidationListener;
+import org.openbravo.jmx.MBeanRegistry;
+
+/**
+ * Keeps in memory the parent of every node of the trees filtered through the
+ * {@link TreeDatasourceService}, so the ancestors of all the nodes that match a filter can be
+ * resolved at once and loaded with a few batched queries, instead of climbing to the root one node
+ * at a time.
+ *
+ * The index is disabled by default, it is enabled with the tree.ancestorIndex property of
+ * Openbravo.properties. The parents of a tree are loaded the first time it is filtered. They are
+ * discarded whenever the records of its table, the nodes of its ADTree or its tree definition are
+ * changed through the DAL, in the node where the change is committed and, through the
+ * {@link CacheInvalidationBus}, in the rest of the cluster nodes.
+ *
+ * The index is only used to know which nodes have to be read: the datasource keeps climbing with
+ * the parents of the nodes it reads, so if a tree is changed in some other way, for example by a
+ * database trigger, the nodes missing in the index are read one by one and the tree is loaded again
+ * the next time.
+ */
+public class TreeAncestorIndex implements TreeAncestorIndexMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "TreeAncestorIndex";
+  private static final String ROOT_NODE_CLIENT = "-1";
+
+  private static TreeAncestorIndex instance;
+
+  private final boolean enabled;
+  private final Map<String, TreeParents> trees = new ConcurrentHashMap<>();
+  private final AtomicLong invalidations = new AtomicLong();
+  private final ThreadLocal<Set<String>> changedTables = new ThreadLocal<>();
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @return the tree ancestor index of this node
+   */
+  public static synchronized TreeAncestorIndex getInstance() {
+    if (instance == null) {
+      instance = new TreeAncestorIndex();
+      MBeanRegistry.registerMBean(MBEAN_NAME, instance);
+      CacheInvalidationBus.getInstance().register(MBEAN_NAME, new CacheInvalidationListener() {
+        @Override
+        public void invalidate(String tableId) {
+          instance.invalidateTableLocally(tableId);
+        }
+
+        @Override
+        public void invalidateAll() {
+          instance.invalidate();
+        }
+      });
+    }
+    return instance;
+  }
+
+  private TreeAncestorIndex() {
+    enabled = OBPropertiesProvider.getInstance().getBooleanProperty("tree.ancestorIndex");
+    if (enabled) {
+      log.info("Tree ancestor index enabled");
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the given nodes plus all their ancestors, according to the parents kept in the index
+   * for the tree.
+   *
+   * @param treeKey
+   *          identifies the tree in the index
+   * @param tableId
+   *          the id of the table of the tree, used to discard the tree when the table changes
+   * @param parentProperty
+   *          the name of the property that links a record with its parent, or null if the parents
+   *          are not kept in the records of the table
+   * @param nodeIds
+   *          the ids of the nodes whose ancestors are returned
+   * @param loader
+   *          returns the parent id of every node of the tree, it is invoked if the tree is not
+   *          loaded yet
+   */
+  Set<String> getPathsToRoot(String treeKey, String tableId, String parentProperty,
+      Collection<String> nodeIds, Supplier<Map<String, String>> loader) {
+    Map<String, String> parents = getParents(treeKey, tableId, parentProperty, loader);
+    Set<String> result = new LinkedHashSet<>();
+    for (String nodeId : nodeIds) {
+      String id = nodeId;
+      // stops on the root nodes and on the cycles, which are detected afterwards
+      while (id != null && !ROOT_NODE_CLIENT.equals(id) && result.add(id)) {
+        id = parents.get(id);
+      }
+    }
+    lookups.increment();
+    return result;
+  }
+
+  private Map<String, String> getParents(String treeKey, String tableId, String parentProperty,
+      Supplier<Map<String, String>> loader) {
+    TreeParents tree = trees.get(treeKey);
+    if (tree != null) {
+      return tree.parents;
+    }
+    long invalidationsBeforeLoading = invalidations.get();
+    long t = System.currentTimeMillis();
+    tree = new TreeParents(tableId, parentProperty, loader.get());
+    loads.increment();
+    log.debug("Loaded {} nodes of tree {} in {} ms", tree.parents.size(), treeKey,
+        System.currentTimeMillis() - t);
+    synchronized (this) {
+      // the tree could have been changed while it was being loaded
+      if (invalidations.get() == invalidationsBeforeLoading) {
+        trees.put(treeKey, tree);
+      }
+    }
+    return tree.parents;
+  }
+
+  /**
+   * Returns the names of the properties that link the records of a table with their parent in the
+   * trees of the table kept in the index, used to detect the changes that move a node.
+   */
+  public Set<String> getParentProperties(String tableId) {
+    Set<String> properties = new HashSet<>();
+    for (TreeParents tree : trees.values()) {
+      if (tree.tableId.equals(tableId) && tree.parentProperty != null) {
+        properties.add(tree.parentProperty);
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * Marks that the current transaction changes the trees of a table, so they are discarded once it
+   * is committed.
+   */
+  public void treeChanged(String tableId) {
+    if (!enabled) {
+      return;
+    }
+    Set<String> tableIds = changedTables.get();
+    if (tableIds == null) {
+      tableIds = new HashSet<>();
+      changedTables.set(tableIds);
+    }
+    tableIds.add(tableId);
+  }
+
+  /**
+   * Invoked once the current transaction completes. If it committed changes in trees, they are
+   * discarded in all the nodes of the cluster.
+   *
+   * @param committed
+   *          true if the transaction was committed, false if it was rolled back
+   */
+  public void transactionCompleted(boolean committed) {
+    Set<String> tableIds = changedTables.get();
+    changedTables.remove();
+    if (tableIds == null || !committed) {
+      return;
+    }
+    for (String tableId : tableIds) {
+      invalidateTableLocally(tableId);
+      CacheInvalidationBus.getInstance().publish(MBEAN_NAME, tableId);
+    }
+  }
+
+  /**
+   * Discards a tree in this node because a node read by the datasource was not found in it, so it
+   * is loaded again the next time.
+   */
+  void invalidateTree(String treeKey) {
+    misses.increment();
+    synchronized (this) {
+      invalidations.incrementAndGet();
+      trees.remove(treeKey);
+    }
+  }
+
+  private synchronized void invalidateTableLocally(String tableId) {
+    invalidations.incrementAndGet();
+    trees.values().removeIf(tree -> tree.tableId.equals(tableId));
+  }
+
+  @Override
+  public int getTrees() {
+    return trees.size();
+  }
+
+  @Override
+  public int getNodes() {
+    return trees.values().stream().mapToInt(tree -> tree.parents.size()).sum();
+  }
+
+  @Override
+  public long getLookups() {
+    return lookups.sum();
+  }
+
+  @Override
+  public long getLoads() {
+    return loads.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public synchronized void invalidate() {
+    invalidations.incrementAndGet();
+    trees.clear();
+  }
+
+  private static class TreeParents {
+    private final String tableId;
+    private final String parentProperty;
+    private final Map<String, String> parents;
+
+    private TreeParents(String tableId, String parentProperty, Map<String, String> parents) {
+      this.tableId = tableId;
+      this.parentProperty = parentProperty;
+      this.parents = Collections.unmodifiableMap(parents);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.service.datasource;
+
+/** Exposes the statistics of the {@link TreeAncestorIndex} as a JMX Bean. */
+public interface TreeAncestorIndexMBean {
+
+  /** Returns true if the ancestors of the filtered tree nodes are resolved with the index. */
+  boolean isEnabled();
+
+  /** Returns the number of trees kept in the index. */
+  int getTrees();
+
+  /** Returns the number of nodes kept in the index, considering all the trees. */
+  int getNodes();
+
+  /** Returns the number of times the ancestors of a set of filtered nodes were resolved. */
+  long getLookups();
+
+  /** Returns the number of times a tree has been loaded from the database. */
+  long getLoads();
+
+  /** Returns the number of trees discarded because a node read was not found in the index. */
+  long getMisses();
+
+  /** Discards all the trees of this node, they are loaded again the next time they are used. */
+  void invalidate();
+}
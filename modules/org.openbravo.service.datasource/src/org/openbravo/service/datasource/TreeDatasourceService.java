@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2013-2023 Openbravo SLU
+ * All portions are Copyright (C) 2013-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -20,10 +20,15 @@
 package org.openbravo.service.datasource;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -79,6 +84,7 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
   private static final String ROOT_ORGANIZATION_ID = "0";
   private static final String SUMMARY_LEVEL_PROPERTY = "summaryLevel";
   private static final String ACCESSIBLE_ORG_TREE = "#AccessibleOrgTree";
+  private static final int IN_CLAUSE_MAX_SIZE = 1000;
 
   @Inject
   private DataSourceServiceProvider dataSourceServiceProvider;
@@ -649,9 +655,18 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
 
     try {
       log.info("Filtered nodes: " + filteredNodes);
+      List<String> whereClauses = new ArrayList<>();
+      if (!allowNotApplyingWhereClauseToChildren) {
+        whereClauses.add(hqlTreeWhereClause);
+      }
+      if (hqlTreeWhereClauseRootNodes != null) {
+        whereClauses.add(hqlTreeWhereClauseRootNodes);
+      }
+      FilteredNodesPrefetch prefetch = prefetchFilteredNodes(parameters, datasourceParameters,
+          tableTree, filteredNodes, whereClauses);
       for (String nodeId : filteredNodes) {
-        JSONObject node = getJSONObjectByRecordId(parameters, datasourceParameters, nodeId);
-        if (!allowNotApplyingWhereClauseToChildren && !this.nodeConformsToWhereClause(tableTree,
+        JSONObject node = getNodeByRecordId(prefetch, parameters, datasourceParameters, nodeId);
+        if (!allowNotApplyingWhereClauseToChildren && !conformsToWhereClause(prefetch, tableTree,
             node.getString("id"), hqlTreeWhereClause)) {
           // If the node does not conform the where clase, do not include it in the response
           continue;
@@ -671,14 +686,14 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
           List<String> ancestors = new ArrayList<>();
           ancestors.add(node.getString("id"));
           while (node.has("parentId") && !ROOT_NODE_CLIENT.equals(node.get("parentId"))
-              && (allowNotApplyingWhereClauseToChildren || this.nodeConformsToWhereClause(tableTree,
-                  node.getString("parentId"), hqlTreeWhereClause))) {
+              && (allowNotApplyingWhereClauseToChildren || conformsToWhereClause(prefetch,
+                  tableTree, node.getString("parentId"), hqlTreeWhereClause))) {
             nodeId = node.getString("parentId");
             if (ancestors.contains(nodeId)) {
               throw new CycleInHierarchyException();
             }
             ancestors.add(nodeId);
-            node = getJSONObjectByNodeId(parameters, datasourceParameters, nodeId);
+            node = getNodeByNodeId(prefetch, parameters, datasourceParameters, nodeId);
             savedNode = addedNodesMap.get(node.getString("id"));
             if (savedNode == null) {
               // All the parents will be shown open in the tree grid
@@ -698,11 +713,12 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
           } else {
             savedNode.put("filterHit", true);
           }
-          while (node.has("parentId") && !isRoot(node, hqlTreeWhereClauseRootNodes, tableTree)
-              && (allowNotApplyingWhereClauseToChildren || this.nodeConformsToWhereClause(tableTree,
-                  node.getString("parentId"), hqlTreeWhereClause))) {
+          while (node.has("parentId")
+              && !isRoot(prefetch, node, hqlTreeWhereClauseRootNodes, tableTree)
+              && (allowNotApplyingWhereClauseToChildren || conformsToWhereClause(prefetch,
+                  tableTree, node.getString("parentId"), hqlTreeWhereClause))) {
             nodeId = node.getString("parentId");
-            node = getJSONObjectByNodeId(parameters, datasourceParameters, nodeId);
+            node = getNodeByNodeId(prefetch, parameters, datasourceParameters, nodeId);
             savedNode = addedNodesMap.get(node.getString("id"));
             if (savedNode == null) {
               node.put("isOpen", true);
@@ -713,12 +729,12 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
           }
           // We have to make sure that the filtered node was not about the
           // root nodes as defined by the hqlTreeWhereClauseRootNodes
-          if (this.nodeConformsToWhereClause(tableTree, node.getString("id"),
+          if (conformsToWhereClause(prefetch, tableTree, node.getString("id"),
               hqlTreeWhereClauseRootNodes)) {
             addedNodesMap.putAll(preAddedNodesMap);
           }
         }
-        if (allowNotApplyingWhereClauseToChildren || this.nodeConformsToWhereClause(tableTree,
+        if (allowNotApplyingWhereClauseToChildren || conformsToWhereClause(prefetch, tableTree,
             node.getString("parentId"), hqlTreeWhereClause)) {
           node.put("parentId", ROOT_NODE_CLIENT);
         }
@@ -749,6 +765,8 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
   /**
    * Checks if a node is a root node
    * 
+   * @param prefetch
+   *          the nodes read in advance, null if they are read one by one
    * @param node
    *          JSON objects that contains the properties of the node
    * @param hqlTreeWhereClauseRootNodes
@@ -756,7 +774,8 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
    * @param tableTree
    *          tableTree that defines the tree category that defines the tree
    */
-  private boolean isRoot(JSONObject node, String hqlTreeWhereClauseRootNodes, TableTree tableTree) {
+  private boolean isRoot(FilteredNodesPrefetch prefetch, JSONObject node,
+      String hqlTreeWhereClauseRootNodes, TableTree tableTree) {
     try {
       String nodeId = null;
       String parentId = null;
@@ -766,7 +785,7 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
         return true;
       }
       if (hqlTreeWhereClauseRootNodes != null) {
-        return nodeConformsToWhereClause(tableTree, nodeId, hqlTreeWhereClauseRootNodes);
+        return conformsToWhereClause(prefetch, tableTree, nodeId, hqlTreeWhereClauseRootNodes);
       } else {
         return false;
       }
@@ -788,6 +807,251 @@ public abstract class TreeDatasourceService extends DefaultDataSourceService {
   protected abstract boolean nodeConformsToWhereClause(TableTree tableTree, String nodeId,
       String hqlWhereClause);
 
+  /**
+   * Returns the key that identifies the tree in the {@link TreeAncestorIndex}, used to read in
+   * advance the ancestors of the filtered nodes of trees without multiparent nodes. By default it
+   * returns null, so the ancestors are read one by one.
+   * 
+   * @param tableTree
+   *          tableTree that defines the tree category that defines the tree
+   * @param datasourceParameters
+   *          specific datasource parameters obtained using method
+   *          {@link #getDatasourceSpecificParams(Map)}
+   */
+  protected String getAncestorIndexKey(TableTree tableTree,
+      Map<String, Object> datasourceParameters) {
+    return null;
+  }
+
+  /**
+   * Returns the name of the property that links the records of the table with their parent node,
+   * used to detect the changes that move the nodes of the trees kept in the
+   * {@link TreeAncestorIndex}. Null if the parents are not kept in the records of the table.
+   */
+  protected String getAncestorIndexParentProperty(TableTree tableTree) {
+    return null;
+  }
+
+  /**
+   * Returns the id of the parent of every node of the tree, used to build the
+   * {@link TreeAncestorIndex}. It must be implemented if {@link #getAncestorIndexKey} is.
+   * 
+   * @param tableTree
+   *          tableTree that defines the tree category that defines the tree
+   * @param datasourceParameters
+   *          specific datasource parameters obtained using method
+   *          {@link #getDatasourceSpecificParams(Map)}
+   * @return a map with the parent id of each node id
+   */
+  protected Map<String, String> getNodeParentIds(TableTree tableTree,
+      Map<String, Object> datasourceParameters) {
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Returns the definition of several nodes given their record ids. The nodes that can not be
+   * read are not included in the result. By default they are read one by one with
+   * {@link #getJSONObjectByRecordId(Map, Map, String)}.
+   * 
+   * @return a map with the json object of each record id
+   */
+  protected Map<String, JSONObject> getJSONObjectsByRecordIds(Map<String, String> parameters,
+      Map<String, Object> datasourceParameters, Collection<String> recordIds) {
+    Map<String, JSONObject> nodes = new HashMap<>();
+    for (String recordId : recordIds) {
+      JSONObject node = getJSONObjectByRecordId(parameters, datasourceParameters, recordId);
+      if (node != null) {
+        nodes.put(recordId, node);
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * Returns the definition of several nodes given their node ids. The nodes that can not be read,
+   * including the ones with several parents, are not included in the result. By default they are
+   * read one by one with {@link #getJSONObjectByNodeId(Map, Map, String)}.
+   * 
+   * @return a map with the json object of each node id
+   */
+  protected Map<String, JSONObject> getJSONObjectsByNodeIds(Map<String, String> parameters,
+      Map<String, Object> datasourceParameters, Collection<String> nodeIds) {
+    Map<String, JSONObject> nodes = new HashMap<>();
+    for (String nodeId : nodeIds) {
+      try {
+        JSONObject node = getJSONObjectByNodeId(parameters, datasourceParameters, nodeId);
+        if (node != null) {
+          nodes.put(nodeId, node);
+        }
+      } catch (MultipleParentsException e) {
+        // the exception is thrown again when the node is read on its own
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * Returns the nodes that conform to a hqlWhereClause, with the same criteria as
+   * {@link #nodeConformsToWhereClause(TableTree, String, String)}. By default the nodes are checked
+   * one by one.
+   * 
+   * @param tableTree
+   *          tableTree that defines the tree category that defines the tree
+   * @param nodeIds
+   *          ids of the nodes to be checked
+   * @param hqlWhereClause
+   *          hql where clause to be applied
+   */
+  protected Set<String> getNodesConformingToWhereClause(TableTree tableTree,
+      Collection<String> nodeIds, String hqlWhereClause) {
+    Set<String> conformingNodeIds = new HashSet<>();
+    for (String nodeId : nodeIds) {
+      if (nodeConformsToWhereClause(tableTree, nodeId, hqlWhereClause)) {
+        conformingNodeIds.add(nodeId);
+      }
+    }
+    return conformingNodeIds;
+  }
+
+  /**
+   * Splits a list of ids in chunks that can be used in an in clause of a query
+   */
+  protected static List<List<String>> partition(Collection<String> ids) {
+    List<String> idList = new ArrayList<>(ids);
+    List<List<String>> chunks = new ArrayList<>();
+    for (int i = 0; i < idList.size(); i += IN_CLAUSE_MAX_SIZE) {
+      chunks.add(idList.subList(i, Math.min(i + IN_CLAUSE_MAX_SIZE, idList.size())));
+    }
+    return chunks;
+  }
+
+  /**
+   * Reads in advance the filtered nodes and, using the {@link TreeAncestorIndex}, all their
+   * ancestors, checking at once if they conform to the given where clauses.
+   * 
+   * @return the nodes read in advance, or null if the tree is not indexed
+   */
+  private FilteredNodesPrefetch prefetchFilteredNodes(Map<String, String> parameters,
+      Map<String, Object> datasourceParameters, TableTree tableTree, List<String> filteredNodes,
+      List<String> whereClauses) throws JSONException {
+    TreeAncestorIndex index = TreeAncestorIndex.getInstance();
+    if (!index.isEnabled()) {
+      return null;
+    }
+    String indexKey = getAncestorIndexKey(tableTree, datasourceParameters);
+    if (indexKey == null) {
+      return null;
+    }
+    long t = System.currentTimeMillis();
+    FilteredNodesPrefetch prefetch = new FilteredNodesPrefetch(indexKey);
+    prefetch.nodesByRecordId
+        .putAll(getJSONObjectsByRecordIds(parameters, datasourceParameters, filteredNodes));
+    Set<String> parentIds = new HashSet<>();
+    for (JSONObject node : prefetch.nodesByRecordId.values()) {
+      if (node.has("parentId")) {
+        parentIds.add(node.getString("parentId"));
+      }
+    }
+    prefetch.requestedNodeIds.addAll(index.getPathsToRoot(indexKey,
+        tableTree.getTable().getId(), getAncestorIndexParentProperty(tableTree), parentIds,
+        () -> getNodeParentIds(tableTree, datasourceParameters)));
+    prefetch.nodesByNodeId.putAll(
+        getJSONObjectsByNodeIds(parameters, datasourceParameters, prefetch.requestedNodeIds));
+
+    // the where clauses are checked on the record ids of the filtered nodes and on the ids and
+    // parent ids of all the nodes read
+    Set<String> checkedNodeIds = new HashSet<>(prefetch.nodesByRecordId.keySet());
+    for (JSONObject node : prefetch.nodesByNodeId.values()) {
+      checkedNodeIds.add(node.getString("id"));
+    }
+    for (JSONObject node : prefetch.nodesByNodeId.values()) {
+      if (node.has("parentId")) {
+        checkedNodeIds.add(node.getString("parentId"));
+      }
+    }
+    checkedNodeIds.addAll(parentIds);
+    for (String whereClause : whereClauses) {
+      if (!prefetch.conformingNodeIds.containsKey(whereClause)) {
+        prefetch.conformingNodeIds.put(whereClause,
+            getNodesConformingToWhereClause(tableTree, checkedNodeIds, whereClause));
+      }
+    }
+    prefetch.checkedNodeIds = checkedNodeIds;
+    log.debug("Read {} filtered nodes and {} ancestors in {} ms",
+        prefetch.nodesByRecordId.size(), prefetch.nodesByNodeId.size(),
+        System.currentTimeMillis() - t);
+    return prefetch;
+  }
+
+  private JSONObject getNodeByRecordId(FilteredNodesPrefetch prefetch,
+      Map<String, String> parameters, Map<String, Object> datasourceParameters, String recordId)
+      throws JSONException {
+    JSONObject node = prefetch == null ? null : prefetch.nodesByRecordId.get(recordId);
+    if (node != null) {
+      return copy(node);
+    }
+    return getJSONObjectByRecordId(parameters, datasourceParameters, recordId);
+  }
+
+  private JSONObject getNodeByNodeId(FilteredNodesPrefetch prefetch,
+      Map<String, String> parameters, Map<String, Object> datasourceParameters, String nodeId)
+      throws JSONException, MultipleParentsException {
+    if (prefetch != null) {
+      JSONObject node = prefetch.nodesByNodeId.get(nodeId);
+      if (node != null) {
+        return copy(node);
+      }
+      if (!prefetch.requestedNodeIds.contains(nodeId) && !prefetch.invalidated) {
+        // the parent of a node read does not match the index, it is loaded again the next time
+        log.debug("Node {} not found in the ancestor index {}", nodeId, prefetch.indexKey);
+        TreeAncestorIndex.getInstance().invalidateTree(prefetch.indexKey);
+        prefetch.invalidated = true;
+      }
+    }
+    return getJSONObjectByNodeId(parameters, datasourceParameters, nodeId);
+  }
+
+  private boolean conformsToWhereClause(FilteredNodesPrefetch prefetch, TableTree tableTree,
+      String nodeId, String hqlWhereClause) {
+    if (prefetch != null && prefetch.checkedNodeIds.contains(nodeId)) {
+      Set<String> conformingNodeIds = prefetch.conformingNodeIds.get(hqlWhereClause);
+      if (conformingNodeIds != null) {
+        return conformingNodeIds.contains(nodeId);
+      }
+    }
+    return nodeConformsToWhereClause(tableTree, nodeId, hqlWhereClause);
+  }
+
+  private static JSONObject copy(JSONObject node) throws JSONException {
+    // the nodes are modified while they are added to the response, only their own properties are
+    // changed so their values can be shared
+    JSONObject copy = new JSONObject();
+    Iterator<?> keys = node.keys();
+    while (keys.hasNext()) {
+      String key = (String) keys.next();
+      copy.put(key, node.get(key));
+    }
+    return copy;
+  }
+
+  /**
+   * The filtered nodes and their ancestors read in advance, to be used instead of reading them one
+   * by one.
+   */
+  private static class FilteredNodesPrefetch {
+    private final String indexKey;
+    private final Map<String, JSONObject> nodesByRecordId = new HashMap<>();
+    private final Map<String, JSONObject> nodesByNodeId = new HashMap<>();
+    private final Set<String> requestedNodeIds = new HashSet<>();
+    private final Map<String, Set<String>> conformingNodeIds = new HashMap<>();
+    private Set<String> checkedNodeIds = Collections.emptySet();
+    private boolean invalidated;
+
+    private FilteredNodesPrefetch(String indexKey) {
+      this.indexKey = indexKey;
+    }
+  }
+
   /**
    * If a where clause contains parameters, substitute the parameter with the actual value
    * 
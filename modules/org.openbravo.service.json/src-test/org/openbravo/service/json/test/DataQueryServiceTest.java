@@ -20,10 +20,16 @@
 package org.openbravo.service.json.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 import org.junit.Test;
 import org.openbravo.base.provider.OBProvider;
 import org.openbravo.base.structure.BaseOBObject;
@@ -37,10 +43,14 @@ import org.openbravo.model.ad.datamodel.Table;
 import org.openbravo.model.ad.module.DataPackage;
 import org.openbravo.model.common.bank.Bank;
 import org.openbravo.model.financialmgmt.payment.FIN_FinaccTransaction;
+import org.openbravo.service.json.CachedRowCountStrategy;
 import org.openbravo.service.json.DataEntityQueryService;
+import org.openbravo.service.json.EstimatedRowCountStrategy;
 import org.openbravo.service.json.JsonConstants;
+import org.openbravo.service.json.KeysetCursor;
 import org.openbravo.service.json.AdvancedQueryBuilder;
 import org.openbravo.service.json.AdvancedQueryBuilder.TextMatching;
+import org.openbravo.service.json.RowCountStrategy.RowCount;
 import org.openbravo.test.base.OBBaseTest;
 
 /**
@@ -344,4 +354,143 @@ public class DataQueryServiceTest extends OBBaseTest {
     }
   }
 
+  /**
+   * Estimated counts are used only for unfiltered queries on big enough tables
+   */
+  @Test
+  public void testEstimatedCount() throws Exception {
+    setSystemAdministratorContext();
+    final DataEntityQueryService queryService = new DataEntityQueryService();
+    queryService.setEntityName(Column.ENTITY_NAME);
+    final int exactCount = queryService.countExact();
+
+    queryService.setCountStrategy(new EstimatedRowCountStrategy(0));
+    final RowCount estimatedCount = queryService.countRows();
+    assertFalse(estimatedCount.isExact());
+    assertTrue(estimatedCount.getValue() > 0);
+
+    queryService.setCountStrategy(new EstimatedRowCountStrategy(Integer.MAX_VALUE));
+    final RowCount smallTableCount = queryService.countRows();
+    assertTrue(smallTableCount.isExact());
+    assertEquals(exactCount, smallTableCount.getValue());
+
+    final DataEntityQueryService filteredQueryService = new DataEntityQueryService();
+    filteredQueryService.setEntityName(Column.ENTITY_NAME);
+    filteredQueryService.setCriteria(getNameStartsWithCriteria("Smtp"));
+    filteredQueryService.setCountStrategy(new EstimatedRowCountStrategy(0));
+    final RowCount filteredCount = filteredQueryService.countRows();
+    assertTrue(filteredCount.isExact());
+    assertEquals(filteredQueryService.countExact(), filteredCount.getValue());
+  }
+
+  /**
+   * The main alias used by the datasources does not prevent estimating the count
+   */
+  @Test
+  public void testEstimatedCountWithAlias() throws Exception {
+    setSystemAdministratorContext();
+    final DataEntityQueryService queryService = new DataEntityQueryService();
+    queryService.setEntityName(Column.ENTITY_NAME);
+    queryService.setUseAlias();
+    queryService.setCountStrategy(new EstimatedRowCountStrategy(0));
+    final RowCount estimatedCount = queryService.countRows();
+    assertFalse(estimatedCount.isExact());
+    assertTrue(estimatedCount.getValue() > 0);
+
+    final DataEntityQueryService filteredQueryService = new DataEntityQueryService();
+    filteredQueryService.setEntityName(Column.ENTITY_NAME);
+    filteredQueryService.setUseAlias();
+    filteredQueryService.setCriteria(getNameStartsWithCriteria("Smtp"));
+    filteredQueryService.setCountStrategy(new EstimatedRowCountStrategy(0));
+    final RowCount filteredCount = filteredQueryService.countRows();
+    assertTrue(filteredCount.isExact());
+    assertEquals(filteredQueryService.countExact(), filteredCount.getValue());
+  }
+
+  /**
+   * Cached counts are reused for the same query until they expire
+   */
+  @Test
+  public void testCachedCount() throws Exception {
+    setSystemAdministratorContext();
+    final AtomicInteger exactCounts = new AtomicInteger();
+    final CachedRowCountStrategy countStrategy = new CachedRowCountStrategy(Duration.ofMinutes(1));
+    final DataEntityQueryService queryService = new DataEntityQueryService() {
+      @Override
+      public int countExact() {
+        exactCounts.incrementAndGet();
+        return super.countExact();
+      }
+    };
+    queryService.setEntityName(Table.ENTITY_NAME);
+    queryService.setCountStrategy(countStrategy);
+
+    final int count = queryService.count();
+    assertEquals(count, queryService.count());
+    assertEquals(1, exactCounts.get());
+
+    countStrategy.invalidateAll();
+    assertEquals(count, queryService.count());
+    assertEquals(2, exactCounts.get());
+  }
+
+  /**
+   * Keyset pagination returns the same pages as offset pagination
+   */
+  @Test
+  public void testKeysetPagination() throws Exception {
+    setSystemAdministratorContext();
+    for (String orderBy : new String[] { "id", "name,id", "-name,id" }) {
+      final DataEntityQueryService offsetQueryService = new DataEntityQueryService();
+      offsetQueryService.setEntityName(Table.ENTITY_NAME);
+      offsetQueryService.setOrderBy(orderBy);
+      offsetQueryService.setMaxResults(60);
+      final List<BaseOBObject> expected = offsetQueryService.list();
+      assertTrue(offsetQueryService.getQueryBuilder().isKeysetPaginationSupported());
+
+      KeysetCursor cursor = null;
+      for (int page = 0; page < 3; page++) {
+        final DataEntityQueryService keysetQueryService = new DataEntityQueryService();
+        keysetQueryService.setEntityName(Table.ENTITY_NAME);
+        keysetQueryService.setOrderBy(orderBy);
+        keysetQueryService.setMaxResults(20);
+        if (cursor != null) {
+          keysetQueryService.getQueryBuilder()
+              .setKeysetCursor(KeysetCursor.fromToken(cursor.toToken()));
+        }
+        final List<BaseOBObject> records = keysetQueryService.list();
+        assertEquals(20, records.size());
+        for (int i = 0; i < records.size(); i++) {
+          assertEquals(orderBy, expected.get(page * 20 + i).getId(), records.get(i).getId());
+        }
+        cursor = KeysetCursor.forRecord(records.get(records.size() - 1), orderBy);
+      }
+    }
+  }
+
+  /**
+   * Keyset pagination is not supported when sorting by identifier or by several properties
+   */
+  @Test
+  public void testKeysetPaginationNotSupported() throws Exception {
+    setSystemAdministratorContext();
+    final DataEntityQueryService queryService = new DataEntityQueryService();
+    queryService.setEntityName(Table.ENTITY_NAME);
+    queryService.setOrderBy(JsonConstants.IDENTIFIER + ",id");
+    assertFalse(queryService.getQueryBuilder().isKeysetPaginationSupported());
+    queryService.setOrderBy("name,dBTableName,id");
+    assertFalse(queryService.getQueryBuilder().isKeysetPaginationSupported());
+  }
+
+  private static JSONObject getNameStartsWithCriteria(String value) throws JSONException {
+    final JSONObject criterion = new JSONObject();
+    criterion.put("fieldName", Column.PROPERTY_NAME);
+    criterion.put("operator", "iStartsWith");
+    criterion.put("value", value);
+    final JSONObject criteria = new JSONObject();
+    criteria.put("_constructor", "AdvancedCriteria");
+    criteria.put("operator", "and");
+    criteria.put("criteria", new JSONArray().put(criterion));
+    return criteria;
+  }
 }
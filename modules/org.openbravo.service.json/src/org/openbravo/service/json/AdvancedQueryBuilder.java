@@ -145,6 +145,7 @@ public class AdvancedQueryBuilder {
   private int aliasIndex = 0;
   private List<JoinDefinition> joinDefinitions = new ArrayList<JoinDefinition>();
   private String orderBy;
+  private KeysetCursor keysetCursor;
 
   private List<String> selectClauseParts = new ArrayList<String>();
 
@@ -242,6 +243,9 @@ public class AdvancedQueryBuilder {
     }
     whereClause = addWhereOrgParameters(whereClause);
     whereClause = substituteParameters(whereClause);
+    if (keysetCursor != null) {
+      whereClause = addKeysetCondition(whereClause);
+    }
 
     if (whereClause.trim().length() > 0) {
       whereClause = " where " + whereClause;
@@ -334,6 +338,30 @@ public class AdvancedQueryBuilder {
     return whereClause;
   }
 
+  // restricts the query to the records after the keyset cursor in the current sort order
+  private String addKeysetCondition(String where) {
+    if (!keysetCursor.getEntityName().equals(entity.getName())
+        || !keysetCursor.getOrderBy().equals(orderBy)) {
+      throw new OBException("The page token does not match the entity " + entity.getName()
+          + " and the sort order " + orderBy + " of the request");
+    }
+    final String prefix = getMainAlias() == null ? "" : getMainAlias() + DalUtil.DOT;
+    final String operator = keysetCursor.isDescending() ? " < " : " > ";
+    final String idParameter = ":" + addNamedParameter(keysetCursor.getId());
+    String condition = prefix + JsonConstants.ID + operator + idParameter;
+    final Property sortProperty = KeysetCursor.getSortProperty(entity, orderBy);
+    if (sortProperty != null) {
+      final String path = prefix + sortProperty.getName();
+      final String valueParameter = ":" + addNamedParameter(keysetCursor.getValue());
+      condition = "(" + path + operator + valueParameter + " or (" + path + " = " + valueParameter
+          + " and " + condition + "))";
+    }
+    if (where.trim().length() == 0) {
+      return " " + condition;
+    }
+    return " (" + where + ") and " + condition;
+  }
+
   private String createInClause(String[] values) {
     if (values.length == 0) {
       return " in ('') ";
@@ -1933,6 +1961,27 @@ public class AdvancedQueryBuilder {
     return orderBy;
   }
 
+  public KeysetCursor getKeysetCursor() {
+    return keysetCursor;
+  }
+
+  /**
+   * Sets the cursor of a keyset paginated fetch, the where clause is restricted to the records
+   * after it. The cursor must have been created for the entity and order by of this query builder.
+   */
+  public void setKeysetCursor(KeysetCursor keysetCursor) {
+    this.keysetCursor = keysetCursor;
+    whereClause = null;
+    typedParameters.clear();
+  }
+
+  /**
+   * @return {@code true} if the records of the query can be paged with a {@link KeysetCursor}
+   */
+  public boolean isKeysetPaginationSupported() {
+    return KeysetCursor.isSupported(entity, orderBy);
+  }
+
   public void setOrderBy(String orderBy) {
     this.orderBy = orderBy;
     // do outer joining if the order by has more than 1 dot
@@ -0,0 +1,102 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.dal.core.OBContext;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps the exact counts for a short time, so the requests of the pages of the same grid, or of
+ * the same grid opened by several users of the same role, do not count the records again.
+ *
+ * The counts are cached by entity, criteria, parameters and the role and client of the context.
+ * They are not invalidated when the records change, so the returned count can be outdated during
+ * the configured duration.
+ */
+public class CachedRowCountStrategy implements RowCountStrategy {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final int MAX_ENTRIES = 1_000;
+
+  private final Cache<String, Integer> counts;
+
+  /**
+   * @param duration
+   *          the time a count is kept since it was computed
+   */
+  public CachedRowCountStrategy(Duration duration) {
+    counts = Caffeine.newBuilder().maximumSize(MAX_ENTRIES).expireAfterWrite(duration).build();
+  }
+
+  @Override
+  public RowCount count(DataEntityQueryService queryService) {
+    final String key = getKey(queryService);
+    Integer count = counts.getIfPresent(key);
+    if (count == null) {
+      count = queryService.countExact();
+      counts.put(key, count);
+    } else {
+      log.debug("Using cached count {} for {}", count, key);
+    }
+    return RowCount.exact(count);
+  }
+
+  /**
+   * Removes all the cached counts.
+   */
+  public void invalidateAll() {
+    counts.invalidateAll();
+  }
+
+  private static String getKey(DataEntityQueryService queryService) {
+    final OBContext obContext = OBContext.getOBContext();
+    final StringBuilder key = new StringBuilder();
+    key.append(queryService.getEntityName())
+        .append('|')
+        .append(obContext.getRole().getId())
+        .append('|')
+        .append(obContext.getCurrentClient().getId())
+        .append('|')
+        .append(queryService.isFilterOnActive())
+        .append(queryService.isFilterOnReadableClients())
+        .append(queryService.isFilterOnReadableOrganizations())
+        .append('|')
+        .append(queryService.getWhereClause())
+        .append('|');
+    final Map<String, Object> parameters = new TreeMap<>(
+        queryService.getQueryBuilder().getNamedParameters());
+    for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+      Object value = parameter.getValue();
+      if (value instanceof Object[]) {
+        value = Arrays.asList((Object[]) value);
+      }
+      key.append(parameter.getKey()).append('=').append(value).append(';');
+    }
+    return key.toString();
+  }
+}
@@ -75,12 +75,37 @@ public class DataEntityQueryService {
   private String summarySettings;
   private List<String> summaryFields = new ArrayList<String>();
 
+  private RowCountStrategy countStrategy = RowCountStrategies.get(RowCountStrategies.EXACT);
+
   /**
-   * Count the records which fit in the filter criteria.
+   * Count the records which fit in the filter criteria using the {@link RowCountStrategy} of this
+   * service, so the returned value can be an estimation. Use {@link #countRows()} to know whether
+   * it is the exact number of records.
    * 
    * @return the number of records in the filter.
    */
   public int count() {
+    return countRows().getValue();
+  }
+
+  /**
+   * Count the records which fit in the filter criteria using the {@link RowCountStrategy} of this
+   * service.
+   * 
+   * @return the number of records in the filter, indicating if it is an estimation
+   */
+  public RowCountStrategy.RowCount countRows() {
+    Check.isNotNull(entityName, "entityName must be set");
+    return countStrategy.count(this);
+  }
+
+  /**
+   * Count the records which fit in the filter criteria with a count query, regardless of the
+   * {@link RowCountStrategy} of this service.
+   * 
+   * @return the exact number of records in the filter.
+   */
+  public int countExact() {
     Check.isNotNull(entityName, "entityName must be set");
     final OBQuery<BaseOBObject> obq = OBDal.getInstance()
         .createQuery(entityName, queryBuilder.getJoinClause() + queryBuilder.getWhereClause());
@@ -171,6 +196,19 @@ public class DataEntityQueryService {
     return queryBuilder;
   }
 
+  public RowCountStrategy getCountStrategy() {
+    return countStrategy;
+  }
+
+  /**
+   * Sets the strategy used by {@link #count()} to count the records, by default they are counted
+   * exactly.
+   */
+  public void setCountStrategy(RowCountStrategy countStrategy) {
+    Check.isNotNull(countStrategy, "The count strategy can not be null");
+    this.countStrategy = countStrategy;
+  }
+
   // package private on purpose
   List<Property> getDistinctDisplayProperties() {
     final String localDistinct = getDistinct();
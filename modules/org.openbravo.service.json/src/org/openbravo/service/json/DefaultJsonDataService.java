@@ -21,9 +21,13 @@ package org.openbravo.service.json;
 import static java.util.stream.Collectors.toList;
 import static org.openbravo.userinterface.selector.SelectorConstants.includeOrgFilter;
 
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -84,6 +88,8 @@ import org.openbravo.userinterface.selector.SelectorConstants;
  */
 public class DefaultJsonDataService implements JsonDataService {
   private static final Logger log = LogManager.getLogger();
+  private static final Logger allocationLog = LogManager
+      .getLogger(DefaultJsonDataService.class.getName() + ".allocation");
 
   private static final String ADD_FLAG = "_doingAdd";
   private static final int DEFAULT_ID_LENGTH = 32;
@@ -116,6 +122,49 @@ public class DefaultJsonDataService implements JsonDataService {
   }
 
   public String fetch(Map<String, String> parameters, boolean filterOnReadableOrganizations) {
+    final long allocatedBytes = getAllocatedBytes();
+    final String result = doFetch(parameters, filterOnReadableOrganizations, null);
+    logAllocatedBytes(parameters, allocatedBytes, false);
+    return result;
+  }
+
+  /**
+   * Fetches the data like {@link #fetch(Map, boolean)} does, but instead of returning the response
+   * as a String, it is written into the given writer. The rows of the page are converted and
+   * written one by one, so neither the list of converted rows nor the complete response are kept in
+   * memory.
+   * 
+   * The {@link #doPostFetch(Map, JSONObject)} hook is invoked for each row before writing it. If
+   * there are {@link JsonDataServiceExtraActions} they need the complete response, in that case it
+   * is generated in memory and written at the end.
+   * 
+   * If an error occurs before starting to write the response, the error is written as response.
+   * Errors that occur once the response has been started are thrown as {@link OBException}.
+   * 
+   * @param parameters
+   *          the parameters of the request
+   * @param filterOnReadableOrganizations
+   *          whether the data must be filtered by the readable organizations of the current role
+   * @param writer
+   *          the writer where the response is written, it is not closed by this method
+   */
+  public void fetch(Map<String, String> parameters, boolean filterOnReadableOrganizations,
+      Writer writer) {
+    final long allocatedBytes = getAllocatedBytes();
+    final JsonResponseWriter responseWriter = new JsonResponseWriter(writer);
+    final String result = doFetch(parameters, filterOnReadableOrganizations, responseWriter);
+    if (result != null) {
+      responseWriter.writeRaw(result);
+    }
+    logAllocatedBytes(parameters, allocatedBytes, result == null);
+  }
+
+  /**
+   * Returns the response of the fetch as a String, unless it is written into the responseWriter,
+   * in that case null is returned.
+   */
+  private String doFetch(Map<String, String> parameters, boolean filterOnReadableOrganizations,
+      JsonResponseWriter responseWriter) {
     try {
       final String entityName = parameters.get(JsonConstants.ENTITYNAME);
       Check.isNotNull(entityName, "The name of the service/entityname should not be null");
@@ -195,6 +244,7 @@ public class DefaultJsonDataService implements JsonDataService {
         paramsCount.remove(JsonConstants.IS_WS_CALL);
         DataEntityQueryService queryService = createSetQueryService(paramsCount, true);
         queryService.setEntityName(entityName);
+        queryService.setCountStrategy(RowCountStrategies.getForRequest(parameters));
 
         // only do the count if a paging request is done and it has not been prevented
         // explicitly
@@ -218,13 +268,19 @@ public class DefaultJsonDataService implements JsonDataService {
           preventCountOperation = false;
         }
 
+        boolean countEstimated = false;
         if (doCount && !preventCountOperation) {
-          count = queryService.count();
+          RowCountStrategy.RowCount rowCount = queryService.countRows();
+          count = rowCount.getValue();
+          countEstimated = !rowCount.isExact();
         }
 
         if (parameters.containsKey(JsonConstants.ONLYCOUNT_PARAMETER)) {
           // stop here
           jsonResponse.put(JsonConstants.RESPONSE_TOTALROWS, count);
+          if (countEstimated) {
+            jsonResponse.put(JsonConstants.RESPONSE_TOTALROWS_ESTIMATED, true);
+          }
           return jsonResponse.toString();
         }
         queryService = createSetQueryService(parameters, false, false,
@@ -259,6 +315,15 @@ public class DefaultJsonDataService implements JsonDataService {
         } else {
           long t = System.currentTimeMillis();
           bobs = queryService.list();
+          if (isKeysetPagination(parameters) && !bobs.isEmpty()
+              && bobs.size() >= computedMaxResults) {
+            // the page is full, so there can be more records after its last one
+            jsonResponse.put(JsonConstants.RESPONSE_NEXTPAGETOKEN,
+                KeysetCursor
+                    .forRecord(bobs.get(bobs.size() - 1),
+                        queryService.getQueryBuilder().getOrderBy())
+                    .toToken());
+          }
           long queryTime = System.currentTimeMillis() - t;
           log.debug("query time: {}", queryTime);
           datasourceObservabilityLogger.logIfNeeded(parameters, queryService, queryTime);
@@ -273,7 +338,7 @@ public class DefaultJsonDataService implements JsonDataService {
               log.debug(
                   "The amount of selected records is higher than the page size, increasing page size to {}",
                   newEndRow);
-              return fetch(parameters, filterOnReadableOrganizations);
+              return doFetch(parameters, filterOnReadableOrganizations, responseWriter);
             }
             bobs = getFixedMultiSelection(queryService, bobs);
           }
@@ -292,7 +357,7 @@ public class DefaultJsonDataService implements JsonDataService {
                 log.debug(
                     "The amount of selected records is higher than the page size, increasing page size to {}",
                     newEndRow);
-                return fetch(parameters, filterOnReadableOrganizations);
+                return doFetch(parameters, filterOnReadableOrganizations, responseWriter);
               }
             }
 
@@ -318,7 +383,7 @@ public class DefaultJsonDataService implements JsonDataService {
           if (bobs.isEmpty() && startRow > 0 && (isPickAndEdit || isMultiSelector)) {
             parameters.put(JsonConstants.STARTROW_PARAMETER, "0");
             parameters.put(JsonConstants.ENDROW_PARAMETER, count + computedMaxResults + "");
-            return fetch(parameters);
+            return doFetch(parameters, true, responseWriter);
           }
         }
 
@@ -331,10 +396,15 @@ public class DefaultJsonDataService implements JsonDataService {
             // reload the startrow again from 0
             parameters.put(JsonConstants.STARTROW_PARAMETER, "0");
             parameters.put(JsonConstants.ENDROW_PARAMETER, computedMaxResults + "");
-            return fetch(parameters);
+            return doFetch(parameters, true, responseWriter);
           }
           jsonResponse.put(JsonConstants.RESPONSE_TOTALROWS, 0);
         } else if (doCount) {
+          if (countEstimated) {
+            // the estimation can be lower than the number of records already fetched
+            count = Math.max(count, startRow + bobs.size());
+            jsonResponse.put(JsonConstants.RESPONSE_TOTALROWS_ESTIMATED, true);
+          }
           jsonResponse.put(JsonConstants.RESPONSE_TOTALROWS, count);
         }
       }
@@ -354,6 +424,11 @@ public class DefaultJsonDataService implements JsonDataService {
           OBContext.getOBContext().getOrganizationStructureProvider());
       toJsonConverter.setShouldDisplayOrgDate(shouldIncludeStoreDate(gridConfiguration));
 
+      if (responseWriter != null && extraActions.isUnsatisfied()) {
+        writeFetchResponse(parameters, jsonResponse, bobs, toJsonConverter, responseWriter);
+        return null;
+      }
+
       final List<JSONObject> jsonObjects = toJsonConverter.toJsonObjects(bobs);
 
       addWritableAttribute(jsonObjects);
@@ -364,11 +439,63 @@ public class DefaultJsonDataService implements JsonDataService {
 
       return doPostAction(parameters, jsonResult.toString(), DataSourceAction.FETCH, null);
     } catch (Throwable t) {
+      if (responseWriter != null && responseWriter.isStarted()) {
+        // part of the response has already been written, it cannot be replaced by the error
+        throw new OBException(t.getMessage(), t);
+      }
       log.error(t.getMessage(), t);
       return JsonUtils.convertExceptionToJson(t);
     }
   }
 
+  private void writeFetchResponse(Map<String, String> parameters, JSONObject jsonResponse,
+      List<BaseOBObject> bobs, DataToJsonConverter toJsonConverter,
+      JsonResponseWriter responseWriter) throws JSONException {
+    final Iterator<?> keys = jsonResponse.keys();
+    while (keys.hasNext()) {
+      final String key = (String) keys.next();
+      responseWriter.writeProperty(key, jsonResponse.get(key));
+    }
+    responseWriter.writeProperty(JsonConstants.RESPONSE_STATUS,
+        JsonConstants.RPCREQUEST_STATUS_SUCCESS);
+    for (BaseOBObject bob : bobs) {
+      final JSONObject jsonObject = toJsonConverter.toJsonObject(bob, DataResolvingMode.FULL);
+      addWritableAttribute(jsonObject);
+      doPostFetch(parameters, jsonObject);
+      responseWriter.writeRow(jsonObject);
+    }
+    responseWriter.finish();
+  }
+
+  /**
+   * @return the bytes allocated so far by the current thread if fetch allocations are logged and
+   *         the JVM supports measuring them, -1 otherwise
+   */
+  private static long getAllocatedBytes() {
+    if (!allocationLog.isDebugEnabled()) {
+      return -1;
+    }
+    final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+    if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+      return -1;
+    }
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static void logAllocatedBytes(Map<String, String> parameters, long initialBytes,
+      boolean streamed) {
+    if (initialBytes < 0) {
+      return;
+    }
+    allocationLog.debug("Fetch of {} (tab {}) allocated {} KB, streamed: {}",
+        parameters.get(JsonConstants.ENTITYNAME), parameters.get(JsonConstants.TAB_PARAMETER),
+        (getAllocatedBytes() - initialBytes) / 1024, streamed);
+  }
+
   private boolean shouldIncludeStoreDate(JSONObject gridConfiguration) {
     return gridConfiguration.optBoolean("showStoreDates", false);
   }
@@ -537,6 +664,7 @@ public class DefaultJsonDataService implements JsonDataService {
 
   public void fetch(Map<String, String> parameters, QueryResultWriter writer) {
     long t = System.currentTimeMillis();
+    final long allocatedBytes = getAllocatedBytes();
 
     doPreAction(parameters, "", DataSourceAction.FETCH);
     final DataEntityQueryService queryService = createSetQueryService(parameters, false);
@@ -556,13 +684,15 @@ public class DefaultJsonDataService implements JsonDataService {
         OBContext.getOBContext().getOrganizationStructureProvider());
     toJsonConverter.setShouldDisplayOrgDate(shouldIncludeStoreDate(gridConfiguration));
 
+    final String keysetOrderBy = isKeysetPagination(parameters)
+        ? queryService.getQueryBuilder().getOrderBy()
+        : null;
     final ScrollableResults scrollableResults = queryService.scroll();
     try {
       int i = 0;
       while (scrollableResults.next()) {
-        final Object result = scrollableResults.get()[0];
-        final JSONObject json = toJsonConverter.toJsonObject((BaseOBObject) result,
-            DataResolvingMode.FULL);
+        final BaseOBObject result = (BaseOBObject) scrollableResults.get()[0];
+        final JSONObject json = toJsonConverter.toJsonObject(result, DataResolvingMode.FULL);
 
         try {
           doPostFetch(parameters, json);
@@ -570,7 +700,11 @@ public class DefaultJsonDataService implements JsonDataService {
           throw new OBException(e);
         }
 
-        writer.write(json);
+        if (keysetOrderBy == null) {
+          writer.write(json);
+        } else {
+          writer.write(json, KeysetCursor.forRecord(result, keysetOrderBy));
+        }
 
         i++;
         // Clear session every 1000 records to prevent huge memory consumption in case of big loops
@@ -584,6 +718,7 @@ public class DefaultJsonDataService implements JsonDataService {
       scrollableResults.close();
     }
     log.debug("Fetch took " + (System.currentTimeMillis() - t) + " ms");
+    logAllocatedBytes(parameters, allocatedBytes, true);
   }
 
   protected DataEntityQueryService createSetQueryService(Map<String, String> parameters,
@@ -860,6 +995,9 @@ public class DefaultJsonDataService implements JsonDataService {
       }
       queryService.clearCachedValues();
     }
+    if (!forCountOperation && isKeysetPagination(parameters)) {
+      setKeysetCursor(queryService, parameters);
+    }
     if (!forCountOperation) {
       queryService.setAdditionalProperties(JsonUtils.getAdditionalProperties(parameters));
       // joining associated entities actually proved to be slower than doing
@@ -869,6 +1007,26 @@ public class DefaultJsonDataService implements JsonDataService {
     return queryService;
   }
 
+  private static boolean isKeysetPagination(Map<String, String> parameters) {
+    return "true".equals(parameters.get(JsonConstants.KEYSET_PAGINATION_PARAMETER))
+        || StringUtils.isNotBlank(parameters.get(JsonConstants.PAGE_TOKEN_PARAMETER));
+  }
+
+  private void setKeysetCursor(DataEntityQueryService queryService,
+      Map<String, String> parameters) {
+    final AdvancedQueryBuilder queryBuilder = queryService.getQueryBuilder();
+    if (!queryBuilder.isKeysetPaginationSupported()) {
+      throw new OBException("Keyset pagination is not supported for entity "
+          + queryService.getEntityName() + " sorted by " + queryBuilder.getOrderBy());
+    }
+    final String pageToken = parameters.get(JsonConstants.PAGE_TOKEN_PARAMETER);
+    if (StringUtils.isNotBlank(pageToken)) {
+      queryBuilder.setKeysetCursor(KeysetCursor.fromToken(pageToken));
+      // the cursor replaces the offset of the requested start row
+      queryService.setFirstResult(0);
+    }
+  }
+
   private void removeWhereParameter(Map<String, String> parameters) {
     if (parameters.containsKey(JsonConstants.WHERE_AND_FILTER_CLAUSE)) {
       parameters.remove(JsonConstants.WHERE_AND_FILTER_CLAUSE);
@@ -913,29 +1071,33 @@ public class DefaultJsonDataService implements JsonDataService {
 
   private void addWritableAttribute(List<JSONObject> jsonObjects) throws JSONException {
     for (JSONObject jsonObject : jsonObjects) {
-      final Object rowClient = getFKValue(jsonObject, "client", Client.ENTITY_NAME);
-      final Object rowOrganization = getFKValue(jsonObject, "organization",
-          Organization.ENTITY_NAME);
+      addWritableAttribute(jsonObject);
+    }
+  }
+
+  private void addWritableAttribute(JSONObject jsonObject) throws JSONException {
+    final Object rowClient = getFKValue(jsonObject, "client", Client.ENTITY_NAME);
+    final Object rowOrganization = getFKValue(jsonObject, "organization",
+        Organization.ENTITY_NAME);
 
-      if (rowClient == null || !(rowClient instanceof String) || rowOrganization == null
-          || !(rowOrganization instanceof String)) {
-        continue;
+    if (rowClient == null || !(rowClient instanceof String) || rowOrganization == null
+        || !(rowOrganization instanceof String)) {
+      return;
+    }
+    final String currentClientId = OBContext.getOBContext().getCurrentClient().getId();
+    if (!rowClient.equals(currentClientId)) {
+      jsonObject.put("_readOnly", true);
+    } else {
+      boolean writable = OBContext.getOBContext()
+          .getWritableOrganizations()
+          .contains(rowOrganization);
+      if (!writable && isOrganizationEntity(jsonObject)) {
+        writable = OBContext.getOBContext()
+            .getDeactivatedOrganizations()
+            .contains(rowOrganization);
       }
-      final String currentClientId = OBContext.getOBContext().getCurrentClient().getId();
-      if (!rowClient.equals(currentClientId)) {
+      if (!writable) {
         jsonObject.put("_readOnly", true);
-      } else {
-        boolean writable = OBContext.getOBContext()
-            .getWritableOrganizations()
-            .contains(rowOrganization);
-        if (!writable && isOrganizationEntity(jsonObject)) {
-          writable = OBContext.getOBContext()
-              .getDeactivatedOrganizations()
-              .contains(rowOrganization);
-        }
-        if (!writable) {
-          jsonObject.put("_readOnly", true);
-        }
       }
     }
   }
@@ -1207,6 +1369,14 @@ public class DefaultJsonDataService implements JsonDataService {
 
   public static abstract class QueryResultWriter {
     public abstract void write(JSONObject json);
+
+    /**
+     * Writes a record of a keyset paginated fetch, together with the cursor to fetch the records
+     * after it. By default the cursor is ignored.
+     */
+    public void write(JSONObject json, KeysetCursor cursor) {
+      write(json);
+    }
   }
 
   protected List<BaseOBObject> bobFetchTransformation(List<BaseOBObject> bobs,
@@ -0,0 +1,171 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.service.db.DalConnectionProvider;
+
+/**
+ * Returns the number of records estimated by the database instead of counting them, which is much
+ * faster for tables with millions of records:
+ * <ul>
+ * <li>In PostgreSQL, it is the number of rows the planner estimates for a query on the table with
+ * the client, organization and active filters.</li>
+ * <li>In Oracle, it is the number of rows of the table in the last statistics gathered.</li>
+ * </ul>
+ *
+ * The estimation is only done when there are no other filter criteria, where clause or organization
+ * parameter. The main alias and the joins added to fetch the referenced entities do not filter the
+ * records. Filtered requests usually return much fewer records, so they are counted exactly as well
+ * as small tables, whose estimation is below a threshold.
+ */
+public class EstimatedRowCountStrategy implements RowCountStrategy {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final String ORACLE = "ORACLE";
+
+  private final int exactCountThreshold;
+
+  /**
+   * @param exactCountThreshold
+   *          the estimations below this number of records are replaced by an exact count
+   */
+  public EstimatedRowCountStrategy(int exactCountThreshold) {
+    this.exactCountThreshold = exactCountThreshold;
+  }
+
+  @Override
+  public RowCount count(DataEntityQueryService queryService) {
+    final Entity entity = ModelProvider.getInstance().getEntity(queryService.getEntityName());
+    if (!canBeEstimated(entity, queryService)) {
+      return RowCount.exact(queryService.countExact());
+    }
+
+    long estimation = -1;
+    try {
+      if (ORACLE.equalsIgnoreCase(new DalConnectionProvider(false).getRDBMS())) {
+        estimation = getOracleEstimation(entity);
+      } else {
+        estimation = getPostgreSQLEstimation(entity, queryService);
+      }
+    } catch (SQLException | JSONException e) {
+      log.warn("Could not estimate the number of records of {}, counting them", entity.getName(),
+          e);
+    }
+
+    if (estimation < exactCountThreshold) {
+      return RowCount.exact(queryService.countExact());
+    }
+    log.debug("Estimated {} records for {}", estimation, entity.getName());
+    return RowCount.estimated((int) Math.min(estimation, Integer.MAX_VALUE));
+  }
+
+  private boolean canBeEstimated(Entity entity, DataEntityQueryService queryService) {
+    return !entity.isView() && !entity.isDataSourceBased() && !entity.isHQLBased()
+        && !entity.isVirtualEntity() && !entity.isOrganizationPartOfKey()
+        && StringUtils.isNotBlank(entity.getTableName())
+        && StringUtils.isBlank(queryService.getQueryBuilder().getWhereClause());
+  }
+
+  private long getOracleEstimation(Entity entity) throws SQLException {
+    final String sql = "select num_rows from user_tables where table_name = ?";
+    try (PreparedStatement ps = OBDal.getInstance().getConnection(false).prepareStatement(sql)) {
+      ps.setString(1, entity.getTableName().toUpperCase());
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next()) {
+          final long numRows = rs.getLong(1);
+          return rs.wasNull() ? -1 : numRows;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private long getPostgreSQLEstimation(Entity entity, DataEntityQueryService queryService)
+      throws SQLException, JSONException {
+    final OBContext obContext = OBContext.getOBContext();
+    final StringBuilder sql = new StringBuilder("explain (format json) select 1 from ")
+        .append(entity.getTableName())
+        .append(" where 1=1");
+    final List<String> parameters = new ArrayList<>();
+    if (queryService.isFilterOnReadableOrganizations() && entity.isOrganizationEnabled()) {
+      addInFilter(sql, parameters, entity.getProperty("organization").getColumnName(),
+          obContext.getReadableOrganizations());
+    }
+    if (queryService.isFilterOnReadableClients() && entity.isClientEnabled()) {
+      addInFilter(sql, parameters, entity.getProperty("client").getColumnName(),
+          obContext.getReadableClients());
+    }
+    if (queryService.isFilterOnActive() && entity.isActiveEnabled()) {
+      sql.append(" and ").append(entity.getProperty("active").getColumnName()).append(" = 'Y'");
+    }
+
+    // a failed statement aborts the whole transaction in PostgreSQL, so it is run in a savepoint
+    final Connection connection = OBDal.getInstance().getConnection(false);
+    final Savepoint savepoint = connection.setSavepoint();
+    String plan = null;
+    try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+      for (int i = 0; i < parameters.size(); i++) {
+        ps.setString(i + 1, parameters.get(i));
+      }
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next()) {
+          plan = rs.getString(1);
+        }
+      }
+      connection.releaseSavepoint(savepoint);
+    } catch (SQLException e) {
+      connection.rollback(savepoint);
+      throw e;
+    }
+    if (plan == null) {
+      return -1;
+    }
+    return new JSONArray(plan).getJSONObject(0).getJSONObject("Plan").getLong("Plan Rows");
+  }
+
+  private static void addInFilter(StringBuilder sql, List<String> parameters, String columnName,
+      String[] values) {
+    if (values.length == 0) {
+      sql.append(" and 1=0");
+      return;
+    }
+    sql.append(" and ").append(columnName).append(" in (");
+    sql.append(StringUtils.repeat("?", ",", values.length));
+    sql.append(")");
+    parameters.addAll(Arrays.asList(values));
+  }
+}
@@ -49,6 +49,24 @@ public class JsonConstants {
   public static final String NO_ACTIVE_FILTER = "_noActiveFilter";
   public static final String ONLYCOUNT_PARAMETER = "_onlyCount";
   public static final String NOCOUNT_PARAMETER = "_noCount";
+
+  /**
+   * Name of the {@link RowCountStrategy} used to count the records, see
+   * {@link RowCountStrategies}.
+   */
+  public static final String COUNT_STRATEGY_PARAMETER = "_countStrategy";
+
+  /**
+   * Set to true to page the records with a {@link KeysetCursor}, the response includes the token of
+   * the next page in its {@link #RESPONSE_NEXTPAGETOKEN} property.
+   */
+  public static final String KEYSET_PAGINATION_PARAMETER = "_keysetPagination";
+
+  /**
+   * Token returned in the {@link #RESPONSE_NEXTPAGETOKEN} property of the previous page of a keyset
+   * paginated fetch.
+   */
+  public static final String PAGE_TOKEN_PARAMETER = "_pageToken";
   public static final String OR_EXPRESSION_PARAMETER = "_OrExpression";
 
   public static final String USE_ALIAS = "_use_alias";
@@ -96,6 +114,18 @@ public class JsonConstants {
   public static final String RESPONSE_STARTROW = "startRow";
   public static final String RESPONSE_ENDROW = "endRow";
   public static final String RESPONSE_TOTALROWS = "totalRows";
+
+  /**
+   * Set to true in the response when its total rows is an estimation and not the exact number of
+   * records.
+   */
+  public static final String RESPONSE_TOTALROWS_ESTIMATED = "totalRowsEstimated";
+
+  /**
+   * Token to request the next page of a keyset paginated fetch, it is not included in the last
+   * page.
+   */
+  public static final String RESPONSE_NEXTPAGETOKEN = "nextPageToken";
   public static final String RESPONSE_ERROR = "error";
   public static final String RESPONSE_ERRORS = "errors";
   public static final String RESPONSE_ERRORMESSAGE = "errorMessage";
@@ -0,0 +1,236 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.codehaus.jettison.json.JSONString;
+import org.openbravo.base.exception.OBException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a fetch response following the Smartclient format directly into a {@link Writer}, without
+ * building the complete response in memory:
+ *
+ * <pre>
+ * {"response":{"startRow":0,"endRow":74,"totalRows":200,"status":0,"data":[{...},{...}]}}
+ * </pre>
+ *
+ * The properties of the response can be written before or after the data rows, but not between
+ * them. Each row is written as soon as it is received, so the memory used by a response does not
+ * depend on its number of rows.
+ *
+ * Values are written with the same representation {@link JSONObject#toString()} uses for them.
+ *
+ * Closing this writer does not close the underlying {@link Writer}.
+ */
+public class JsonResponseWriter implements Closeable {
+  private static final JsonFactory jsonFactory = new JsonFactory()
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  private final JsonGenerator generator;
+  private boolean started;
+  private boolean writingData;
+  private boolean dataWritten;
+  private boolean finished;
+  private int rows;
+
+  /**
+   * Creates a writer for a response that is written into the given {@link Writer}.
+   */
+  public JsonResponseWriter(Writer writer) {
+    try {
+      generator = jsonFactory.createGenerator(writer);
+    } catch (IOException e) {
+      throw new OBException(e);
+    }
+  }
+
+  /**
+   * Writes a property of the response, like the start or end row. If it is invoked after writing
+   * rows, no more rows can be written.
+   */
+  public void writeProperty(String name, Object value) {
+    if (finished) {
+      throw new IllegalStateException("The response has already been written");
+    }
+    try {
+      start();
+      endData();
+      generator.writeFieldName(name);
+      writeValue(value);
+    } catch (IOException e) {
+      throw new OBException(e);
+    }
+  }
+
+  /**
+   * Writes the next row of the data of the response.
+   */
+  public void writeRow(JSONObject row) {
+    if (finished || dataWritten) {
+      throw new IllegalStateException("The data of the response has already been written");
+    }
+    try {
+      startData();
+      writeValue(row);
+      rows++;
+    } catch (IOException e) {
+      throw new OBException(e);
+    }
+  }
+
+  /**
+   * Completes the response, writing an empty data array if no row has been written, and flushes it
+   * into the underlying {@link Writer}.
+   */
+  public void finish() {
+    if (finished) {
+      return;
+    }
+    try {
+      if (!dataWritten) {
+        startData();
+        endData();
+      }
+      generator.writeEndObject();
+      generator.writeEndObject();
+      generator.flush();
+      finished = true;
+    } catch (IOException e) {
+      throw new OBException(e);
+    }
+  }
+
+  /**
+   * Writes a complete response that was already generated as a String. It can only be used if
+   * nothing has been written yet.
+   */
+  public void writeRaw(String response) {
+    if (started) {
+      throw new IllegalStateException("The response has already been started");
+    }
+    try {
+      generator.writeRaw(response);
+      generator.flush();
+      started = true;
+      finished = true;
+    } catch (IOException e) {
+      throw new OBException(e);
+    }
+  }
+
+  /**
+   * @return {@code true} if something has already been written, in that case it is not possible to
+   *         replace the response with an error
+   */
+  public boolean isStarted() {
+    return started;
+  }
+
+  /**
+   * @return the number of data rows written
+   */
+  public int getRowCount() {
+    return rows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+  }
+
+  private void start() throws IOException {
+    if (started) {
+      return;
+    }
+    generator.writeStartObject();
+    generator.writeFieldName(JsonConstants.RESPONSE_RESPONSE);
+    generator.writeStartObject();
+    started = true;
+  }
+
+  private void startData() throws IOException {
+    if (writingData) {
+      return;
+    }
+    start();
+    generator.writeFieldName(JsonConstants.RESPONSE_DATA);
+    generator.writeStartArray();
+    writingData = true;
+  }
+
+  private void endData() throws IOException {
+    if (!writingData) {
+      return;
+    }
+    generator.writeEndArray();
+    writingData = false;
+    dataWritten = true;
+  }
+
+  private void writeValue(Object value) throws IOException {
+    try {
+      if (value == null || JSONObject.NULL.equals(value)) {
+        generator.writeNull();
+      } else if (value instanceof JSONString) {
+        generator.writeRawValue(((JSONString) value).toJSONString());
+      } else if (value instanceof Number) {
+        generator.writeNumber(JSONObject.numberToString((Number) value));
+      } else if (value instanceof Boolean) {
+        generator.writeBoolean((Boolean) value);
+      } else if (value instanceof JSONObject) {
+        JSONObject jsonObject = (JSONObject) value;
+        generator.writeStartObject();
+        Iterator<?> keys = jsonObject.keys();
+        while (keys.hasNext()) {
+          String key = keys.next().toString();
+          generator.writeFieldName(key);
+          writeValue(jsonObject.opt(key));
+        }
+        generator.writeEndObject();
+      } else if (value instanceof JSONArray) {
+        JSONArray jsonArray = (JSONArray) value;
+        generator.writeStartArray();
+        for (int i = 0; i < jsonArray.length(); i++) {
+          writeValue(jsonArray.opt(i));
+        }
+        generator.writeEndArray();
+      } else if (value instanceof Map) {
+        writeValue(new JSONObject((Map<?, ?>) value));
+      } else if (value instanceof Collection) {
+        writeValue(new JSONArray((Collection<?>) value));
+      } else {
+        generator.writeString(value.toString());
+      }
+    } catch (JSONException e) {
+      throw new OBException(e);
+    }
+  }
+}
@@ -339,18 +339,21 @@ public class JsonRestServlet extends BaseWebServiceServlet {
   }
 
   /**
-   * Helper class to write JSON results streaming them directly into the response PrintWriter
+   * Helper class to write JSON results streaming them directly into the response PrintWriter, each
+   * row is written without generating its String representation
    * 
    * @author alostale
    * 
    */
   private class JSONStreamWriter extends DefaultJsonDataService.QueryResultWriter {
     PrintWriter writer;
+    JsonResponseWriter responseWriter;
     int lines = 0;
     int startRow = 0;
     int endRow = -1;
     int computedMaxResults = Integer.MAX_VALUE;
     boolean limitReached = false;
+    KeysetCursor lastCursor;
 
     public JSONStreamWriter(HttpServletResponse response, Map<String, String> parameters)
         throws IOException {
@@ -369,8 +372,7 @@ public class JsonRestServlet extends BaseWebServiceServlet {
       response.setContentType("application/json;charset=UTF-8");
       response.setHeader("Content-Type", "application/json;charset=UTF-8");
 
-      writer.write("{\"" + JsonConstants.RESPONSE_RESPONSE + "\":{\"" + JsonConstants.RESPONSE_DATA
-          + "\":[");
+      responseWriter = new JsonResponseWriter(writer);
     }
 
     @Override
@@ -381,28 +383,36 @@ public class JsonRestServlet extends BaseWebServiceServlet {
           limitReached = true;
           return;
         }
-        if (lines > 1) {
-          writer.write(",");
-        }
-        writer.write(json.toString());
+        responseWriter.writeRow(json);
       } catch (Exception e) {
         log.error("Error writing json ws response", e);
       }
     }
 
+    @Override
+    public void write(JSONObject json, KeysetCursor cursor) {
+      write(json);
+      if (!limitReached) {
+        lastCursor = cursor;
+      }
+    }
+
     public void close() throws IOException {
-      writer.write("]");
-      writer.write(
-          ",\"" + JsonConstants.RESPONSE_STATUS + "\":" + JsonConstants.RPCREQUEST_STATUS_SUCCESS);
-      writer.write(
-          ",\"" + JsonConstants.RESPONSE_TOTALROWS + "\":" + (lines + (limitReached ? 1 : 0)));
+      responseWriter.writeProperty(JsonConstants.RESPONSE_STATUS,
+          JsonConstants.RPCREQUEST_STATUS_SUCCESS);
+      responseWriter.writeProperty(JsonConstants.RESPONSE_TOTALROWS,
+          lines + (limitReached ? 1 : 0));
       if (startRow != -1) {
-        writer.write(",\"" + JsonConstants.RESPONSE_STARTROW + "\":" + startRow);
+        responseWriter.writeProperty(JsonConstants.RESPONSE_STARTROW, startRow);
       }
 
-      writer.write(",\"" + JsonConstants.RESPONSE_ENDROW + "\":" + (startRow + lines - 1));
+      responseWriter.writeProperty(JsonConstants.RESPONSE_ENDROW, startRow + lines - 1);
+      if (limitReached && lastCursor != null) {
+        responseWriter.writeProperty(JsonConstants.RESPONSE_NEXTPAGETOKEN, lastCursor.toToken());
+      }
 
-      writer.write("}}");
+      responseWriter.finish();
+      responseWriter.close();
       writer.close();
     }
   }
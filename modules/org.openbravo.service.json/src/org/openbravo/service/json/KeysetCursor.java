@@ -0,0 +1,236 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.openbravo.base.exception.OBException;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.base.model.Property;
+import org.openbravo.base.structure.BaseOBObject;
+
+/**
+ * Position of the last record of a page in a keyset paginated fetch. Instead of skipping the
+ * records of the previous pages with an offset, the next page is read with a condition on the sort
+ * values of the last record, so reading any page takes the same time.
+ *
+ * Keyset pagination is supported when the records are sorted by id, which is the default order of
+ * the datasources, or by a single mandatory primitive property of the entity followed by the id,
+ * like "name,id" or "-name,id".
+ *
+ * The cursor is sent to the clients as an opaque token (see {@link #toToken()}) which they send
+ * back to request the next page, together with the same sort order.
+ */
+public class KeysetCursor {
+  private static final String ENTITY = "e";
+  private static final String ORDER_BY = "o";
+  private static final String VALUE = "v";
+  private static final String NANOS = "n";
+  private static final String ID = "i";
+
+  private final String entityName;
+  private final String orderBy;
+  private final Object value;
+  private final String id;
+
+  private KeysetCursor(String entityName, String orderBy, Object value, String id) {
+    this.entityName = entityName;
+    this.orderBy = orderBy;
+    this.value = value;
+    this.id = id;
+  }
+
+  /**
+   * @param entity
+   *          the entity of the fetched records
+   * @param orderBy
+   *          the order by of the fetch, as set in {@link AdvancedQueryBuilder#setOrderBy(String)}
+   * @return {@code true} if the records of the entity sorted with the given order by can be paged
+   *         with a keyset cursor
+   */
+  public static boolean isSupported(Entity entity, String orderBy) {
+    if (orderBy == null || entity.getIdProperties().size() != 1) {
+      return false;
+    }
+    final Property idProperty = entity.getIdProperties().get(0);
+    if (!JsonConstants.ID.equals(idProperty.getName())
+        || idProperty.getPrimitiveObjectType() != String.class) {
+      return false;
+    }
+    final String[] parts = orderBy.split(",");
+    if (parts.length == 1) {
+      return JsonConstants.ID.equals(parts[0].trim());
+    }
+    if (parts.length != 2 || !JsonConstants.ID.equals(parts[1].trim())) {
+      return false;
+    }
+    final String propertyName = StringUtils.removeStart(parts[0].trim(), "-");
+    if (!entity.hasProperty(propertyName)) {
+      return false;
+    }
+    final Property property = entity.getProperty(propertyName);
+    return property.isPrimitive() && !property.isId() && property.isMandatory()
+        && !property.isComputedColumn() && isSupportedType(property.getPrimitiveObjectType());
+  }
+
+  private static boolean isSupportedType(Class<?> type) {
+    return type == String.class || type == BigDecimal.class || type == Long.class
+        || type == Integer.class || type == Boolean.class || Date.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Creates the cursor pointing after the given record.
+   *
+   * @param record
+   *          the last record of a page
+   * @param orderBy
+   *          the order by of the fetch, it must be supported (see
+   *          {@link #isSupported(Entity, String)})
+   */
+  public static KeysetCursor forRecord(BaseOBObject record, String orderBy) {
+    final Entity entity = record.getEntity();
+    final Property sortProperty = getSortProperty(entity, orderBy);
+    final Object value = sortProperty == null ? null : record.get(sortProperty.getName());
+    return new KeysetCursor(entity.getName(), orderBy, value, (String) record.getId());
+  }
+
+  /**
+   * Reads a cursor from a token generated with {@link #toToken()}.
+   *
+   * @throws OBException
+   *           if the token is not valid
+   */
+  public static KeysetCursor fromToken(String token) {
+    try {
+      final JSONObject json = new JSONObject(
+          new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+      final String entityName = json.getString(ENTITY);
+      final String orderBy = json.getString(ORDER_BY);
+      final Entity entity = ModelProvider.getInstance().getEntity(entityName, false);
+      if (entity == null || !isSupported(entity, orderBy)) {
+        throw new OBException("Invalid page token " + token);
+      }
+      final Property sortProperty = getSortProperty(entity, orderBy);
+      final Object value = sortProperty == null ? null
+          : fromJsonValue(json, sortProperty.getPrimitiveObjectType());
+      return new KeysetCursor(entityName, orderBy, value, json.getString(ID));
+    } catch (IllegalArgumentException | JSONException e) {
+      throw new OBException("Invalid page token " + token, e);
+    }
+  }
+
+  /**
+   * @return an opaque representation of this cursor which can be sent to the clients
+   */
+  public String toToken() {
+    try {
+      final JSONObject json = new JSONObject();
+      json.put(ENTITY, entityName);
+      json.put(ORDER_BY, orderBy);
+      json.put(ID, id);
+      if (value instanceof Date) {
+        json.put(VALUE, ((Date) value).getTime());
+        if (value instanceof Timestamp) {
+          json.put(NANOS, ((Timestamp) value).getNanos());
+        }
+      } else if (value instanceof BigDecimal) {
+        json.put(VALUE, ((BigDecimal) value).toPlainString());
+      } else if (value != null) {
+        json.put(VALUE, value);
+      }
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(json.toString().getBytes(StandardCharsets.UTF_8));
+    } catch (JSONException e) {
+      throw new OBException(e);
+    }
+  }
+
+  private static Object fromJsonValue(JSONObject json, Class<?> type) throws JSONException {
+    if (Date.class.isAssignableFrom(type)) {
+      final Timestamp timestamp = new Timestamp(json.getLong(VALUE));
+      if (json.has(NANOS)) {
+        timestamp.setNanos(json.getInt(NANOS));
+      }
+      return timestamp;
+    } else if (type == BigDecimal.class) {
+      return new BigDecimal(json.getString(VALUE));
+    } else if (type == Long.class) {
+      return json.getLong(VALUE);
+    } else if (type == Integer.class) {
+      return json.getInt(VALUE);
+    } else if (type == Boolean.class) {
+      return json.getBoolean(VALUE);
+    }
+    return json.getString(VALUE);
+  }
+
+  /**
+   * @return the property the records are sorted by before the id, or {@code null} if they are only
+   *         sorted by id
+   */
+  static Property getSortProperty(Entity entity, String orderBy) {
+    final String[] parts = orderBy.split(",");
+    if (parts.length == 1) {
+      return null;
+    }
+    return entity.getProperty(StringUtils.removeStart(parts[0].trim(), "-"));
+  }
+
+  /**
+   * @return {@code true} if the records are sorted in descending order. As in
+   *         {@link AdvancedQueryBuilder#getOrderByClause()}, the id is sorted in descending order
+   *         when it is the only sort property or the other property is sorted in descending order.
+   */
+  boolean isDescending() {
+    final String[] parts = orderBy.split(",");
+    return parts.length == 1 || parts[0].trim().startsWith("-");
+  }
+
+  public String getEntityName() {
+    return entityName;
+  }
+
+  public String getOrderBy() {
+    return orderBy;
+  }
+
+  /**
+   * @return the value of the sort property of the last record, {@code null} if the records are
+   *         only sorted by id
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * @return the id of the last record
+   */
+  public String getId() {
+    return id;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.session.OBPropertiesProvider;
+
+/**
+ * Provides the {@link RowCountStrategy} used to count the records of a fetch request.
+ *
+ * The strategy is selected by name: {@value #EXACT}, {@value #ESTIMATE} or {@value #CACHED}. The
+ * name is taken from the first of these that is set:
+ * <ol>
+ * <li>The {@link JsonConstants#COUNT_STRATEGY_PARAMETER} parameter of the request, used for
+ * example to request the exact count of a grid whose total rows were estimated.</li>
+ * <li>The datasource.count.strategy.&lt;tabId&gt; property of Openbravo.properties for the tab of
+ * the request.</li>
+ * <li>The datasource.count.strategy property of Openbravo.properties.</li>
+ * </ol>
+ * If none is set, the records are counted exactly.
+ *
+ * The duration in seconds of the cached counts is defined by the datasource.count.cacheDuration
+ * property (30 seconds by default) and the number of records below which estimations are replaced
+ * by exact counts is defined by the datasource.count.estimateThreshold property (10000 by default).
+ */
+public class RowCountStrategies {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String EXACT = "exact";
+  public static final String ESTIMATE = "estimate";
+  public static final String CACHED = "cached";
+
+  private static final String STRATEGY_PROPERTY = "datasource.count.strategy";
+  private static final String CACHE_DURATION_PROPERTY = "datasource.count.cacheDuration";
+  private static final String ESTIMATE_THRESHOLD_PROPERTY = "datasource.count.estimateThreshold";
+  private static final long DEFAULT_CACHE_DURATION = 30;
+  private static final long DEFAULT_ESTIMATE_THRESHOLD = 10_000;
+
+  private static final RowCountStrategy exactStrategy = new ExactRowCountStrategy();
+  private static RowCountStrategy estimatedStrategy;
+  private static RowCountStrategy cachedStrategy;
+
+  private RowCountStrategies() {
+  }
+
+  /**
+   * @return the strategy to count the records of the request with the given parameters
+   */
+  public static RowCountStrategy getForRequest(Map<String, String> parameters) {
+    String name = parameters.get(JsonConstants.COUNT_STRATEGY_PARAMETER);
+    if (StringUtils.isBlank(name)) {
+      name = getConfiguredStrategyName(parameters.get(JsonConstants.TAB_PARAMETER));
+    }
+    return get(name);
+  }
+
+  /**
+   * @param name
+   *          the name of the strategy, if it is blank or unknown the exact strategy is returned
+   * @return the strategy with the given name
+   */
+  public static RowCountStrategy get(String name) {
+    if (ESTIMATE.equals(name)) {
+      return getEstimatedStrategy();
+    } else if (CACHED.equals(name)) {
+      return getCachedStrategy();
+    } else if (StringUtils.isNotBlank(name) && !EXACT.equals(name)) {
+      log.warn("Unknown count strategy {}, counting the records exactly", name);
+    }
+    return exactStrategy;
+  }
+
+  private static String getConfiguredStrategyName(String tabId) {
+    Properties properties = OBPropertiesProvider.getInstance().getOpenbravoProperties();
+    String name = null;
+    if (StringUtils.isNotBlank(tabId)) {
+      name = properties.getProperty(STRATEGY_PROPERTY + "." + tabId);
+    }
+    if (StringUtils.isBlank(name)) {
+      name = properties.getProperty(STRATEGY_PROPERTY);
+    }
+    return name == null ? null : name.trim();
+  }
+
+  private static synchronized RowCountStrategy getEstimatedStrategy() {
+    if (estimatedStrategy == null) {
+      estimatedStrategy = new EstimatedRowCountStrategy(
+          OBPropertiesProvider.getInstance()
+              .getIntProperty(ESTIMATE_THRESHOLD_PROPERTY, DEFAULT_ESTIMATE_THRESHOLD));
+    }
+    return estimatedStrategy;
+  }
+
+  private static synchronized RowCountStrategy getCachedStrategy() {
+    if (cachedStrategy == null) {
+      cachedStrategy = new CachedRowCountStrategy(Duration
+          .ofSeconds(OBPropertiesProvider.getInstance()
+              .getLongProperty(CACHE_DURATION_PROPERTY, DEFAULT_CACHE_DURATION)));
+    }
+    return cachedStrategy;
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json;
+
+/**
+ * Defines how the {@link DataEntityQueryService} computes the number of records that fit in the
+ * filter criteria, which is returned as the total rows of paged fetch requests.
+ *
+ * The strategies provided by default are available through {@link RowCountStrategies}.
+ */
+public interface RowCountStrategy {
+
+  /**
+   * Counts the records of the given query service.
+   *
+   * @param queryService
+   *          the query service with the entity and criteria to count
+   * @return the number of records, which can be an estimation
+   */
+  RowCount count(DataEntityQueryService queryService);
+
+  /**
+   * The number of records returned by a {@link RowCountStrategy}, together with whether it is the
+   * exact number of records or an estimation.
+   */
+  public static class RowCount {
+    private final int value;
+    private final boolean exact;
+
+    private RowCount(int value, boolean exact) {
+      this.value = value;
+      this.exact = exact;
+    }
+
+    /**
+     * @return a count with the exact number of records
+     */
+    public static RowCount exact(int value) {
+      return new RowCount(value, true);
+    }
+
+    /**
+     * @return a count with an estimation of the number of records
+     */
+    public static RowCount estimated(int value) {
+      return new RowCount(value, false);
+    }
+
+    public int getValue() {
+      return value;
+    }
+
+    /**
+     * @return {@code false} if the value is an estimation
+     */
+    public boolean isExact() {
+      return exact;
+    }
+
+    @Override
+    public String toString() {
+      return exact ? String.valueOf(value) : "~" + value;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.service.json.observability.logger;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the latencies of the datasource requests of a tab in buckets of increasing size, so
+ * recording a request is lock free and does not allocate memory. The percentiles are approximated
+ * by the upper bound of the bucket that contains them.
+ */
+class DatasourceLatencyHistogram {
+  // upper bounds in ms of the buckets, the last bucket contains the latencies above them
+  private static final long[] BUCKET_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000,
+      5_000, 10_000, 20_000, 60_000 };
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalTime = new LongAdder();
+  private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Adds a request that took the given time in ms.
+   */
+  void record(long time) {
+    buckets.incrementAndGet(getBucket(time));
+    count.increment();
+    totalTime.add(time);
+    maxTime.accumulate(time);
+  }
+
+  private static int getBucket(long time) {
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      if (time <= BUCKET_BOUNDS[i]) {
+        return i;
+      }
+    }
+    return BUCKET_BOUNDS.length;
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  long getMax() {
+    return maxTime.get();
+  }
+
+  long getAverage() {
+    final long requests = count.sum();
+    return requests == 0 ? 0 : totalTime.sum() / requests;
+  }
+
+  /**
+   * @param percentile
+   *          the percentile to compute, between 0 and 100
+   * @return the upper bound in ms of the bucket that contains the percentile, or the maximum
+   *         latency if it is in the last bucket
+   */
+  long getPercentile(double percentile) {
+    long total = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      total += buckets.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = (long) Math.ceil(total * percentile / 100);
+    long accumulated = 0;
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      accumulated += buckets.get(i);
+      if (accumulated >= rank) {
+        return Math.min(BUCKET_BOUNDS[i], getMax());
+      }
+    }
+    return getMax();
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + getCount() + ", avg=" + getAverage() + "ms, p50=" + getPercentile(50)
+        + "ms, p90=" + getPercentile(90) + "ms, p99=" + getPercentile(99) + "ms, max="
+        + getMax() + "ms";
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.service.json.observability.logger;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.base.model.Property;
+import org.openbravo.client.kernel.event.EntityDeleteEvent;
+import org.openbravo.client.kernel.event.EntityNewEvent;
+import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
+import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionBeginEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
+import org.openbravo.model.ad.ui.Tab;
+import org.openbravo.service.datasource.DatasourceObservabilityConfig;
+
+/**
+ * Invalidates the cached datasource observability configuration of a tab when it changes. The tabs
+ * are invalidated once the transaction is committed, so the cache is not loaded again with the
+ * previous configuration.
+ */
+public class DatasourceObservabilityConfigHandler extends EntityPersistenceEventObserver {
+  private static Entity[] entities = {
+      ModelProvider.getInstance().getEntity(DatasourceObservabilityConfig.ENTITY_NAME) };
+  private static ThreadLocal<Set<String>> changedTabs = new ThreadLocal<>();
+
+  @Inject
+  private DatasourceObservabilityLogger datasourceObservabilityLogger;
+
+  @Override
+  protected Entity[] getObservedEntities() {
+    return entities;
+  }
+
+  public void onTransactionBegin(@Observes TransactionBeginEvent event) {
+    changedTabs.remove();
+  }
+
+  public void onNew(@Observes EntityNewEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    DatasourceObservabilityConfig config = (DatasourceObservabilityConfig) event
+        .getTargetInstance();
+    addChangedTab(config.getTab());
+  }
+
+  public void onUpdate(@Observes EntityUpdateEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    // the tab of the configuration can be changed, so invalidate both the old and the new tab
+    Property tabProperty = entities[0].getProperty(DatasourceObservabilityConfig.PROPERTY_TAB);
+    addChangedTab((Tab) event.getPreviousState(tabProperty));
+    DatasourceObservabilityConfig config = (DatasourceObservabilityConfig) event
+        .getTargetInstance();
+    addChangedTab(config.getTab());
+  }
+
+  public void onDelete(@Observes EntityDeleteEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    DatasourceObservabilityConfig config = (DatasourceObservabilityConfig) event
+        .getTargetInstance();
+    addChangedTab(config.getTab());
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    Set<String> tabIds = changedTabs.get();
+    changedTabs.remove();
+    if (tabIds == null || event.getTransaction().getStatus() == TransactionStatus.ROLLED_BACK) {
+      return;
+    }
+    for (String tabId : tabIds) {
+      datasourceObservabilityLogger.clearConfig(tabId);
+    }
+  }
+
+  private void addChangedTab(Tab tab) {
+    if (tab == null) {
+      return;
+    }
+    Set<String> tabIds = changedTabs.get();
+    if (tabIds == null) {
+      tabIds = new HashSet<>();
+      changedTabs.set(tabIds);
+    }
+    tabIds.add(tab.getId());
+  }
+}
@@ -4,24 +4,39 @@
  * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
  * Version 1.1  with a permitted attribution clause; you may not  use this
  * file except in compliance with the License. You  may  obtain  a copy of
- * the License at http://www.openbravo.com/legal/license.html 
+ * the License at http://www.openbravo.com/legal/license.html
  * Software distributed under the License  is  distributed  on  an "AS IS"
  * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
  * License for the specific  language  governing  rights  and  limitations
- * under the License. 
- * The Original Code is Openbravo ERP. 
- * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2022 Openbravo SLU 
- * All Rights Reserved. 
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2022-2026 Openbravo SLU
+ * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
  */
 
 package org.openbravo.service.json.observability.logger;
 
+import static java.util.Comparator.comparingLong;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 
 import org.apache.commons.lang.StringUtils;
@@ -29,57 +44,212 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
-import org.hibernate.criterion.Restrictions;
-import org.openbravo.base.exception.OBException;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.cache.TimeInvalidatedCache;
 import org.openbravo.dal.core.OBContext;
-import org.openbravo.dal.service.OBCriteria;
 import org.openbravo.dal.service.OBDal;
-import org.openbravo.model.ad.ui.Tab;
+import org.openbravo.dal.service.OBQuery;
+import org.openbravo.jmx.MBeanRegistry;
 import org.openbravo.service.datasource.DatasourceObservabilityConfig;
 import org.openbravo.service.json.DataEntityQueryService;
 
+/**
+ * Logs the datasource requests of the tabs with a {@link DatasourceObservabilityConfig} and keeps
+ * latency statistics of the datasource requests of all the tabs, which are exposed through JMX.
+ *
+ * The configuration of each tab is cached, so deciding whether a request is logged does not query
+ * the database. The events are queued and logged by a background thread, when the queue is full
+ * the new events are discarded instead of delaying the requests. Its size is defined by the
+ * datasource.observability.queueSize property of Openbravo.properties (10000 by default).
+ */
 @ApplicationScoped
-public class DatasourceObservabilityLogger {
+public class DatasourceObservabilityLogger implements DatasourceObservabilityLoggerMBean {
+
+  public static final String MBEAN_NAME = "DatasourceObservability";
 
   private static final Logger log = LogManager.getLogger("DatasourceEvents");
+  private static final Logger logger = LogManager.getLogger();
+
+  private static final String QUEUE_SIZE_PROPERTY = "datasource.observability.queueSize";
+  private static final int DEFAULT_QUEUE_SIZE = 10_000;
+
+  private final TimeInvalidatedCache<String, Optional<TabConfig>> configCache = TimeInvalidatedCache
+      .newBuilder()
+      .name("DatasourceObservabilityConfig")
+      .expireAfterDuration(Duration.ofHours(1))
+      .clusterInvalidation()
+      .build(DatasourceObservabilityLogger::loadConfig);
+
+  private final Map<String, DatasourceLatencyHistogram> latencies = new ConcurrentHashMap<>();
+  private final LongAdder droppedEvents = new LongAdder();
+  private BlockingQueue<DatasourceEvent> events = new ArrayBlockingQueue<>(DEFAULT_QUEUE_SIZE);
+  private ExecutorService writer;
+
+  @PostConstruct
+  private void init() {
+    events = new ArrayBlockingQueue<>(
+        OBPropertiesProvider.getInstance().getIntProperty(QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE));
+    writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Datasource Observability Logger");
+      thread.setDaemon(true);
+      return thread;
+    });
+    writer.execute(this::writeEvents);
+    MBeanRegistry.registerMBean(MBEAN_NAME, this);
+  }
+
+  @PreDestroy
+  private void shutdown() {
+    if (writer != null) {
+      writer.shutdownNow();
+    }
+    // log the events queued before stopping
+    final List<DatasourceEvent> pendingEvents = new ArrayList<>();
+    events.drainTo(pendingEvents);
+    pendingEvents.forEach(DatasourceObservabilityLogger::write);
+  }
 
   public void logIfNeeded(Map<String, String> parameters, DataEntityQueryService queryService,
       long queryTime) {
+    String tabId = parameters.get("tabId");
+    if (StringUtils.isBlank(tabId)) {
+      return;
+    }
+    latencies.computeIfAbsent(tabId, id -> new DatasourceLatencyHistogram()).record(queryTime);
+
+    Optional<TabConfig> config = configCache.get(tabId);
+    if (!config.isPresent() || !config.get().isLogged(queryTime)) {
+      return;
+    }
+    String queryString;
     try {
       OBContext.setAdminMode(true);
-      String tabId = parameters.get("tabId");
-      if (StringUtils.isBlank(tabId)) {
-        return;
-      }
-      Tab tab = OBDal.getInstance().get(Tab.class, tabId);
-      DatasourceObservabilityConfig config = getConfig(tab);
-      if (config == null || (config.getMinMs() != null && config.getMinMs() > queryTime)) {
-        return;
+      queryString = queryService.buildOBQuery().createQuery().getQueryString();
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+    DatasourceEvent event = new DatasourceEvent(config.get().tabIdentifier, queryTime,
+        queryString, new HashMap<>(parameters));
+    if (!events.offer(event)) {
+      droppedEvents.increment();
+      logger.debug("Datasource events queue is full, discarding the event of tab {}", tabId);
+    }
+  }
+
+  private void writeEvents() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        write(events.take());
       }
-      String queryString = queryService.buildOBQuery().createQuery().getQueryString();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void write(DatasourceEvent datasourceEvent) {
+    try {
       JSONObject event = new JSONObject();
       event.put("type", "dsEvent");
-      event.put("tabIdentifier", tab.getIdentifier());
-      event.put("logTime", new Date());
-      event.put("duration", queryTime);
-      event.put("query", queryString);
-      event.put("params", parameters);
+      event.put("tabIdentifier", datasourceEvent.tabIdentifier);
+      event.put("logTime", datasourceEvent.logTime);
+      event.put("duration", datasourceEvent.duration);
+      event.put("query", datasourceEvent.query);
+      event.put("params", datasourceEvent.parameters);
       log.info(event);
-    } catch (JSONException e) {
-      throw new OBException(e);
+    } catch (JSONException | RuntimeException e) {
+      logger.error("Could not log datasource event of tab {}", datasourceEvent.tabIdentifier, e);
+    }
+  }
+
+  private static Optional<TabConfig> loadConfig(String tabId) {
+    try {
+      OBContext.setAdminMode(true);
+      OBQuery<DatasourceObservabilityConfig> query = OBDal.getInstance()
+          .createQuery(DatasourceObservabilityConfig.class, "as c where c.tab.id = :tabId");
+      query.setNamedParameter("tabId", tabId);
+      query.setFilterOnReadableClients(false);
+      query.setFilterOnReadableOrganization(false);
+      DatasourceObservabilityConfig config = query.uniqueResult();
+      if (config == null) {
+        return Optional.empty();
+      }
+      return Optional.of(new TabConfig(config.getTab().getIdentifier(), config.getMinMs()));
     } finally {
       OBContext.restorePreviousMode();
     }
+  }
+
+  /**
+   * Invalidates the cached configuration of the given tab because it has changed
+   */
+  public void clearConfig(String tabId) {
+    configCache.invalidate(tabId);
+  }
+
+  @Override
+  public void clearConfigCache() {
+    configCache.invalidateAll();
+  }
+
+  @Override
+  public String[] getTabLatencies() {
+    return latencies.entrySet()
+        .stream()
+        .sorted(comparingLong(
+            (Map.Entry<String, DatasourceLatencyHistogram> e) -> e.getValue().getPercentile(99))
+                .reversed())
+        .map(e -> e.getKey() + ": " + e.getValue())
+        .toArray(String[]::new);
+  }
 
+  @Override
+  public String getTabLatency(String tabId) {
+    DatasourceLatencyHistogram histogram = latencies.get(tabId);
+    return histogram == null ? null : histogram.toString();
   }
 
-  private DatasourceObservabilityConfig getConfig(Tab tab) {
-    OBCriteria<DatasourceObservabilityConfig> criteria = OBDal.getInstance()
-        .createCriteria(DatasourceObservabilityConfig.class);
-    criteria.add(Restrictions.eq(DatasourceObservabilityConfig.PROPERTY_TAB, tab));
-    criteria.setFilterOnReadableClients(false);
-    criteria.setFilterOnReadableOrganization(false);
-    return (DatasourceObservabilityConfig) criteria.uniqueResult();
+  @Override
+  public void resetTabLatencies() {
+    latencies.clear();
   }
 
+  @Override
+  public int getPendingEvents() {
+    return events.size();
+  }
+
+  @Override
+  public long getDroppedEvents() {
+    return droppedEvents.sum();
+  }
+
+  private static class TabConfig {
+    private final String tabIdentifier;
+    private final Long minMs;
+
+    private TabConfig(String tabIdentifier, Long minMs) {
+      this.tabIdentifier = tabIdentifier;
+      this.minMs = minMs;
+    }
+
+    private boolean isLogged(long queryTime) {
+      return minMs == null || minMs <= queryTime;
+    }
+  }
+
+  private static class DatasourceEvent {
+    private final String tabIdentifier;
+    private final Date logTime = new Date();
+    private final long duration;
+    private final String query;
+    private final Map<String, String> parameters;
+
+    private DatasourceEvent(String tabIdentifier, long duration, String query,
+        Map<String, String> parameters) {
+      this.tabIdentifier = tabIdentifier;
+      this.duration = duration;
+      this.query = query;
+      this.parameters = parameters;
+    }
+  }
 }
@@ -0,0 +1,59 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.service.json.observability.logger;
+
+/**
+ * Exposes through JMX the latency of the datasource requests of each tab and the state of the
+ * datasource events queue.
+ */
+public interface DatasourceObservabilityLoggerMBean {
+
+  /**
+   * @return the number of requests, the average, the 50, 90 and 99 percentiles and the maximum
+   *         latency of the datasource requests of each tab, sorted from the slowest to the fastest
+   *         99 percentile
+   */
+  public String[] getTabLatencies();
+
+  /**
+   * @return the latency statistics of the datasource requests of the given tab
+   */
+  public String getTabLatency(String tabId);
+
+  /**
+   * Discards the latency statistics of all the tabs.
+   */
+  public void resetTabLatencies();
+
+  /**
+   * @return the number of datasource events waiting to be logged
+   */
+  public int getPendingEvents();
+
+  /**
+   * @return the number of datasource events discarded because the queue was full
+   */
+  public long getDroppedEvents();
+
+  /**
+   * Clears the cached datasource observability configuration of all the tabs.
+   */
+  public void clearConfigCache();
+}
@@ -132,6 +132,9 @@ public class HttpBaseServlet extends HttpServlet implements ConnectionProvider {
       XmlEngine.strTextDividedByZero = globalParameters.strTextDividedByZero;
       xmlEngine.fileXmlEngineFormat = new File(globalParameters.getXmlEngineFileFormatPath());
       xmlEngine.initialize();
+      if (Boolean.parseBoolean(globalParameters.getOBProperty("xmlEngine.preloadTemplates"))) {
+        xmlEngine.preloadXmlTemplates(getClass().getName().replace('.', '/'));
+      }
 
       log4j.debug("Text of divided by zero: " + XmlEngine.strTextDividedByZero);
 
@@ -379,6 +379,7 @@ public class ConnectionProviderImpl implements ConnectionProvider {
       return;
     }
     conn.rollback();
+    SessionInfo.contextInfoRolledBack(conn);
     closeConnection(conn);
   }
 
@@ -183,6 +183,7 @@ public class JNDIConnectionProvider implements ConnectionProvider {
   public void releaseRollbackConnection(Connection conn) throws SQLException {
     if (conn != null) {
       conn.rollback();
+      SessionInfo.contextInfoRolledBack(conn);
       releaseConnection(conn);
     }
   }
@@ -23,8 +23,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -46,6 +49,7 @@ public class SessionInfo {
   private static boolean isAuditActive = false;
   private static boolean usageAuditActive = false;
   private static boolean initialized = false;
+  private static boolean skipUnchangedContextInfo = false;
 
   /*
    * The following variables track per thread the information about the current 'user' of the thread
@@ -77,6 +81,16 @@ public class SessionInfo {
 
   private static ThreadLocal<Boolean> auditThisThread = new ThreadLocal<Boolean>();
 
+  /*
+   * When skipUnchangedContextInfo is enabled, keeps the context info last saved in each connection,
+   * so it is not saved again while it does not change. The entries of the connections are discarded
+   * when they are rolled back, as the rollback could undo the saved info.
+   */
+  private static final Map<Connection, String> savedContextInfo = Collections
+      .synchronizedMap(new WeakHashMap<>());
+  private static final AtomicLong contextInfoSaves = new AtomicLong();
+  private static final AtomicLong contextInfoSkips = new AtomicLong();
+
   /**
    * Sets all session information to null. Called at the end of http-request handling, to reset the
    * audit information for that thread.
@@ -244,6 +258,16 @@ public class SessionInfo {
         return;
       }
 
+      String contextInfo = null;
+      if (skipUnchangedContextInfo) {
+        contextInfo = getContextInfoFingerprint();
+        if (contextInfo.equals(savedContextInfo.get(conn))) {
+          contextInfoSkips.incrementAndGet();
+          markContextInfoSaved(conn);
+          return;
+        }
+      }
+
       if (log4j.isDebugEnabled()) {
         log4j.debug(
             "saving DB context info " + SessionInfo.getUserId() + " - " + SessionInfo.getSessionId()
@@ -260,13 +284,14 @@ public class SessionInfo {
       psInsert.setString(3, SessionInfo.getProcessType());
       psInsert.setString(4, SessionInfo.getProcessId());
       psInsert.executeUpdate();
+      contextInfoSaves.incrementAndGet();
 
-      if (conn == sessionConnection.get()) {
-        // Handling only for the sqlc connection, as DAL should be automatically handled so that
-        // this method is invoked only once.
-        changedInfo.set(false);
+      if (contextInfo != null) {
+        savedContextInfo.put(conn, contextInfo);
       }
+      markContextInfoSaved(conn);
     } catch (Exception e) {
+      savedContextInfo.remove(conn);
       log4j.error("Error setting audit info", e);
     } finally {
       releasePreparedStatement(psCleanUp);
@@ -274,6 +299,61 @@ public class SessionInfo {
     }
   }
 
+  private static void markContextInfoSaved(Connection conn) {
+    if (conn == sessionConnection.get()) {
+      // Handling only for the sqlc connection, as DAL should be automatically handled so that
+      // this method is invoked only once.
+      changedInfo.set(false);
+    }
+  }
+
+  private static String getContextInfoFingerprint() {
+    return getUserId() + "|" + getSessionId() + "|" + getProcessType() + "|" + getProcessId();
+  }
+
+  /**
+   * Notifies that the given connection has been rolled back, so the context info saved in it could
+   * have been undone and it must be saved again before the next DB modification. It must be
+   * invoked whenever a connection is rolled back without closing it afterwards.
+   * 
+   * @param conn
+   *          the connection that has been rolled back
+   */
+  public static void contextInfoRolledBack(Connection conn) {
+    if (conn != null) {
+      savedContextInfo.remove(conn);
+    }
+  }
+
+  /**
+   * Enables or disables the skipping of redundant context info saves. When enabled, the context
+   * info is saved in each connection only when it is different from the one last saved in it,
+   * instead of on every flush.
+   */
+  public static void setSkipUnchangedContextInfo(boolean skip) {
+    skipUnchangedContextInfo = skip;
+    savedContextInfo.clear();
+  }
+
+  public static boolean isSkipUnchangedContextInfo() {
+    return skipUnchangedContextInfo;
+  }
+
+  /**
+   * @return the number of times the context info has been saved into DB
+   */
+  public static long getContextInfoSaves() {
+    return contextInfoSaves.get();
+  }
+
+  /**
+   * @return the number of times saving the context info into DB has been skipped because it was
+   *         already saved in the connection
+   */
+  public static long getContextInfoSkips() {
+    return contextInfoSkips.get();
+  }
+
   /**
    * Initialized DB with temporary table and sets session information on it.
    * 
@@ -318,8 +398,8 @@ public class SessionInfo {
 
     try {
       log4j.trace("preparedStatement requested");
-      ps = conn.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
-          ResultSet.CONCUR_READ_ONLY);
+      // forward only: the statements are executed once and their results, if any, read in order
+      ps = conn.prepareStatement(sql);
     } catch (SQLException e) {
       log4j.error("getPreparedStatement: " + sql, e);
       try {
@@ -445,6 +525,10 @@ public class SessionInfo {
     SessionInfo.initialized = true;
   }
 
+  public static boolean isAuditActive() {
+    return isAuditActive;
+  }
+
   public static boolean isInitialized() {
     return initialized;
   }
@@ -13,10 +13,15 @@ package org.openbravo.xmlEngine;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Hashtable;
+import java.util.Map;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -29,6 +34,8 @@ public class XmlEngine {
   private XMLReader xmlParser;
   private XMLReader htmlParser;
   private Hashtable<String, XmlTemplate> hasXmlTemplate;
+  // templates completely read, they can be retrieved without locking the engine
+  private final Map<String, XmlTemplate> readXmlTemplates = new ConcurrentHashMap<>();
   private Stack<XmlTemplate> stcRead;
   Hashtable<String, FormatCouple> formatHashtable;
   Hashtable<String, Vector<ReplaceElement>> replaceHashtable;
@@ -113,8 +120,9 @@ public class XmlEngine {
     replaceHashtable.put("htmlJavaScript", htmlJavaScriptReplaceVector);
   }
 
-  public void initialize() {
+  public synchronized void initialize() {
     hasXmlTemplate = new Hashtable<>();
+    readXmlTemplates.clear();
     stcRead = new Stack<>(); // stack of XmlTemplates not read
     formatHashtable = new Hashtable<>();
     XMLReader xmlParserFormat = new SAXParser();
@@ -151,17 +159,84 @@ public class XmlEngine {
    *          A vector of Strings with the names of the discards in the template file. The elements
    *          with a id equal to a discard are not readed
    */
-  public synchronized XmlTemplate readXmlTemplate(String strXmlTemplateFile, String[] discard) {
-    String xmlTemplateName = strXmlTemplateFile;
-    xmlTemplateName = fileBaseLocation.getName() + xmlTemplateName;
+  public XmlTemplate readXmlTemplate(String strXmlTemplateFile, String[] discard) {
+    StringBuilder nameBuilder = new StringBuilder(fileBaseLocation.getName())
+        .append(strXmlTemplateFile);
     for (int i = 0; i < discard.length; i++) {
-      xmlTemplateName = xmlTemplateName + "?" + discard[i];
+      nameBuilder.append("?").append(discard[i]);
     }
+    String xmlTemplateName = nameBuilder.toString();
     if (log4jReloadXml.isDebugEnabled()) {
-      initialize();
-      log4jReloadXml.debug("XmlEngine Initialized");
+      return reloadXmlTemplate(xmlTemplateName, strXmlTemplateFile, discard);
+    }
+    XmlTemplate xmlTemplate = readXmlTemplates.get(xmlTemplateName);
+    if (xmlTemplate != null) {
+      return xmlTemplate;
+    }
+    synchronized (this) {
+      // another thread could have read it while waiting for the lock
+      xmlTemplate = readXmlTemplates.get(xmlTemplateName);
+      if (xmlTemplate == null) {
+        xmlTemplate = readAllXmlTemplates(xmlTemplateName, strXmlTemplateFile, discard);
+        readXmlTemplates.put(xmlTemplateName, xmlTemplate);
+      }
+      return xmlTemplate;
+    }
+  }
+
+  private synchronized XmlTemplate reloadXmlTemplate(String strXmlTemplateName,
+      String strXmlTemplateFile, String[] discard) {
+    initialize();
+    log4jReloadXml.debug("XmlEngine Initialized");
+    return readAllXmlTemplates(strXmlTemplateName, strXmlTemplateFile, discard);
+  }
+
+  /**
+   * Reads in advance the templates whose name starts with the given one and whose configuration
+   * file is in its same directory, so they are already available when they are requested for the
+   * first time. Only the templates without discards are read, as the discards depend on each
+   * request.
+   * 
+   * @param strXmlTemplatePrefix
+   *          The path of the configuration files of the templates to read, relative to the base
+   *          location, without the extension. For example org/openbravo/erpCommon/ad_forms/About
+   *          reads About and AboutEdit among others
+   * @return the number of templates read
+   */
+  public int preloadXmlTemplates(String strXmlTemplatePrefix) {
+    if (isResource) {
+      return 0;
+    }
+    int lastSlash = strXmlTemplatePrefix.lastIndexOf('/');
+    String strDirectory = strXmlTemplatePrefix.substring(0, lastSlash + 1);
+    String strNamePrefix = strXmlTemplatePrefix.substring(lastSlash + 1);
+    File[] files = new File(fileBaseLocation, strDirectory)
+        .listFiles(f -> f.getName().startsWith(strNamePrefix) && f.getName().endsWith(".xml"));
+    if (files == null) {
+      return 0;
+    }
+    int preloaded = 0;
+    for (File file : files) {
+      if (isXmlTemplateConfiguration(file)) {
+        String strFileName = file.getName();
+        readXmlTemplate(strDirectory + strFileName.substring(0, strFileName.length() - 4));
+        preloaded++;
+      }
+    }
+    log4jXmlEngine.debug("Preloaded {} templates of {}", preloaded, strXmlTemplatePrefix);
+    return preloaded;
+  }
+
+  private boolean isXmlTemplateConfiguration(File file) {
+    // the configuration files of the templates have a REPORT root element after the license
+    byte[] header = new byte[4096];
+    try (InputStream in = new FileInputStream(file)) {
+      int read = in.readNBytes(header, 0, header.length);
+      return new String(header, 0, read, StandardCharsets.ISO_8859_1).contains("<REPORT");
+    } catch (IOException e) {
+      log4jXmlEngine.debug("Could not read {}", file, e);
+      return false;
     }
-    return readAllXmlTemplates(xmlTemplateName, strXmlTemplateFile, discard);
   }
 
   /**
@@ -0,0 +1,208 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.advpaymentmngt.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.advpaymentmngt.algorithm.StandardMatchingAlgorithm;
+import org.openbravo.advpaymentmngt.dao.MatchTransactionDao;
+import org.openbravo.advpaymentmngt.utility.FIN_MatchedTransaction;
+import org.openbravo.advpaymentmngt.utility.FIN_MatchingCandidates;
+import org.openbravo.base.provider.OBProvider;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.model.common.businesspartner.BusinessPartner;
+import org.openbravo.model.financialmgmt.payment.FIN_BankStatement;
+import org.openbravo.model.financialmgmt.payment.FIN_BankStatementLine;
+import org.openbravo.model.financialmgmt.payment.FIN_FinaccTransaction;
+import org.openbravo.model.financialmgmt.payment.FIN_FinancialAccount;
+import org.openbravo.model.financialmgmt.payment.FIN_Payment;
+import org.openbravo.model.financialmgmt.payment.MatchingAlgorithm;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Checks that the bulk matching of bank statement lines against the candidates loaded in memory
+ * gives the same results as the matching which queries the candidates for each line. The timing
+ * of both approaches is reported in the log.
+ */
+public class BulkMatchingTest extends OBBaseTest {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final Date DAY_1 = new Date(1_767_225_600_000L);
+  private static final Date DAY_2 = new Date(DAY_1.getTime() + 86_400_000L);
+
+  private FIN_FinancialAccount account;
+
+  /**
+   * This before method is named setUpBulk() to avoid overwriting the super setUp method that is
+   * invoke automatically before this one.
+   */
+  @Before
+  public void setUpBulk() {
+    TestUtility.setTestContext();
+    MatchingAlgorithm algorithm = OBProvider.getInstance().get(MatchingAlgorithm.class);
+    algorithm.setMatchtransactiondate(true);
+    algorithm.setMatchreference(true);
+    algorithm.setMatchbpname(false);
+    account = OBProvider.getInstance().get(FIN_FinancialAccount.class);
+    account.setMatchingAlgorithm(algorithm);
+  }
+
+  @Test
+  public void strongMatchByReferenceAndDate() throws Exception {
+    FIN_FinaccTransaction withoutReference = newTransaction("1", "100", DAY_1, null);
+    FIN_FinaccTransaction withReference = newTransaction("2", "100", DAY_1, "REF-1");
+    FIN_MatchingCandidates candidates = new FIN_MatchingCandidates(
+        Arrays.asList(withoutReference, withReference));
+
+    FIN_MatchedTransaction matched = new StandardMatchingAlgorithm()
+        .match(newLine("100.00", DAY_1, "REF-1"), candidates);
+
+    assertThat(matched.getMatchLevel(), equalTo(FIN_MatchedTransaction.STRONG));
+    assertThat(matched.getTransaction(), equalTo(withReference));
+  }
+
+  @Test
+  public void weakMatchByAmountAndDate() throws Exception {
+    FIN_FinaccTransaction otherDay = newTransaction("1", "100", DAY_2, "REF-1");
+    FIN_FinaccTransaction sameDay = newTransaction("2", "100", DAY_1, "REF-2");
+    FIN_MatchingCandidates candidates = new FIN_MatchingCandidates(
+        Arrays.asList(otherDay, sameDay));
+
+    FIN_MatchedTransaction matched = new StandardMatchingAlgorithm()
+        .match(newLine("100", DAY_1, "REF-1"), candidates);
+
+    assertThat(matched.getMatchLevel(), equalTo(FIN_MatchedTransaction.WEAK));
+    assertThat(matched.getTransaction(), equalTo(sameDay));
+  }
+
+  @Test
+  public void excludedTransactionsAreNotMatched() throws Exception {
+    FIN_FinaccTransaction transaction = newTransaction("1", "100", DAY_1, "REF-1");
+    FIN_MatchingCandidates candidates = new FIN_MatchingCandidates(Arrays.asList(transaction));
+    candidates.exclude(transaction);
+
+    FIN_MatchedTransaction matched = new StandardMatchingAlgorithm()
+        .match(newLine("100", DAY_1, "REF-1"), candidates);
+
+    assertThat(matched.getMatchLevel(), equalTo(FIN_MatchedTransaction.NOMATCH));
+    assertThat(matched.getTransaction(), nullValue());
+  }
+
+  @Test
+  public void nullReferenceIsNotMatchedStrongly() throws Exception {
+    FIN_FinaccTransaction transaction = newTransaction("1", "100", DAY_1, null);
+    FIN_MatchingCandidates candidates = new FIN_MatchingCandidates(Arrays.asList(transaction));
+
+    FIN_MatchedTransaction matched = new StandardMatchingAlgorithm()
+        .match(newLine("100", DAY_1, null), candidates);
+
+    assertThat(matched.getMatchLevel(), equalTo(FIN_MatchedTransaction.WEAK));
+  }
+
+  /**
+   * Matches the pending lines of the financial accounts of the test client in both ways, without
+   * excluding the matched transactions, so the match level of each line does not depend on the
+   * order of the candidates. Nothing is persisted.
+   */
+  @Test
+  public void compareBulkAndPerLineMatching() throws Exception {
+    StandardMatchingAlgorithm algorithm = new StandardMatchingAlgorithm();
+    List<FIN_FinaccTransaction> excluded = new ArrayList<>();
+    long perLine = 0;
+    long bulk = 0;
+    int lines = 0;
+    OBContext.setAdminMode(true);
+    try {
+      for (FIN_FinancialAccount financialAccount : OBDal.getInstance()
+          .createCriteria(FIN_FinancialAccount.class)
+          .list()) {
+        if (financialAccount.getMatchingAlgorithm() == null) {
+          continue;
+        }
+        List<FIN_BankStatementLine> pendingLines = MatchTransactionDao
+            .getUnMatchedBankStatementLines(financialAccount);
+        List<String> perLineLevels = new ArrayList<>();
+        long t = System.nanoTime();
+        for (FIN_BankStatementLine line : pendingLines) {
+          perLineLevels.add(algorithm.match(line, excluded).getMatchLevel());
+        }
+        perLine += System.nanoTime() - t;
+
+        List<String> bulkLevels = new ArrayList<>();
+        t = System.nanoTime();
+        FIN_MatchingCandidates candidates = FIN_MatchingCandidates.load(financialAccount.getId());
+        for (FIN_BankStatementLine line : pendingLines) {
+          bulkLevels.add(algorithm.match(line, candidates).getMatchLevel());
+        }
+        bulk += System.nanoTime() - t;
+
+        assertThat(financialAccount.getIdentifier(), bulkLevels, equalTo(perLineLevels));
+        lines += pendingLines.size();
+      }
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+    log.info("{} bank statement lines matched, per line: {} ms, in bulk: {} ms", lines,
+        perLine / 1_000_000, bulk / 1_000_000);
+  }
+
+  private FIN_FinaccTransaction newTransaction(String id, String amount, Date date,
+      String reference) {
+    BusinessPartner businessPartner = OBProvider.getInstance().get(BusinessPartner.class);
+    businessPartner.setName("Bulk matching");
+    FIN_Payment payment = OBProvider.getInstance().get(FIN_Payment.class);
+    payment.setBusinessPartner(businessPartner);
+    payment.setReferenceNo(reference);
+    payment.setDocumentNo("DOC-" + id);
+    FIN_FinaccTransaction transaction = OBProvider.getInstance().get(FIN_FinaccTransaction.class);
+    transaction.setId(id);
+    transaction.setAccount(account);
+    transaction.setFinPayment(payment);
+    transaction.setTransactionDate(date);
+    transaction.setDepositAmount(new BigDecimal(amount));
+    transaction.setPaymentAmount(BigDecimal.ZERO);
+    return transaction;
+  }
+
+  private FIN_BankStatementLine newLine(String amount, Date date, String reference) {
+    FIN_BankStatement statement = OBProvider.getInstance().get(FIN_BankStatement.class);
+    statement.setAccount(account);
+    FIN_BankStatementLine line = OBProvider.getInstance().get(FIN_BankStatementLine.class);
+    line.setBankStatement(statement);
+    line.setTransactionDate(date);
+    line.setReferenceNo(reference);
+    line.setCramount(new BigDecimal(amount));
+    line.setDramount(BigDecimal.ZERO);
+    return line;
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.cache;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the propagation of cache invalidations among cluster nodes through the
+ * {@link CacheInvalidationBus}, using a {@link FileCacheInvalidationTransport} to simulate two
+ * nodes running in the same JVM.
+ */
+public class CacheInvalidationBusTest {
+  private static final long POLL_INTERVAL = Duration.ofHours(1).toMillis();
+
+  @Rule
+  public TemporaryFolder sharedDirectory = new TemporaryFolder();
+
+  private CacheInvalidationBus bus1;
+  private CacheInvalidationBus bus2;
+  private Map<String, AtomicInteger> loadsInNode1;
+  private Map<String, AtomicInteger> loadsInNode2;
+
+  @Before
+  public void setUp() throws IOException {
+    bus1 = new CacheInvalidationBus();
+    bus2 = new CacheInvalidationBus();
+    loadsInNode1 = new ConcurrentHashMap<>();
+    loadsInNode2 = new ConcurrentHashMap<>();
+  }
+
+  @After
+  public void tearDown() {
+    bus1.shutdown();
+    bus2.shutdown();
+  }
+
+  @Test
+  public void keyInvalidationShouldBePropagatedToOtherNodes() {
+    startBuses();
+    TimeInvalidatedCache<String, String> cache1 = initializeCache(bus1, loadsInNode1);
+    TimeInvalidatedCache<String, String> cache2 = initializeCache(bus2, loadsInNode2);
+    cache1.get("key");
+    cache2.get("key");
+    cache2.get("otherKey");
+
+    cache1.invalidate("key");
+    exchangeInvalidations();
+    cache2.get("key");
+    cache2.get("otherKey");
+
+    assertThat("Invalidated key reloaded in other node", loads(loadsInNode2, "key"), equalTo(2));
+    assertThat("Other keys are kept", loads(loadsInNode2, "otherKey"), equalTo(1));
+  }
+
+  @Test
+  public void invalidateAllShouldBePropagatedToOtherNodes() {
+    startBuses();
+    TimeInvalidatedCache<String, String> cache1 = initializeCache(bus1, loadsInNode1);
+    TimeInvalidatedCache<String, String> cache2 = initializeCache(bus2, loadsInNode2);
+    cache2.get("key");
+    cache2.get("otherKey");
+
+    cache1.invalidateAll();
+    exchangeInvalidations();
+    cache2.get("key");
+    cache2.get("otherKey");
+
+    assertThat(loads(loadsInNode2, "key"), equalTo(2));
+    assertThat(loads(loadsInNode2, "otherKey"), equalTo(2));
+  }
+
+  @Test
+  public void nodeShouldNotApplyItsOwnInvalidations() {
+    startBuses();
+    TimeInvalidatedCache<String, String> cache1 = initializeCache(bus1, loadsInNode1);
+    initializeCache(bus2, loadsInNode2);
+
+    cache1.invalidate("key");
+    exchangeInvalidations();
+    cache1.get("key");
+    exchangeInvalidations();
+    cache1.get("key");
+
+    assertThat(loads(loadsInNode1, "key"), equalTo(1));
+    assertThat(bus1.getPublishedCount(), equalTo(1L));
+    assertThat(bus1.getReceivedCount(), equalTo(0L));
+    assertThat(bus2.getReceivedCount(), equalTo(1L));
+  }
+
+  @Test
+  public void invalidationsShouldOnlyAffectCachesWithSameName() {
+    startBuses();
+    TimeInvalidatedCache<String, String> cache1 = initializeCache(bus1, loadsInNode1);
+    Map<String, AtomicInteger> loadsOfOtherCache = new ConcurrentHashMap<>();
+    TimeInvalidatedCache<String, String> otherCache2 = TimeInvalidatedCache.newBuilder()
+        .name("OtherCache")
+        .invalidationBus(bus2)
+        .build(key -> load(loadsOfOtherCache, key));
+    otherCache2.get("key");
+
+    cache1.invalidate("key");
+    exchangeInvalidations();
+    otherCache2.get("key");
+
+    assertThat(loads(loadsOfOtherCache, "key"), equalTo(1));
+  }
+
+  @Test
+  public void invalidationsShouldBeAppliedToRegisteredListeners() {
+    startBuses();
+    List<String> invalidatedKeys = new ArrayList<>();
+    bus2.register("ListenedCache", new CacheInvalidationListener() {
+      @Override
+      public void invalidate(String key) {
+        invalidatedKeys.add(key);
+      }
+
+      @Override
+      public void invalidateAll() {
+        invalidatedKeys.add("all");
+      }
+    });
+
+    bus1.publish("ListenedCache", "key");
+    bus1.publish("ListenedCache", null);
+    bus1.publish("OtherCache", "otherKey");
+    exchangeInvalidations();
+
+    assertThat(invalidatedKeys, equalTo(List.of("key", "all")));
+  }
+
+  @Test
+  public void invalidationsShouldBeLocalIfBusIsNotStarted() {
+    TimeInvalidatedCache<String, String> cache1 = initializeCache(bus1, loadsInNode1);
+    cache1.get("key");
+
+    cache1.invalidate("key");
+    cache1.get("key");
+
+    assertThat(loads(loadsInNode1, "key"), equalTo(2));
+    assertThat(bus1.getPublishedCount(), equalTo(0L));
+  }
+
+  @Test
+  public void invalidationsDoneBeforeStartingShouldBeIgnored() {
+    FileCacheInvalidationTransport transport = new FileCacheInvalidationTransport(
+        sharedDirectory.getRoot().toPath());
+    bus1.start("NODE1", transport, POLL_INTERVAL, () -> true);
+    TimeInvalidatedCache<String, String> cache1 = initializeCache(bus1, loadsInNode1);
+    cache1.invalidate("key");
+    bus1.exchangeInvalidations();
+
+    bus2.start("NODE2", new FileCacheInvalidationTransport(sharedDirectory.getRoot().toPath()),
+        POLL_INTERVAL, () -> false);
+    TimeInvalidatedCache<String, String> cache2 = initializeCache(bus2, loadsInNode2);
+    cache2.get("key");
+    bus2.exchangeInvalidations();
+    cache2.get("key");
+
+    assertThat(loads(loadsInNode2, "key"), equalTo(1));
+  }
+
+  private void startBuses() {
+    bus1.start("NODE1", new FileCacheInvalidationTransport(sharedDirectory.getRoot().toPath()),
+        POLL_INTERVAL, () -> true);
+    bus2.start("NODE2", new FileCacheInvalidationTransport(sharedDirectory.getRoot().toPath()),
+        POLL_INTERVAL, () -> false);
+  }
+
+  private void exchangeInvalidations() {
+    bus1.exchangeInvalidations();
+    bus2.exchangeInvalidations();
+  }
+
+  private TimeInvalidatedCache<String, String> initializeCache(CacheInvalidationBus bus,
+      Map<String, AtomicInteger> loads) {
+    return TimeInvalidatedCache.newBuilder()
+        .name("TestCache")
+        .expireAfterDuration(Duration.ofHours(1))
+        .invalidationBus(bus)
+        .build(key -> load(loads, key));
+  }
+
+  private static String load(Map<String, AtomicInteger> loads, String key) {
+    loads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    return key + "Value";
+  }
+
+  private static int loads(Map<String, AtomicInteger> loads, String key) {
+    return loads.getOrDefault(key, new AtomicInteger()).get();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.report;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.base.exception.OBException;
+import org.openbravo.client.application.report.ReportExecutionService.Priority;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Tests the queue of the {@link ReportExecutionService}, that its reports share the limit of the
+ * {@link ReportSemaphoreHandling} with the reports not generated by it and the time measured for
+ * each report.
+ */
+public class ReportExecutionServiceTest extends OBBaseTest {
+  private static final int MAX_QUEUE_SIZE = 2;
+
+  private ReportSemaphoreHandling semaphore;
+  private ReportExecutionService service;
+
+  @Before
+  public void createService() {
+    semaphore = ReportSemaphoreHandling.getInstance();
+    service = new ReportExecutionService(semaphore, MAX_QUEUE_SIZE);
+  }
+
+  @Test
+  public void reportsWaitWhileTheSemaphoreIsTaken() throws InterruptedException {
+    acquireAllThreads();
+    ReportTicket ticket;
+    try {
+      ticket = submitReport(Priority.INTERACTIVE);
+      assertThat(ticket.await(200, TimeUnit.MILLISECONDS), equalTo(false));
+      assertThat(ticket.getStatus(), equalTo(ReportTicket.Status.QUEUED));
+    } finally {
+      releaseAllThreads();
+    }
+    assertTrue(ticket.await(10, TimeUnit.SECONDS));
+    assertThat(ticket.getStatus(), equalTo(ReportTicket.Status.DONE));
+  }
+
+  @Test
+  public void reportsAreQueuedWhenAllThreadsAreBusy() throws InterruptedException {
+    List<ReportTicket> tickets = new ArrayList<>();
+    acquireAllThreads();
+    try {
+      // one report for each thread, which waits for the semaphore, and the rest are queued
+      for (int i = 0; i < service.getMaxThreads() + MAX_QUEUE_SIZE; i++) {
+        tickets.add(submitReport(i % 2 == 0 ? Priority.INTERACTIVE : Priority.BACKGROUND));
+      }
+      assertThat(service.getQueuedReports(), equalTo(MAX_QUEUE_SIZE));
+    } finally {
+      releaseAllThreads();
+    }
+    for (ReportTicket ticket : tickets) {
+      assertTrue(ticket.await(10, TimeUnit.SECONDS));
+      assertThat(ticket.getStatus(), equalTo(ReportTicket.Status.DONE));
+    }
+    assertThat(service.getQueuedReports(), equalTo(0));
+  }
+
+  @Test
+  public void reportIsRejectedWhenTheQueueIsFull() {
+    acquireAllThreads();
+    try {
+      for (int i = 0; i < service.getMaxThreads() + MAX_QUEUE_SIZE; i++) {
+        submitReport(Priority.BACKGROUND);
+      }
+      assertThrows(OBException.class, () -> submitReport(Priority.INTERACTIVE));
+    } finally {
+      releaseAllThreads();
+    }
+  }
+
+  @Test
+  public void fillAndExportTimesAreMeasuredSeparately() throws InterruptedException {
+    ReportTicket ticket = service.submit("Test Report", Priority.INTERACTIVE, reportTicket -> {
+      Thread.sleep(100);
+      reportTicket.filled();
+      Thread.sleep(200);
+      return null;
+    });
+    assertTrue(ticket.await(10, TimeUnit.SECONDS));
+    assertThat(ticket.getStatus(), equalTo(ReportTicket.Status.DONE));
+    assertThat(ticket.getFillTime(), greaterThanOrEqualTo(100L));
+    assertThat(ticket.getFillTime(), lessThan(ticket.getExecutionTime()));
+    assertThat(ticket.getExportTime(), greaterThanOrEqualTo(200L));
+    assertThat(ticket.getFillTime() + ticket.getExportTime(), equalTo(ticket.getExecutionTime()));
+  }
+
+  private ReportTicket submitReport(Priority priority) {
+    return service.submit("Test Report", priority, ticket -> null);
+  }
+
+  private void acquireAllThreads() {
+    for (int i = 0; i < semaphore.getMaxThreads(); i++) {
+      semaphore.acquire();
+    }
+  }
+
+  private void releaseAllThreads() {
+    for (int i = 0; i < semaphore.getMaxThreads(); i++) {
+      semaphore.release();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.client.application.report;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openbravo.base.provider.OBProvider;
+import org.openbravo.client.application.report.ReportingUtils.ExportType;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.model.common.currency.Currency;
+import org.openbravo.test.base.OBBaseTest;
+import org.openbravo.test.base.TestConstants.Clients;
+import org.openbravo.test.base.TestConstants.Orgs;
+import org.openbravo.test.base.TestConstants.Roles;
+import org.openbravo.test.base.TestConstants.Users;
+
+/**
+ * Tests that the {@link ReportOutputCache} only reuses an output for the same template, parameters,
+ * source documents and access, and that it is kept within its maximum size.
+ */
+public class ReportOutputCacheTest extends OBBaseTest {
+  private static final int OUTPUT_SIZE = 10;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path template;
+  private ReportOutputCache cache;
+
+  @Before
+  public void createCache() throws IOException {
+    template = temporaryFolder.newFolder("templates").toPath().resolve("Report.jrxml");
+    Files.writeString(template, "<jasperReport/>");
+    cache = new ReportOutputCache(true, temporaryFolder.newFolder("cache").toPath(),
+        1024 * 1024);
+  }
+
+  @Test
+  public void outputIsReusedForTheSameParameters() throws IOException {
+    cache.store(newKey(Map.of("DOCUMENT_ID", "A")), newOutput("A"));
+
+    Path restored = temporaryFolder.newFile().toPath();
+    assertThat(cache.restore(newKey(Map.of("DOCUMENT_ID", "A")), restored), equalTo(true));
+    assertThat(Files.readString(restored), equalTo(getContent("A")));
+    assertThat(cache.getHits(), equalTo(1L));
+  }
+
+  @Test
+  public void outputIsNotReusedForOtherParameters() throws IOException {
+    cache.store(newKey(Map.of("DOCUMENT_ID", "A")), newOutput("A"));
+
+    assertThat(cache.restore(newKey(Map.of("DOCUMENT_ID", "B")), newTarget()), equalTo(false));
+    assertThat(cache.getMisses(), equalTo(1L));
+  }
+
+  @Test
+  public void notIdentifiableParametersAreNotCached() throws IOException {
+    ReportOutputCache.Key key = newKey(Map.of("DOCUMENT_ID", "A", "OBJECT", new Object()));
+    cache.store(key, newOutput("A"));
+
+    assertThat(key.isCacheable(), equalTo(false));
+    assertThat(cache.getEntries(), equalTo(0));
+  }
+
+  @Test
+  public void leastRecentlyUsedOutputsAreEvicted() throws IOException, InterruptedException {
+    cache = new ReportOutputCache(true, temporaryFolder.newFolder("smallCache").toPath(),
+        2 * OUTPUT_SIZE);
+    cache.store(newKey(Map.of("DOCUMENT_ID", "A")), newOutput("A"));
+    Thread.sleep(10);
+    cache.store(newKey(Map.of("DOCUMENT_ID", "B")), newOutput("B"));
+    Thread.sleep(10);
+    cache.restore(newKey(Map.of("DOCUMENT_ID", "A")), newTarget());
+    Thread.sleep(10);
+
+    cache.store(newKey(Map.of("DOCUMENT_ID", "C")), newOutput("C"));
+
+    assertThat(cache.getEvictions(), equalTo(1L));
+    assertThat(cache.getSize(), equalTo(2L * OUTPUT_SIZE));
+    assertThat(cache.restore(newKey(Map.of("DOCUMENT_ID", "B")), newTarget()), equalTo(false));
+    assertThat(cache.restore(newKey(Map.of("DOCUMENT_ID", "A")), newTarget()), equalTo(true));
+    assertThat(cache.restore(newKey(Map.of("DOCUMENT_ID", "C")), newTarget()), equalTo(true));
+  }
+
+  @Test
+  public void outputExpiresWhenTheTemplateChanges() throws IOException {
+    cache.store(newKey(Map.of("DOCUMENT_ID", "A")), newOutput("A"));
+
+    template.toFile().setLastModified(template.toFile().lastModified() + 10_000);
+
+    assertThat(cache.restore(newKey(Map.of("DOCUMENT_ID", "A")), newTarget()), equalTo(false));
+  }
+
+  @Test
+  public void outputExpiresWhenTheSourceDocumentIsUpdated() throws IOException {
+    Currency document = OBProvider.getInstance().get(Currency.class);
+    document.setId("A");
+    document.setUpdated(new Date(1_000));
+    cache.store(newKey(Map.of()).withSourceDocument(document), newOutput("A"));
+    assertThat(cache.restore(newKey(Map.of()).withSourceDocument(document), newTarget()),
+        equalTo(true));
+
+    document.setUpdated(new Date(2_000));
+
+    assertThat(cache.restore(newKey(Map.of()).withSourceDocument(document), newTarget()),
+        equalTo(false));
+  }
+
+  @Test
+  public void outputIsNotReusedWithoutTheSameAccess() throws IOException {
+    setTestAdminContext();
+    cache.store(newKeyWithAccess(), newOutput("A"));
+    assertThat(cache.restore(newKeyWithAccess(), newTarget()), equalTo(true));
+
+    // another role of the same client
+    OBContext.setOBContext(Users.OPENBRAVO, Roles.ESP_ADMIN, Clients.FB_GRP, Orgs.ESP);
+    assertThat(cache.restore(newKeyWithAccess(), newTarget()), equalTo(false));
+
+    // another client
+    setQAAdminContext();
+    assertThat(cache.restore(newKeyWithAccess(), newTarget()), equalTo(false));
+  }
+
+  private ReportOutputCache.Key newKey(Map<String, Object> parameters) {
+    return ReportOutputCache.newKey(template.toString(), ExportType.PDF, "en_US")
+        .withParameters(parameters);
+  }
+
+  private ReportOutputCache.Key newKeyWithAccess() {
+    return newKey(Map.of("DOCUMENT_ID", "A")).withAccess(OBContext.getOBContext());
+  }
+
+  private Path newOutput(String document) throws IOException {
+    Path output = temporaryFolder.newFile().toPath();
+    Files.writeString(output, getContent(document));
+    return output;
+  }
+
+  private Path newTarget() throws IOException {
+    return temporaryFolder.newFile().toPath();
+  }
+
+  // all the outputs have the same size
+  private static String getContent(String document) {
+    return document.repeat(OUTPUT_SIZE);
+  }
+}
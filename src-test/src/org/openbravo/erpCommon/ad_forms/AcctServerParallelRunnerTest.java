@@ -0,0 +1,151 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html 
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License. 
+ * The Original Code is Openbravo ERP. 
+ * The Initial Developer of the Original Code is Openbravo SLU 
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved. 
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.erpCommon.ad_forms;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.servlet.ServletException;
+
+import org.junit.Test;
+import org.openbravo.base.secureApp.VariablesSecureApp;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.data.FieldProvider;
+import org.openbravo.database.ConnectionProvider;
+import org.openbravo.erpCommon.ad_forms.AcctServerParallelRunner.PostingResult;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Test cases for the {@link AcctServerParallelRunner} class
+ */
+public class AcctServerParallelRunnerTest extends OBBaseTest {
+  private static final Set<String> FAILING_DOCUMENTS = Set.of("D0", "D1", "D2");
+  private static final int DOCUMENTS = 10;
+  private static final int BATCH_SIZE = 3;
+
+  /**
+   * The documents that always fail are posted only once and do not prevent posting the rest of
+   * documents, even if they fill a whole batch
+   */
+  @Test
+  public void documentsThatAlwaysFailArePostedOnce() throws ServletException {
+    setTestAdminContext();
+    PendingDocuments acct = new PendingDocuments();
+    Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    VariablesSecureApp vars = new VariablesSecureApp(OBContext.getOBContext().getUser().getId(),
+        OBContext.getOBContext().getCurrentClient().getId(),
+        OBContext.getOBContext().getCurrentOrganization().getId());
+
+    PostingResult tableResult = new PostingResult();
+    try (AcctServerParallelRunner runner = new AcctServerParallelRunner(2) {
+      @Override
+      void postDocument(AcctServer documentAcct, String documentId, VariablesSecureApp postVars,
+          PostingResult result) {
+        attempts.computeIfAbsent(documentId, id -> new AtomicInteger()).incrementAndGet();
+        if (FAILING_DOCUMENTS.contains(documentId)) {
+          result.addFailure(documentId, "Always fails");
+        } else {
+          acct.pending.remove(documentId);
+          result.add(1, 0);
+        }
+      }
+    }) {
+      int batches = 0;
+      PostingResult batchResult;
+      do {
+        batchResult = runner.run(acct, vars, null, null, tableResult.getFailures().keySet());
+        tableResult.add(batchResult);
+        batches++;
+        assertThat("Posting did not finish", batches, lessThanOrEqualTo(DOCUMENTS));
+      } while (batchResult.getProcessed() > 0);
+    }
+
+    assertThat(tableResult.getPosted(), equalTo(DOCUMENTS - FAILING_DOCUMENTS.size()));
+    assertThat(tableResult.getFailures().keySet(),
+        containsInAnyOrder(FAILING_DOCUMENTS.toArray()));
+    assertThat(acct.pending, containsInAnyOrder(FAILING_DOCUMENTS.toArray()));
+    attempts.forEach((documentId, documentAttempts) -> assertThat(documentId + " attempts",
+        documentAttempts.get(), equalTo(1)));
+  }
+
+  /** A table whose pending documents are kept in memory, the failing ones are selected first */
+  private static class PendingDocuments extends AcctServer {
+    private final List<String> pending = new CopyOnWriteArrayList<>(
+        IntStream.range(0, DOCUMENTS).mapToObj(i -> "D" + i).collect(Collectors.toList()));
+
+    private PendingDocuments() {
+      tableName = "Test";
+      batchSize = Integer.toString(BATCH_SIZE);
+    }
+
+    @Override
+    AcctServerData[] selectDocumentsToPost(String strDateFrom, String strDateTo,
+        Collection<String> excludedIds) {
+      return pending.stream()
+          .filter(documentId -> !excludedIds.contains(documentId))
+          .limit(BATCH_SIZE)
+          .map(documentId -> {
+            AcctServerData document = new AcctServerData();
+            document.id = documentId;
+            document.adOrgId = "0";
+            return document;
+          })
+          .toArray(AcctServerData[]::new);
+    }
+
+    @Override
+    public void loadObjectFieldProvider(ConnectionProvider conn, String aD_Client_ID, String Id) {
+    }
+
+    @Override
+    public boolean loadDocumentDetails(FieldProvider[] data, ConnectionProvider conn) {
+      return false;
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+      return BigDecimal.ZERO;
+    }
+
+    @Override
+    public Fact createFact(AcctSchema as, ConnectionProvider conn, Connection con,
+        VariablesSecureApp vars) {
+      return null;
+    }
+
+    @Override
+    public boolean getDocumentConfirmation(ConnectionProvider conn, String strRecordId) {
+      return false;
+    }
+  }
+}
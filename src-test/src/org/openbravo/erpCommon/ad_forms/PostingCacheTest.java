@@ -0,0 +1,206 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.erpCommon.ad_forms;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.servlet.ServletException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.base.provider.OBProvider;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.database.ConnectionProvider;
+import org.openbravo.erpCommon.utility.OBDateUtils;
+import org.openbravo.model.common.currency.ConversionRate;
+import org.openbravo.model.common.currency.Currency;
+import org.openbravo.model.common.enterprise.Organization;
+import org.openbravo.model.financialmgmt.accounting.coa.AccountingCombination;
+import org.openbravo.service.db.DalConnectionProvider;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Test cases for the {@link PostingCache} class: the accounting data is read once per posting run
+ * and it is always read from the database outside a posting run.
+ */
+public class PostingCacheTest extends OBBaseTest {
+  // Main US/A/Euro accounting schema of QA Testing client
+  private static final String MAIN_EURO_LEDGER = "9A68A0F8D72D4580B3EC3CAA00A5E1F0";
+  private static final String EURO_ID = "102";
+  private static final String POUND_ID = "114";
+  private static final LocalDate CONVERSION_DATE = LocalDate.of(2090, 6, 15);
+
+  private ConnectionProvider conn;
+  private ConversionRate conversionRate;
+
+  @Before
+  public void setContext() {
+    setQAAdminContext();
+    conn = new DalConnectionProvider(false);
+  }
+
+  @After
+  public void cleanUp() {
+    if (conversionRate != null) {
+      OBDal.getInstance().remove(OBDal.getInstance().get(ConversionRate.class,
+          conversionRate.getId()));
+      OBDal.getInstance().commitAndClose();
+    }
+  }
+
+  @Test
+  public void nothingIsCachedOutsideAPostingRun() {
+    assertThat(PostingCache.getCurrent(), nullValue());
+
+    AcctSchema acctSchema = AcctSchema.getAcctSchema(conn, MAIN_EURO_LEDGER);
+
+    assertThat(AcctSchema.getAcctSchema(conn, MAIN_EURO_LEDGER), not(sameInstance(acctSchema)));
+  }
+
+  @Test
+  public void acctSchemaIsLoadedOnceInAPostingRun() {
+    try (PostingCache cache = PostingCache.open()) {
+      AcctSchema acctSchema = AcctSchema.getAcctSchema(conn, MAIN_EURO_LEDGER);
+      // loading the schema also reads its accounts, which can be found in the cache
+      long hits = cache.getHitCount();
+
+      assertThat(AcctSchema.getAcctSchema(conn, MAIN_EURO_LEDGER), sameInstance(acctSchema));
+      assertThat(cache.getHitCount(), equalTo(hits + 1));
+    }
+    assertThat(PostingCache.getCurrent(), nullValue());
+  }
+
+  @Test
+  public void missingAcctSchemaIsNotCached() {
+    try (PostingCache cache = PostingCache.open()) {
+      AcctSchema.getAcctSchema(conn, "UNKNOWN");
+      AcctSchema.getAcctSchema(conn, "UNKNOWN");
+
+      assertThat(cache.getHitCount(), equalTo(0L));
+      assertThat(cache.getMissCount(), equalTo(2L));
+    }
+  }
+
+  @Test
+  public void validCombinationIsLoadedOnceInAPostingRun() throws ServletException {
+    AccountingCombination combination = OBDal.getInstance()
+        .createQuery(AccountingCombination.class, "as vc where vc.accountingSchema.id = :id")
+        .setNamedParameter("id", MAIN_EURO_LEDGER)
+        .setMaxResult(1)
+        .uniqueResult();
+    assertThat(combination, notNullValue());
+
+    try (PostingCache cache = PostingCache.open()) {
+      Account account = Account.getAccount(conn, combination.getId());
+      Account cachedAccount = Account.getAccount(conn, combination.getId());
+
+      assertThat(cache.getHitCount(), equalTo(1L));
+      assertThat(cachedAccount.Account_ID, equalTo(account.Account_ID));
+      assertThat(cachedAccount.combination, equalTo(account.combination));
+    }
+  }
+
+  @Test
+  public void conversionRateChangesAreNotSeenInAPostingRun() {
+    createConversionRate(new BigDecimal("2"));
+
+    try (PostingCache cache = PostingCache.open()) {
+      assertThat(getConversionRate(), comparesEqualTo(new BigDecimal("2")));
+
+      updateConversionRate(new BigDecimal("4"));
+
+      assertThat(getConversionRate(), comparesEqualTo(new BigDecimal("2")));
+      assertThat(cache.getHitCount(), equalTo(1L));
+    }
+    assertThat(getConversionRate(), comparesEqualTo(new BigDecimal("4")));
+  }
+
+  @Test
+  public void otherThreadsShareTheCacheOnceBound() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (PostingCache cache = PostingCache.open()) {
+      Future<PostingCache> unbound = executor.submit(PostingCache::getCurrent);
+      assertThat(unbound.get(), nullValue());
+
+      Future<PostingCache> bound = executor.submit(() -> {
+        try (PostingCache.Binding binding = cache.bind()) {
+          return PostingCache.getCurrent();
+        }
+      });
+      assertThat(bound.get(), sameInstance(cache));
+
+      Future<PostingCache> released = executor.submit(PostingCache::getCurrent);
+      assertThat(released.get(), nullValue());
+      assertThat(PostingCache.getCurrent(), sameInstance(cache));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private BigDecimal getConversionRate() {
+    return AcctServer.getConvertionRate(EURO_ID, POUND_ID,
+        OBDateUtils.formatDate(toDate(CONVERSION_DATE)), "S", QA_TEST_CLIENT_ID, QA_TEST_ORG_ID,
+        conn);
+  }
+
+  /**
+   * Creates a rate of the organization valid from a future date, so it is selected before any other
+   * rate between both currencies
+   */
+  private void createConversionRate(BigDecimal rate) {
+    conversionRate = OBProvider.getInstance().get(ConversionRate.class);
+    conversionRate.setOrganization(OBDal.getInstance().getProxy(Organization.class,
+        QA_TEST_ORG_ID));
+    conversionRate.setCurrency(OBDal.getInstance().getProxy(Currency.class, EURO_ID));
+    conversionRate.setToCurrency(OBDal.getInstance().getProxy(Currency.class, POUND_ID));
+    conversionRate.setValidFromDate(toDate(CONVERSION_DATE.withDayOfYear(1)));
+    conversionRate.setValidToDate(toDate(CONVERSION_DATE));
+    conversionRate.setMultipleRateBy(rate);
+    conversionRate.setDivideRateBy(BigDecimal.ONE.divide(rate));
+    OBDal.getInstance().save(conversionRate);
+    OBDal.getInstance().commitAndClose();
+  }
+
+  private void updateConversionRate(BigDecimal rate) {
+    ConversionRate storedRate = OBDal.getInstance()
+        .get(ConversionRate.class, conversionRate.getId());
+    storedRate.setMultipleRateBy(rate);
+    storedRate.setDivideRateBy(BigDecimal.ONE.divide(rate));
+    OBDal.getInstance().commitAndClose();
+  }
+
+  private static Date toDate(LocalDate date) {
+    return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ *************************************************************************
+ */
+package org.openbravo.erpCommon.businessUtility;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openbravo.base.weld.test.WeldBaseTest;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.erpCommon.businessUtility.Preferences.QueryFilter;
+import org.openbravo.model.ad.access.Role;
+import org.openbravo.model.ad.access.User;
+import org.openbravo.model.ad.domain.Preference;
+import org.openbravo.model.ad.system.Client;
+import org.openbravo.model.ad.ui.Window;
+import org.openbravo.model.common.enterprise.Organization;
+import org.openbravo.test.base.TestConstants.Clients;
+import org.openbravo.test.base.TestConstants.Orgs;
+import org.openbravo.test.base.TestConstants.Roles;
+import org.openbravo.test.base.TestConstants.Users;
+import org.openbravo.test.base.TestConstants.Windows;
+
+/**
+ * Tests the {@link PreferenceIndex} class
+ */
+public class PreferenceIndexTest extends WeldBaseTest {
+  private static final String PROPERTY = "testPreferenceIndexProperty";
+
+  @After
+  public void cleanUp() {
+    OBDal.getInstance().rollbackAndClose();
+    OBContext.setAdminMode(false);
+    try {
+      List<Preference> preferences = OBDal.getInstance()
+          .createQuery(Preference.class, "as p where p.attribute = :property")
+          .setNamedParameter("property", PROPERTY)
+          .setFilterOnReadableClients(false)
+          .setFilterOnReadableOrganization(false)
+          .setFilterOnActive(false)
+          .list();
+      for (Preference preference : preferences) {
+        OBDal.getInstance().remove(preference);
+      }
+      OBDal.getInstance().commitAndClose();
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  @Test
+  public void indexedPreferencesAreTheSameAsQueriedOnes() {
+    setTestAdminContext();
+    setPreference("system", null, null, null, null, null);
+    setPreference("client", Clients.FB_GRP, null, null, null, null);
+    setPreference("us", null, Orgs.US, null, null, null);
+    setPreference("spain", null, Orgs.ESP, null, null, null);
+    setPreference("user", null, null, Users.OPENBRAVO, null, null);
+    setPreference("role", null, null, null, Roles.FB_GRP_ADMIN, null);
+    setPreference("window", null, null, null, null, Windows.SALES_ORDER);
+    setPreference("inactive", null, null, null, Roles.ESP_ADMIN, null).setActive(false);
+    OBDal.getInstance().flush();
+
+    PreferenceIndex index = new PreferenceIndex(true);
+    assertSameApplicablePreferences(index, Clients.FB_GRP, Orgs.US_EST, Users.OPENBRAVO,
+        Roles.FB_GRP_ADMIN, Windows.SALES_ORDER);
+    assertSameApplicablePreferences(index, Clients.FB_GRP, Orgs.ESP_SUR, Users.FB_ADMIN,
+        Roles.ESP_ADMIN, null);
+    assertSameApplicablePreferences(index, Clients.FB_GRP, Orgs.MAIN, null, null, null);
+    assertSameApplicablePreferences(index, null, null, null, null, null);
+  }
+
+  @Test
+  public void indexIsInvalidatedOnceChangesAreCommitted() {
+    setTestAdminContext();
+    PreferenceIndex index = PreferenceIndex.getInstance();
+    assertThat(getApplicableValues(index), empty());
+    long loads = index.getLoads();
+
+    setPreference("value", null, null, null, null, null);
+    OBDal.getInstance().flush();
+    assertThat(getApplicableValues(index), empty());
+
+    OBDal.getInstance().commitAndClose();
+    assertThat(getApplicableValues(index), contains("value"));
+    assertThat(index.getLoads(), equalTo(loads + 1));
+  }
+
+  @Test
+  public void indexIsNotInvalidatedWhenChangesAreRolledBack() {
+    setTestAdminContext();
+    PreferenceIndex index = PreferenceIndex.getInstance();
+    assertThat(getApplicableValues(index), empty());
+    long loads = index.getLoads();
+
+    setPreference("value", null, null, null, null, null);
+    OBDal.getInstance().flush();
+    OBDal.getInstance().rollbackAndClose();
+
+    assertThat(getApplicableValues(index), empty());
+    assertThat(index.getLoads(), equalTo(loads));
+  }
+
+  private Preference setPreference(String value, String clientId, String orgId, String userId,
+      String roleId, String windowId) {
+    OBDal dal = OBDal.getInstance();
+    return Preferences.setPreferenceValue(PROPERTY, value, false,
+        clientId == null ? null : dal.getProxy(Client.class, clientId),
+        orgId == null ? null : dal.getProxy(Organization.class, orgId),
+        userId == null ? null : dal.getProxy(User.class, userId),
+        roleId == null ? null : dal.getProxy(Role.class, roleId),
+        windowId == null ? null : dal.getProxy(Window.class, windowId), null);
+  }
+
+  private void assertSameApplicablePreferences(PreferenceIndex index, String clientId,
+      String orgId, String userId, String roleId, String windowId) {
+    List<String> queried = getIds(Preferences.queryApplicablePreferences(PROPERTY, false, clientId,
+        orgId, userId, roleId, windowId, null));
+    List<String> indexed = getIds(index.getApplicablePreferences(PROPERTY, false, clientId, orgId,
+        userId, roleId, windowId, true, true, true));
+    assertThat(queried, not(empty()));
+    assertThat(indexed, equalTo(queried));
+
+    Map<QueryFilter, Boolean> includeInactive = new HashMap<>();
+    includeInactive.put(QueryFilter.ACTIVE, false);
+    includeInactive.put(QueryFilter.CLIENT, true);
+    includeInactive.put(QueryFilter.ORGANIZATION, true);
+    queried = getIds(Preferences.queryApplicablePreferences(PROPERTY, false, clientId, orgId,
+        userId, roleId, windowId, includeInactive));
+    indexed = getIds(index.getApplicablePreferences(PROPERTY, false, clientId, orgId, userId,
+        roleId, windowId, false, true, true));
+    assertThat(indexed, equalTo(queried));
+  }
+
+  private List<String> getApplicableValues(PreferenceIndex index) {
+    return index
+        .getApplicablePreferences(PROPERTY, false, null, null, null, null, null, true, true, true)
+        .stream()
+        .map(entry -> entry.value)
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> getIds(List<PreferenceIndex.Entry> entries) {
+    return entries.stream().map(entry -> entry.id).collect(Collectors.toList());
+  }
+}
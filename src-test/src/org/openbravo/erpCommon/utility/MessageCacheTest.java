@@ -0,0 +1,97 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.utility;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.model.ad.ui.Message;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Tests the translation of codes with the texts kept by the {@link MessageCache}.
+ */
+public class MessageCacheTest extends OBBaseTest {
+  private static final String BASE_LANGUAGE = "en_US";
+  private static final String SUCCESS_MESSAGE_ID = "555";
+  private static final String SUCCESS_TEXT = "Process completed successfully";
+
+  private final MessageCache cache = new MessageCache(true);
+
+  @After
+  public void cleanUp() {
+    OBDal.getInstance().rollbackAndClose();
+  }
+
+  @Test
+  public void messagesAndElementsAreTranslated() {
+    assertThat(cache.getActiveText("Success", false, BASE_LANGUAGE, true), equalTo(SUCCESS_TEXT));
+    assertThat(cache.getActiveText("SUCCESS", true, BASE_LANGUAGE, true), equalTo(SUCCESS_TEXT));
+    assertThat(cache.getText("Success", BASE_LANGUAGE), equalTo(SUCCESS_TEXT));
+    // codes without message are translated with the element
+    assertThat(cache.getActiveText("AD_Client_ID", false, BASE_LANGUAGE, true),
+        equalTo("Client"));
+    assertThat(cache.getActiveText("Not_An_Existing_Code", false, BASE_LANGUAGE, true),
+        equalTo(""));
+    assertThat(cache.getLoads(), equalTo(1L));
+  }
+
+  @Test
+  public void languageNotInstalledIsTranslatedWithTheDatabase() {
+    assertThat(cache.getText("Success", "xx_XX"), nullValue());
+    assertThat(cache.getMisses(), equalTo(1L));
+  }
+
+  @Test
+  public void textsAreLoadedAgainOnceInvalidated() {
+    cache.getText("Success", BASE_LANGUAGE);
+    cache.getText("Success", BASE_LANGUAGE);
+    assertThat(cache.getLoads(), equalTo(1L));
+
+    cache.invalidate();
+    cache.getText("Success", BASE_LANGUAGE);
+    assertThat(cache.getLoads(), equalTo(2L));
+  }
+
+  @Test
+  public void uncommittedChangesAreNotCached() {
+    OBContext.setAdminMode(false);
+    try {
+      Message message = OBDal.getInstance().get(Message.class, SUCCESS_MESSAGE_ID);
+      message.setMessageText("Changed and not committed");
+      OBDal.getInstance().flush();
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+
+    // the event handler marks the transaction as changing texts
+    cache.textsChanged();
+    assertThat(cache.getText("Success", BASE_LANGUAGE), nullValue());
+
+    // loaded within the same transaction, but in a separate session
+    cache.transactionCompleted(false);
+    assertThat(cache.getText("Success", BASE_LANGUAGE), equalTo(SUCCESS_TEXT));
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.utility;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.base.weld.test.WeldBaseTest;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.erpCommon.utility.SequenceUtil.CalculationMethod;
+import org.openbravo.erpCommon.utility.SequenceUtil.ControlDigit;
+import org.openbravo.erpCommon.utility.SequenceUtil.SequenceNumberLength;
+import org.openbravo.model.ad.utility.Sequence;
+import org.openbravo.model.common.enterprise.Organization;
+import org.openbravo.service.db.DalConnectionProvider;
+import org.openbravo.test.documentsequence.SequenceTestUtils;
+
+/**
+ * Tests the allocation of sequence numbers in blocks done by the {@link SequenceAllocator}, and
+ * the fallback to lock the sequence when a block cannot be reserved.
+ */
+public class SequenceAllocatorTest extends WeldBaseTest {
+  private static final String QA_SPAIN_ORG_ID = "357947E87C284935AD1D783CF6F099A1";
+  private static final int BLOCK_SIZE = 10;
+
+  private String sequenceId;
+  private SequenceAllocator allocator;
+
+  @Before
+  public void createSequence() {
+    setUserContext(QA_TEST_ADMIN_USER_ID);
+    // the blocks are reserved in separate transactions, so the sequence must be committed
+    Sequence sequence = SequenceTestUtils.createDocumentSequence(
+        OBDal.getInstance().getProxy(Organization.class, QA_SPAIN_ORG_ID),
+        "DocumentNo_" + UUID.randomUUID(), CalculationMethod.AUTONUMERING, null, null, null, 1000L,
+        null, null, ControlDigit.NONE, SequenceNumberLength.VARIABLE, null, true);
+    OBDal.getInstance().commitAndClose();
+    sequenceId = sequence.getId();
+    allocator = new SequenceAllocator(Set.of(sequenceId), BLOCK_SIZE, 200);
+  }
+
+  @After
+  public void deleteSequence() {
+    OBDal.getInstance().rollbackAndClose();
+    OBContext.setAdminMode(false);
+    try {
+      OBDal.getInstance().remove(OBDal.getInstance().get(Sequence.class, sequenceId));
+      OBDal.getInstance().commitAndClose();
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  @Test
+  public void numbersAreTakenFromTheReservedBlock() {
+    assertThat(allocator.nextNumber(sequenceId), equalTo(1000L));
+    assertThat(allocator.nextNumber(sequenceId), equalTo(1001L));
+    assertThat(allocator.peekNumber(sequenceId), equalTo(1002L));
+    assertThat(getNextAssignedNumber(), equalTo(1000L + BLOCK_SIZE));
+    assertThat(allocator.getReservations(), equalTo(1L));
+  }
+
+  @Test
+  public void newBlockIsReservedWhenTheCurrentOneIsExhausted() {
+    for (int i = 0; i < BLOCK_SIZE; i++) {
+      allocator.nextNumber(sequenceId);
+    }
+    assertThat(allocator.nextNumber(sequenceId), equalTo(1000L + BLOCK_SIZE));
+    assertThat(getNextAssignedNumber(), equalTo(1000L + 2 * BLOCK_SIZE));
+    assertThat(allocator.getReservations(), equalTo(2L));
+  }
+
+  @Test
+  public void sequenceLockedByAnotherTransactionFallsBackToRowLocking() throws Exception {
+    DalConnectionProvider connectionProvider = new DalConnectionProvider(false);
+    Connection conn = connectionProvider.getTransactionConnection();
+    try {
+      try (PreparedStatement ps = conn.prepareStatement(
+          "SELECT CURRENTNEXT FROM AD_SEQUENCE WHERE AD_SEQUENCE_ID = ? FOR UPDATE")) {
+        ps.setString(1, sequenceId);
+        ps.executeQuery().close();
+      }
+      assertThat(allocator.nextNumber(sequenceId), nullValue());
+    } finally {
+      connectionProvider.releaseRollbackConnection(conn);
+    }
+    assertThat(allocator.getReservationConflicts(), equalTo(1L));
+    assertThat(allocator.getFallbacks(), equalTo(1L));
+    assertThat(getNextAssignedNumber(), equalTo(1000L));
+
+    // once the lock is released the block can be reserved
+    assertThat(allocator.nextNumber(sequenceId), equalTo(1000L));
+  }
+
+  @Test
+  public void sequenceLockedByTheCurrentTransactionIsNotReserved() {
+    allocator.rowLocked(sequenceId, 0);
+    assertThat(allocator.nextNumber(sequenceId), nullValue());
+    assertThat(allocator.getReservationConflicts(), equalTo(0L));
+    assertThat(allocator.getFallbacks(), equalTo(1L));
+
+    allocator.transactionCompleted(false);
+    assertThat(allocator.nextNumber(sequenceId), equalTo(1000L));
+  }
+
+  @Test
+  public void sequenceChangedByTheCurrentTransactionIsNotReserved() {
+    allocator.sequenceChanged(sequenceId);
+    assertThat(allocator.nextNumber(sequenceId), nullValue());
+    assertThat(allocator.getReservationConflicts(), equalTo(0L));
+
+    allocator.transactionCompleted(false);
+    assertThat(allocator.nextNumber(sequenceId), equalTo(1000L));
+  }
+
+  private Long getNextAssignedNumber() {
+    OBDal.getInstance().getSession().clear();
+    return OBDal.getInstance().get(Sequence.class, sequenceId).getNextAssignedNumber();
+  }
+}
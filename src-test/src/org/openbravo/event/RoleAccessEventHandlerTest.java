@@ -0,0 +1,80 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ *************************************************************************
+ */
+package org.openbravo.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openbravo.base.weld.test.WeldBaseTest;
+import org.openbravo.client.application.Process;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.security.EntityAccessChecker;
+import org.openbravo.dal.service.OBDal;
+
+/**
+ * Tests the {@link RoleAccessEventHandler} class
+ */
+public class RoleAccessEventHandlerTest extends WeldBaseTest {
+
+  @After
+  public void cleanUp() {
+    OBDal.getInstance().rollbackAndClose();
+    EntityAccessChecker.invalidateAllRoleAccess();
+  }
+
+  @Test
+  public void deactivatingProcessInvalidatesAccessOfAutomaticRoles() {
+    // F&B International Group Admin is an automatic role, it has access to all the processes
+    setTestAdminContext();
+    Process process = getAccessibleProcess();
+
+    OBContext.setAdminMode(true);
+    try {
+      process.setActive(false);
+      OBDal.getInstance().flush();
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+
+    setTestAdminContext();
+    assertThat(getEntityAccessChecker().checkProcessAccess(process.getId()), equalTo(false));
+  }
+
+  private Process getAccessibleProcess() {
+    EntityAccessChecker checker = getEntityAccessChecker();
+    OBContext.setAdminMode(true);
+    try {
+      return OBDal.getInstance()
+          .createQuery(Process.class, "as p where p.active = true order by p.id")
+          .list()
+          .stream()
+          .filter(p -> checker.checkProcessAccess(p.getId()))
+          .findFirst()
+          .orElseThrow();
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  private EntityAccessChecker getEntityAccessChecker() {
+    return OBContext.getOBContext().getEntityAccessChecker();
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.service.datasource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Tests the resolution of the ancestors of tree nodes done by the {@link TreeAncestorIndex}.
+ */
+public class TreeAncestorIndexTest extends OBBaseTest {
+  private static final String TABLE_ID = "TreeAncestorIndexTest";
+
+  private String treeKey;
+  private Map<String, String> parents;
+  private AtomicInteger loads;
+  private Supplier<Map<String, String>> loader;
+
+  @Before
+  public void createTree() {
+    // A
+    // |- B
+    // |  |- C
+    // |- D
+    // E
+    treeKey = "Test|" + UUID.randomUUID();
+    parents = new HashMap<>();
+    parents.put("A", "-1");
+    parents.put("B", "A");
+    parents.put("C", "B");
+    parents.put("D", "A");
+    parents.put("E", null);
+    loads = new AtomicInteger();
+    loader = () -> {
+      loads.incrementAndGet();
+      return parents;
+    };
+  }
+
+  @Test
+  public void pathsIncludeTheNodesAndAllTheirAncestors() {
+    assertThat(TreeAncestorIndex.getInstance()
+        .getPathsToRoot(treeKey, TABLE_ID, null, Arrays.asList("C", "D", "E"), loader),
+        containsInAnyOrder("C", "B", "A", "D", "E"));
+  }
+
+  @Test
+  public void cyclesAreNotFollowed() {
+    parents.put("A", "C");
+    assertThat(TreeAncestorIndex.getInstance()
+        .getPathsToRoot(treeKey, TABLE_ID, null, Arrays.asList("C"), loader),
+        contains("C", "B", "A"));
+  }
+
+  @Test
+  public void treeIsLoadedOnce() {
+    TreeAncestorIndex index = TreeAncestorIndex.getInstance();
+    index.getPathsToRoot(treeKey, TABLE_ID, "parent", Arrays.asList("C"), loader);
+    index.getPathsToRoot(treeKey, TABLE_ID, "parent", Arrays.asList("D"), loader);
+
+    assertThat(loads.get(), equalTo(1));
+    assertThat(index.getParentProperties(TABLE_ID), contains("parent"));
+  }
+
+  @Test
+  public void discardedTreeIsLoadedAgain() {
+    TreeAncestorIndex index = TreeAncestorIndex.getInstance();
+    index.getPathsToRoot(treeKey, TABLE_ID, null, Arrays.asList("C"), loader);
+    index.invalidateTree(treeKey);
+    parents.put("C", "D");
+
+    assertThat(index.getPathsToRoot(treeKey, TABLE_ID, null, Arrays.asList("C"), loader),
+        contains("C", "D", "A"));
+    assertThat(loads.get(), equalTo(2));
+  }
+}
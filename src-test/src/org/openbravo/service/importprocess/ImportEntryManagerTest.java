@@ -0,0 +1,202 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.importprocess;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assume.assumeFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.base.weld.test.WeldBaseTest;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.core.SessionHandler;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.erpCommon.utility.SequenceIdData;
+import org.openbravo.service.importprocess.ImportEntryManager.ImportEntryQualifier;
+
+/**
+ * Tests the push dispatch mode of the {@link ImportEntryManager}. The entries are created with a
+ * type of data which is not in the list of types of data, so the periodic query of the import
+ * entry table never reads them and they can only be processed if they are pushed.
+ */
+public class ImportEntryManagerTest extends WeldBaseTest {
+  private static final String TYPE_OF_DATA = "TestPushDispatch";
+  private static final long MAX_WAIT_MS = 30_000;
+
+  @Inject
+  private ImportEntryManager importEntryManager;
+
+  @Before
+  public void startInPushMode() {
+    assumeFalse("Import process is disabled", ImportProcessUtils.isImportProcessDisabled());
+    importEntryManager.shutdown();
+    importEntryManager.setPushDispatch(true);
+  }
+
+  @After
+  public void restoreDispatchMode() {
+    importEntryManager.shutdown();
+    importEntryManager.setPushDispatch(
+        OBPropertiesProvider.getInstance().getBooleanProperty("import.push.dispatch"));
+    deleteEntries();
+  }
+
+  @Test
+  public void pushedEntryIsProcessed() throws InterruptedException {
+    String entryId = createEntry();
+
+    importEntryManager.notifyNewImportEntryCreated(entryId);
+
+    assertThat(importEntryManager.getDispatchMode(), equalTo("push"));
+    assertThat(waitUntilProcessed(List.of(entryId)), equalTo(List.of("Processed")));
+  }
+
+  @Test
+  public void allPushedEntriesAreProcessed() throws InterruptedException {
+    List<String> entryIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      entryIds.add(createEntry());
+    }
+
+    for (String entryId : entryIds) {
+      importEntryManager.notifyNewImportEntryCreated(entryId);
+    }
+
+    List<String> importStatus = waitUntilProcessed(entryIds);
+    assertThat(importStatus, hasSize(entryIds.size()));
+    assertThat(importStatus, everyItem(equalTo("Processed")));
+  }
+
+  private String createEntry() {
+    // the type of data is not a value of the list reference, so it cannot be set through DAL
+    // @formatter:off
+    final String sql =
+                  "insert into c_import_entry" +
+                  "  (c_import_entry_id, ad_client_id, ad_org_id, isactive, created, createdby," +
+                  "   updated, updatedby, imported, importstatus, typeofdata, jsoninfo," +
+                  "   ad_role_id, createdtimestamp)" +
+                  " values (:id, :clientId, :orgId, 'Y', now(), :userId," +
+                  "   now(), :userId, now(), 'Initial', :typeOfData, '{}'," +
+                  "   :roleId, :createdTimestamp)";
+    // @formatter:on
+    String id = SequenceIdData.getUUID();
+    OBDal.getInstance()
+        .getSession()
+        .createNativeQuery(sql)
+        .setParameter("id", id)
+        .setParameter("clientId", TEST_CLIENT_ID)
+        .setParameter("orgId", TEST_ORG_ID)
+        .setParameter("userId", TEST_USER_ID)
+        .setParameter("typeOfData", TYPE_OF_DATA)
+        .setParameter("roleId", TEST_ROLE_ID)
+        .setParameter("createdTimestamp", System.currentTimeMillis())
+        .executeUpdate();
+    OBDal.getInstance().commitAndClose();
+    return id;
+  }
+
+  /**
+   * Waits until all the given entries are processed or a maximum of MAX_WAIT_MS milliseconds.
+   *
+   * @return the import status of the entries
+   */
+  private List<String> waitUntilProcessed(List<String> entryIds) throws InterruptedException {
+    List<String> importStatus = getImportStatus(entryIds);
+    long timeElapsed = 0;
+    while (!importStatus.stream().allMatch("Processed"::equals) && timeElapsed < MAX_WAIT_MS) {
+      Thread.sleep(500);
+      timeElapsed += 500;
+      importStatus = getImportStatus(entryIds);
+    }
+    return importStatus;
+  }
+
+  private List<String> getImportStatus(List<String> entryIds) {
+    try {
+      OBContext.setAdminMode(true);
+      List<String> importStatus = new ArrayList<>();
+      for (String entryId : entryIds) {
+        ImportEntry entry = OBDal.getInstance().get(ImportEntry.class, entryId);
+        importStatus.add(entry == null ? null : entry.getImportStatus());
+      }
+      return importStatus;
+    } finally {
+      OBDal.getInstance().commitAndClose();
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  private void deleteEntries() {
+    OBDal.getInstance()
+        .getSession()
+        .createNativeQuery("delete from c_import_entry where typeofdata = :typeOfData")
+        .setParameter("typeOfData", TYPE_OF_DATA)
+        .executeUpdate();
+    OBDal.getInstance()
+        .getSession()
+        .createNativeQuery("delete from c_import_entry_archive where typeofdata = :typeOfData")
+        .setParameter("typeOfData", TYPE_OF_DATA)
+        .executeUpdate();
+    OBDal.getInstance().commitAndClose();
+  }
+
+  /** Marks the entries pushed by the test as processed */
+  @ImportEntryQualifier(entity = TYPE_OF_DATA)
+  @ApplicationScoped
+  public static class PushDispatchTestProcessor extends ImportEntryProcessor {
+
+    @Override
+    protected ImportEntryProcessRunnable createImportEntryProcessRunnable() {
+      return new PushDispatchTestRunnable();
+    }
+
+    @Override
+    protected boolean canHandleImportEntry(ImportEntry importEntryInformation) {
+      return TYPE_OF_DATA.equals(importEntryInformation.getTypeofdata());
+    }
+
+    @Override
+    protected String getProcessSelectionKey(ImportEntry importEntry) {
+      return importEntry.getTypeofdata();
+    }
+  }
+
+  private static class PushDispatchTestRunnable
+      extends ImportEntryProcessor.ImportEntryProcessRunnable {
+
+    @Override
+    protected void processEntry(ImportEntry importEntry) throws Exception {
+      ImportEntryManager.getInstance().setImportEntryProcessed(importEntry.getId());
+      if (SessionHandler.isSessionHandlerPresent()) {
+        OBDal.getInstance().commitAndClose();
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html 
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License. 
+ * The Original Code is Openbravo ERP. 
+ * The Initial Developer of the Original Code is Openbravo SLU 
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved. 
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assume.assumeThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.base.weld.test.WeldBaseTest;
+import org.openbravo.model.ad.datamodel.Column;
+
+/**
+ * Test cases for the {@link EstimatedRowCountStrategy} class used through the
+ * {@link DefaultJsonDataService}
+ */
+public class EstimatedRowCountStrategyTest extends WeldBaseTest {
+  // clearly above the default estimate threshold
+  private static final int MIN_ESTIMATED_RECORDS = 20_000;
+
+  @Before
+  public void initialize() {
+    setSystemAdministratorContext();
+    DataEntityQueryService queryService = new DataEntityQueryService();
+    queryService.setEntityName(Column.ENTITY_NAME);
+    assumeThat(queryService.countExact(), greaterThan(MIN_ESTIMATED_RECORDS));
+  }
+
+  @Test
+  public void unfilteredFetchIsEstimated() throws JSONException {
+    JSONObject response = fetchCount(new HashMap<>());
+
+    assertThat(response.getInt(JsonConstants.RESPONSE_TOTALROWS), greaterThan(0));
+    assertThat(response.optBoolean(JsonConstants.RESPONSE_TOTALROWS_ESTIMATED), equalTo(true));
+  }
+
+  @Test
+  public void filteredFetchIsCounted() throws JSONException {
+    Map<String, String> parameters = new HashMap<>();
+    parameters.put("criteria", getNameStartsWithCriterion("Smtp").toString());
+    JSONObject response = fetchCount(parameters);
+
+    assertThat(response.optBoolean(JsonConstants.RESPONSE_TOTALROWS_ESTIMATED), equalTo(false));
+  }
+
+  private JSONObject fetchCount(Map<String, String> parameters) throws JSONException {
+    parameters.put(JsonConstants.ENTITYNAME, Column.ENTITY_NAME);
+    parameters.put(JsonConstants.USE_ALIAS, "true");
+    parameters.put(JsonConstants.STARTROW_PARAMETER, "0");
+    parameters.put(JsonConstants.ENDROW_PARAMETER, "99");
+    parameters.put(JsonConstants.NOCOUNT_PARAMETER, "false");
+    parameters.put(JsonConstants.ONLYCOUNT_PARAMETER, "true");
+    parameters.put(JsonConstants.COUNT_STRATEGY_PARAMETER, RowCountStrategies.ESTIMATE);
+    return new JSONObject(DefaultJsonDataService.getInstance().fetch(parameters));
+  }
+
+  private JSONObject getNameStartsWithCriterion(String value) throws JSONException {
+    JSONObject criterion = new JSONObject();
+    criterion.put("fieldName", Column.PROPERTY_NAME);
+    criterion.put("operator", "iStartsWith");
+    criterion.put("value", value);
+    return criterion;
+  }
+}
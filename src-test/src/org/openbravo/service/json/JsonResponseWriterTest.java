@@ -0,0 +1,124 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.service.json;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * Tests the {@link JsonResponseWriter} class
+ */
+public class JsonResponseWriterTest {
+
+  @Test
+  public void writesPropertiesBeforeAndAfterData() throws JSONException {
+    StringWriter out = new StringWriter();
+    JsonResponseWriter writer = new JsonResponseWriter(out);
+    writer.writeProperty(JsonConstants.RESPONSE_STARTROW, 0);
+    writer.writeRow(row("1"));
+    writer.writeRow(row("2"));
+    writer.writeProperty(JsonConstants.RESPONSE_ENDROW, 1);
+    writer.finish();
+
+    JSONObject response = new JSONObject(out.toString())
+        .getJSONObject(JsonConstants.RESPONSE_RESPONSE);
+    assertThat(response.getInt(JsonConstants.RESPONSE_STARTROW), equalTo(0));
+    assertThat(response.getInt(JsonConstants.RESPONSE_ENDROW), equalTo(1));
+    assertThat(response.getJSONArray(JsonConstants.RESPONSE_DATA).length(), equalTo(2));
+    assertThat(writer.getRowCount(), equalTo(2));
+  }
+
+  @Test
+  public void writesEmptyDataIfThereAreNoRows() throws JSONException {
+    StringWriter out = new StringWriter();
+    JsonResponseWriter writer = new JsonResponseWriter(out);
+    writer.writeProperty(JsonConstants.RESPONSE_TOTALROWS, 0);
+    writer.finish();
+
+    JSONObject response = new JSONObject(out.toString())
+        .getJSONObject(JsonConstants.RESPONSE_RESPONSE);
+    assertThat(response.getJSONArray(JsonConstants.RESPONSE_DATA).length(), equalTo(0));
+  }
+
+  @Test
+  public void rowsAreWrittenAsJettisonDoes() throws JSONException {
+    JSONObject row = row("A");
+    row.put("amount", new BigDecimal("10.500"));
+    row.put("quantity", 3L);
+    row.put("active", true);
+    row.put("description", JSONObject.NULL);
+    row.put("text", "a \"quoted\"\ttext\nwith €");
+    row.put("nested", new JSONObject().put("id", "B"));
+    row.put("list", new JSONArray(Arrays.asList("x", 1, false)));
+
+    StringWriter out = new StringWriter();
+    JsonResponseWriter writer = new JsonResponseWriter(out);
+    writer.writeRow(row);
+    writer.finish();
+
+    JSONObject writtenRow = new JSONObject(out.toString())
+        .getJSONObject(JsonConstants.RESPONSE_RESPONSE)
+        .getJSONArray(JsonConstants.RESPONSE_DATA)
+        .getJSONObject(0);
+    assertThat(writtenRow.toString(), equalTo(new JSONObject(row.toString()).toString()));
+  }
+
+  @Test
+  public void rowsCannotBeWrittenOnceDataIsClosed() {
+    JsonResponseWriter writer = new JsonResponseWriter(new StringWriter());
+    writer.writeRow(row("1"));
+    writer.writeProperty(JsonConstants.RESPONSE_STATUS, 0);
+
+    assertThrows(IllegalStateException.class, () -> writer.writeRow(row("2")));
+  }
+
+  @Test
+  public void rawResponseCanOnlyBeWrittenBeforeStarting() {
+    StringWriter out = new StringWriter();
+    JsonResponseWriter writer = new JsonResponseWriter(out);
+    assertThat(writer.isStarted(), is(false));
+    writer.writeRaw("{\"response\":{}}");
+    assertThat(writer.isStarted(), is(true));
+    assertThat(out.toString(), equalTo("{\"response\":{}}"));
+
+    JsonResponseWriter startedWriter = new JsonResponseWriter(new StringWriter());
+    startedWriter.writeProperty(JsonConstants.RESPONSE_STATUS, 0);
+    assertThrows(IllegalStateException.class, () -> startedWriter.writeRaw("{}"));
+  }
+
+  private static JSONObject row(String id) {
+    try {
+      return new JSONObject().put(JsonConstants.ID, id);
+    } catch (JSONException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.service.json.observability.logger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link DatasourceLatencyHistogram} class
+ */
+public class DatasourceLatencyHistogramTest {
+
+  @Test
+  public void emptyHistogramReturnsZero() {
+    DatasourceLatencyHistogram histogram = new DatasourceLatencyHistogram();
+    assertThat(histogram.getCount(), equalTo(0L));
+    assertThat(histogram.getAverage(), equalTo(0L));
+    assertThat(histogram.getPercentile(99), equalTo(0L));
+  }
+
+  @Test
+  public void percentilesAreBucketUpperBounds() {
+    DatasourceLatencyHistogram histogram = new DatasourceLatencyHistogram();
+    for (int i = 0; i < 90; i++) {
+      histogram.record(15);
+    }
+    for (int i = 0; i < 9; i++) {
+      histogram.record(150);
+    }
+    histogram.record(1500);
+
+    assertThat(histogram.getCount(), equalTo(100L));
+    assertThat(histogram.getPercentile(50), equalTo(20L));
+    assertThat(histogram.getPercentile(90), equalTo(20L));
+    assertThat(histogram.getPercentile(99), equalTo(200L));
+    assertThat(histogram.getPercentile(100), equalTo(1500L));
+    assertThat(histogram.getMax(), equalTo(1500L));
+    assertThat(histogram.getAverage(), equalTo((90 * 15 + 9 * 150 + 1500) / 100L));
+  }
+
+  @Test
+  public void latenciesAboveLastBucketUseMaximum() {
+    DatasourceLatencyHistogram histogram = new DatasourceLatencyHistogram();
+    histogram.record(120_000);
+    assertThat(histogram.getPercentile(50), equalTo(120_000L));
+  }
+}
@@ -30,8 +30,12 @@ import org.openbravo.base.weld.test.testinfrastructure.CdiInfrastructure;
 import org.openbravo.base.weld.test.testinfrastructure.DalPersistanceEventTest;
 import org.openbravo.base.weld.test.testinfrastructure.ParameterizedCdi;
 import org.openbravo.base.weld.test.testinfrastructure.ParameterizedCdiWithSkip;
+import org.openbravo.cache.CacheInvalidationBusTest;
 import org.openbravo.cache.TimeInvalidatedCacheTest;
 import org.openbravo.client.application.attachment.ReprintableDocumentTest;
+import org.openbravo.client.application.messageclient.MessageClientManagerTest;
+import org.openbravo.client.application.report.ReportExecutionServiceTest;
+import org.openbravo.client.application.report.ReportOutputCacheTest;
 import org.openbravo.client.application.test.ADCSInitialization;
 import org.openbravo.client.application.test.ADCSTest;
 import org.openbravo.client.application.test.ApplicationTest;
@@ -43,6 +47,7 @@ import org.openbravo.client.application.test.MenuTest;
 import org.openbravo.client.application.test.SelectionPoolConfigurationTest;
 import org.openbravo.client.application.test.event.DatasourceEventObserver;
 import org.openbravo.client.application.test.event.PersistanceObserver;
+import org.openbravo.client.application.test.event.PersistenceEventDispatcherTest;
 import org.openbravo.client.application.window.OBViewFieldHandlerFieldSorterTest;
 import org.openbravo.client.kernel.CSSMinifier;
 import org.openbravo.client.kernel.freemarker.test.FreemarkerTemplateProcessorTest;
@@ -53,10 +58,15 @@ import org.openbravo.client.kernel.reference.materialmgmt.RelevantCharacteristic
 import org.openbravo.client.kernel.test.CompressionTest;
 import org.openbravo.dal.security.SecurityCheckerTest;
 import org.openbravo.dal.service.DataPoolCheckerTest;
+import org.openbravo.erpCommon.ad_forms.AcctServerParallelRunnerTest;
+import org.openbravo.erpCommon.ad_forms.PostingCacheTest;
+import org.openbravo.erpCommon.businessUtility.PreferenceIndexTest;
 import org.openbravo.erpCommon.info.ClassicSelectorTest;
+import org.openbravo.erpCommon.utility.MessageCacheTest;
 import org.openbravo.erpCommon.utility.OBDateUtilsTest;
 import org.openbravo.event.CharacteristicEventHandlerTest;
 import org.openbravo.event.ProductEventHandlerTest;
+import org.openbravo.event.RoleAccessEventHandlerTest;
 import org.openbravo.materialmgmt.PurchaseDocumentLineTest;
 import org.openbravo.materialmgmt.RelevantCharacteristicFieldTerminologyChecker;
 import org.openbravo.materialmgmt.RelevantCharacteristicPropertyTest;
@@ -65,11 +75,16 @@ import org.openbravo.scheduling.ProcessSchedulingTest;
 import org.openbravo.scheduling.trigger.MisfirePolicyTest;
 import org.openbravo.scheduling.trigger.TriggerProviderTest;
 import org.openbravo.service.datasource.ModelDataSourceServiceTest;
+import org.openbravo.service.datasource.TreeAncestorIndexTest;
 import org.openbravo.service.externalsystem.ExternalSystemProviderTest;
 import org.openbravo.service.externalsystem.http.HttpExternalSystemDataCreationTest;
 import org.openbravo.service.externalsystem.http.OAuth2AccessTokenTest;
+import org.openbravo.service.importprocess.ImportEntryManagerTest;
 import org.openbravo.service.json.AdvancedQueryBuilderTest;
+import org.openbravo.service.json.EstimatedRowCountStrategyTest;
 import org.openbravo.service.json.JSONWriterToCSVTest;
+import org.openbravo.service.json.JsonResponseWriterTest;
+import org.openbravo.service.json.observability.logger.DatasourceLatencyHistogramTest;
 import org.openbravo.service.json.JsonUtilsTest;
 import org.openbravo.service.json.OrganizationTimeZoneTest;
 import org.openbravo.synchronization.event.EventTriggeringTest;
@@ -85,10 +100,12 @@ import org.openbravo.test.costing.TestCosting;
 import org.openbravo.test.createlinesfrom.CreateLinesFromTest;
 import org.openbravo.test.dal.AdminContextTest;
 import org.openbravo.test.dal.ComputedColumnsTest;
+import org.openbravo.test.dal.ContextInfoSaveTest;
 import org.openbravo.test.dal.DalConnectionProviderTest;
 import org.openbravo.test.dal.DalLockingTest;
 import org.openbravo.test.dal.DalPerformanceInventoryLineTest;
 import org.openbravo.test.dal.DalPerformanceProductTest;
+import org.openbravo.test.dal.DalPerformancePropertyAccessTest;
 import org.openbravo.test.dal.DalPerformanceProxyTest;
 import org.openbravo.test.dal.DalQueryTest;
 import org.openbravo.test.dal.DalStoredProcedureTest;
@@ -207,6 +224,7 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
     // dal
     DalPerformanceInventoryLineTest.class, //
     DalPerformanceProductTest.class, //
+    DalPerformancePropertyAccessTest.class, //
     DalPerformanceProxyTest.class, //
     DalQueryTest.class, //
     DalTest.class, //
@@ -215,6 +233,7 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
     DalUtilTest.class, //
     IssuesTest.class, //
     DalConnectionProviderTest.class, //
+    ContextInfoSaveTest.class, //
     DynamicEntityTest.class, //
     HiddenUpdateTest.class, //
     MappingGenerationTest.class, //
@@ -227,6 +246,7 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
     ComputedColumnsTest.class, //
     DatasourceEventObserver.class, //
     PersistanceObserver.class, //
+    PersistenceEventDispatcherTest.class, //
     ImageTest.class, //
     SecurityCheckerTest.class, //
 
@@ -282,6 +302,7 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
     Issue29934Test.class, //
     ImportEntrySizeTest.class, //
     ImportEntryBuilderTest.class, //
+    ImportEntryManagerTest.class, //
     CryptoUtilities.class, //
     Sessions.class, //
     OBContextTest.class, //
@@ -301,11 +322,14 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
 
     // preferences
     PreferenceTest.class, //
+    PreferenceIndexTest.class, //
     ClassicSelectorTest.class,
 
     // Accounting
     RecordID2Test.class, //
     PostDocumentTest.class, //
+    AcctServerParallelRunnerTest.class, //
+    PostingCacheTest.class, //
 
     // Taxes
     TaxesTest.class, //
@@ -358,6 +382,7 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
     MenuTemplateTest.class, //
     DisplayLogicAtServerLevelTest.class, //
     CSSMinifier.class, //
+    MessageClientManagerTest.class, //
 
     // client kernel
     FreemarkerTemplateProcessorTest.class, //
@@ -369,12 +394,16 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
 
     // service json
     AdvancedQueryBuilderTest.class, //
+    EstimatedRowCountStrategyTest.class, //
     JSONWriterToCSVTest.class, //
+    JsonResponseWriterTest.class, //
+    DatasourceLatencyHistogramTest.class, //
     JsonUtilsTest.class, //
     OrganizationTimeZoneTest.class, //
 
     // service datasource
     ModelDataSourceServiceTest.class, //
+    TreeAncestorIndexTest.class, //
 
     // buildValidations and moduleScripts
     ExecutionLimitsTest.class, //
@@ -384,6 +413,8 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
 
     // attachments and reprintable documents
     ReprintableDocumentTest.class, //
+    ReportExecutionServiceTest.class, //
+    ReportOutputCacheTest.class, //
 
     // db
     SqlCallableStatement.class, //
@@ -423,7 +454,9 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
     OAuth2SignInProviderTest.class, //
     OAuth2TokenAuthenticationManagerTest.class, //
     TimeInvalidatedCacheTest.class, //
+    CacheInvalidationBusTest.class, //
     ProductEventHandlerTest.class, //
+    RoleAccessEventHandlerTest.class, //
 
     // Cancel and Replace Tests
     CancelAndReplaceTest.class, //
@@ -465,6 +498,9 @@ import org.openbravo.userinterface.selectors.test.ExpressionsTest;
     // Utilities to manage dates
     OBDateUtilsTest.class,
 
+    // Translation of messages
+    MessageCacheTest.class,
+
     // Email Configuration by differents organization
     SendEmailTest.class
 
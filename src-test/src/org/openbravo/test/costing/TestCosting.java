@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2018-2024 Openbravo SLU
+ * All portions are Copyright (C) 2018-2026 Openbravo SLU
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -36,7 +36,9 @@ import org.junit.runners.Suite;
     TestIssue37279.class, //
     TestIssue39616.class, //
     TestIssue39888.class, //
-    TestIssue55837.class //
+    TestIssue55837.class, //
+    TestParallelCosting.class, //
+    TestIncrementalValuedStockAggregation.class //
 })
 public class TestCosting {
   // No content is required, this is just the definition of a test suite.
@@ -0,0 +1,211 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.test.costing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assume.assumeThat;
+
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.openbravo.base.exception.OBException;
+import org.openbravo.base.provider.OBProvider;
+import org.openbravo.base.secureApp.VariablesSecureApp;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.database.ConnectionProvider;
+import org.openbravo.materialmgmt.GenerateAggregatedDataBackground;
+import org.openbravo.model.ad.domain.Preference;
+import org.openbravo.model.common.enterprise.Organization;
+import org.openbravo.model.materialmgmt.transaction.MaterialTransaction;
+import org.openbravo.scheduling.ProcessBundle;
+import org.openbravo.service.db.DalConnectionProvider;
+import org.openbravo.test.costing.utils.TestCostingConstants;
+
+/**
+ * Checks that aggregating the valued stock incrementally, from the ValuedStockAggregatedWatermark
+ * preference, gives the same M_VALUED_STOCK_AGG rows as aggregating all the periods again.
+ */
+public class TestIncrementalValuedStockAggregation extends TestCostingBase {
+  private static final String INCREMENTAL_PROPERTY = "valuedstock.aggregation.incremental";
+  private static final String WATERMARK_PREFERENCE = "ValuedStockAggregatedWatermark";
+  private static final String WATERMARK_FORMAT = "yyyy-MM-dd HH:mm:ss";
+  private static final String AGGREGATE_PROCESS_ID = "B7536B07807F4F6CB9FA609B076AF0AD";
+
+  @Test
+  public void incrementalAggregationGivesTheSameRowsAsFullAggregation() {
+    Properties properties = OBPropertiesProvider.getInstance().getOpenbravoProperties();
+    String incremental = properties.getProperty(INCREMENTAL_PROPERTY);
+    try {
+      OBContext.setOBContext(TestCostingConstants.OPENBRAVO_USER_ID,
+          TestCostingConstants.QATESTING_ROLE_ID, TestCostingConstants.QATESTING_CLIENT_ID,
+          TestCostingConstants.SPAIN_ORGANIZATION_ID);
+      OBContext.setAdminMode(true);
+      Organization org = OBDal.getInstance()
+          .get(Organization.class, TestCostingConstants.SPAIN_ORGANIZATION_ID);
+      Organization legalEntity = OBContext.getOBContext()
+          .getOrganizationStructureProvider(org.getClient().getId())
+          .getLegalEntity(org);
+      Set<String> orgIds = OBContext.getOBContext()
+          .getOrganizationStructureProvider(org.getClient().getId())
+          .getNaturalTree(legalEntity.getId());
+
+      // full aggregation of all the closed periods
+      properties.remove(INCREMENTAL_PROPERTY);
+      deleteAggregatedRows(orgIds);
+      runAggregation();
+      List<String> fullRows = getAggregatedRows(orgIds);
+      assumeThat("There are no closed periods to aggregate", fullRows, not(empty()));
+
+      // a transaction of the last aggregated period changes after the previous execution
+      Date watermark = new Date(System.currentTimeMillis() - 60_000);
+      setWatermark(legalEntity, watermark);
+      MaterialTransaction transaction = getLastAggregatedTransaction(orgIds);
+      assumeThat("There are no aggregated transactions", transaction, notNullValue());
+      touchTransaction(transaction);
+
+      properties.setProperty(INCREMENTAL_PROPERTY, "true");
+      runAggregation();
+
+      assertThat(getAggregatedRows(orgIds), equalTo(fullRows));
+    } finally {
+      if (incremental == null) {
+        properties.remove(INCREMENTAL_PROPERTY);
+      } else {
+        properties.setProperty(INCREMENTAL_PROPERTY, incremental);
+      }
+      deleteWatermark();
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  private static void runAggregation() {
+    try {
+      VariablesSecureApp vars = new VariablesSecureApp(
+          OBContext.getOBContext().getUser().getId(),
+          OBContext.getOBContext().getCurrentClient().getId(),
+          OBContext.getOBContext().getCurrentOrganization().getId(),
+          OBContext.getOBContext().getRole().getId(),
+          OBContext.getOBContext().getLanguage().getLanguage());
+      ConnectionProvider conn = new DalConnectionProvider(true);
+      ProcessBundle pb = new ProcessBundle(AGGREGATE_PROCESS_ID, vars).init(conn);
+      new GenerateAggregatedDataBackground().execute(pb);
+    } catch (Exception e) {
+      throw new OBException(e);
+    }
+  }
+
+  private static void deleteAggregatedRows(Set<String> orgIds) {
+    OBDal.getInstance()
+        .getSession()
+        .createQuery("delete from ValuedStockAggregated where organization.id in :orgIds")
+        .setParameterList("orgIds", orgIds)
+        .executeUpdate();
+    OBDal.getInstance().commitAndClose();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> getAggregatedRows(Set<String> orgIds) {
+    // @formatter:off
+    final String sql =
+                  "select m_product_id, m_locator_id, c_period_id, m_costing_rule_id," +
+                  "  dateto, stock, valuation" +
+                  "  from m_valued_stock_agg" +
+                  " where ad_org_id in (:orgIds)" +
+                  " order by dateto, m_product_id, m_locator_id, m_costing_rule_id";
+    // @formatter:on
+    List<Object[]> rows = OBDal.getInstance()
+        .getSession()
+        .createNativeQuery(sql)
+        .setParameterList("orgIds", orgIds)
+        .list();
+    return rows.stream().map(row -> {
+      StringBuilder values = new StringBuilder();
+      for (Object value : row) {
+        values.append(value instanceof BigDecimal
+            ? ((BigDecimal) value).stripTrailingZeros().toPlainString()
+            : String.valueOf(value)).append('|');
+      }
+      return values.toString();
+    }).collect(Collectors.toList());
+  }
+
+  private static MaterialTransaction getLastAggregatedTransaction(Set<String> orgIds) {
+    // @formatter:off
+    final String hql =
+                  "as trx" +
+                  " where trx.organization.id in (:orgIds)" +
+                  "   and trx.movementDate <" +
+                  "     (select max(agg.endingDate)" +
+                  "        from ValuedStockAggregated as agg" +
+                  "       where agg.organization.id in (:orgIds))" +
+                  " order by trx.movementDate desc, trx.id";
+    // @formatter:on
+    return OBDal.getInstance()
+        .createQuery(MaterialTransaction.class, hql)
+        .setNamedParameter("orgIds", orgIds)
+        .setFilterOnReadableOrganization(false)
+        .setMaxResult(1)
+        .uniqueResult();
+  }
+
+  private static void touchTransaction(MaterialTransaction transaction) {
+    OBDal.getInstance()
+        .getSession()
+        .createNativeQuery(
+            "update m_transaction set updated = now() where m_transaction_id = :transactionId")
+        .setParameter("transactionId", transaction.getId())
+        .executeUpdate();
+    OBDal.getInstance().commitAndClose();
+  }
+
+  private static void setWatermark(Organization legalEntity, Date watermark) {
+    deleteWatermark();
+    Preference preference = OBProvider.getInstance().get(Preference.class);
+    preference.setClient(legalEntity.getClient());
+    preference.setOrganization(legalEntity);
+    preference.setVisibleAtOrganization(legalEntity);
+    preference.setAttribute(WATERMARK_PREFERENCE);
+    preference.setPropertyList(false);
+    preference.setSearchKey(new SimpleDateFormat(WATERMARK_FORMAT).format(watermark));
+    OBDal.getInstance().save(preference);
+    OBDal.getInstance().commitAndClose();
+  }
+
+  private static void deleteWatermark() {
+    OBDal.getInstance()
+        .createQuery(Preference.class, "as p where p.attribute = :attribute")
+        .setNamedParameter("attribute", WATERMARK_PREFERENCE)
+        .setFilterOnReadableOrganization(false)
+        .list()
+        .forEach(OBDal.getInstance()::remove);
+    OBDal.getInstance().commitAndClose();
+  }
+}
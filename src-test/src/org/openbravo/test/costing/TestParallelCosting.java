@@ -0,0 +1,126 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.test.costing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.model.common.order.Order;
+import org.openbravo.model.common.plm.Product;
+import org.openbravo.model.materialmgmt.transaction.MaterialTransaction;
+import org.openbravo.test.costing.utils.TestCostingConstants;
+import org.openbravo.test.costing.utils.TestCostingUtils;
+
+/**
+ * Checks that calculating the costs with several threads, setting the costing.parallel.threads
+ * property, gives the same transaction costs as the sequential process.
+ */
+public class TestParallelCosting extends TestCostingBase {
+  private static final String PARALLEL_THREADS_PROPERTY = "costing.parallel.threads";
+  private static final int PRODUCTS = 3;
+
+  @Test
+  public void parallelCostingGivesTheSameCostsAsSequentialCosting() {
+    Properties properties = OBPropertiesProvider.getInstance().getOpenbravoProperties();
+    String threads = properties.getProperty(PARALLEL_THREADS_PROPERTY);
+    try {
+      OBContext.setOBContext(TestCostingConstants.OPENBRAVO_USER_ID,
+          TestCostingConstants.QATESTING_ROLE_ID, TestCostingConstants.QATESTING_CLIENT_ID,
+          TestCostingConstants.SPAIN_ORGANIZATION_ID);
+      OBContext.setAdminMode(true);
+
+      properties.remove(PARALLEL_THREADS_PROPERTY);
+      List<List<MaterialTransaction>> sequential = createTransactions("Sequential");
+
+      properties.setProperty(PARALLEL_THREADS_PROPERTY, String.valueOf(PRODUCTS));
+      List<List<MaterialTransaction>> parallel = createTransactions("Parallel");
+
+      for (int i = 0; i < PRODUCTS; i++) {
+        List<MaterialTransaction> sequentialTransactions = sequential.get(i);
+        List<MaterialTransaction> parallelTransactions = parallel.get(i);
+        assertThat(parallelTransactions, hasSize(sequentialTransactions.size()));
+        for (int j = 0; j < sequentialTransactions.size(); j++) {
+          MaterialTransaction sequentialTransaction = sequentialTransactions.get(j);
+          MaterialTransaction parallelTransaction = parallelTransactions.get(j);
+          assertThat(parallelTransaction.isCostCalculated(), equalTo(true));
+          assertThat(parallelTransaction.getMovementQuantity(),
+              comparesEqualTo(sequentialTransaction.getMovementQuantity()));
+          assertThat(parallelTransaction.getTransactionCost(),
+              comparesEqualTo(sequentialTransaction.getTransactionCost()));
+        }
+      }
+
+      OBDal.getInstance().commitAndClose();
+    } finally {
+      if (threads == null) {
+        properties.remove(PARALLEL_THREADS_PROPERTY);
+      } else {
+        properties.setProperty(PARALLEL_THREADS_PROPERTY, threads);
+      }
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  /**
+   * Creates the same receipts and shipments for a new set of products in the same warehouse. Each
+   * receipt includes all the products, so their transactions are costed in the same batch.
+   *
+   * @return the transactions of each product
+   */
+  private List<List<MaterialTransaction>> createTransactions(String suffix) {
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < PRODUCTS; i++) {
+      products.add(TestCostingUtils.createProduct("testParallelCosting" + suffix + i,
+          new BigDecimal("10.00")));
+    }
+
+    Order purchaseOrder1 = TestCostingUtils.createPurchaseOrder(products,
+        Arrays.asList(new BigDecimal("10.00"), new BigDecimal("15.00"), new BigDecimal("20.00")),
+        Arrays.asList(new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("30")), 0);
+    TestCostingUtils.createGoodsReceipt(Arrays.asList(purchaseOrder1), null, null, 1);
+
+    Order purchaseOrder2 = TestCostingUtils.createPurchaseOrder(products,
+        Arrays.asList(new BigDecimal("12.00"), new BigDecimal("11.00"), new BigDecimal("25.00")),
+        Arrays.asList(new BigDecimal("5"), new BigDecimal("10"), new BigDecimal("15")), 2);
+    TestCostingUtils.createGoodsReceipt(Arrays.asList(purchaseOrder2), null, null, 3);
+
+    for (Product product : products) {
+      TestCostingUtils.createGoodsShipment(product, new BigDecimal("30.00"), new BigDecimal("8"),
+          4);
+    }
+
+    List<List<MaterialTransaction>> transactions = new ArrayList<>();
+    for (Product product : products) {
+      transactions.add(TestCostingUtils.getProductTransactions(product.getId()));
+    }
+    return transactions;
+  }
+}
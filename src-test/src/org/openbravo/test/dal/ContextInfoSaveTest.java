@@ -0,0 +1,155 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.test.dal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.database.SessionInfo;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Measures the overhead of saving the audit context info in the database on small transactions and
+ * checks that skipping the unchanged context info keeps the right info available for the audit
+ * triggers.
+ */
+public class ContextInfoSaveTest extends OBBaseTest {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final int TRANSACTIONS = 500;
+  private static final int FLUSHES_PER_TRANSACTION = 3;
+  private static final String USER_A = "100";
+  private static final String USER_B = "0";
+
+  private boolean wasAuditActive;
+  private boolean wasSkipUnchangedContextInfo;
+
+  @Before
+  public void enableAudit() {
+    wasAuditActive = SessionInfo.isAuditActive();
+    wasSkipUnchangedContextInfo = SessionInfo.isSkipUnchangedContextInfo();
+    SessionInfo.setAuditActive(true);
+    SessionInfo.auditThisThread(true);
+    // the audit infrastructure is created when a new session is opened with audit active
+    OBDal.getInstance().commitAndClose();
+  }
+
+  @After
+  public void restoreAudit() {
+    OBDal.getInstance().rollbackAndClose();
+    SessionInfo.setAuditActive(wasAuditActive);
+    SessionInfo.setSkipUnchangedContextInfo(wasSkipUnchangedContextInfo);
+    SessionInfo.setUserId(null);
+  }
+
+  @Test
+  public void measureContextInfoOverheadPerTransaction() {
+    SessionInfo.setUserId(USER_A);
+    SessionInfo.setSessionId("0");
+
+    long timeSavingAlways = runTransactions(false);
+    long saves = SessionInfo.getContextInfoSaves();
+    long skips = SessionInfo.getContextInfoSkips();
+    long timeSkippingUnchanged = runTransactions(true);
+    long savesWhenSkipping = SessionInfo.getContextInfoSaves() - saves;
+    long skipped = SessionInfo.getContextInfoSkips() - skips;
+
+    log.info("Context info overhead per transaction. Saving always: {} us, "
+        + "skipping unchanged: {} us", timeSavingAlways / TRANSACTIONS,
+        timeSkippingUnchanged / TRANSACTIONS);
+    assertThat("Saves when skipping unchanged info", savesWhenSkipping,
+        lessThanOrEqualTo((long) TRANSACTIONS));
+    assertThat("Skipped saves", skipped,
+        greaterThanOrEqualTo((long) TRANSACTIONS * (FLUSHES_PER_TRANSACTION - 1)));
+  }
+
+  @Test
+  public void changedContextInfoIsSavedAgain() throws SQLException {
+    SessionInfo.setSkipUnchangedContextInfo(true);
+    Connection conn = getConnection();
+
+    SessionInfo.setUserId(USER_A);
+    SessionInfo.saveContextInfoIntoDB(conn);
+    SessionInfo.setUserId(USER_B);
+    SessionInfo.saveContextInfoIntoDB(conn);
+
+    assertThat(getSavedUserId(conn), equalTo(USER_B));
+  }
+
+  @Test
+  public void contextInfoIsSavedAgainAfterRollback() throws SQLException {
+    SessionInfo.setSkipUnchangedContextInfo(true);
+    Connection conn = getConnection();
+    SessionInfo.setUserId(USER_A);
+    SessionInfo.saveContextInfoIntoDB(conn);
+    OBDal.getInstance().commitAndClose();
+
+    conn = getConnection();
+    SessionInfo.setUserId(USER_B);
+    SessionInfo.saveContextInfoIntoDB(conn);
+    conn.rollback();
+    SessionInfo.contextInfoRolledBack(conn);
+    SessionInfo.saveContextInfoIntoDB(conn);
+
+    assertThat(getSavedUserId(conn), equalTo(USER_B));
+  }
+
+  private long runTransactions(boolean skipUnchanged) {
+    SessionInfo.setSkipUnchangedContextInfo(skipUnchanged);
+    // warm up
+    runTransaction();
+    long t = System.nanoTime();
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      runTransaction();
+    }
+    return (System.nanoTime() - t) / 1_000L;
+  }
+
+  private void runTransaction() {
+    Connection conn = getConnection();
+    for (int i = 0; i < FLUSHES_PER_TRANSACTION; i++) {
+      SessionInfo.saveContextInfoIntoDB(conn);
+    }
+    OBDal.getInstance().commitAndClose();
+  }
+
+  private Connection getConnection() {
+    return OBDal.getInstance().getConnection(false);
+  }
+
+  private String getSavedUserId(Connection conn) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement("select ad_user_id from ad_context_info");
+        ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getString(1) : null;
+    }
+  }
+}
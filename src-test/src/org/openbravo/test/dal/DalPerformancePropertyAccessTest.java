@@ -0,0 +1,122 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.test.dal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+import org.openbravo.base.provider.OBProvider;
+import org.openbravo.model.common.order.OrderLine;
+import org.openbravo.test.base.OBBaseTest;
+
+/**
+ * Compares the cost of the generated getters and setters, which access the properties by their
+ * index in the entity, with the access by property name. The timing is reported in the log.
+ */
+public class DalPerformancePropertyAccessTest extends OBBaseTest {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final int WARM_UP = 100_000;
+  private static final int ITERATIONS = 1_000_000;
+
+  /**
+   * The generated accessors return the same values as the access by name
+   */
+  @Test
+  public void generatedAccessorsUsePropertyIndex() {
+    setTestAdminContext();
+    final OrderLine line = OBProvider.getInstance().get(OrderLine.class);
+    line.setLineNo(10L);
+    line.setDescription("Line");
+    line.setOrderedQuantity(BigDecimal.ONE);
+
+    assertThat(line.get(OrderLine.PROPERTY_LINENO), equalTo(10L));
+    assertThat(line.get(OrderLine.PROPERTY_DESCRIPTION), equalTo("Line"));
+
+    line.set(OrderLine.PROPERTY_ORDEREDQUANTITY, BigDecimal.TEN);
+    assertThat(line.getOrderedQuantity(), equalTo(BigDecimal.TEN));
+  }
+
+  /**
+   * A wrong index, for example because the model has changed since the class was generated, falls
+   * back to the access by name
+   */
+  @Test
+  public void wrongPropertyIndexFallsBackToName() {
+    setTestAdminContext();
+    final IndexAccessOrderLine line = new IndexAccessOrderLine();
+    line.setDescription("Line");
+    assertThat(line.getByIndex(OrderLine.PROPERTY_DESCRIPTION, 0), equalTo("Line"));
+    assertThat(line.getByIndex(OrderLine.PROPERTY_DESCRIPTION, Integer.MAX_VALUE),
+        equalTo("Line"));
+  }
+
+  @Test
+  public void compareAccessByIndexAndByName() {
+    setTestAdminContext();
+    final OrderLine line = OBProvider.getInstance().get(OrderLine.class);
+    line.setLineNo(10L);
+
+    accessByIndex(line, WARM_UP);
+    accessByName(line, WARM_UP);
+
+    long t = System.nanoTime();
+    accessByIndex(line, ITERATIONS);
+    final long byIndex = System.nanoTime() - t;
+
+    t = System.nanoTime();
+    accessByName(line, ITERATIONS);
+    final long byName = System.nanoTime() - t;
+
+    log.info("{} get/set pairs, by index: {} ns/op, by name: {} ns/op", ITERATIONS,
+        byIndex / ITERATIONS, byName / ITERATIONS);
+  }
+
+  private static long accessByIndex(OrderLine line, int iterations) {
+    long total = 0;
+    for (int i = 0; i < iterations; i++) {
+      line.setLineNo(line.getLineNo() + 1);
+      total += line.getLineNo();
+    }
+    return total;
+  }
+
+  private static long accessByName(OrderLine line, int iterations) {
+    long total = 0;
+    for (int i = 0; i < iterations; i++) {
+      line.set(OrderLine.PROPERTY_LINENO, (Long) line.get(OrderLine.PROPERTY_LINENO) + 1);
+      total += (Long) line.get(OrderLine.PROPERTY_LINENO);
+    }
+    return total;
+  }
+
+  private static class IndexAccessOrderLine extends OrderLine {
+    private static final long serialVersionUID = 1L;
+
+    private Object getByIndex(String propName, int propIndex) {
+      return get(propName, propIndex);
+    }
+  }
+}
@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2024 Openbravo SLU
+ * All portions are Copyright (C) 2024-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -20,6 +20,7 @@ package org.openbravo.test.documentsequence;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
+import org.openbravo.erpCommon.utility.SequenceAllocatorTest;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
@@ -28,7 +29,8 @@ import org.junit.runners.Suite;
     SequenceCalculationMethodTest.class, //
     SequenceControlDigitPrefixSuffixTest.class, //
     SequenceExceptionTest.class, //
-    SequenceUtilAndUtilityTest.class //
+    SequenceUtilAndUtilityTest.class, //
+    SequenceAllocatorTest.class //
 
 })
 public class SequenceTestSuite {
@@ -20,6 +20,7 @@
 package org.openbravo.test.security;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -33,6 +34,8 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
 import org.openbravo.base.exception.OBSecurityException;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
 import org.openbravo.base.provider.OBProvider;
 import org.openbravo.base.structure.BaseOBObject;
 import org.openbravo.dal.core.OBContext;
@@ -217,6 +220,36 @@ public class EntityAccessTest extends CrossOrganizationReference {
     OBDal.getInstance().remove(cs.get(0));
   }
 
+  /**
+   * The contexts of the same role share the entity access computed for the role, but changing the
+   * access of one of them does not affect the rest.
+   */
+  @Test
+  public void contextsOfSameRoleShareEntityAccess() {
+    setTestUserContext();
+    final EntityAccessChecker checker1 = OBContext.getOBContext().getEntityAccessChecker();
+    setTestUserContext();
+    final EntityAccessChecker checker2 = OBContext.getOBContext().getEntityAccessChecker();
+    assertEquals(checker1.getReadableEntities(), checker2.getReadableEntities());
+    assertEquals(checker1.getWritableEntities(), checker2.getWritableEntities());
+
+    final Entity notWritable = ModelProvider.getInstance()
+        .getModel()
+        .stream()
+        .filter(e -> !checker1.getWritableEntities().contains(e))
+        .findFirst()
+        .orElseThrow();
+    checker1.getWritableEntities().add(notWritable);
+    assertTrue(checker1.isWritable(notWritable));
+    assertFalse(checker2.getWritableEntities().contains(notWritable));
+
+    EntityAccessChecker.invalidateRoleAccess(TEST_ROLE_ID);
+    setTestUserContext();
+    final EntityAccessChecker checker3 = OBContext.getOBContext().getEntityAccessChecker();
+    assertFalse(checker3.getWritableEntities().contains(notWritable));
+    assertEquals(checker2.getReadableEntities(), checker3.getReadableEntities());
+  }
+
   /**
    * Covers issue #36628: it was not possible to update organization if entity had computed columns
    */
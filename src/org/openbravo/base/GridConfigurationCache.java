@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2023 Openbravo SLU
+ * All portions are Copyright (C) 2023-2026 Openbravo SLU
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -43,8 +43,9 @@ import org.openbravo.dal.service.OBQuery;
  * configuration will use the system one), we cache separately the system and the tab ones and we
  * compose them into a JSONObject with the getGridConfigurationForTab method.
  *
- * If this information changes, some time will passed until the update is reflected on the cache
- * (see expireAfterDuration in cache builder)
+ * The caches are invalidated by the event handlers of the grid configuration entities once the
+ * transactions which change a configuration are committed, in all the nodes of the cluster, so they
+ * can use a long expiration duration.
  */
 public class GridConfigurationCache implements OBSingleton {
 
@@ -53,12 +54,14 @@ public class GridConfigurationCache implements OBSingleton {
   private static TimeInvalidatedCache<String, Optional<GCSystem>> systemGridConfigurationCache = TimeInvalidatedCache
       .newBuilder()
       .name("System_GCC")
-      .expireAfterDuration(Duration.ofMinutes(5))
+      .expireAfterDuration(Duration.ofHours(1))
+      .clusterInvalidation()
       .build(GridConfigurationCache::initializeSystemConfig);
   private static TimeInvalidatedCache<String, Optional<GCTab>> tabGridConfigurationCache = TimeInvalidatedCache
       .newBuilder()
       .name("Tab_GCC")
-      .expireAfterDuration(Duration.ofMinutes(5))
+      .expireAfterDuration(Duration.ofHours(1))
+      .clusterInvalidation()
       .build(GridConfigurationCache::initializeTabConfig);
 
   /**
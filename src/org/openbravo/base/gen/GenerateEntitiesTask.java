@@ -203,6 +203,18 @@ public class GenerateEntitiesTask {
     return !generatedInAnyCase && generatedDueToPreference;
   }
 
+  /**
+   * Returns the index of a property in its entity, used by the generated getters and setters to
+   * access the property without searching it by name.
+   *
+   * @param p
+   *          the property
+   * @return the index of the property, formatted to be used as a Java literal
+   */
+  public String getPropertyIndex(Property p) {
+    return Integer.toString(p.getIndexInEntity());
+  }
+
   public String getDeprecationMessage(Property p) {
     if (p.isDeprecated() != null && p.isDeprecated()) {
       return "Property marked as deprecated on field Development Status";
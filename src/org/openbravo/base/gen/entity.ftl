@@ -124,7 +124,7 @@ public class ${entity.simpleClassName} extends BaseOBObject ${entity.implementsS
         return ((Id)getId()).«getter((Property)p)»();
     <#else>
       <#if !p.computedColumn>
-        return (${p.shorterTypeName}) get(PROPERTY_${p.name?upper_case});
+        return (${p.shorterTypeName}) get(PROPERTY_${p.name?upper_case}, ${util.getPropertyIndex(p)});
       <#else>
         return (${p.shorterTypeName}) get(COMPUTED_COLUMN_${p.name?upper_case});
       </#if>
@@ -145,7 +145,7 @@ public class ${entity.simpleClassName} extends BaseOBObject ${entity.implementsS
 	    ((Id)getId()).set${p.getterSetterName?cap_first}(${p.javaName});
 	<#else>
       <#if !p.computedColumn>
-        set(PROPERTY_${p.name?upper_case}, ${p.javaName});
+        set(PROPERTY_${p.name?upper_case}, ${util.getPropertyIndex(p)}, ${p.javaName});
       <#else>
         set(COMPUTED_COLUMN_${p.name?upper_case}, ${p.javaName});
       </#if>
@@ -166,7 +166,7 @@ public class ${entity.simpleClassName} extends BaseOBObject ${entity.implementsS
     @SuppressWarnings("unchecked")
     public ${theList(entity)}<${p.shorterNameTargetEntity}> get${p.name?cap_first}() {
       <#if !p.computedColumn>
-      return (${theList(entity)}<${p.shorterNameTargetEntity}>) get(PROPERTY_${p.name?upper_case});
+      return (${theList(entity)}<${p.shorterNameTargetEntity}>) get(PROPERTY_${p.name?upper_case}, ${util.getPropertyIndex(p)});
       <#else>
       return (${theList(entity)}<${p.shorterNameTargetEntity}>) get(COMPUTED_COLUMN_${p.name?upper_case});
       </#if>
@@ -179,7 +179,7 @@ public class ${entity.simpleClassName} extends BaseOBObject ${entity.implementsS
      */
     <@addDeprecationTagIfNeeded property=p />
     public void set${p.getterSetterName?cap_first}(${theList(entity)}<${p.shorterNameTargetEntity}> ${p.name}) {
-        set(PROPERTY_${p.name?upper_case}, ${p.name});
+        set(PROPERTY_${p.name?upper_case}, ${util.getPropertyIndex(p)}, ${p.name});
     }
 
     </#if>
@@ -79,7 +79,7 @@ public class ModelProvider implements OBSingleton {
   private static final Logger log = LogManager.getLogger();
   private static final String DEPRECATED_STATUS = "DP";
 
-  private static ModelProvider instance;
+  private static volatile ModelProvider instance;
   private List<Entity> model = null;
   private List<Table> tables = null;
   private HashMap<String, Table> tablesByTableName = null;
@@ -110,13 +110,19 @@ public class ModelProvider implements OBSingleton {
    * 
    * @return the ModelProvider instance
    */
-  public static synchronized ModelProvider getInstance() {
+  public static ModelProvider getInstance() {
     // set in a localInstance to prevent threading issues when
     // reseting it in setInstance()
     ModelProvider localInstance = instance;
     if (localInstance == null) {
-      localInstance = OBProvider.getInstance().get(ModelProvider.class);
-      instance = localInstance;
+      // only the first access is synchronized, once set the instance is read without locking
+      synchronized (ModelProvider.class) {
+        localInstance = instance;
+        if (localInstance == null) {
+          localInstance = OBProvider.getInstance().get(ModelProvider.class);
+          instance = localInstance;
+        }
+      }
     }
     return localInstance;
   }
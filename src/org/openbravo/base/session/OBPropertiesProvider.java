@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2008-2021 Openbravo SLU 
+ * All portions are Copyright (C) 2008-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -151,6 +151,49 @@ public class OBPropertiesProvider {
     return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes");
   }
 
+  /**
+   * Returns the value of an integer property, or the default value if the property is not defined
+   * or its value is not a valid integer.
+   */
+  public int getIntProperty(String key, int defaultValue) {
+    String value = getNonBlankProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      log.warn("Invalid value for property {}: {}. Using {}", key, value, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Returns the value of a long property, or the default value if the property is not defined or
+   * its value is not a valid number.
+   */
+  public long getLongProperty(String key, long defaultValue) {
+    String value = getNonBlankProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      log.warn("Invalid value for property {}: {}. Using {}", key, value, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  private String getNonBlankProperty(String key) {
+    Properties properties = getOpenbravoProperties();
+    String value = properties == null ? null : properties.getProperty(key);
+    if (value == null || value.trim().isEmpty()) {
+      return null;
+    }
+    return value.trim();
+  }
+
   // tries to read the properties from the openbravo development project
   private void readPropertiesFromDevelopmentProject() {
     final File propertiesFile = getFileFromDevelopmentPath("Openbravo.properties");
@@ -37,6 +37,8 @@ import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionPro
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.openbravo.base.exception.OBException;
 import org.openbravo.base.provider.OBProvider;
+import org.openbravo.dal.cache.ReferenceDataCache;
+import org.openbravo.dal.cache.ReferenceDataRegionFactory;
 import org.openbravo.dal.core.DalSessionFactory;
 
 /**
@@ -155,10 +157,18 @@ public abstract class SessionFactoryController {
       bbddUser = properties.getProperty(AvailableSettings.USER);
       configuration.addProperties(properties);
 
-      // second-level caching is disabled for now because not all data
+      // second-level caching is only enabled for the reference data because not all data
       // access and updates go through hibernate.
-      // TODO: move to configuration file
-      configuration.getProperties().setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+      if (ReferenceDataCache.getInstance().isEnabled()) {
+        configuration.getProperties()
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        configuration.getProperties()
+            .setProperty(AvailableSettings.CACHE_REGION_FACTORY,
+                ReferenceDataRegionFactory.class.getName());
+      } else {
+        configuration.getProperties()
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+      }
       configuration.getProperties().setProperty(AvailableSettings.USE_QUERY_CACHE, "false");
       configuration.getProperties().setProperty(AvailableSettings.BATCH_FETCH_STYLE, "LEGACY");
       configuration.getProperties().setProperty(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, "50");
@@ -20,6 +20,7 @@
 package org.openbravo.base.structure;
 
 import java.io.Serializable;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -164,14 +165,17 @@ public abstract class BaseOBObject
   }
 
   private void setDataValue(String propName, Object value) {
+    setDataValue(getEntity().getProperty(propName), value);
+  }
+
+  private void setDataValue(Property p, Object value) {
     if (data == null) {
       data = new Object[getEntity().getProperties().size()];
     }
-    final Property p = getEntity().getProperty(propName);
     if (p.getIndexInEntity() >= data.length) {
       throw new IllegalArgumentException("Property index (" + p.getIndexInEntity()
           + ") is larger than or equal to property list size (" + data.length + "). "
-          + "This happens when setting property " + propName + " " + p + " with value " + value
+          + "This happens when setting property " + p.getName() + " " + p + " with value " + value
           + " in entity " + getEntity());
     }
     data[p.getIndexInEntity()] = value;
@@ -277,6 +281,58 @@ public abstract class BaseOBObject
     setValue(propName, value);
   }
 
+  /**
+   * Returns the value of the {@link Property Property} identified by the propName, performing the
+   * same security checks as {@link #get(String)}. It is used by the getters of the generated
+   * classes, which know the index of the property in the entity, to avoid searching the property
+   * by name. If the index does not correspond to the property, because the model has changed since
+   * the class was generated, the property is searched by name.
+   * 
+   * @param propName
+   *          the name of the {@link Property Property} for which the value is requested
+   * @param propIndex
+   *          the index of the property in the entity when the class was generated
+   * @return value of the property
+   * @throws OBSecurityException
+   *           in case property is not readable
+   */
+  protected Object get(String propName, int propIndex) {
+    final Property p = getProperty(propName, propIndex);
+    checkDerivedReadable(p);
+    return getDataValue(p);
+  }
+
+  /**
+   * Sets a value for the {@link Property Property} identified by the propName, performing the same
+   * checks as {@link #set(String, Object)}. It is used by the setters of the generated classes, see
+   * {@link #get(String, int)}.
+   * 
+   * @param propName
+   *          the name of the {@link Property Property} being set
+   * @param propIndex
+   *          the index of the property in the entity when the class was generated
+   * @param value
+   *          the value being set
+   */
+  protected void set(String propName, int propIndex, Object value) {
+    final Property p = getProperty(propName, propIndex);
+    p.checkIsValidValue(value);
+    checkDerivedReadable(p);
+    p.checkIsWritable();
+    setDataValue(p, value);
+  }
+
+  private Property getProperty(String propName, int propIndex) {
+    final List<Property> properties = getEntity().getProperties();
+    if (propIndex < properties.size()) {
+      final Property p = properties.get(propIndex);
+      if (p.getName().equals(propName)) {
+        return p;
+      }
+    }
+    return getEntity().getProperty(propName);
+  }
+
   protected void checkDerivedReadable(Property p) {
     final OBContext obContext = OBContext.getOBContext();
     // obContext can be null in the OBContext initialize method
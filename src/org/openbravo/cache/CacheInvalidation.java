@@ -0,0 +1,82 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.cache;
+
+import java.util.Objects;
+
+/**
+ * An invalidation of a cache done in a cluster node, which is sent to the rest of the nodes through
+ * the {@link CacheInvalidationBus} so they can invalidate their local copy of the cache.
+ */
+public class CacheInvalidation {
+  private final String nodeId;
+  private final String cacheName;
+  private final String key;
+
+  /**
+   * Creates a new invalidation.
+   *
+   * @param nodeId
+   *          the identifier of the cluster node where the cache was invalidated
+   * @param cacheName
+   *          the name of the invalidated cache
+   * @param key
+   *          the string representation of the invalidated key, {@code null} if all the keys of the
+   *          cache were invalidated
+   */
+  public CacheInvalidation(String nodeId, String cacheName, String key) {
+    this.nodeId = Objects.requireNonNull(nodeId);
+    this.cacheName = Objects.requireNonNull(cacheName);
+    this.key = key;
+  }
+
+  /**
+   * @return the identifier of the cluster node where the cache was invalidated
+   */
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  /**
+   * @return the name of the invalidated cache
+   */
+  public String getCacheName() {
+    return cacheName;
+  }
+
+  /**
+   * @return the string representation of the invalidated key or {@code null} if all the keys of the
+   *         cache were invalidated
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * @return {@code true} if all the keys of the cache were invalidated
+   */
+  public boolean isInvalidateAll() {
+    return key == null;
+  }
+
+  @Override
+  public String toString() {
+    return cacheName + (isInvalidateAll() ? " (all keys)" : " key " + key) + " from node " + nodeId;
+  }
+}
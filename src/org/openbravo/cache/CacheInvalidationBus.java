@@ -0,0 +1,285 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Propagates the invalidations of {@link TimeInvalidatedCache}s among the nodes of a cluster.
+ *
+ * The caches built with {@link TimeInvalidatedCacheBuilder#clusterInvalidation()} are registered
+ * in the bus. When one of their keys, or all of them, are invalidated in a node, the invalidation
+ * is queued and a background thread sends it to the rest of the nodes through a
+ * {@link CacheInvalidationTransport}. The same thread periodically receives the invalidations done
+ * in other nodes and applies them to the local caches, so the caches can use long expiration times
+ * and still see the changes done in any node shortly after they happen.
+ *
+ * The bus is started by {@link CacheInvalidationClusterService} when running in a clustered
+ * environment. Until then, invalidations only affect the local caches.
+ */
+public class CacheInvalidationBus {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final CacheInvalidationBus instance = new CacheInvalidationBus();
+
+  // beyond this number of pending invalidations, they are collapsed into invalidate all
+  private static final int MAX_PENDING_INVALIDATIONS = 1_000;
+  private static final Duration RETENTION = Duration.ofMinutes(10);
+
+  private final Map<String, CacheInvalidationListener> caches = new ConcurrentHashMap<>();
+  private final Queue<CacheInvalidation> pendingInvalidations = new ConcurrentLinkedQueue<>();
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong received = new AtomicLong();
+
+  private volatile String nodeId;
+  private CacheInvalidationTransport transport;
+  private BooleanSupplier isPurgeNode;
+  private ScheduledExecutorService executorService;
+  private long nextPurge;
+
+  /**
+   * @return the bus used by the caches of this node
+   */
+  public static CacheInvalidationBus getInstance() {
+    return instance;
+  }
+
+  /**
+   * Internal API, a new bus is only created directly in tests, to simulate several nodes
+   */
+  CacheInvalidationBus() {
+  }
+
+  /**
+   * Registers a cache to receive the invalidations of the caches with the same name in other
+   * nodes.
+   */
+  void register(TimeInvalidatedCache<?, ?> cache) {
+    register(cache.getName(), new CacheInvalidationListener() {
+      @Override
+      public void invalidate(String key) {
+        cache.invalidateLocally(key);
+      }
+
+      @Override
+      public void invalidateAll() {
+        cache.invalidateAllLocally();
+      }
+    });
+  }
+
+  /**
+   * Registers a cache which is not a {@link TimeInvalidatedCache} to receive the invalidations of
+   * the caches with the same name in other nodes. The invalidations done in the current node must
+   * be sent with {@link #publish(String, String)}.
+   *
+   * @param cacheName
+   *          the name of the cache, unique among all the caches registered in the bus
+   * @param listener
+   *          applies the invalidations received from other nodes to the local cache
+   */
+  public void register(String cacheName, CacheInvalidationListener listener) {
+    if (caches.put(cacheName, listener) != null) {
+      log.warn("Cache {} was already registered in the cache invalidation bus, replacing it",
+          cacheName);
+    }
+  }
+
+  /**
+   * Stops receiving the invalidations of the given cache.
+   */
+  public void unregister(String cacheName) {
+    caches.remove(cacheName);
+  }
+
+  /**
+   * Queues an invalidation done in the current node to be sent to the rest of the nodes. It does
+   * nothing if the bus is not started.
+   *
+   * @param cacheName
+   *          the name of the invalidated cache
+   * @param key
+   *          the string representation of the invalidated key, {@code null} if all the keys were
+   *          invalidated
+   */
+  public void publish(String cacheName, String key) {
+    String currentNodeId = nodeId;
+    if (currentNodeId != null) {
+      pendingInvalidations.add(new CacheInvalidation(currentNodeId, cacheName, key));
+    }
+  }
+
+  /**
+   * Starts exchanging invalidations with the rest of the nodes.
+   *
+   * @param currentNodeId
+   *          the identifier of the current cluster node
+   * @param invalidationTransport
+   *          the transport used to send and receive the invalidations
+   * @param pollInterval
+   *          the time in milliseconds between two consecutive exchanges of invalidations
+   * @param isPurgeNode
+   *          tells whether the current node is the one in charge of purging the old invalidations
+   */
+  public synchronized void start(String currentNodeId,
+      CacheInvalidationTransport invalidationTransport, long pollInterval,
+      BooleanSupplier isPurgeNode) {
+    if (isRunning()) {
+      return;
+    }
+    transport = invalidationTransport;
+    this.isPurgeNode = isPurgeNode;
+    // set the starting point, the invalidations done before are already reflected in the caches
+    transport.receive(currentNodeId);
+    nodeId = currentNodeId;
+    executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Cache Invalidation Bus");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executorService.scheduleWithFixedDelay(this::exchangeInvalidations, pollInterval,
+        pollInterval, TimeUnit.MILLISECONDS);
+    log.info("Cache invalidation bus started in node {} using {}, polling every {} ms",
+        currentNodeId, transport.getClass().getSimpleName(), pollInterval);
+  }
+
+  /**
+   * Sends the pending invalidations and stops exchanging invalidations with the rest of the nodes.
+   */
+  public synchronized void shutdown() {
+    if (!isRunning()) {
+      return;
+    }
+    executorService.shutdownNow();
+    executorService = null;
+    sendPendingInvalidations();
+    nodeId = null;
+    log.info("Cache invalidation bus stopped. Published {}, received {} invalidations",
+        published.get(), received.get());
+  }
+
+  /**
+   * @return {@code true} if the bus is exchanging invalidations with the rest of the nodes
+   */
+  public synchronized boolean isRunning() {
+    return executorService != null;
+  }
+
+  /**
+   * Sends the invalidations done in this node, applies the ones done in other nodes and, if this
+   * node is in charge of it, purges the old invalidations.
+   */
+  synchronized void exchangeInvalidations() {
+    try {
+      sendPendingInvalidations();
+      for (CacheInvalidation invalidation : transport.receive(nodeId)) {
+        received.incrementAndGet();
+        apply(invalidation);
+      }
+      long now = System.currentTimeMillis();
+      if (now >= nextPurge && isPurgeNode.getAsBoolean()) {
+        transport.purge(RETENTION);
+        nextPurge = now + RETENTION.toMillis() / 2;
+      }
+    } catch (Exception e) {
+      // keep on running, the next exchange will retry
+      log.error("Error exchanging cache invalidations", e);
+    }
+  }
+
+  private void sendPendingInvalidations() {
+    List<CacheInvalidation> invalidations = new ArrayList<>();
+    CacheInvalidation invalidation;
+    while ((invalidation = pendingInvalidations.poll()) != null) {
+      invalidations.add(invalidation);
+    }
+    if (invalidations.isEmpty()) {
+      return;
+    }
+    if (invalidations.size() > MAX_PENDING_INVALIDATIONS) {
+      invalidations = collapse(invalidations);
+    }
+    try {
+      transport.publish(invalidations);
+      published.addAndGet(invalidations.size());
+    } catch (RuntimeException e) {
+      // do not lose them, they are sent again in the next exchange
+      pendingInvalidations.addAll(invalidations);
+      throw e;
+    }
+  }
+
+  private List<CacheInvalidation> collapse(List<CacheInvalidation> invalidations) {
+    Set<String> cacheNames = new LinkedHashSet<>();
+    for (CacheInvalidation invalidation : invalidations) {
+      cacheNames.add(invalidation.getCacheName());
+    }
+    log.debug("Collapsing {} pending invalidations into invalidate all of caches {}",
+        invalidations.size(), cacheNames);
+    List<CacheInvalidation> collapsed = new ArrayList<>(cacheNames.size());
+    for (String cacheName : cacheNames) {
+      collapsed.add(new CacheInvalidation(nodeId, cacheName, null));
+    }
+    return collapsed;
+  }
+
+  private void apply(CacheInvalidation invalidation) {
+    CacheInvalidationListener cache = caches.get(invalidation.getCacheName());
+    if (cache == null) {
+      log.trace("Ignoring invalidation of cache {} not used in this node", invalidation);
+      return;
+    }
+    log.debug("Applying invalidation {}", invalidation);
+    if (invalidation.isInvalidateAll()) {
+      cache.invalidateAll();
+    } else {
+      cache.invalidate(invalidation.getKey());
+    }
+  }
+
+  /**
+   * @return the number of invalidations sent to other nodes
+   */
+  public long getPublishedCount() {
+    return published.get();
+  }
+
+  /**
+   * @return the number of invalidations received from other nodes
+   */
+  public long getReceivedCount() {
+    return received.get();
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.cache;
+
+import java.nio.file.Paths;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.cluster.ClusterService;
+
+/**
+ * Starts the {@link CacheInvalidationBus} of the current node when working in a clustered
+ * environment. The node in charge of this service purges the old invalidations.
+ *
+ * The bus is configured with the following properties of Openbravo.properties:
+ * <ul>
+ * <li>cache.invalidation.disabled: if true, the invalidations are not propagated among the
+ * nodes.</li>
+ * <li>cache.invalidation.transport: database (default) to exchange the invalidations through the
+ * AD_CACHE_INVALIDATION table or file to exchange them through a shared directory.</li>
+ * <li>cache.invalidation.directory: the shared directory used by the file transport.</li>
+ * <li>cache.invalidation.pollInterval: milliseconds between two consecutive exchanges of
+ * invalidations, 2000 by default.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class CacheInvalidationClusterService extends ClusterService {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final String DISABLED_PROPERTY = "cache.invalidation.disabled";
+  private static final String TRANSPORT_PROPERTY = "cache.invalidation.transport";
+  private static final String DIRECTORY_PROPERTY = "cache.invalidation.directory";
+  private static final String POLL_INTERVAL_PROPERTY = "cache.invalidation.pollInterval";
+  private static final long DEFAULT_POLL_INTERVAL = 2_000L;
+
+  @Override
+  protected boolean init(String currentNodeId, String currentNodeName) {
+    if (!super.init(currentNodeId, currentNodeName)) {
+      return false;
+    }
+    CacheInvalidationBus.getInstance()
+        .start(currentNodeId, createTransport(), getPollInterval(), this::isHandledInCurrentNode);
+    return true;
+  }
+
+  private CacheInvalidationTransport createTransport() {
+    String transport = OBPropertiesProvider.getInstance()
+        .getOpenbravoProperties()
+        .getProperty(TRANSPORT_PROPERTY, "database");
+    if ("file".equalsIgnoreCase(transport.trim())) {
+      String directory = OBPropertiesProvider.getInstance()
+          .getOpenbravoProperties()
+          .getProperty(DIRECTORY_PROPERTY);
+      if (StringUtils.isNotBlank(directory)) {
+        return new FileCacheInvalidationTransport(Paths.get(directory.trim()));
+      }
+      log.warn("Property {} is not set, using the database to exchange cache invalidations",
+          DIRECTORY_PROPERTY);
+    }
+    return new DatabaseCacheInvalidationTransport();
+  }
+
+  private long getPollInterval() {
+    return Math.max(1L, OBPropertiesProvider.getInstance()
+        .getLongProperty(POLL_INTERVAL_PROPERTY, DEFAULT_POLL_INTERVAL));
+  }
+
+  @Override
+  protected void prepareForShutdown() {
+    CacheInvalidationBus.getInstance().shutdown();
+  }
+
+  @Override
+  protected String getServiceName() {
+    return "CACHE_INVALIDATION";
+  }
+
+  @Override
+  protected boolean isAlive() {
+    return CacheInvalidationBus.getInstance().isRunning();
+  }
+
+  @Override
+  protected boolean isEnabled() {
+    return !OBPropertiesProvider.getInstance().getBooleanProperty(DISABLED_PROPERTY);
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.cache;
+
+/**
+ * Receives the invalidations done in other cluster nodes of a cache which is not a
+ * {@link TimeInvalidatedCache}.
+ *
+ * @see CacheInvalidationBus#register(String, CacheInvalidationListener)
+ */
+public interface CacheInvalidationListener {
+
+  /**
+   * Invalidates the keys whose string representation is the given one in the local cache.
+   */
+  void invalidate(String key);
+
+  /**
+   * Invalidates all the keys of the local cache.
+   */
+  void invalidateAll();
+}
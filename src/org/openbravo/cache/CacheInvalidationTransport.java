@@ -0,0 +1,63 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The channel used by the {@link CacheInvalidationBus} to exchange {@link CacheInvalidation}s
+ * between the nodes of a cluster.
+ *
+ * Implementations are only invoked from the thread of the bus, so they do not need to be thread
+ * safe.
+ *
+ * @see DatabaseCacheInvalidationTransport
+ * @see FileCacheInvalidationTransport
+ */
+public interface CacheInvalidationTransport {
+
+  /**
+   * Sends the given invalidations to the rest of the nodes.
+   *
+   * @param invalidations
+   *          the invalidations done in the current node since the last call
+   */
+  void publish(List<CacheInvalidation> invalidations);
+
+  /**
+   * Returns the invalidations published by other nodes that have not been returned by a previous
+   * invocation of this method. The invalidations published before the first invocation are not
+   * returned, as the caches of the current node were loaded after them.
+   *
+   * @param currentNodeId
+   *          the identifier of the current node, the invalidations published by it are ignored
+   * @return the new invalidations published by other nodes
+   */
+  List<CacheInvalidation> receive(String currentNodeId);
+
+  /**
+   * Removes the invalidations published more than the given time ago. It is invoked periodically
+   * by a single node of the cluster.
+   *
+   * @param retention
+   *          how long the invalidations are kept
+   */
+  void purge(Duration retention);
+}
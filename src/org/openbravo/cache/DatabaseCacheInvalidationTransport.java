@@ -0,0 +1,159 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.hibernate.Session;
+import org.openbravo.dal.service.OBDal;
+
+/**
+ * A {@link CacheInvalidationTransport} that keeps the invalidations in the AD_CACHE_INVALIDATION
+ * table, which is polled by all the nodes of the cluster. This is the transport used by default in
+ * clustered environments.
+ *
+ * The creation time of the invalidations is set by the database, so the clocks of the nodes do not
+ * need to be synchronized.
+ */
+public class DatabaseCacheInvalidationTransport implements CacheInvalidationTransport {
+  // an invalidation can be committed after others created later, so each query overlaps with the
+  // previous one to not miss it
+  private static final long OVERLAP_MS = 10_000L;
+
+  private Date lastCreated;
+  private final Map<String, Date> received = new HashMap<>();
+
+  @Override
+  public void publish(List<CacheInvalidation> invalidations) {
+    //@formatter:off
+    String insertKey =
+            "insert into ad_cache_invalidation" +
+            "  (ad_cache_invalidation_id, ad_client_id, ad_org_id, isactive, created, createdby," +
+            "   updated, updatedby, node_id, cache_name, cache_key)" +
+            " values (get_uuid(), '0', '0', 'Y', now(), '0', now(), '0', :nodeId, :cacheName," +
+            "   :cacheKey)";
+    String insertAll =
+            "insert into ad_cache_invalidation" +
+            "  (ad_cache_invalidation_id, ad_client_id, ad_org_id, isactive, created, createdby," +
+            "   updated, updatedby, node_id, cache_name)" +
+            " values (get_uuid(), '0', '0', 'Y', now(), '0', now(), '0', :nodeId, :cacheName)";
+    //@formatter:on
+    executeInTransaction(() -> {
+      Session session = OBDal.getInstance().getSession();
+      for (CacheInvalidation invalidation : invalidations) {
+        if (invalidation.isInvalidateAll()) {
+          session.createNativeQuery(insertAll)
+              .setParameter("nodeId", invalidation.getNodeId())
+              .setParameter("cacheName", invalidation.getCacheName())
+              .executeUpdate();
+        } else {
+          session.createNativeQuery(insertKey)
+              .setParameter("nodeId", invalidation.getNodeId())
+              .setParameter("cacheName", invalidation.getCacheName())
+              .setParameter("cacheKey", invalidation.getKey())
+              .executeUpdate();
+        }
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public List<CacheInvalidation> receive(String currentNodeId) {
+    return executeInTransaction(() -> {
+      boolean firstRead = lastCreated == null;
+      if (firstRead) {
+        lastCreated = getLastCreated();
+      }
+      Date since = new Date(lastCreated.getTime() - OVERLAP_MS);
+      received.values().removeIf(created -> created.before(since));
+
+      //@formatter:off
+      String sql =
+              "select ad_cache_invalidation_id, node_id, cache_name, cache_key, created" +
+              "  from ad_cache_invalidation" +
+              " where created >= :since" +
+              " order by created";
+      //@formatter:on
+      @SuppressWarnings("unchecked")
+      List<Object[]> rows = OBDal.getInstance()
+          .getSession()
+          .createNativeQuery(sql)
+          .setParameter("since", since)
+          .list();
+
+      List<CacheInvalidation> invalidations = new ArrayList<>();
+      for (Object[] row : rows) {
+        String id = (String) row[0];
+        Date created = (Date) row[4];
+        if (created.after(lastCreated)) {
+          lastCreated = created;
+        }
+        if (received.putIfAbsent(id, created) != null || firstRead
+            || currentNodeId.equals(row[1])) {
+          continue;
+        }
+        invalidations.add(new CacheInvalidation((String) row[1], (String) row[2], (String) row[3]));
+      }
+      return invalidations;
+    });
+  }
+
+  private Date getLastCreated() {
+    Object maxCreated = OBDal.getInstance()
+        .getSession()
+        .createNativeQuery("select max(created) from ad_cache_invalidation")
+        .uniqueResult();
+    return maxCreated != null ? (Date) maxCreated : new Date(0);
+  }
+
+  @Override
+  public void purge(Duration retention) {
+    if (lastCreated == null) {
+      return;
+    }
+    Date limit = new Date(lastCreated.getTime() - retention.toMillis());
+    executeInTransaction(() -> OBDal.getInstance()
+        .getSession()
+        .createNativeQuery("delete from ad_cache_invalidation where created < :limit")
+        .setParameter("limit", limit)
+        .executeUpdate());
+  }
+
+  private <T> T executeInTransaction(Supplier<T> action) {
+    boolean success = false;
+    try {
+      T result = action.get();
+      success = true;
+      return result;
+    } finally {
+      if (success) {
+        OBDal.getInstance().commitAndClose();
+      } else {
+        OBDal.getInstance().rollbackAndClose();
+      }
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.exception.OBException;
+
+/**
+ * A {@link CacheInvalidationTransport} that writes each invalidation as a file in a directory
+ * shared by all the nodes. It is intended for tests and for installations with several nodes in
+ * the same host, where no database round trips are desired.
+ */
+public class FileCacheInvalidationTransport implements CacheInvalidationTransport {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final String EXTENSION = ".inv";
+  private static final String CACHE_NAME = "cacheName";
+  private static final String KEY = "key";
+
+  private final Path directory;
+  private Set<String> received;
+
+  /**
+   * Creates a new transport that exchanges the invalidations through the given directory, which is
+   * created if it does not exist.
+   *
+   * @param directory
+   *          the directory shared by all the nodes
+   */
+  public FileCacheInvalidationTransport(Path directory) {
+    this.directory = directory;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new OBException("Could not create cache invalidation directory " + directory, e);
+    }
+  }
+
+  @Override
+  public void publish(List<CacheInvalidation> invalidations) {
+    for (CacheInvalidation invalidation : invalidations) {
+      Properties content = new Properties();
+      content.setProperty(CACHE_NAME, invalidation.getCacheName());
+      if (!invalidation.isInvalidateAll()) {
+        content.setProperty(KEY, invalidation.getKey());
+      }
+      String fileName = System.currentTimeMillis() + "-" + invalidation.getNodeId() + "-"
+          + UUID.randomUUID();
+      Path tmpFile = directory.resolve(fileName + ".tmp");
+      try {
+        try (OutputStream out = Files.newOutputStream(tmpFile)) {
+          content.store(out, null);
+        }
+        // move the complete file so the other nodes never read it partially written
+        Files.move(tmpFile, directory.resolve(fileName + EXTENSION),
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        throw new OBException("Could not publish cache invalidation " + invalidation, e);
+      }
+    }
+  }
+
+  @Override
+  public List<CacheInvalidation> receive(String currentNodeId) {
+    boolean firstRead = received == null;
+    Set<String> existingFiles = new HashSet<>();
+    List<CacheInvalidation> invalidations = new ArrayList<>();
+    for (Path file : listInvalidationFiles()) {
+      String fileName = file.getFileName().toString();
+      existingFiles.add(fileName);
+      if (firstRead || received.contains(fileName)) {
+        continue;
+      }
+      // file names are <time>-<node id>-<uuid>, node ids are UUIDs without dashes
+      String nodeId = fileName.split("-")[1];
+      if (currentNodeId.equals(nodeId)) {
+        continue;
+      }
+      Properties content = new Properties();
+      try (InputStream in = Files.newInputStream(file)) {
+        content.load(in);
+      } catch (IOException e) {
+        // purged by another node in the meantime
+        log.debug("Could not read cache invalidation file {}", file, e);
+        continue;
+      }
+      invalidations.add(
+          new CacheInvalidation(nodeId, content.getProperty(CACHE_NAME), content.getProperty(KEY)));
+    }
+    // forget the files already purged
+    received = existingFiles;
+    return invalidations;
+  }
+
+  @Override
+  public void purge(Duration retention) {
+    long limit = System.currentTimeMillis() - retention.toMillis();
+    for (Path file : listInvalidationFiles()) {
+      try {
+        if (Files.getLastModifiedTime(file).toMillis() < limit) {
+          Files.deleteIfExists(file);
+        }
+      } catch (IOException e) {
+        log.debug("Could not purge cache invalidation file {}", file, e);
+      }
+    }
+  }
+
+  private List<Path> listInvalidationFiles() {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+      stream.forEach(files::add);
+    } catch (IOException e) {
+      throw new OBException("Could not read cache invalidation directory " + directory, e);
+    }
+    return files;
+  }
+}
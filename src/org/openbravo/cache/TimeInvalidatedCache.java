@@ -50,6 +50,7 @@ public class TimeInvalidatedCache<K, V> {
 
   private LoadingCache<K, V> cache;
   private String name;
+  private CacheInvalidationBus invalidationBus;
 
   /**
    * Creates a new instance of {@link TimeInvalidatedCacheBuilder}, class contains instructions on
@@ -69,8 +70,21 @@ public class TimeInvalidatedCache<K, V> {
    * @see #newBuilder()
    */
   TimeInvalidatedCache(String name, LoadingCache<K, V> cache) {
+    this(name, cache, null);
+  }
+
+  /**
+   * Initialize through builder {@link TimeInvalidatedCacheBuilder}
+   * 
+   * Internal API
+   * 
+   * @see #newBuilder()
+   */
+  TimeInvalidatedCache(String name, LoadingCache<K, V> cache,
+      CacheInvalidationBus invalidationBus) {
     this.name = name;
     this.cache = cache;
+    this.invalidationBus = invalidationBus;
   }
 
   /**
@@ -158,19 +172,45 @@ public class TimeInvalidatedCache<K, V> {
   }
 
   /**
-   * Invalidates given key in the cache
+   * Invalidates given key in the cache. If the cache was built with cluster invalidation, the key
+   * is also invalidated in the rest of the cluster nodes.
    */
   public void invalidate(K key) {
     cache.invalidate(key);
     logger.trace("{} key in cache {} has been invalidated.", key, name);
+    if (invalidationBus != null) {
+      invalidationBus.publish(name, String.valueOf(key));
+    }
   }
 
   /**
-   * Invalidates all the keys in the cache
+   * Invalidates all the keys in the cache. If the cache was built with cluster invalidation, the
+   * keys are also invalidated in the rest of the cluster nodes.
    */
   public void invalidateAll() {
     cache.invalidateAll();
     logger.trace("Cache {} has been invalidated(all keys).", name);
+    if (invalidationBus != null) {
+      invalidationBus.publish(name, null);
+    }
+  }
+
+  /**
+   * Invalidates the keys whose string representation is the given one, without notifying the rest
+   * of the cluster nodes. Used to apply the invalidations received from other nodes.
+   */
+  void invalidateLocally(String key) {
+    cache.asMap().keySet().removeIf(k -> key.equals(String.valueOf(k)));
+    logger.trace("{} key in cache {} has been invalidated by another node.", key, name);
+  }
+
+  /**
+   * Invalidates all the keys in the cache, without notifying the rest of the cluster nodes. Used to
+   * apply the invalidations received from other nodes.
+   */
+  void invalidateAllLocally() {
+    cache.invalidateAll();
+    logger.trace("Cache {} has been invalidated(all keys) by another node.", name);
   }
 
   /**
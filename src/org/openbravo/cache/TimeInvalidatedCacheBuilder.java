@@ -60,6 +60,7 @@ public class TimeInvalidatedCacheBuilder<K, V> {
   private Ticker ticker;
   private String name;
   private BiConsumer<Map.Entry<K, V>, String> removalListener;
+  private CacheInvalidationBus invalidationBus;
 
   /**
    * Instantiate through {@link TimeInvalidatedCache#newBuilder()} method
@@ -114,7 +115,10 @@ public class TimeInvalidatedCacheBuilder<K, V> {
     };
 
     TimeInvalidatedCache<K1, V1> cache = new TimeInvalidatedCache<>(name,
-        cacheBuilder.build(cacheLoader));
+        cacheBuilder.build(cacheLoader), invalidationBus);
+    if (invalidationBus != null) {
+      invalidationBus.register(cache);
+    }
     logger.trace("Cache {} has been built with expireDuration {} ms.", name,
         expireDuration.toMillis());
     return cache;
@@ -170,4 +174,31 @@ public class TimeInvalidatedCacheBuilder<K, V> {
     this.removalListener = listener;
     return this;
   }
+
+  /**
+   * Propagates the invalidations of the cache to the rest of the nodes when running in a clustered
+   * environment, and applies the invalidations done in other nodes to this cache. This allows to
+   * use long expiration durations for data that is explicitly invalidated when it changes.
+   * 
+   * The name of the cache identifies it across the nodes, so it must be unique. Keys are
+   * identified by their string representation.
+   *
+   * @return this object
+   * @see CacheInvalidationBus
+   */
+  public TimeInvalidatedCacheBuilder<K, V> clusterInvalidation() {
+    return invalidationBus(CacheInvalidationBus.getInstance());
+  }
+
+  /**
+   * Internal API, used only for testing
+   *
+   * @param bus
+   *          Bus to be used instead of the one of the current node
+   * @return this object
+   */
+  TimeInvalidatedCacheBuilder<K, V> invalidationBus(CacheInvalidationBus bus) {
+    this.invalidationBus = bus;
+    return this;
+  }
 }
@@ -359,6 +359,13 @@ public abstract class ClusterService {
     disableAfterProcess = false;
   }
 
+  /**
+   * Executes the actions that should be done when the current cluster node is shutting down. By
+   * default it does nothing.
+   */
+  protected void prepareForShutdown() {
+  }
+
   /**
    * @return a {@code String} that uniquely identifies the service.
    */
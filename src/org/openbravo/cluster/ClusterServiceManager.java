@@ -125,6 +125,11 @@ public class ClusterServiceManager {
     if (!isCluster() || executorService == null) {
       return;
     }
+    for (ClusterService service : getClusterServices()) {
+      if (service.isInitialized()) {
+        service.prepareForShutdown();
+      }
+    }
     deregisterServicesForCurrentNode();
     isShutDown = true;
     log.info("Shutting down Cluster Service Manager");
@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2012-2019 Openbravo SLU
+ * All portions are Copyright (C) 2012-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  *************************************************************************
@@ -20,7 +20,9 @@ package org.openbravo.costing;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.servlet.ServletException;
 
@@ -29,6 +31,7 @@ import org.apache.logging.log4j.Logger;
 import org.hibernate.query.Query;
 import org.openbravo.base.exception.OBException;
 import org.openbravo.base.provider.OBProvider;
+import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.dal.core.OBContext;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.dal.service.OBQuery;
@@ -57,8 +60,9 @@ public class CostingBackground extends DalBaseProcess implements KillableProcess
   public static final String AD_PROCESS_ID = "3F2B4AAC707B4CE7B98D2005CF7310B5";
   private ProcessLogger logger;
   public static final String TRANSACTION_COST_DATEACCT_INITIALIZED = "TransactionCostDateacctInitialized";
-  private boolean killProcess = false;
+  private volatile boolean killProcess = false;
   private final int BATCH_SIZE = 10000;
+  private static final int DEFAULT_PARALLEL_THREADS = 1;
 
   @Override
   protected void doExecute(ProcessBundle bundle) throws Exception {
@@ -106,6 +110,17 @@ public class CostingBackground extends DalBaseProcess implements KillableProcess
       // Fix the Not Processed flag for those Transactions with Cost Not Calculated
       setNotProcessedWhenNotCalculatedTransactions(orgsWithRule);
 
+      int threads = OBPropertiesProvider.getInstance()
+          .getIntProperty("costing.parallel.threads", DEFAULT_PARALLEL_THREADS);
+      if (threads > 1) {
+        // the workers update the same transactions using their own connections
+        OBDal.getInstance().getConnection(true).commit();
+        processInParallel(bundle, orgsWithRule, threads);
+        logger.logln(OBMessageUtils.messageBD("Success"));
+        bundle.setResult(result);
+        return;
+      }
+
       int batch = 0;
       int counter = 0;
       int counterBatch;
@@ -185,6 +200,32 @@ public class CostingBackground extends DalBaseProcess implements KillableProcess
     }
   }
 
+  /**
+   * Calculates the cost of the pending transactions with a {@link ParallelCostingProcessor}. The
+   * transactions are read in batches in the same order as in the sequential process and each batch
+   * is completed before reading the next one.
+   */
+  private void processInParallel(ProcessBundle bundle, List<String> orgsWithRule, int threads)
+      throws Exception {
+    log4j.debug("Calculating costs using " + threads + " threads");
+    ParallelCostingProcessor processor = new ParallelCostingProcessor(threads, logger,
+        bundle.getContext().toVars(), () -> killProcess);
+    try {
+      int batch = 0;
+      List<Object[]> trxs = getPartitionedTransactionsBatch(orgsWithRule);
+      while (!trxs.isEmpty()) {
+        if (killProcess) {
+          throw new OBException("Process killed");
+        }
+        batch++;
+        processor.processBatch(batch, trxs, getSharedProducts(orgsWithRule));
+        trxs = getPartitionedTransactionsBatch(orgsWithRule);
+      }
+    } finally {
+      processor.shutdown();
+    }
+  }
+
   /**
    * Get Transactions with Processed flag = 'Y' and it's cost is Not Calculated and set Processed
    * flag = 'N'
@@ -234,6 +275,70 @@ public class CostingBackground extends DalBaseProcess implements KillableProcess
     return trxQry.list();
   }
 
+  /**
+   * Returns the same transactions as {@link #getTransactionsBatch(List)} along with their product
+   * id and search key, used to partition them.
+   */
+  private List<Object[]> getPartitionedTransactionsBatch(List<String> orgsWithRule) {
+    //@formatter:off
+    final String where = " select trx.id as id, p.id as productId, p.searchKey as productKey"
+        + " from MaterialMgmtMaterialTransaction as trx"
+        + "   join trx.product as p,"
+        + "   ADList as trxtype"
+        + " where trx.isProcessed = false"
+        + "   and trx.costingStatus <> 'S'"
+        + "   and p.productType = 'I'"
+        + "   and p.stocked = true"
+        + "   and trxtype.reference.id = :refid"
+        + "   and trxtype.searchKey = trx.movementType"
+        + "   and trx.transactionProcessDate <= :now"
+        + "   and trx.organization.id in (:orgs)"
+        + " order by trx.transactionProcessDate, trxtype.sequenceNumber, "
+        + " trx.movementQuantity desc, trx.id";
+
+    //@formatter:on
+    Query<Object[]> trxQry = OBDal.getInstance().getSession().createQuery(where, Object[].class);
+
+    trxQry.setParameter("refid", CostAdjustmentUtils.MovementTypeRefID);
+    trxQry.setParameter("now", new Date());
+    trxQry.setParameterList("orgs", orgsWithRule);
+    trxQry.setMaxResults(BATCH_SIZE);
+    return trxQry.list();
+  }
+
+  /**
+   * Returns the products with pending transactions whose cost can depend on the cost of other
+   * products: the ones used in productions, as the cost of the produced products is based on their
+   * cost and their adjustments are propagated to them, and the ones received in goods receipts with
+   * landed costs pending to be processed, as the landed cost is distributed among all of them.
+   */
+  private Set<String> getSharedProducts(List<String> orgsWithRule) {
+    //@formatter:off
+    final String hql = " select distinct p.id"
+        + " from MaterialMgmtMaterialTransaction as trx"
+        + "   join trx.product as p"
+        + "   left join trx.goodsShipmentLine as iol"
+        + " where trx.isProcessed = false"
+        + "   and trx.costingStatus <> 'S'"
+        + "   and p.productType = 'I'"
+        + "   and p.stocked = true"
+        + "   and trx.transactionProcessDate <= :now"
+        + "   and trx.organization.id in (:orgs)"
+        + "   and (exists ("
+        + "       select 1 from ManufacturingProductionLine as pl"
+        + "       where pl.product.id = p.id)"
+        + "     or exists ("
+        + "       select 1 from LandedCostCost as lcc"
+        + "       where lcc.landedCost is null"
+        + "         and lcc.goodsShipment.id = iol.shipmentReceipt.id))";
+
+    //@formatter:on
+    Query<String> productQry = OBDal.getInstance().getSession().createQuery(hql, String.class);
+    productQry.setParameter("now", new Date());
+    productQry.setParameterList("orgs", orgsWithRule);
+    return new HashSet<>(productQry.list());
+  }
+
   private int getTransactionsBatchCount(List<String> orgsWithRule) {
     //@formatter:off
     final String where = " select count(trx.id) "
@@ -0,0 +1,220 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.costing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.exception.OBException;
+import org.openbravo.base.secureApp.VariablesSecureApp;
+import org.openbravo.client.kernel.RequestContext;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.database.SessionInfo;
+import org.openbravo.model.materialmgmt.transaction.MaterialTransaction;
+import org.openbravo.scheduling.ProcessLogger;
+import org.openbravo.service.importprocess.ImportEntryManager.DaemonThreadFactory;
+
+/**
+ * Calculates the cost of the pending transactions of the {@link CostingBackground} process using a
+ * pool of threads.
+ *
+ * The cost of a transaction only depends on the previous transactions of the same product, so each
+ * batch of transactions is split in partitions, one per product, which are processed in parallel
+ * keeping the order of the transactions within each partition. The products whose cost depends on
+ * other products, because they take part in productions or in receipts with landed costs pending
+ * to be processed, are placed together in a single shared partition keeping the order of the batch.
+ *
+ * As in the sequential process, each transaction is committed once its cost is calculated. When a
+ * partition fails or the process is killed, the rest of partitions stop after their current
+ * transaction.
+ */
+class ParallelCostingProcessor {
+  private static final Logger log = LogManager.getLogger();
+  private static final String SHARED_PARTITION = "Shared";
+  private static final int LOGGED_PARTITIONS = 5;
+
+  private final ExecutorService executor;
+  private final ProcessLogger logger;
+  private final BooleanSupplier killed;
+  private final OBContext obContext;
+  private final VariablesSecureApp vars;
+  private volatile boolean aborted;
+
+  ParallelCostingProcessor(int threads, ProcessLogger logger, VariablesSecureApp vars,
+      BooleanSupplier killed) {
+    this.executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("Costing"));
+    this.logger = logger;
+    this.killed = killed;
+    this.obContext = OBContext.getOBContext();
+    this.vars = vars;
+  }
+
+  /**
+   * Calculates the cost of a batch of transactions, returning once all of them are processed.
+   *
+   * @param batch
+   *          the number of the batch, used in the process log
+   * @param transactions
+   *          the id, the product id and the product search key of the transactions, in the order
+   *          they must be processed
+   * @param sharedProducts
+   *          the ids of the products whose transactions must be processed in the shared partition
+   */
+  void processBatch(int batch, List<Object[]> transactions, Set<String> sharedProducts) {
+    long t1 = System.currentTimeMillis();
+    Map<String, Partition> partitions = new LinkedHashMap<>();
+    for (Object[] transaction : transactions) {
+      String productId = (String) transaction[1];
+      String key = sharedProducts.contains(productId) ? SHARED_PARTITION : productId;
+      partitions
+          .computeIfAbsent(key,
+              k -> new Partition(SHARED_PARTITION.equals(k) ? k : (String) transaction[2]))
+          .add((String) transaction[0]);
+    }
+
+    // the largest partitions are started first to better balance the threads
+    List<Partition> pending = new ArrayList<>(partitions.values());
+    pending.sort(Comparator.comparingInt(Partition::size).reversed());
+    List<Future<Partition>> results = new ArrayList<>(pending.size());
+    for (Partition partition : pending) {
+      results.add(executor.submit(() -> process(partition)));
+    }
+
+    Throwable error = null;
+    for (Future<Partition> result : results) {
+      try {
+        result.get();
+      } catch (ExecutionException e) {
+        aborted = true;
+        if (error == null) {
+          error = e.getCause();
+        }
+      } catch (InterruptedException e) {
+        aborted = true;
+        Thread.currentThread().interrupt();
+        throw new OBException("Process killed");
+      }
+    }
+    if (error instanceof RuntimeException) {
+      throw (RuntimeException) error;
+    } else if (error != null) {
+      throw new OBException(error.getMessage(), error);
+    }
+
+    long elapsed = Math.max(System.currentTimeMillis() - t1, 1);
+    logger.logln("Batch " + batch + ": " + transactions.size() + " transactions in "
+        + partitions.size() + " partitions took " + elapsed + " ms ("
+        + getThroughput(transactions.size(), elapsed) + " transactions/s)");
+    pending.sort(Comparator.comparingLong(Partition::getElapsed).reversed());
+    for (Partition partition : pending.subList(0, Math.min(LOGGED_PARTITIONS, pending.size()))) {
+      logger.logln("  " + partition);
+    }
+  }
+
+  private Partition process(Partition partition) throws Exception {
+    long t1 = System.currentTimeMillis();
+    OBContext.setOBContext(obContext);
+    RequestContext.get().setVariableSecureApp(vars);
+    SessionInfo.setUserId(obContext.getUser().getId());
+    SessionInfo.setProcessType("P");
+    SessionInfo.setProcessId(CostingBackground.AD_PROCESS_ID);
+    OBContext.setAdminMode(false);
+    try {
+      for (String trxId : partition.transactions) {
+        if (killed.getAsBoolean()) {
+          throw new OBException("Process killed");
+        }
+        if (aborted) {
+          break;
+        }
+        MaterialTransaction transaction = OBDal.getInstance()
+            .get(MaterialTransaction.class, trxId);
+        CostingServer transactionCost = new CostingServer(transaction);
+        transactionCost.process();
+        OBDal.getInstance().getSession().clear();
+        OBDal.getInstance().getConnection(true).commit();
+        partition.processed++;
+      }
+      OBDal.getInstance().commitAndClose();
+      partition.elapsed = System.currentTimeMillis() - t1;
+      log.debug("Costing {}", partition);
+      return partition;
+    } catch (Exception e) {
+      aborted = true;
+      OBDal.getInstance().rollbackAndClose();
+      throw e;
+    } finally {
+      OBContext.restorePreviousMode();
+      OBContext.setOBContext((OBContext) null);
+      RequestContext.clear();
+      SessionInfo.init();
+    }
+  }
+
+  /** Stops the threads of the pool. */
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static long getThroughput(int transactions, long elapsed) {
+    return transactions * 1000L / Math.max(elapsed, 1);
+  }
+
+  private static class Partition {
+    private final String name;
+    private final List<String> transactions = new ArrayList<>();
+    private volatile int processed;
+    private volatile long elapsed;
+
+    private Partition(String name) {
+      this.name = name;
+    }
+
+    private void add(String transactionId) {
+      transactions.add(transactionId);
+    }
+
+    private int size() {
+      return transactions.size();
+    }
+
+    private long getElapsed() {
+      return elapsed;
+    }
+
+    @Override
+    public String toString() {
+      return "Partition " + name + ": " + processed + "/" + transactions.size()
+          + " transactions took " + elapsed + " ms ("
+          + getThroughput(processed, Math.max(elapsed, 1)) + " transactions/s)";
+    }
+  }
+}
@@ -45,7 +45,8 @@ import org.openbravo.model.materialmgmt.transaction.ShipmentInOutLine;
 import org.openbravo.model.procurement.ReceiptInvoiceMatch;
 
 public class PriceDifferenceProcess {
-  private static CostAdjustment costAdjHeader = null;
+  // kept per thread, as the costs of several transactions can be calculated in parallel
+  private static ThreadLocal<CostAdjustment> costAdjHeader = new ThreadLocal<>();
 
   private static boolean calculateTransactionPriceDifferenceLogic(Organization legalOrganization,
       MaterialTransaction materialTransaction) throws OBException {
@@ -142,7 +143,7 @@ public class PriceDifferenceProcess {
           .subtract(currentTrxCost);
 
       final CostAdjustmentLineParameters lineParameters = new CostAdjustmentLineParameters(
-          materialTransaction, trxCostDifference, costAdjHeader);
+          materialTransaction, trxCostDifference, costAdjHeader.get());
       lineParameters.setSource(true);
       CostAdjustmentUtils.insertCostAdjustmentLine(lineParameters, costAdjDateAcct);
       costAdjCreated = true;
@@ -167,20 +168,30 @@ public class PriceDifferenceProcess {
 
   public static JSONObject processPriceDifferenceTransaction(
       MaterialTransaction materialTransaction) throws OBException {
-    costAdjHeader = null;
+    try {
+      return doProcessPriceDifferenceTransaction(materialTransaction);
+    } finally {
+      // the threads calculating costs are pooled
+      costAdjHeader.remove();
+    }
+  }
+
+  private static JSONObject doProcessPriceDifferenceTransaction(
+      MaterialTransaction materialTransaction) throws OBException {
+    costAdjHeader.remove();
 
     Organization organizationForCostAdjustmentHeader = new OrganizationStructureProvider()
         .getLegalEntity(materialTransaction.getOrganization());
     calculateTransactionPriceDifference(organizationForCostAdjustmentHeader, materialTransaction);
 
-    if (costAdjHeader != null) {
+    if (costAdjHeader.get() != null) {
       OBDal.getInstance().flush();
-      JSONObject message = CostAdjustmentProcess.doProcessCostAdjustment(costAdjHeader);
+      JSONObject message = CostAdjustmentProcess.doProcessCostAdjustment(costAdjHeader.get());
       try {
-        message.put("documentNo", costAdjHeader.getDocumentNo());
+        message.put("documentNo", costAdjHeader.get().getDocumentNo());
         if (message.get("severity") != "success") {
           throw new OBException(OBMessageUtils.parseTranslation("@ErrorProcessingCostAdj@") + ": "
-              + costAdjHeader.getDocumentNo() + " - " + message.getString("text"));
+              + costAdjHeader.get().getDocumentNo() + " - " + message.getString("text"));
         }
       } catch (JSONException e) {
         throw new OBException(OBMessageUtils.parseTranslation("@ErrorProcessingCostAdj@"));
@@ -233,9 +244,18 @@ public class PriceDifferenceProcess {
    */
   public static JSONObject processPriceDifference(Date date, Product product,
       Organization legalOrganization) throws OBException {
+    try {
+      return doProcessPriceDifference(date, product, legalOrganization);
+    } finally {
+      costAdjHeader.remove();
+    }
+  }
+
+  private static JSONObject doProcessPriceDifference(Date date, Product product,
+      Organization legalOrganization) throws OBException {
 
     JSONObject message = null;
-    costAdjHeader = null;
+    costAdjHeader.remove();
     boolean costAdjCreated = false;
     int count = 0;
     OBCriteria<MaterialTransaction> mTrxs = OBDal.getInstance()
@@ -275,13 +295,13 @@ public class PriceDifferenceProcess {
       lines.close();
     }
 
-    if (costAdjHeader != null) {
+    if (costAdjHeader.get() != null) {
       OBDal.getInstance().flush();
-      message = CostAdjustmentProcess.doProcessCostAdjustment(costAdjHeader);
+      message = CostAdjustmentProcess.doProcessCostAdjustment(costAdjHeader.get());
       try {
         if (!StringUtils.equalsIgnoreCase("success", (String) message.get("severity"))) {
           throw new OBException(OBMessageUtils.parseTranslation("@ErrorProcessingCostAdj@") + ": "
-              + costAdjHeader.getDocumentNo() + " - " + message.getString("text"));
+              + costAdjHeader.get().getDocumentNo() + " - " + message.getString("text"));
         } else {
           message.put("transactionsProcessed", count);
         }
@@ -300,8 +320,8 @@ public class PriceDifferenceProcess {
   }
 
   private static void createCostAdjustmenHeader(Organization org) {
-    if (costAdjHeader == null) {
-      costAdjHeader = CostAdjustmentUtils.insertCostAdjustmentHeader(org, "PDC");
+    if (costAdjHeader.get() == null) {
+      costAdjHeader.set(CostAdjustmentUtils.insertCostAdjustmentHeader(org, "PDC"));
       // PDC: Price Dif Correction
     }
   }
@@ -0,0 +1,235 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.dal.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.cache.CacheInvalidationBus;
+import org.openbravo.jmx.MBeanRegistry;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Configuration and statistics of the Hibernate second-level cache of the reference data: entities
+ * which are read very often and rarely modified, like currencies or units of measure.
+ *
+ * The cache is disabled by default, it is enabled with the dal.referenceDataCache property of
+ * Openbravo.properties. The cached entities are defined by the dal.referenceDataCache.entities
+ * property as a comma separated list of entity names. The records of each entity are kept in a
+ * Caffeine cache of at most dal.referenceDataCache.maxSize records, which expire after
+ * dal.referenceDataCache.expiration minutes.
+ *
+ * The changes done through the DAL are reflected in the cache of the node where they are done and
+ * sent to the rest of the cluster nodes through the {@link CacheInvalidationBus}. The changes done
+ * directly in the database are only seen once the cached records expire.
+ */
+public class ReferenceDataCache implements ReferenceDataCacheMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "ReferenceDataCache";
+
+  private static final String ENABLED_PROPERTY = "dal.referenceDataCache";
+  private static final String ENTITIES_PROPERTY = "dal.referenceDataCache.entities";
+  private static final String MAX_SIZE_PROPERTY = "dal.referenceDataCache.maxSize";
+  private static final String EXPIRATION_PROPERTY = "dal.referenceDataCache.expiration";
+
+  private static final String DEFAULT_ENTITIES = "Currency,UOM,FinancialMgmtTaxRate,DocumentType,"
+      + "PricingPriceListVersion";
+  private static final long DEFAULT_MAX_SIZE = 10_000;
+  private static final long DEFAULT_EXPIRATION = 60;
+
+  // prefix of the names of the caches in the invalidation bus
+  private static final String CACHE_NAME_PREFIX = "ReferenceData.";
+
+  private static final ReferenceDataCache instance = new ReferenceDataCache();
+
+  private final Map<String, ReferenceDataStorageAccess> regions = new ConcurrentHashMap<>();
+  private volatile Set<String> cachedEntityNames;
+  private boolean enabled;
+  private long maxSize;
+  private Duration expiration;
+
+  /**
+   * @return the reference data cache of this node
+   */
+  public static ReferenceDataCache getInstance() {
+    return instance;
+  }
+
+  private ReferenceDataCache() {
+  }
+
+  private Set<String> getCachedEntityNames() {
+    if (cachedEntityNames == null) {
+      synchronized (this) {
+        if (cachedEntityNames == null) {
+          readConfiguration();
+        }
+      }
+    }
+    return cachedEntityNames;
+  }
+
+  private void readConfiguration() {
+    final Properties properties = OBPropertiesProvider.getInstance().getOpenbravoProperties();
+    if (properties == null) {
+      cachedEntityNames = Collections.emptySet();
+      return;
+    }
+    enabled = Boolean.parseBoolean(properties.getProperty(ENABLED_PROPERTY, "false").trim());
+    maxSize = OBPropertiesProvider.getInstance()
+        .getLongProperty(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+    expiration = Duration
+        .ofMinutes(OBPropertiesProvider.getInstance()
+            .getLongProperty(EXPIRATION_PROPERTY, DEFAULT_EXPIRATION));
+    final Set<String> entityNames = new LinkedHashSet<>();
+    if (enabled) {
+      for (String entityName : properties.getProperty(ENTITIES_PROPERTY, DEFAULT_ENTITIES)
+          .split(",")) {
+        if (StringUtils.isNotBlank(entityName)) {
+          entityNames.add(entityName.trim());
+        }
+      }
+      log.info("Second-level cache of reference data enabled for entities {}", entityNames);
+    }
+    cachedEntityNames = Collections.unmodifiableSet(entityNames);
+  }
+
+  /**
+   * @return {@code true} if the second-level cache of reference data is enabled
+   */
+  public boolean isEnabled() {
+    getCachedEntityNames();
+    return enabled;
+  }
+
+  /**
+   * @return {@code true} if the records of the given entity are kept in the second-level cache
+   */
+  public boolean isCached(Entity entity) {
+    return getCachedEntityNames().contains(entity.getName());
+  }
+
+  /**
+   * @return the cached entities which are part of the model
+   */
+  public List<Entity> getEntities() {
+    final List<Entity> entities = new ArrayList<>();
+    for (String entityName : getCachedEntityNames()) {
+      final Entity entity = ModelProvider.getInstance().getEntity(entityName, false);
+      if (entity == null) {
+        log.warn("Entity {} of property {} does not exist, it is not cached", entityName,
+            ENTITIES_PROPERTY);
+      } else {
+        entities.add(entity);
+      }
+    }
+    return entities;
+  }
+
+  /**
+   * Sends to the rest of the cluster nodes the invalidation of a record changed in this node. The
+   * cache of this node is kept up to date by Hibernate.
+   *
+   * @param entityName
+   *          the name of the entity of the changed record
+   * @param id
+   *          the id of the changed record
+   */
+  public void publishInvalidation(String entityName, String id) {
+    CacheInvalidationBus.getInstance().publish(CACHE_NAME_PREFIX + entityName, id);
+  }
+
+  /**
+   * Creates the storage of the cached records of an entity and registers it to receive the
+   * invalidations done in other cluster nodes.
+   */
+  ReferenceDataStorageAccess createStorage(String entityName) {
+    getCachedEntityNames();
+    final ReferenceDataStorageAccess storage = new ReferenceDataStorageAccess(entityName, maxSize,
+        expiration);
+    regions.put(entityName, storage);
+    CacheInvalidationBus.getInstance().register(CACHE_NAME_PREFIX + entityName, storage);
+    return storage;
+  }
+
+  void unregister(ReferenceDataStorageAccess storage) {
+    if (regions.remove(storage.getEntityName(), storage)) {
+      CacheInvalidationBus.getInstance().unregister(CACHE_NAME_PREFIX + storage.getEntityName());
+    }
+  }
+
+  void registerMBean() {
+    MBeanRegistry.registerMBean(MBEAN_NAME, this);
+  }
+
+  @Override
+  public String[] getCachedEntities() {
+    return regions.keySet().stream().sorted().toArray(String[]::new);
+  }
+
+  @Override
+  public String[] getStatistics() {
+    return regions.keySet()
+        .stream()
+        .sorted()
+        .map(entityName -> entityName + ": " + getEntityStatistics(entityName))
+        .toArray(String[]::new);
+  }
+
+  @Override
+  public String getEntityStatistics(String entityName) {
+    final ReferenceDataStorageAccess storage = regions.get(entityName);
+    if (storage == null) {
+      return null;
+    }
+    final CacheStats stats = storage.getStats();
+    return String.format("hits=%d, misses=%d, hitRatio=%.2f, evictions=%d, size=%d",
+        stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(),
+        storage.getSize());
+  }
+
+  @Override
+  public void clearEntity(String entityName) {
+    final ReferenceDataStorageAccess storage = regions.get(entityName);
+    if (storage != null) {
+      storage.evictData();
+    }
+  }
+
+  @Override
+  public void clearAll() {
+    regions.values().forEach(ReferenceDataStorageAccess::evictData);
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.dal.cache;
+
+/** Exposes the statistics of the {@link ReferenceDataCache} as a JMX Bean. */
+public interface ReferenceDataCacheMBean {
+
+  /** Returns the names of the entities kept in the cache. */
+  String[] getCachedEntities();
+
+  /** Returns the hits, misses, hit ratio, evictions and size of the cache of each entity. */
+  String[] getStatistics();
+
+  /**
+   * Returns the statistics of the cache of the given entity, {@code null} if it is not cached.
+   */
+  String getEntityStatistics(String entityName);
+
+  /** Removes all the records of the given entity from the cache of this node. */
+  void clearEntity(String entityName);
+
+  /** Removes all the records from the cache of this node. */
+  void clearAll();
+}
@@ -0,0 +1,76 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.dal.cache;
+
+import java.util.Map;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Hibernate region factory which keeps the second-level cache of each entity in a Caffeine cache
+ * managed by the {@link ReferenceDataCache}. Only the entities mapped as cacheable, which are the
+ * ones configured as reference data, get a region. The query cache is not supported.
+ */
+public class ReferenceDataRegionFactory extends RegionFactoryTemplate {
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  protected void prepareForUse(SessionFactoryOptions settings,
+      @SuppressWarnings("rawtypes") Map configValues) {
+    ReferenceDataCache.getInstance().registerMBean();
+  }
+
+  @Override
+  protected void releaseFromUse() {
+    // the storages are released by their regions
+  }
+
+  @Override
+  protected CacheKeysFactory getImplicitCacheKeysFactory() {
+    // there is one region per entity, so the id is enough to identify the records
+    return SimpleCacheKeysFactory.INSTANCE;
+  }
+
+  @Override
+  protected DomainDataStorageAccess createDomainDataStorageAccess(
+      DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+    return ReferenceDataCache.getInstance().createStorage(regionConfig.getRegionName());
+  }
+
+  @Override
+  protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+      SessionFactoryImplementor sessionFactory) {
+    throw new UnsupportedOperationException("The query cache is not supported");
+  }
+
+  @Override
+  protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+      SessionFactoryImplementor sessionFactory) {
+    throw new UnsupportedOperationException("The query cache is not supported");
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.dal.cache;
+
+import java.time.Duration;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.openbravo.cache.CacheInvalidationListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Keeps in a Caffeine cache the second-level cache entries of an entity. The keys are the ids of
+ * the records, so the invalidations received from other cluster nodes can be applied directly.
+ */
+class ReferenceDataStorageAccess implements DomainDataStorageAccess, CacheInvalidationListener {
+  private final String entityName;
+  private final Cache<Object, Object> cache;
+
+  ReferenceDataStorageAccess(String entityName, long maxSize, Duration expiration) {
+    this.entityName = entityName;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(expiration)
+        .recordStats()
+        .build();
+  }
+
+  String getEntityName() {
+    return entityName;
+  }
+
+  @Override
+  public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+    return cache.getIfPresent(key);
+  }
+
+  @Override
+  public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+    cache.put(key, value);
+  }
+
+  @Override
+  public boolean contains(Object key) {
+    return cache.asMap().containsKey(key);
+  }
+
+  @Override
+  public void evictData() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void evictData(Object key) {
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void release() {
+    cache.invalidateAll();
+    ReferenceDataCache.getInstance().unregister(this);
+  }
+
+  @Override
+  public void invalidate(String key) {
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  long getSize() {
+    return cache.estimatedSize();
+  }
+
+  CacheStats getStats() {
+    return cache.stats();
+  }
+}
@@ -42,6 +42,7 @@ import org.openbravo.base.provider.OBSingleton;
 import org.openbravo.base.session.DalUUIDGenerator;
 import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.base.util.Check;
+import org.openbravo.dal.cache.ReferenceDataCache;
 
 /**
  * This class is responsible for generating the Hibernate mapping for the tables and entities within
@@ -58,6 +59,7 @@ public class DalMappingGenerator implements OBSingleton {
 
   private static final String TEMPLATE_FILE = "template.hbm.xml";
   private static final String MAIN_TEMPLATE_FILE = "template_main.hbm.xml";
+  private static final String CACHE_ELEMENT = "<cache usage=\"read-write\"/>";
   private static final String TAB2 = "\t\t";
   private static final String TAB3 = "\t\t\t";
   private static final char NL = '\n';
@@ -152,6 +154,9 @@ public class DalMappingGenerator implements OBSingleton {
     hbm = hbm.replaceAll("mappingName", entity.getName());
     hbm = hbm.replaceAll("tableName", entity.getTableName());
     hbm = hbm.replaceAll("ismutable", Boolean.toString(entity.isMutable()));
+    if (!ReferenceDataCache.getInstance().isCached(entity)) {
+      hbm = removeCacheElement(hbm);
+    }
 
     if (entity.getMappingClass() != null) {
       hbm = hbm.replaceAll("<class", "<class name=\"" + entity.getClassName() + "\" ");
@@ -215,6 +220,11 @@ public class DalMappingGenerator implements OBSingleton {
     return hbm;
   }
 
+  // only the reference data is kept in the second-level cache
+  private String removeCacheElement(String hbm) {
+    return hbm.replace(TAB2 + CACHE_ELEMENT + NL, "");
+  }
+
   private String generateComputedColumnsClassMapping(Entity entity,
       List<Property> computedColumns) {
     String hbm = getClassTemplateContents();
@@ -225,6 +235,7 @@ public class DalMappingGenerator implements OBSingleton {
     hbm = hbm.replaceAll("mappingName", entityName);
     hbm = hbm.replaceAll("tableName", entity.getTableName());
     hbm = hbm.replaceAll("ismutable", "false");
+    hbm = removeCacheElement(hbm);
 
     final StringBuilder content = new StringBuilder();
     content.append(generateStandardID(entity) + NL);
@@ -48,6 +48,7 @@ import org.openbravo.base.structure.Identifiable;
 import org.openbravo.base.util.Check;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.database.ExternalConnectionPool;
+import org.openbravo.database.SessionInfo;
 import org.openbravo.service.db.DbUtility;
 
 /**
@@ -651,6 +652,7 @@ public class SessionHandler implements OBNotSingleton {
     if (err && trx != null) {
       try {
         trx.rollback();
+        SessionInfo.contextInfoRolledBack(con);
       } catch (Throwable t) {
         // ignore these exception not to hide others
       }
@@ -727,6 +729,7 @@ public class SessionHandler implements OBNotSingleton {
       checkInvariant(pool);
       if (con == null || !con.isClosed()) {
         getTransaction(pool).rollback();
+        SessionInfo.contextInfoRolledBack(con);
       }
     } catch (SQLException e) {
       log.error("Error while closing the connection in pool " + pool, e);
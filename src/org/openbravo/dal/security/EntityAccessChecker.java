@@ -19,11 +19,14 @@
 
 package org.openbravo.dal.security;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -35,6 +38,7 @@ import org.openbravo.base.model.ModelProvider;
 import org.openbravo.base.model.Property;
 import org.openbravo.base.model.Table;
 import org.openbravo.base.provider.OBNotSingleton;
+import org.openbravo.cache.TimeInvalidatedCache;
 import org.openbravo.client.application.Process;
 import org.openbravo.dal.core.OBContext;
 import org.openbravo.dal.core.SessionHandler;
@@ -57,6 +61,10 @@ import org.openbravo.role.RoleAccessUtils;
  * BaseOBObject#get(String)).
  * <p>
  * This class is used from the {@link SecurityChecker} which combines all entity security checks.
+ * <p>
+ * The access only depends on the role, so it is computed once per role and shared by the checkers
+ * of all the contexts of that role. The shared access of a role is recomputed the next time it is
+ * used after being invalidated with {@link #invalidateRoleAccess(String)}.
  * 
  * @see Entity
  * @see Property
@@ -103,6 +111,17 @@ public class EntityAccessChecker implements OBNotSingleton {
    */
   private static List<Object[]> selectorsFromWindowReferences;
 
+  /**
+   * Caches the access of each role, the entries of a role are keyed by the user level and the access
+   * level check of the contexts they were computed for.
+   */
+  private static final TimeInvalidatedCache<String, Map<String, EntityAccessSnapshot>> roleAccess = TimeInvalidatedCache
+      .newBuilder()
+      .name("EntityAccessSnapshot")
+      .expireAfterDuration(Duration.ofHours(1))
+      .clusterInvalidation()
+      .build(roleId -> new ConcurrentHashMap<>());
+
   private static final String SELECTOR_REFERENCE = "95E2A8B50A254B2AAE6774B8C2F28120";
   private static final String MULTI_SELECTOR_REFERENCE = "87E6CFF8F71548AFA33F181C317970B5";
   private static final String SEARCH_REFERENCE = "30";
@@ -130,20 +149,28 @@ public class EntityAccessChecker implements OBNotSingleton {
   private Set<String> processes = new HashSet<String>();
   private Set<Entity> nonReadableEntities = new HashSet<Entity>();
   private boolean isInitialized = false;
+  // the sets are shared with the rest of the checkers of the role until they are requested to be
+  // modified through their getters
+  private boolean isSharedAccess = false;
 
   private OBContext obContext;
 
   static {
-    calculateCachedElements();
+    loadCachedElements();
   }
 
   /**
    * This method calculates all the information that could be cached in order to improve performance
-   * in entityAccessChecker process.
+   * in entityAccessChecker process. As the access of the roles depend on it, they are invalidated.
    * 
    * The static block only gets called once, when the class itself is initialized.
    */
   public static void calculateCachedElements() {
+    loadCachedElements();
+    invalidateAllRoleAccess();
+  }
+
+  private static void loadCachedElements() {
     // @formatter:off
     String hqlQry = "select distinct(s.table.id), c.table.id"
         + " from OBUISEL_Selector s"
@@ -200,6 +227,58 @@ public class EntityAccessChecker implements OBNotSingleton {
     // @formatter:on
   }
 
+  /**
+   * Invalidates the cached access of a role, it is recomputed the next time a checker for the role
+   * is initialized. The rest of the cluster nodes are also notified.
+   *
+   * @param roleId
+   *          the id of the role whose access has changed
+   */
+  public static void invalidateRoleAccess(String roleId) {
+    roleAccess.invalidate(roleId);
+  }
+
+  /**
+   * Invalidates the cached access of all the roles.
+   */
+  public static void invalidateAllRoleAccess() {
+    roleAccess.invalidateAll();
+  }
+
+  /**
+   * Sets the readable/writable, non-readable, derived-readable entities and the processes of the
+   * role. They are computed if they are not cached yet for the role.
+   * 
+   * @see #computeAccess()
+   */
+  public synchronized void initialize() {
+    final EntityAccessSnapshot access = getRoleAccess();
+    readableEntities = access.readableEntities;
+    writableEntities = access.writableEntities;
+    derivedReadableEntities = access.derivedReadableEntities;
+    derivedEntitiesFromProcess = access.derivedEntitiesFromProcess;
+    nonReadableEntities = access.nonReadableEntities;
+    processes = access.processes;
+    isSharedAccess = true;
+    isInitialized = true;
+  }
+
+  private EntityAccessSnapshot getRoleAccess() {
+    final OBContext currentContext = OBContext.getOBContext();
+    if (!getRoleId().equals(currentContext.getRole().getId())) {
+      // the access is partially computed with the role of the current context, do not share it
+      return computeAccess();
+    }
+    final String accessKey = obContext.getUserLevel() + "|" + currentContext.doAccessLevelCheck();
+    final Map<String, EntityAccessSnapshot> accessOfRole = roleAccess.get(getRoleId());
+    EntityAccessSnapshot access = accessOfRole.get(accessKey);
+    if (access == null) {
+      access = computeAccess();
+      accessOfRole.put(accessKey, access);
+    }
+    return access;
+  }
+
   /**
    * Reads the windows from the database using the current role of the user. Then it iterates
    * through the windows and tabs to determine which entities are readable/writable for that user.
@@ -208,9 +287,15 @@ public class EntityAccessChecker implements OBNotSingleton {
    * 
    * @see ModelProvider
    */
-  public synchronized void initialize() {
+  private EntityAccessSnapshot computeAccess() {
     OBContext.setAdminMode();
     try {
+      writableEntities = new HashSet<>();
+      readableEntities = new HashSet<>();
+      derivedReadableEntities = new HashSet<>();
+      derivedEntitiesFromProcess = new HashSet<>();
+      processes = new HashSet<>();
+      nonReadableEntities = new HashSet<>();
       final ModelProvider mp = ModelProvider.getInstance();
       final String userLevel = obContext.getUserLevel();
 
@@ -328,7 +413,8 @@ public class EntityAccessChecker implements OBNotSingleton {
       }
 
       addEntitiesFromProcesses();
-      isInitialized = true;
+      return new EntityAccessSnapshot(readableEntities, writableEntities, derivedReadableEntities,
+          derivedEntitiesFromProcess, nonReadableEntities, processes);
     } finally {
       OBContext.restorePreviousMode();
     }
@@ -708,22 +794,41 @@ public class EntityAccessChecker implements OBNotSingleton {
     this.obContext = obContext;
   }
 
+  /**
+   * The returned set can be modified to change the access of this checker, without affecting the
+   * rest of the checkers of the role. The same applies to the rest of the getters of entity sets.
+   */
   public Set<Entity> getReadableEntities() {
+    copySharedAccess();
     return readableEntities;
   }
 
   public Set<Entity> getWritableEntities() {
+    copySharedAccess();
     return writableEntities;
   }
 
   public Set<Entity> getDerivedReadableEntities() {
+    copySharedAccess();
     return derivedReadableEntities;
   }
 
   public Set<Entity> getDerivedEntitiesFromProcess() {
+    copySharedAccess();
     return derivedEntitiesFromProcess;
   }
 
+  private synchronized void copySharedAccess() {
+    if (!isSharedAccess) {
+      return;
+    }
+    readableEntities = new HashSet<>(readableEntities);
+    writableEntities = new HashSet<>(writableEntities);
+    derivedReadableEntities = new HashSet<>(derivedReadableEntities);
+    derivedEntitiesFromProcess = new HashSet<>(derivedEntitiesFromProcess);
+    isSharedAccess = false;
+  }
+
   private boolean isReadableWithoutAdminMode(Entity entity) {
     // prevent infinite looping
     if (!isInitialized) {
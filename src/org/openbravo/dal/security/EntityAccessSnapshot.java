@@ -0,0 +1,54 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.dal.security;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.openbravo.base.model.Entity;
+
+/**
+ * Immutable result of the computation of the entity access of a role done by the
+ * {@link EntityAccessChecker}. It is shared by the checkers of all the contexts of the role.
+ */
+final class EntityAccessSnapshot {
+  final Set<Entity> readableEntities;
+  final Set<Entity> writableEntities;
+  final Set<Entity> derivedReadableEntities;
+  final Set<Entity> derivedEntitiesFromProcess;
+  final Set<Entity> nonReadableEntities;
+  final Set<String> processes;
+
+  EntityAccessSnapshot(Set<Entity> readableEntities, Set<Entity> writableEntities,
+      Set<Entity> derivedReadableEntities, Set<Entity> derivedEntitiesFromProcess,
+      Set<Entity> nonReadableEntities, Set<String> processes) {
+    this.readableEntities = immutableCopy(readableEntities);
+    this.writableEntities = immutableCopy(writableEntities);
+    this.derivedReadableEntities = immutableCopy(derivedReadableEntities);
+    this.derivedEntitiesFromProcess = immutableCopy(derivedEntitiesFromProcess);
+    this.nonReadableEntities = immutableCopy(nonReadableEntities);
+    this.processes = immutableCopy(processes);
+  }
+
+  private static <T> Set<T> immutableCopy(Set<T> set) {
+    return Collections.unmodifiableSet(new HashSet<>(set));
+  }
+}
@@ -40,7 +40,8 @@ import org.openbravo.dal.service.OBDal;
  * TimeInvalidatedCache to avoid initializing this information too often. If this information
  * changes (i.e. a new organization is added to Openbravo or an existing organization is moved in
  * the hierarchy, some time will passed until the update is reflected on the cache (see
- * expireAfterDuration in cache builder)
+ * expireAfterDuration in cache builder). When the cache is explicitly cleared, it is cleared in all
+ * the nodes of the cluster.
  */
 public class OrganizationNodeCache implements OBSingleton {
 
@@ -50,6 +51,7 @@ public class OrganizationNodeCache implements OBSingleton {
       .newBuilder()
       .name("OSP_OrgCache")
       .expireAfterDuration(Duration.ofMinutes(5))
+      .clusterInvalidation()
       .build(OrganizationNodeCache::initialize);
 
   private static final Logger log = LogManager.getLogger();
@@ -102,7 +102,13 @@ public final class Account implements Serializable {
     try {
       log4jAccount.debug("C_ValidCombination_ID: " + C_ValidCombination_ID);
       if (conn1 == null) {
-        data = AccountData.select(conn, newC_ValidCombination_ID);
+        // only combinations read outside a transaction are cached, as the ones read within it
+        // could have just been created
+        data = PostingCache.getAccount(newC_ValidCombination_ID);
+        if (data == null) {
+          data = AccountData.select(conn, newC_ValidCombination_ID);
+          PostingCache.putAccount(newC_ValidCombination_ID, data);
+        }
       } else {
         data = AccountData.selectConnection(conn1, conn, newC_ValidCombination_ID);
       }
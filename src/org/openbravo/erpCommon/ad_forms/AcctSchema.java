@@ -237,6 +237,44 @@ public final class AcctSchema implements Serializable {
     return retValue;
   } // getAcctSchemaArray
 
+  /**
+   * Returns the accounting schema with the given id. During a posting run the schema is loaded
+   * only once and then reused from the {@link PostingCache}.
+   * 
+   * @param C_AcctSchema_ID
+   *          accounting schema id
+   * @return the accounting schema
+   */
+  public static AcctSchema getAcctSchema(ConnectionProvider conn, String C_AcctSchema_ID) {
+    AcctSchema acctSchema = PostingCache.getAcctSchema(C_AcctSchema_ID);
+    if (acctSchema == null) {
+      acctSchema = new AcctSchema(conn, C_AcctSchema_ID);
+      PostingCache.putAcctSchema(acctSchema);
+    }
+    return acctSchema;
+  }
+
+  /**
+   * Checks whether the given table is posted in the accounting schema. During a posting run the
+   * result is reused from the {@link PostingCache}.
+   * 
+   * @param C_AcctSchema_ID
+   *          accounting schema id
+   * @param AD_Table_ID
+   *          id of the table of the documents
+   * @return true if the documents of the table are posted in the accounting schema
+   */
+  public static boolean isAcctSchemaTable(ConnectionProvider conn, String C_AcctSchema_ID,
+      String AD_Table_ID) throws ServletException {
+    Boolean isAcctSchemaTable = PostingCache.isAcctSchemaTable(C_AcctSchema_ID, AD_Table_ID);
+    if (isAcctSchemaTable == null) {
+      isAcctSchemaTable = AcctSchemaData.selectAcctSchemaTable(conn, C_AcctSchema_ID,
+          AD_Table_ID);
+      PostingCache.putAcctSchemaTable(C_AcctSchema_ID, AD_Table_ID, isAcctSchemaTable);
+    }
+    return isAcctSchemaTable;
+  }
+
   /**
    * Factory: Get AccountSchema List
    * 
@@ -251,7 +289,7 @@ public final class AcctSchema implements Serializable {
     for (String as : OBContext.getOBContext()
         .getAcctSchemaStructureProvider()
         .getAcctSchemas(AD_Org_ID, AD_Client_ID)) {
-      list.add(new AcctSchema(conn, as));
+      list.add(getAcctSchema(conn, as));
     }
     // Save
     return list;
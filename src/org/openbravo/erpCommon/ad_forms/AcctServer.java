@@ -25,8 +25,11 @@ import java.sql.SQLException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -401,17 +404,7 @@ public abstract class AcctServer {
 
       log4j.debug("AcctServer.run - AD_Client_ID: " + AD_Client_ID);
 
-      AcctServerData[] data = null;
-      final Set<String> orgSet = OBContext.getOBContext()
-          .getOrganizationStructureProvider(AD_Client_ID)
-          .getChildTree(AD_Org_ID, true);
-      String strOrgs = Utility.getInStrSet(orgSet);
-      // Send limit manually to SQL because auto-generated query doesn't limit properly
-      String limit = StringUtils.equals(connectionProvider.getRDBMS(), "ORACLE")
-          ? " AND ROWNUM < " + batchSize
-          : " LIMIT " + batchSize;
-      data = AcctServerData.select(connectionProvider, tableName, strDateColumn, AD_Client_ID,
-          strOrgs, strDateFrom, strDateTo, limit);
+      AcctServerData[] data = selectDocumentsToPost(strDateFrom, strDateTo);
       if (data != null && data.length > 0) {
         if (log4j.isDebugEnabled()) {
           log4j.debug("AcctServer - Run -Select inicial realizada N = " + data.length + " - Key: "
@@ -461,6 +454,51 @@ public abstract class AcctServer {
     }
   }
 
+  /**
+   * Selects the next batch of documents of this table pending to be posted. The size of the batch
+   * is determined by {@link #batchSize}.
+   * 
+   * @return the ids and organizations of the documents to post
+   */
+  AcctServerData[] selectDocumentsToPost(String strDateFrom, String strDateTo)
+      throws ServletException {
+    return selectDocumentsToPost(strDateFrom, strDateTo, Collections.emptySet());
+  }
+
+  /**
+   * Selects the next batch of documents of this table pending to be posted, skipping the given
+   * documents. The size of the batch is determined by {@link #batchSize}.
+   * 
+   * @param excludedIds
+   *          the ids of the documents that must not be selected, for example because their posting
+   *          already failed
+   * @return the ids and organizations of the documents to post
+   */
+  AcctServerData[] selectDocumentsToPost(String strDateFrom, String strDateTo,
+      Collection<String> excludedIds) throws ServletException {
+    final Set<String> orgSet = OBContext.getOBContext()
+        .getOrganizationStructureProvider(AD_Client_ID)
+        .getChildTree(AD_Org_ID, true);
+    String strOrgs = Utility.getInStrSet(orgSet);
+    // Send limit manually to SQL because auto-generated query doesn't limit properly
+    String limit = StringUtils.equals(connectionProvider.getRDBMS(), "ORACLE")
+        ? " AND ROWNUM < " + batchSize
+        : " LIMIT " + batchSize;
+    return AcctServerData.select(connectionProvider, tableName, strDateColumn, AD_Client_ID,
+        strOrgs, strDateFrom, strDateTo, getExcludedIdsFilter(excludedIds) + limit);
+  }
+
+  private static String getExcludedIdsFilter(Collection<String> excludedIds) {
+    final StringBuilder filter = new StringBuilder();
+    final List<String> ids = new ArrayList<>(excludedIds);
+    // Oracle does not accept more than 1000 elements in an in list
+    for (int i = 0; i < ids.size(); i += 1000) {
+      final Set<String> chunk = new HashSet<>(ids.subList(i, Math.min(i + 1000, ids.size())));
+      filter.append(" AND A.ID NOT IN (").append(Utility.getInStrSet(chunk)).append(")");
+    }
+    return filter.toString();
+  }
+
   /**
    * @return the isBackground
    */
@@ -667,9 +705,9 @@ public abstract class AcctServer {
     ArrayList<Object> new_as = new ArrayList<Object>();
     for (int i = 0; i < (this.m_as).length; i++) {
       acct = m_as[i];
-      if (AcctSchemaData.selectAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
+      if (AcctSchema.isAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
           AD_Table_ID)) {
-        new_as.add(new AcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
+        new_as.add(AcctSchema.getAcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
       }
     }
     AcctSchema[] retValue = new AcctSchema[new_as.size()];
@@ -692,9 +730,9 @@ public abstract class AcctServer {
     // Filter the right acct schemas for the organization
     for (int i = 0; i < (this.m_as).length; i++) {
       acct = m_as[i];
-      if (AcctSchemaData.selectAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
+      if (AcctSchema.isAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
           AD_Table_ID)) {
-        new_as.add(new AcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
+        new_as.add(AcctSchema.getAcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
       }
     }
     AcctSchema[] retValue = new AcctSchema[new_as.size()];
@@ -1494,6 +1532,7 @@ public abstract class AcctServer {
       return BigDecimal.ONE;
     }
     AcctServerData[] data = null;
+    String cacheKey = null;
     try {
       if (localConvDate != null && localConvDate.equals("")) {
         localConvDate = DateTimeData.today(conn);
@@ -1502,6 +1541,12 @@ public abstract class AcctServer {
       if (localRateType == null || localRateType.equals("")) {
         localRateType = "S";
       }
+      cacheKey = CurFrom_ID + "|" + CurTo_ID + "|" + localConvDate + "|" + localRateType + "|"
+          + client + "|" + org;
+      BigDecimal cachedRate = PostingCache.getConversionRate(cacheKey);
+      if (cachedRate != null) {
+        return cachedRate;
+      }
       data = AcctServerData.currencyConvertionRate(conn, CurFrom_ID, CurTo_ID, localConvDate,
           localRateType, client, org);
     } catch (ServletException e) {
@@ -1515,7 +1560,9 @@ public abstract class AcctServer {
       if (log4j.isDebugEnabled()) {
         log4j.debug("getConvertionRate - rate:" + data[0].converted);
       }
-      return new BigDecimal(data[0].converted);
+      BigDecimal rate = new BigDecimal(data[0].converted);
+      PostingCache.putConversionRate(cacheKey, rate);
+      return rate;
     }
   } // getConvertedAmt
 
@@ -1706,6 +1753,15 @@ public abstract class AcctServer {
   public final Account getAccount(String AcctType, AcctSchema as, ConnectionProvider conn) {
     BigDecimal AMT = null;
     AcctServerData[] data = null;
+    final String cacheKey = getAccountCacheKey(AcctType, as);
+    final String cachedAccountId = PostingCache.getValidCombinationId(cacheKey);
+    if (cachedAccountId != null) {
+      try {
+        return Account.getAccount(conn, cachedAccountId);
+      } catch (ServletException e) {
+        log4j.warn(e);
+      }
+    }
     // if (log4j.isDebugEnabled())
     // log4j.debug("*******************************getAccount 1: AcctType:-->"
     // + AcctType);
@@ -1839,6 +1895,7 @@ public abstract class AcctServer {
     Account acct = null;
     try {
       acct = Account.getAccount(conn, Account_ID);
+      PostingCache.putValidCombinationId(cacheKey, Account_ID);
     } catch (ServletException e) {
       log4j.warn(e);
       e.printStackTrace();
@@ -1846,6 +1903,65 @@ public abstract class AcctServer {
     return acct;
   } // getAccount
 
+  /**
+   * Returns the key to keep in the {@link PostingCache} the account of the given type, based on the
+   * document field the account depends on. Returns null for the account types that cannot be
+   * cached.
+   */
+  private String getAccountCacheKey(String AcctType, AcctSchema as) {
+    final String entityId;
+    switch (AcctType) {
+      case ACCTTYPE_V_Liability:
+      case ACCTTYPE_V_Liability_Services:
+      case ACCTTYPE_C_Receivable:
+      case ACCTTYPE_DiscountExp:
+      case ACCTTYPE_DiscountRev:
+      case ACCTTYPE_WriteOff:
+      case ACCTTYPE_WriteOff_Revenue:
+      case ACCTTYPE_NotInvoicedReceipts:
+        entityId = C_BPartner_ID;
+        break;
+      case ACCTTYPE_UnallocatedCash:
+      case ACCTTYPE_BankInTransit:
+      case ACCTTYPE_PaymentSelect:
+      case ACCTTYPE_BankAsset:
+      case ACCTTYPE_InterestRev:
+      case ACCTTYPE_InterestExp:
+        entityId = C_BankAccount_ID;
+        break;
+      case ACCTTYPE_ConvertChargeLossAmt:
+      case ACCTTYPE_ConvertChargeGainAmt:
+        entityId = FIN_Financial_Account_ID;
+        break;
+      case ACCTTYPE_CashAsset:
+      case ACCTTYPE_CashTransfer:
+      case ACCTTYPE_CashExpense:
+      case ACCTTYPE_CashReceipt:
+      case ACCTTYPE_CashDifference:
+        entityId = C_CashBook_ID;
+        break;
+      case ACCTTYPE_InvDifferences:
+        entityId = M_Warehouse_ID;
+        break;
+      case ACCTTYPE_ProjectAsset:
+      case ACCTTYPE_ProjectWIP:
+        entityId = C_Project_ID;
+        break;
+      case ACCTTYPE_BankInTransitDefault:
+      case ACCTTYPE_ConvertChargeDefaultAmt:
+      case ACCTTYPE_ConvertGainDefaultAmt:
+      case ACCTTYPE_WriteOffDefault:
+      case ACCTTYPE_WriteOffDefault_Revenue:
+      case ACCTTYPE_PPVOffset:
+        entityId = "";
+        break;
+      default:
+        // charge accounts depend on the amount of the document
+        return null;
+    }
+    return "ACCT|" + AcctType + "|" + entityId + "|" + as.getC_AcctSchema_ID();
+  }
+
   /**
    * Get the account for Accounting Schema
    * 
@@ -1872,6 +1988,20 @@ public abstract class AcctServer {
   public final Account getAccountBPartner(String cBPartnerId, AcctSchema as, boolean isReceipt,
       boolean isPrepayment, boolean isDoubtfuldebt, ConnectionProvider conn)
       throws ServletException {
+    final String cacheKey = "BP|" + cBPartnerId + "|" + as.m_C_AcctSchema_ID + "|" + isReceipt
+        + "|" + isPrepayment + "|" + isDoubtfuldebt;
+    String strValidCombination = PostingCache.getValidCombinationId(cacheKey);
+    if (strValidCombination == null) {
+      strValidCombination = getValidCombinationBPartner(cBPartnerId, as, isReceipt, isPrepayment,
+          isDoubtfuldebt, conn);
+      PostingCache.putValidCombinationId(cacheKey, strValidCombination);
+    }
+    return new Account(conn, strValidCombination);
+  }
+
+  private String getValidCombinationBPartner(String cBPartnerId, AcctSchema as, boolean isReceipt,
+      boolean isPrepayment, boolean isDoubtfuldebt, ConnectionProvider conn)
+      throws ServletException {
 
     String strValidCombination = "";
     OBContext.setAdminMode();
@@ -1908,7 +2038,7 @@ public abstract class AcctServer {
             setMessageResult(conn, STATUS_InvalidAccount, "error", parameters);
             throw new IllegalStateException();
           }
-          return new Account(conn, strValidCombination);
+          return strValidCombination;
         }
 
         //@formatter:off
@@ -1977,8 +2107,8 @@ public abstract class AcctServer {
     } finally {
       OBContext.restorePreviousMode();
     }
-    return new Account(conn, strValidCombination);
-  } // getAccount
+    return strValidCombination;
+  } // getValidCombinationBPartner
 
   /**
    * It gets Account to be used to provision for the selected Business Partner
@@ -2092,6 +2222,12 @@ public abstract class AcctServer {
    */
   public Account getAccountGLItem(GLItem glItem, AcctSchema as, boolean bIsReceipt,
       ConnectionProvider conn) throws ServletException {
+    final String cacheKey = glItem == null ? null
+        : "GLITEM|" + glItem.getId() + "|" + as.m_C_AcctSchema_ID + "|" + bIsReceipt;
+    final String cachedAccountId = PostingCache.getValidCombinationId(cacheKey);
+    if (cachedAccountId != null) {
+      return new Account(conn, cachedAccountId);
+    }
     OBContext.setAdminMode();
     Account account = null;
     try {
@@ -2114,6 +2250,7 @@ public abstract class AcctServer {
       } else {
         account = new Account(conn, accountList.get(0).getGlitemDebitAcct().getId());
       }
+      PostingCache.putValidCombinationId(cacheKey, account.C_ValidCombination_ID);
     } finally {
       OBContext.restorePreviousMode();
       if (account == null) {
@@ -0,0 +1,354 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.erpCommon.ad_forms;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.secureApp.VariablesSecureApp;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.client.kernel.RequestContext;
+import org.openbravo.dal.core.DalThreadCleaner;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.database.ConnectionProvider;
+
+/**
+ * Posts the pending documents of an {@link AcctServer} table using a pool of worker threads.
+ *
+ * The documents of each batch are partitioned by organization, as the organization determines the
+ * accounting schemas the document is posted in. Each partition is posted sequentially by a single
+ * worker, in its own transaction per document, and different partitions are posted in parallel.
+ * When a partition is large compared to the rest of the batch it is split in several chunks so all
+ * the workers are kept busy.
+ *
+ * The {@link PostingCache} of the thread that runs the batch, if any, is shared by all the workers.
+ *
+ * Unlike {@link AcctServer#run(VariablesSecureApp, String, String)}, a document that cannot be
+ * posted does not stop the posting of the rest of the batch: its transaction is rolled back and the
+ * error is kept in the returned {@link PostingResult}.
+ *
+ * The number of workers is defined by the posting.parallel.threads property of
+ * Openbravo.properties. If it is not set or it is lower than 2, documents are posted sequentially
+ * as usual.
+ */
+public class AcctServerParallelRunner implements AutoCloseable {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final String THREADS_PROPERTY = "posting.parallel.threads";
+
+  private final int numberOfThreads;
+  private final ExecutorService executor;
+
+  /**
+   * @return the number of threads configured to post documents in parallel, values lower than 2
+   *         mean that parallel posting is disabled
+   */
+  public static int getConfiguredNumberOfThreads() {
+    return OBPropertiesProvider.getInstance().getIntProperty(THREADS_PROPERTY, 1);
+  }
+
+  /**
+   * @return {@code true} if the posting.parallel.threads property enables parallel posting
+   */
+  public static boolean isParallelPostingEnabled() {
+    return getConfiguredNumberOfThreads() > 1;
+  }
+
+  /**
+   * Creates a new runner with its own pool of worker threads. The runner must be closed once all
+   * the tables have been posted to release the threads.
+   *
+   * @param numberOfThreads
+   *          the number of documents that can be posted at the same time
+   */
+  public AcctServerParallelRunner(int numberOfThreads) {
+    this.numberOfThreads = Math.max(1, numberOfThreads);
+    this.executor = Executors.newFixedThreadPool(this.numberOfThreads,
+        new PostingThreadFactory());
+  }
+
+  /**
+   * @return the number of worker threads of this runner
+   */
+  public int getNumberOfThreads() {
+    return numberOfThreads;
+  }
+
+  /**
+   * Posts the next batch of documents pending to be posted of the table of the given
+   * {@link AcctServer}. The size of the batch is the batch size of the {@link AcctServer}.
+   *
+   * @param acct
+   *          the {@link AcctServer} of the table to post, it is used to select the documents and as
+   *          a template to create the {@link AcctServer} of each document
+   * @param vars
+   *          the variables of the user posting the documents
+   * @param strDateFrom
+   *          optional starting accounting date of the documents to post
+   * @param strDateTo
+   *          optional ending accounting date of the documents to post
+   * @return the result of posting the batch
+   */
+  public PostingResult run(AcctServer acct, VariablesSecureApp vars, String strDateFrom,
+      String strDateTo) throws ServletException {
+    return run(acct, vars, strDateFrom, strDateTo, Collections.emptySet());
+  }
+
+  /**
+   * Posts the next batch of documents pending to be posted of the table of the given
+   * {@link AcctServer}, skipping the given documents. The documents that fail are rolled back and
+   * remain pending, so they should be excluded from the next batches to avoid selecting them again.
+   * When the returned result has no processed documents there are no more documents to post.
+   *
+   * @param acct
+   *          the {@link AcctServer} of the table to post, it is used to select the documents and as
+   *          a template to create the {@link AcctServer} of each document
+   * @param vars
+   *          the variables of the user posting the documents
+   * @param strDateFrom
+   *          optional starting accounting date of the documents to post
+   * @param strDateTo
+   *          optional ending accounting date of the documents to post
+   * @param excludedDocumentIds
+   *          the ids of the documents that must not be posted, usually the failures of the previous
+   *          batches
+   * @return the result of posting the batch
+   */
+  public PostingResult run(AcctServer acct, VariablesSecureApp vars, String strDateFrom,
+      String strDateTo, Collection<String> excludedDocumentIds) throws ServletException {
+    final long t = System.currentTimeMillis();
+    final PostingResult result = new PostingResult();
+    final AcctServerData[] data = acct.selectDocumentsToPost(strDateFrom, strDateTo,
+        excludedDocumentIds);
+    if (data == null || data.length == 0) {
+      return result;
+    }
+
+    final OBContext obContext = OBContext.getOBContext();
+    final PostingCache postingCache = PostingCache.getCurrent();
+    final List<Future<?>> partitionTasks = new ArrayList<>();
+    for (List<String> partition : getPartitions(data)) {
+      partitionTasks.add(executor.submit(
+          () -> postPartition(acct, partition, vars, obContext, postingCache, result)));
+    }
+    for (Future<?> partitionTask : partitionTasks) {
+      try {
+        partitionTask.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ServletException("Interrupted while posting " + acct.tableName, e);
+      } catch (ExecutionException e) {
+        log.error("Error posting documents of table {}", acct.tableName, e.getCause());
+      }
+    }
+
+    result.addElapsedTime(System.currentTimeMillis() - t);
+    synchronized (acct) {
+      acct.success += result.getPosted();
+      acct.errors += result.getErrors();
+    }
+    log.debug("Posted batch of {} documents of {} in {} partitions: {}", data.length,
+        acct.tableName, partitionTasks.size(), result);
+    return result;
+  }
+
+  /**
+   * Groups the documents by organization and splits the groups in chunks, so that there are at
+   * least as many partitions as worker threads whenever the batch is big enough.
+   */
+  private List<List<String>> getPartitions(AcctServerData[] data) {
+    Map<String, List<String>> documentsByOrg = new LinkedHashMap<>();
+    for (AcctServerData document : data) {
+      documentsByOrg.computeIfAbsent(document.adOrgId, org -> new ArrayList<>()).add(document.id);
+    }
+    int chunkSize = Math.max(1, (data.length + numberOfThreads - 1) / numberOfThreads);
+    List<List<String>> partitions = new ArrayList<>();
+    for (List<String> documents : documentsByOrg.values()) {
+      for (int i = 0; i < documents.size(); i += chunkSize) {
+        partitions.add(documents.subList(i, Math.min(i + chunkSize, documents.size())));
+      }
+    }
+    return partitions;
+  }
+
+  private void postPartition(AcctServer acct, List<String> documentIds, VariablesSecureApp vars,
+      OBContext obContext, PostingCache postingCache, PostingResult result) {
+    OBContext.setOBContext(obContext);
+    RequestContext.get().setVariableSecureApp(vars);
+    try (PostingCache.Binding binding = postingCache == null ? null : postingCache.bind()) {
+      for (String documentId : documentIds) {
+        postDocument(acct, documentId, vars, result);
+      }
+    } finally {
+      RequestContext.get().setVariableSecureApp(null);
+      DalThreadCleaner.getInstance().cleanWithCommit();
+    }
+  }
+
+  void postDocument(AcctServer acct, String documentId, VariablesSecureApp vars,
+      PostingResult result) {
+    final ConnectionProvider connectionProvider = acct.connectionProvider;
+    Connection con = null;
+    try {
+      con = connectionProvider.getTransactionConnection();
+      AcctServer documentServer = AcctServer.get(acct.AD_Table_ID, acct.AD_Client_ID,
+          acct.AD_Org_ID, connectionProvider);
+      boolean postSuccess = documentServer.post(documentId, false, vars, connectionProvider, con);
+      result.add(documentServer.success, documentServer.errors);
+      if (postSuccess) {
+        connectionProvider.releaseCommitConnection(con);
+        OBDal.getInstance().commitAndClose();
+      } else {
+        connectionProvider.releaseRollbackConnection(con);
+        OBDal.getInstance().rollbackAndClose();
+        result.addFailure(documentId, "Status: " + documentServer.getStatus());
+      }
+    } catch (Exception e) {
+      log.error("Error posting document {} of table {}", documentId, acct.tableName, e);
+      try {
+        connectionProvider.releaseRollbackConnection(con);
+      } catch (SQLException se) {
+        log.error("Failed to close connection after an error", se);
+      }
+      try {
+        OBDal.getInstance().rollbackAndClose();
+      } catch (Exception ignore) {
+      }
+      result.addFailure(documentId, e.getMessage());
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Keeps the counters of the documents posted by an {@link AcctServerParallelRunner}. It can be
+   * updated concurrently by all the workers and accumulated across batches.
+   */
+  public static class PostingResult {
+    private int posted;
+    private int errors;
+    private long elapsedTime;
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    synchronized void add(int postedDocuments, int documentsWithErrors) {
+      posted += postedDocuments;
+      errors += documentsWithErrors;
+    }
+
+    synchronized void addFailure(String documentId, String message) {
+      failures.put(documentId, message);
+    }
+
+    private synchronized void addElapsedTime(long time) {
+      elapsedTime += time;
+    }
+
+    /**
+     * Accumulates the counters of another result in this one.
+     */
+    public synchronized void add(PostingResult other) {
+      synchronized (other) {
+        posted += other.posted;
+        errors += other.errors;
+        elapsedTime += other.elapsedTime;
+        failures.putAll(other.failures);
+      }
+    }
+
+    /**
+     * @return the number of documents successfully posted
+     */
+    public synchronized int getPosted() {
+      return posted;
+    }
+
+    /**
+     * @return the number of documents that were processed but could not be posted, their posting
+     *         status is updated with the reason
+     */
+    public synchronized int getErrors() {
+      return errors;
+    }
+
+    /**
+     * @return the documents whose posting failed and was rolled back, together with the error
+     */
+    public synchronized Map<String, String> getFailures() {
+      return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    /**
+     * @return the total number of documents handled
+     */
+    public synchronized int getProcessed() {
+      return posted + errors + failures.size();
+    }
+
+    /**
+     * @return the time in milliseconds spent posting
+     */
+    public synchronized long getElapsedTime() {
+      return elapsedTime;
+    }
+
+    /**
+     * @return the number of documents handled per second
+     */
+    public synchronized long getThroughput() {
+      return elapsedTime == 0 ? 0 : (getProcessed() * 1000L) / elapsedTime;
+    }
+
+    @Override
+    public synchronized String toString() {
+      return "posted: " + posted + ", errors: " + errors + ", failed: " + failures.size()
+          + ", time: " + elapsedTime + " ms, throughput: " + getThroughput() + " docs/s";
+    }
+  }
+
+  private static class PostingThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadNumber = new AtomicInteger(0);
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "Posting - " + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -59,7 +59,7 @@ public class DocGLJournal extends AcctServer {
   @Override
   public void loadObjectFieldProvider(ConnectionProvider conn, String aD_Client_ID, String Id)
       throws ServletException {
-    AcctSchema docAcctSchema = new AcctSchema(conn,
+    AcctSchema docAcctSchema = AcctSchema.getAcctSchema(conn,
         DocGLJournalData.selectAcctSchema(conn, aD_Client_ID, Id));
     ArrayList<Object> list = new ArrayList<Object>();
     list.add(docAcctSchema);
@@ -333,9 +333,9 @@ public class DocGLJournal extends AcctServer {
     // Filter the right acct schemas for the organization
     for (int i = 0; i < m_aslocal.length; i++) {
       acct = m_aslocal[i];
-      if (AcctSchemaData.selectAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
+      if (AcctSchema.isAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
           AD_Table_ID)) {
-        new_as.add(new AcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
+        new_as.add(AcctSchema.getAcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
       }
     }
     AcctSchema[] retValue = new AcctSchema[new_as.size()];
@@ -1524,9 +1524,9 @@ public class DocInvoice extends AcctServer {
     // Filter the right acct schemas for the organization
     for (int i = 0; i < m_aslocal.length; i++) {
       acct = m_aslocal[i];
-      if (AcctSchemaData.selectAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
+      if (AcctSchema.isAcctSchemaTable(connectionProvider, acct.m_C_AcctSchema_ID,
           AD_Table_ID)) {
-        new_as.add(new AcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
+        new_as.add(AcctSchema.getAcctSchema(connectionProvider, acct.m_C_AcctSchema_ID));
       }
     }
     AcctSchema[] retValue = new AcctSchema[new_as.size()];
@@ -0,0 +1,230 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+package org.openbravo.erpCommon.ad_forms;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Cache of the accounting data that is resolved again and again when posting many documents:
+ * conversion rates, accounts, valid combinations and accounting schemas.
+ *
+ * A cache lives as long as a posting run: it is opened by the process that posts the documents
+ * with {@link #open()} and it is closed when the run finishes. The cache is bound to the thread
+ * that opened it, other threads posting documents of the same run can share it by using
+ * {@link #bind()}. When there is no cache bound to the current thread, the static accessors of this
+ * class do nothing, so documents posted outside a posting run always read the data from the
+ * database.
+ *
+ * Each cache is bounded in size and its entries expire after some minutes to limit the staleness of
+ * the data in long runs. Only values found in the database are cached, so a missing configuration
+ * fixed in the middle of a run is picked up by the next documents.
+ */
+public class PostingCache implements AutoCloseable {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final ThreadLocal<PostingCache> current = new ThreadLocal<>();
+
+  private static final int MAX_ENTRIES = 10_000;
+  private static final Duration EXPIRATION = Duration.ofMinutes(10);
+
+  private final Thread owner;
+  private final Cache<String, BigDecimal> conversionRates = newCache();
+  private final Cache<String, String> validCombinationIds = newCache();
+  private final Cache<String, AccountData[]> accounts = newCache();
+  private final Cache<String, AcctSchema> acctSchemas = newCache();
+  private final Cache<String, Boolean> acctSchemaTables = newCache();
+
+  private static <V> Cache<String, V> newCache() {
+    return Caffeine.newBuilder()
+        .maximumSize(MAX_ENTRIES)
+        .expireAfterWrite(EXPIRATION)
+        .recordStats()
+        .build();
+  }
+
+  private PostingCache() {
+    owner = Thread.currentThread();
+  }
+
+  /**
+   * Opens a new cache and binds it to the current thread. It must be closed once the posting run
+   * finishes.
+   *
+   * @return the new cache
+   */
+  public static PostingCache open() {
+    PostingCache cache = new PostingCache();
+    current.set(cache);
+    return cache;
+  }
+
+  /**
+   * @return the cache bound to the current thread or {@code null} if no posting run is in progress
+   *         in this thread
+   */
+  public static PostingCache getCurrent() {
+    return current.get();
+  }
+
+  /**
+   * Binds this cache to the current thread, to be used by threads that post documents on behalf of
+   * the thread that opened the cache. The returned binding must be closed when the thread finishes
+   * posting.
+   */
+  public Binding bind() {
+    current.set(this);
+    return new Binding();
+  }
+
+  /**
+   * Unbinds the cache from the thread that opened it and logs its statistics.
+   */
+  @Override
+  public void close() {
+    if (current.get() == this) {
+      current.remove();
+    }
+    if (Thread.currentThread() == owner) {
+      log.debug("Posting cache closed. {}", this);
+    }
+  }
+
+  /**
+   * Removes the binding of a {@link PostingCache} from a thread that did not open it.
+   */
+  public class Binding implements AutoCloseable {
+    @Override
+    public void close() {
+      if (current.get() == PostingCache.this) {
+        current.remove();
+      }
+    }
+  }
+
+  static BigDecimal getConversionRate(String key) {
+    PostingCache cache = current.get();
+    return cache == null ? null : cache.conversionRates.getIfPresent(key);
+  }
+
+  static void putConversionRate(String key, BigDecimal rate) {
+    PostingCache cache = current.get();
+    if (cache != null && rate != null) {
+      cache.conversionRates.put(key, rate);
+    }
+  }
+
+  static String getValidCombinationId(String key) {
+    PostingCache cache = current.get();
+    return cache == null || key == null ? null : cache.validCombinationIds.getIfPresent(key);
+  }
+
+  static void putValidCombinationId(String key, String validCombinationId) {
+    PostingCache cache = current.get();
+    if (cache != null && key != null && validCombinationId != null
+        && !validCombinationId.isEmpty()) {
+      cache.validCombinationIds.put(key, validCombinationId);
+    }
+  }
+
+  static AccountData[] getAccount(String validCombinationId) {
+    PostingCache cache = current.get();
+    return cache == null ? null : cache.accounts.getIfPresent(validCombinationId);
+  }
+
+  static void putAccount(String validCombinationId, AccountData[] data) {
+    PostingCache cache = current.get();
+    if (cache != null && data != null && data.length > 0) {
+      cache.accounts.put(validCombinationId, data);
+    }
+  }
+
+  static AcctSchema getAcctSchema(String acctSchemaId) {
+    PostingCache cache = current.get();
+    return cache == null ? null : cache.acctSchemas.getIfPresent(acctSchemaId);
+  }
+
+  static void putAcctSchema(AcctSchema acctSchema) {
+    PostingCache cache = current.get();
+    // a schema that could not be loaded has an empty id and one that does not exist has no client,
+    // do not keep them
+    if (cache != null && !"".equals(acctSchema.m_C_AcctSchema_ID)
+        && !"".equals(acctSchema.m_AD_Client_ID)) {
+      cache.acctSchemas.put(acctSchema.m_C_AcctSchema_ID, acctSchema);
+    }
+  }
+
+  static Boolean isAcctSchemaTable(String acctSchemaId, String tableId) {
+    PostingCache cache = current.get();
+    return cache == null ? null
+        : cache.acctSchemaTables.getIfPresent(acctSchemaId + "|" + tableId);
+  }
+
+  static void putAcctSchemaTable(String acctSchemaId, String tableId, boolean isActive) {
+    PostingCache cache = current.get();
+    if (cache != null) {
+      cache.acctSchemaTables.put(acctSchemaId + "|" + tableId, isActive);
+    }
+  }
+
+  /**
+   * @return the number of reads served from the cache, which are database queries saved
+   */
+  public long getHitCount() {
+    return stats(conversionRates).hitCount() + stats(validCombinationIds).hitCount()
+        + stats(accounts).hitCount() + stats(acctSchemas).hitCount()
+        + stats(acctSchemaTables).hitCount();
+  }
+
+  /**
+   * @return the number of reads that were not in the cache and were read from the database
+   */
+  public long getMissCount() {
+    return stats(conversionRates).missCount() + stats(validCombinationIds).missCount()
+        + stats(accounts).missCount() + stats(acctSchemas).missCount()
+        + stats(acctSchemaTables).missCount();
+  }
+
+  private static CacheStats stats(Cache<?, ?> cache) {
+    return cache.stats();
+  }
+
+  private static String toString(String name, Cache<?, ?> cache) {
+    CacheStats stats = cache.stats();
+    return name + " [hits: " + stats.hitCount() + ", misses: " + stats.missCount() + ", size: "
+        + cache.estimatedSize() + "]";
+  }
+
+  @Override
+  public String toString() {
+    return "Posting cache hits: " + getHitCount() + ", misses: " + getMissCount() + " - "
+        + toString("conversion rates", conversionRates) + ", "
+        + toString("account lookups", validCombinationIds) + ", "
+        + toString("valid combinations", accounts) + ", "
+        + toString("accounting schemas", acctSchemas) + ", "
+        + toString("accounting schema tables", acctSchemaTables);
+  }
+}
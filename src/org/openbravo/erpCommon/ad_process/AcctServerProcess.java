@@ -21,6 +21,7 @@ package org.openbravo.erpCommon.ad_process;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Map;
 
 import javax.servlet.ServletException;
 
@@ -32,6 +33,9 @@ import org.openbravo.dal.service.OBCriteria;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.database.ConnectionProvider;
 import org.openbravo.erpCommon.ad_forms.AcctServer;
+import org.openbravo.erpCommon.ad_forms.AcctServerParallelRunner;
+import org.openbravo.erpCommon.ad_forms.AcctServerParallelRunner.PostingResult;
+import org.openbravo.erpCommon.ad_forms.PostingCache;
 import org.openbravo.model.ad.system.Client;
 import org.openbravo.scheduling.ProcessBundle;
 import org.openbravo.scheduling.ProcessBundle.Channel;
@@ -43,6 +47,8 @@ public class AcctServerProcess extends DalBaseProcess {
 
   private final static String BATCH_SIZE = "50";
   private final static String SYSTEM_CLIENT_ID = "0";
+  // maximum number of failed documents detailed in the process log per table
+  private final static int MAX_LOGGED_FAILURES = 20;
 
   private boolean isDirect;
 
@@ -63,16 +69,19 @@ public class AcctServerProcess extends DalBaseProcess {
     connection = bundle.getConnection();
 
     VariablesSecureApp vars = bundle.getContext().toVars();
-    if (vars.getClient().equals(SYSTEM_CLIENT_ID)) {
-      OBCriteria<Client> obc = OBDal.getInstance().createCriteria(Client.class);
-      obc.add(Restrictions.not(Restrictions.eq(Client.PROPERTY_ID, SYSTEM_CLIENT_ID)));
-      for (Client c : obc.list()) {
-        final VariablesSecureApp vars1 = new VariablesSecureApp(bundle.getContext().getUser(),
-            c.getId(), bundle.getContext().getOrganization());
-        processClient(vars1, bundle);
+    try (PostingCache postingCache = PostingCache.open()) {
+      if (vars.getClient().equals(SYSTEM_CLIENT_ID)) {
+        OBCriteria<Client> obc = OBDal.getInstance().createCriteria(Client.class);
+        obc.add(Restrictions.not(Restrictions.eq(Client.PROPERTY_ID, SYSTEM_CLIENT_ID)));
+        for (Client c : obc.list()) {
+          final VariablesSecureApp vars1 = new VariablesSecureApp(bundle.getContext().getUser(),
+              c.getId(), bundle.getContext().getOrganization());
+          processClient(vars1, bundle);
+        }
+      } else {
+        processClient(vars, bundle);
       }
-    } else {
-      processClient(vars, bundle);
+      addLog(postingCache.toString(), false);
     }
   }
 
@@ -160,6 +169,14 @@ public class AcctServerProcess extends DalBaseProcess {
     } else {
       tables = TableIds;
     }
+    if (AcctServerParallelRunner.isParallelPostingEnabled()) {
+      try (AcctServerParallelRunner runner = new AcctServerParallelRunner(
+          AcctServerParallelRunner.getConfiguredNumberOfThreads())) {
+        postTablesInParallel(runner, tables, localVars, strOrg, strDateFrom, strDateTo,
+            ctx.getLanguage());
+      }
+      return;
+    }
     String strTableDesc;
     for (int i = 0; i < tables.length; i++) {
       final AcctServer acct = AcctServer.get(tables[i], localVars.getClient(), strOrg, connection);
@@ -205,6 +222,70 @@ public class AcctServerProcess extends DalBaseProcess {
     }
   }
 
+  /**
+   * Posts the documents of the given tables using the worker threads of the runner. Documents that
+   * fail are logged and do not stop the posting of the rest of documents.
+   */
+  private void postTablesInParallel(AcctServerParallelRunner runner, String[] tables,
+      VariablesSecureApp vars, String strOrg, String strDateFrom, String strDateTo,
+      String language) throws ServletException {
+    addLog("Posting documents in parallel with " + runner.getNumberOfThreads() + " threads",
+        false);
+    final PostingResult totalResult = new PostingResult();
+    for (int i = 0; i < tables.length; i++) {
+      final AcctServer acct = AcctServer.get(tables[i], vars.getClient(), strOrg, connection);
+      if (acct == null) {
+        continue;
+      }
+      acct.setBatchSize(
+          Integer.toString(Integer.parseInt(BATCH_SIZE) * runner.getNumberOfThreads()));
+      acct.setBackground(true);
+      final String strTableDesc = AcctServerProcessData.selectDescription(connection, language,
+          acct.AD_Table_ID);
+      final PostingResult tableResult = new PostingResult();
+      while (acct.checkDocuments(strDateFrom, strDateTo)) {
+        if (tableResult.getProcessed() == 0) {
+          addLog((isDirect ? "@DL_ACCOUNTING@ - " : "Accounting - ") + strTableDesc, false);
+        } else {
+          addLog((isDirect ? "@DL_COUNTED@ " : "Counted ") + tableResult.getProcessed() + " - "
+              + strTableDesc, false);
+        }
+        final PostingResult batchResult;
+        try {
+          batchResult = runner.run(acct, vars, strDateFrom, strDateTo,
+              tableResult.getFailures().keySet());
+        } catch (final Exception ex) {
+          log4j.error(ex.getMessage(), ex);
+          return;
+        }
+        tableResult.add(batchResult);
+        if (batchResult.getProcessed() == 0) {
+          // only the documents that already failed in this run remain pending
+          break;
+        }
+      }
+      logFailures(strTableDesc, tableResult);
+      addLog((isDirect ? "@DL_TABLE@ = " : "Table = ") + strTableDesc + " - "
+          + acct.getInfo(language) + " - " + tableResult, !isDirect);
+      totalResult.add(tableResult);
+    }
+    addLog("Parallel posting completed - " + totalResult);
+  }
+
+  private void logFailures(String strTableDesc, PostingResult result) {
+    int logged = 0;
+    for (Map.Entry<String, String> failure : result.getFailures().entrySet()) {
+      if (logged == MAX_LOGGED_FAILURES) {
+        addLog("... " + (result.getFailures().size() - logged) + " more documents of "
+            + strTableDesc + " could not be posted", false);
+        break;
+      }
+      addLog("Document " + failure.getKey() + " of " + strTableDesc + " could not be posted: "
+          + failure.getValue(), false);
+      logged++;
+    }
+  }
+
   /**
    * Adds a message to the log.
    * 
@@ -0,0 +1,336 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.businessUtility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.cache.CacheInvalidationBus;
+import org.openbravo.cache.CacheInvalidationListener;
+import org.openbravo.dal.core.OBContext;
+import org.openbravo.dal.service.OBDal;
+import org.openbravo.jmx.MBeanRegistry;
+import org.openbravo.model.ad.domain.Preference;
+
+/**
+ * Keeps in memory all the preferences of the application, organized by property, to resolve the
+ * preference values requested through {@link Preferences#getPreferenceValue} without querying the
+ * database.
+ *
+ * The index is disabled by default, it is enabled with the preferences.index property of
+ * Openbravo.properties. It is loaded the first time it is used and discarded whenever a preference
+ * is changed through the DAL, in the node where the change is committed and, through the
+ * {@link CacheInvalidationBus}, in the rest of the cluster nodes. The preferences changed directly
+ * in the database are only seen after invalidating the index through JMX.
+ *
+ * While a transaction with changes in preferences is not completed, the preference values
+ * requested within it are resolved with the database, so they include those changes.
+ */
+public class PreferenceIndex implements PreferenceIndexMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "PreferenceIndex";
+  private static final String SYSTEM = "0";
+  private static final List<String> SYSTEM_ORG = Collections.singletonList(SYSTEM);
+
+  private static PreferenceIndex instance;
+
+  private final boolean enabled;
+  private final ThreadLocal<Boolean> changedInTransaction = new ThreadLocal<>();
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder lookupTime = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private volatile Map<String, List<Entry>> entries;
+
+  /**
+   * @return the preference index of this node
+   */
+  public static synchronized PreferenceIndex getInstance() {
+    if (instance == null) {
+      instance = new PreferenceIndex();
+      MBeanRegistry.registerMBean(MBEAN_NAME, instance);
+      CacheInvalidationBus.getInstance().register(MBEAN_NAME, new CacheInvalidationListener() {
+        @Override
+        public void invalidate(String key) {
+          instance.invalidateLocally();
+        }
+
+        @Override
+        public void invalidateAll() {
+          instance.invalidateLocally();
+        }
+      });
+    }
+    return instance;
+  }
+
+  private PreferenceIndex() {
+    this(OBPropertiesProvider.getInstance().getBooleanProperty("preferences.index"));
+    if (enabled) {
+      log.info("Preference index enabled");
+    }
+  }
+
+  /**
+   * Creates an index which is not registered in JMX nor in the cache invalidation bus, to be used
+   * in tests.
+   */
+  PreferenceIndex(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return true if the preference values of the current thread can be resolved with the index
+   */
+  boolean isAvailable() {
+    return enabled && changedInTransaction.get() == null;
+  }
+
+  /**
+   * Returns the preferences of the property applicable to the given visibility, in the same order
+   * and with the same filters as the query done by {@link Preferences} when the index is not used.
+   */
+  List<Entry> getApplicablePreferences(String property, boolean isListProperty, String clientId,
+      String orgId, String userId, String roleId, String windowId, boolean filterOnActive,
+      boolean filterOnReadableClients, boolean filterOnReadableOrganizations) {
+    long t = System.nanoTime();
+    List<Entry> propertyEntries = getEntries().get(getKey(property, isListProperty));
+    if (propertyEntries == null) {
+      return Collections.emptyList();
+    }
+    OBContext obContext = OBContext.getOBContext();
+    Set<String> readableClients = filterOnReadableClients
+        ? new HashSet<>(Arrays.asList(obContext.getReadableClients()))
+        : null;
+    Set<String> readableOrgs = filterOnReadableOrganizations
+        ? new HashSet<>(Arrays.asList(obContext.getReadableOrganizations()))
+        : null;
+    List<String> parentOrgs = orgId == null ? SYSTEM_ORG
+        : obContext.getOrganizationStructureProvider(clientId).getParentList(orgId, true);
+
+    List<Entry> result = new ArrayList<>();
+    for (Entry entry : propertyEntries) {
+      if ((filterOnActive && !entry.active)
+          || (readableClients != null && !readableClients.contains(entry.clientId))
+          || (readableOrgs != null && !readableOrgs.contains(entry.orgId))) {
+        continue;
+      }
+      String visibleAtClient = entry.visibleAtClientId == null ? SYSTEM : entry.visibleAtClientId;
+      if (clientId != null
+          && !(clientId.equals(entry.clientId) || SYSTEM.equals(entry.clientId))) {
+        continue;
+      }
+      if (!SYSTEM.equals(visibleAtClient) && !visibleAtClient.equals(clientId)) {
+        continue;
+      }
+      if (entry.roleId != null && !entry.roleId.equals(roleId)) {
+        continue;
+      }
+      if (!parentOrgs
+          .contains(entry.visibleAtOrgId == null ? SYSTEM : entry.visibleAtOrgId)) {
+        continue;
+      }
+      if (entry.userId != null && !entry.userId.equals(userId)) {
+        continue;
+      }
+      if (entry.windowId != null && !entry.windowId.equals(windowId)) {
+        continue;
+      }
+      result.add(entry);
+    }
+    lookups.increment();
+    lookupTime.add(System.nanoTime() - t);
+    return result;
+  }
+
+  private Map<String, List<Entry>> getEntries() {
+    Map<String, List<Entry>> currentEntries = entries;
+    if (currentEntries != null) {
+      return currentEntries;
+    }
+    // an invalidation received while loading waits for it, discarding the loaded index afterwards
+    synchronized (this) {
+      if (entries == null) {
+        entries = load();
+      }
+      return entries;
+    }
+  }
+
+  private Map<String, List<Entry>> load() {
+    long t = System.currentTimeMillis();
+    //@formatter:off
+    String hql =
+            "select p.id, p.client.id, p.organization.id, p.active, p.propertyList, p.property," +
+            "  p.attribute, p.visibleAtClient.id, p.visibleAtOrganization.id, p.userContact.id," +
+            "  p.visibleAtRole.id, p.window.id, p.selected, p.searchKey" +
+            "  from ADPreference as p";
+    //@formatter:on
+    List<Object[]> rows;
+    OBContext.setAdminMode(false);
+    try {
+      rows = OBDal.getInstance().getSession().createQuery(hql, Object[].class).list();
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+    Map<String, List<Entry>> loadedEntries = new HashMap<>();
+    for (Object[] row : rows) {
+      Entry entry = new Entry(row);
+      String property = entry.propertyList ? (String) row[5] : (String) row[6];
+      if (property != null) {
+        loadedEntries.computeIfAbsent(getKey(property, entry.propertyList), k -> new ArrayList<>())
+            .add(entry);
+      }
+    }
+    for (List<Entry> propertyEntries : loadedEntries.values()) {
+      propertyEntries.sort(Comparator.comparing(entry -> entry.id));
+    }
+    loads.increment();
+    log.debug("Loaded {} preferences in {} ms", rows.size(), System.currentTimeMillis() - t);
+    return loadedEntries;
+  }
+
+  private static String getKey(String property, boolean isListProperty) {
+    return (isListProperty ? "P|" : "A|") + property;
+  }
+
+  /**
+   * Marks that the current transaction changes preferences, so they are resolved with the database
+   * until it completes.
+   */
+  public void preferencesChanged() {
+    changedInTransaction.set(Boolean.TRUE);
+  }
+
+  /**
+   * Invoked once the current transaction completes. If it committed changes in preferences, the
+   * index is discarded in all the nodes of the cluster.
+   *
+   * @param committed
+   *          true if the transaction was committed, false if it was rolled back
+   */
+  public void transactionCompleted(boolean committed) {
+    boolean changed = changedInTransaction.get() != null;
+    changedInTransaction.remove();
+    if (changed && committed) {
+      invalidateLocally();
+      CacheInvalidationBus.getInstance().publish(MBEAN_NAME, null);
+    }
+  }
+
+  private synchronized void invalidateLocally() {
+    entries = null;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public int getPreferences() {
+    Map<String, List<Entry>> currentEntries = entries;
+    return currentEntries == null ? 0
+        : currentEntries.values().stream().mapToInt(List::size).sum();
+  }
+
+  @Override
+  public long getLookups() {
+    return lookups.sum();
+  }
+
+  @Override
+  public long getAverageLookupTime() {
+    long count = lookups.sum();
+    return count == 0 ? 0 : lookupTime.sum() / count / 1000;
+  }
+
+  @Override
+  public long getLoads() {
+    return loads.sum();
+  }
+
+  @Override
+  public void invalidate() {
+    invalidateLocally();
+  }
+
+  /**
+   * The visibility and value of a preference, used to resolve the value of a property.
+   */
+  static final class Entry {
+    final String id;
+    final String clientId;
+    final String orgId;
+    final boolean active;
+    final boolean propertyList;
+    final String visibleAtClientId;
+    final String visibleAtOrgId;
+    final String userId;
+    final String roleId;
+    final String windowId;
+    final boolean selected;
+    final String value;
+
+    private Entry(Object[] row) {
+      id = (String) row[0];
+      clientId = (String) row[1];
+      orgId = (String) row[2];
+      active = Boolean.TRUE.equals(row[3]);
+      propertyList = Boolean.TRUE.equals(row[4]);
+      visibleAtClientId = (String) row[7];
+      visibleAtOrgId = (String) row[8];
+      userId = (String) row[9];
+      roleId = (String) row[10];
+      windowId = (String) row[11];
+      selected = Boolean.TRUE.equals(row[12]);
+      value = (String) row[13];
+    }
+
+    Entry(Preference preference) {
+      id = preference.getId();
+      clientId = preference.getClient().getId();
+      orgId = preference.getOrganization().getId();
+      active = Boolean.TRUE.equals(preference.isActive());
+      propertyList = Boolean.TRUE.equals(preference.isPropertyList());
+      visibleAtClientId = preference.getVisibleAtClient() == null ? null
+          : preference.getVisibleAtClient().getId();
+      visibleAtOrgId = preference.getVisibleAtOrganization() == null ? null
+          : preference.getVisibleAtOrganization().getId();
+      userId = preference.getUserContact() == null ? null : preference.getUserContact().getId();
+      roleId = preference.getVisibleAtRole() == null ? null
+          : preference.getVisibleAtRole().getId();
+      windowId = preference.getWindow() == null ? null : preference.getWindow().getId();
+      selected = Boolean.TRUE.equals(preference.isSelected());
+      value = preference.getSearchKey();
+    }
+  }
+}
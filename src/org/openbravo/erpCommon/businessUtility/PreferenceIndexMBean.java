@@ -0,0 +1,42 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.businessUtility;
+
+/** Exposes the statistics of the {@link PreferenceIndex} as a JMX Bean. */
+public interface PreferenceIndexMBean {
+
+  /** Returns true if the preference values are resolved with the index. */
+  boolean isEnabled();
+
+  /** Returns the number of preferences kept in the index, 0 if it is not loaded. */
+  int getPreferences();
+
+  /** Returns the number of preference values resolved with the index. */
+  long getLookups();
+
+  /** Returns the average time in microseconds to resolve a preference value with the index. */
+  long getAverageLookupTime();
+
+  /** Returns the number of times the index has been loaded from the database. */
+  long getLoads();
+
+  /** Discards the index of this node, it is loaded again the next time it is used. */
+  void invalidate();
+}
@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2010-2022 Openbravo SLU
+ * All portions are Copyright (C) 2010-2026 Openbravo SLU
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -222,14 +222,14 @@ public class Preferences {
       Map<QueryFilter, Boolean> queryFilters) throws PropertyException {
     OBContext.setAdminMode();
     try {
-      List<Preference> prefs = getPreferences(property, isListProperty, clientId, orgId, userId,
-          roleId, windowId, false, true, queryFilters);
-      Preference selectedPreference = null;
+      List<PreferenceIndex.Entry> prefs = getApplicablePreferences(property, isListProperty,
+          clientId, orgId, userId, roleId, windowId, queryFilters);
+      PreferenceIndex.Entry selectedPreference = null;
       List<String> parentTree = OBContext.getOBContext()
           .getOrganizationStructureProvider(clientId)
           .getParentList(orgId, true);
       boolean conflict = false;
-      for (Preference preference : prefs) {
+      for (PreferenceIndex.Entry preference : prefs) {
         // select the highest priority or raise exception in case of conflict
         if (selectedPreference == null) {
           selectedPreference = preference;
@@ -255,12 +255,45 @@ public class Preferences {
       if (selectedPreference == null) {
         throw new PropertyNotFoundException();
       }
-      return selectedPreference.getSearchKey();
+      return selectedPreference.value;
     } finally {
       OBContext.restorePreviousMode();
     }
   }
 
+  /**
+   * Returns the preferences applicable to the given visibility, resolved with the
+   * {@link PreferenceIndex} when it is available or querying the database otherwise.
+   */
+  private static List<PreferenceIndex.Entry> getApplicablePreferences(String property,
+      boolean isListProperty, String clientId, String orgId, String userId, String roleId,
+      String windowId, Map<QueryFilter, Boolean> queryFilters) {
+    PreferenceIndex index = PreferenceIndex.getInstance();
+    if (property != null && index.isAvailable()) {
+      boolean useQueryFilters = queryFilters != null && queryFilters.size() > 0;
+      return index.getApplicablePreferences(property, isListProperty, clientId, orgId, userId,
+          roleId, windowId, !useQueryFilters || queryFilters.get(QueryFilter.ACTIVE),
+          !useQueryFilters || queryFilters.get(QueryFilter.CLIENT),
+          !useQueryFilters || queryFilters.get(QueryFilter.ORGANIZATION));
+    }
+    return queryApplicablePreferences(property, isListProperty, clientId, orgId, userId, roleId,
+        windowId, queryFilters);
+  }
+
+  /**
+   * Returns the preferences applicable to the given visibility querying the database.
+   */
+  static List<PreferenceIndex.Entry> queryApplicablePreferences(String property,
+      boolean isListProperty, String clientId, String orgId, String userId, String roleId,
+      String windowId, Map<QueryFilter, Boolean> queryFilters) {
+    List<PreferenceIndex.Entry> prefs = new ArrayList<>();
+    for (Preference preference : getPreferences(property, isListProperty, clientId, orgId, userId,
+        roleId, windowId, false, true, queryFilters)) {
+      prefs.add(new PreferenceIndex.Entry(preference));
+    }
+    return prefs;
+  }
+
   /**
    * Utility method to determine if exists a preference with the same settings passed as parameters
    * 
@@ -504,15 +537,13 @@ public class Preferences {
    *         <li>0 in case of conflict (both have identical visibility and value)
    *         </ul>
    */
-  private static int getHighestPriority(Preference pref1, Preference pref2,
+  private static int getHighestPriority(PreferenceIndex.Entry pref1, PreferenceIndex.Entry pref2,
       List<String> parentTree) {
     // Check priority by client
 
     // undefined client visibility is handled as system
-    String clientId1 = pref1.getVisibleAtClient() == null ? SYSTEM
-        : pref1.getVisibleAtClient().getId();
-    String clientId2 = pref2.getVisibleAtClient() == null ? SYSTEM
-        : pref2.getVisibleAtClient().getId();
+    String clientId1 = pref1.visibleAtClientId == null ? SYSTEM : pref1.visibleAtClientId;
+    String clientId2 = pref2.visibleAtClientId == null ? SYSTEM : pref2.visibleAtClientId;
     if (!SYSTEM.equals(clientId1) && SYSTEM.equals(clientId2)) {
       return 1;
     }
@@ -522,8 +553,8 @@ public class Preferences {
     }
 
     // Check priority by organization
-    Organization org1 = pref1.getVisibleAtOrganization();
-    Organization org2 = pref2.getVisibleAtOrganization();
+    String org1 = pref1.visibleAtOrgId;
+    String org2 = pref2.visibleAtOrgId;
     if (org1 != null && org2 == null) {
       return 1;
     }
@@ -533,8 +564,8 @@ public class Preferences {
     }
 
     if (org1 != null && org2 != null) {
-      int depth1 = parentTree.indexOf(org1.getId());
-      int depth2 = parentTree.indexOf(org2.getId());
+      int depth1 = parentTree.indexOf(org1);
+      int depth2 = parentTree.indexOf(org2);
 
       if (depth1 < depth2) {
         return 1;
@@ -544,44 +575,43 @@ public class Preferences {
     }
 
     // Check priority by user
-    if (pref1.getUserContact() != null && pref2.getUserContact() == null) {
+    if (pref1.userId != null && pref2.userId == null) {
       return 1;
     }
 
-    if (pref1.getUserContact() == null && pref2.getUserContact() != null) {
+    if (pref1.userId == null && pref2.userId != null) {
       return 2;
     }
 
     // Check priority by role
-    if (pref1.getVisibleAtRole() != null && pref2.getVisibleAtRole() == null) {
+    if (pref1.roleId != null && pref2.roleId == null) {
       return 1;
     }
 
-    if (pref1.getVisibleAtRole() == null && pref2.getVisibleAtRole() != null) {
+    if (pref1.roleId == null && pref2.roleId != null) {
       return 2;
     }
 
     // Check window
-    if (pref1.getWindow() != null && pref2.getWindow() == null) {
+    if (pref1.windowId != null && pref2.windowId == null) {
       return 1;
     }
 
-    if (pref1.getWindow() == null && pref2.getWindow() != null) {
+    if (pref1.windowId == null && pref2.windowId != null) {
       return 2;
     }
 
     // Same priority, check selected
-    if (pref1.isSelected() && !pref2.isSelected()) {
+    if (pref1.selected && !pref2.selected) {
       return 1;
     }
 
-    if (!pref1.isSelected() && pref2.isSelected()) {
+    if (!pref1.selected && pref2.selected) {
       return 2;
     }
 
-    if ((pref1.getSearchKey() == null && pref2.getSearchKey() == null)
-        || (pref1.getSearchKey() != null && pref2.getSearchKey() != null
-            && pref1.getSearchKey().equals(pref2.getSearchKey()))) {
+    if ((pref1.value == null && pref2.value == null)
+        || (pref1.value != null && pref2.value != null && pref1.value.equals(pref2.value))) {
       // Conflict with same value, it does not matter priority
       return 2;
     }
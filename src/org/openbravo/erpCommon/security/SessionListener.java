@@ -37,6 +37,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openbravo.authentication.AuthenticationManager;
 import org.openbravo.base.exception.OBException;
+import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.client.kernel.RequestContext;
 import org.openbravo.database.ConnectionProvider;
 import org.openbravo.database.SessionInfo;
@@ -143,6 +144,8 @@ public class SessionListener implements HttpSessionListener, ServletContextListe
       } catch (Exception e) {
         log.error("Error activating audit trail", e);
       }
+      SessionInfo.setSkipUnchangedContextInfo(OBPropertiesProvider.getInstance()
+          .getBooleanProperty("audit.skipUnchangedContextInfo"));
 
       try {
         SessionInfo.setUsageAuditActive(SessionLoginData.isUsageAuditEnabled(cp));
@@ -0,0 +1,409 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.cache.CacheInvalidationBus;
+import org.openbravo.cache.CacheInvalidationListener;
+import org.openbravo.dal.core.SessionFactoryController;
+import org.openbravo.jmx.MBeanRegistry;
+
+/**
+ * Keeps in memory the texts of the messages and elements of the application dictionary, with their
+ * translations to the installed languages, to translate the codes received by
+ * {@link OBMessageUtils#messageBD(String, boolean, boolean)} and
+ * {@link Utility#messageBD(org.openbravo.database.ConnectionProvider, String, String, boolean)}
+ * without querying the database.
+ *
+ * The cache is disabled by default, it is enabled with the messages.cache property of
+ * Openbravo.properties. It is loaded the first time it is used and discarded whenever a message, an
+ * element or one of their translations is changed through the DAL, in the node where the change is
+ * committed and, through the {@link CacheInvalidationBus}, in the rest of the cluster nodes. The
+ * texts changed directly in the database are only seen after invalidating the cache through JMX.
+ *
+ * The texts are loaded in a separate session, so the changes not committed yet by the transaction
+ * which triggers the load are never cached. The codes requested in a language which is not
+ * installed, as well as the ones requested within a transaction which changes texts, are translated
+ * with the database.
+ */
+public class MessageCache implements MessageCacheMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "MessageCache";
+
+  private static MessageCache instance;
+
+  private final boolean enabled;
+  private final ThreadLocal<Boolean> changedInTransaction = new ThreadLocal<>();
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private volatile Texts texts;
+
+  /**
+   * @return the message cache of this node
+   */
+  public static synchronized MessageCache getInstance() {
+    if (instance == null) {
+      instance = new MessageCache();
+      MBeanRegistry.registerMBean(MBEAN_NAME, instance);
+      CacheInvalidationBus.getInstance().register(MBEAN_NAME, new CacheInvalidationListener() {
+        @Override
+        public void invalidate(String key) {
+          instance.invalidateLocally();
+        }
+
+        @Override
+        public void invalidateAll() {
+          instance.invalidateLocally();
+        }
+      });
+    }
+    return instance;
+  }
+
+  private MessageCache() {
+    this(OBPropertiesProvider.getInstance().getBooleanProperty("messages.cache"));
+    if (enabled) {
+      log.info("Message cache enabled");
+    }
+  }
+
+  /**
+   * Creates a cache which is not shared with the rest of the application, to be used in tests.
+   */
+  MessageCache(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Translates a code with the same criteria as {@link OBMessageUtils#messageBD(String, boolean,
+   * boolean)}: it looks for an active message with the code as search key and, if there is none or
+   * its text is empty, for an active element with the code as column name.
+   *
+   * @param code
+   *          the search key of the message or the column name of the element
+   * @param ignoreCase
+   *          whether the search key of the message is compared ignoring case. The column name of
+   *          the element is always compared ignoring case
+   * @param language
+   *          the language code of the translation
+   * @param translateMessage
+   *          whether the translation of the message is returned, the translation of the element is
+   *          always returned
+   * @return the translated text, an empty string if there is no message or element for the code or
+   *         null if the code must be translated with the database
+   */
+  String getActiveText(String code, boolean ignoreCase, String language,
+      boolean translateMessage) {
+    Texts currentTexts = getTexts(language);
+    if (currentTexts == null) {
+      return null;
+    }
+    String text = null;
+    Text message = find(currentTexts.messages, code, ignoreCase, true);
+    if (message != null) {
+      text = translateMessage ? message.getText(language) : message.text;
+    }
+    if (text == null || text.isEmpty()) {
+      Text element = find(currentTexts.elements, code, true, true);
+      if (element != null) {
+        text = element.getText(language);
+      }
+    }
+    lookups.increment();
+    return text == null ? "" : text;
+  }
+
+  /**
+   * Translates a code with the same criteria as the queries of {@link MessageBDData}: it looks for
+   * a message with the code as search key and, if there is none or its text is empty, for an
+   * element with the code as column name, regardless of whether they are active.
+   *
+   * @param code
+   *          the search key of the message or the column name of the element
+   * @param language
+   *          the language code of the translation
+   * @return the translated text, an empty string if there is no message or element for the code or
+   *         null if the code must be translated with the database
+   */
+  String getText(String code, String language) {
+    Texts currentTexts = getTexts(language);
+    if (currentTexts == null) {
+      return null;
+    }
+    String text = null;
+    Text message = find(currentTexts.messages, code, false, false);
+    if (message != null) {
+      text = message.getText(language);
+    }
+    if (text == null || text.isEmpty()) {
+      Text element = find(currentTexts.elements, code, false, false);
+      if (element != null) {
+        text = element.getText(language);
+      }
+    }
+    lookups.increment();
+    return text == null ? "" : text;
+  }
+
+  private Texts getTexts(String language) {
+    if (!enabled || changedInTransaction.get() != null) {
+      return null;
+    }
+    Texts currentTexts = texts;
+    if (currentTexts == null) {
+      // an invalidation received while loading waits for it, discarding the loaded texts afterwards
+      synchronized (this) {
+        if (texts == null) {
+          try {
+            texts = load();
+          } catch (Exception e) {
+            log.error("Could not load the message cache, translating with the database", e);
+            return null;
+          }
+        }
+        currentTexts = texts;
+      }
+    }
+    if (!currentTexts.languages.contains(language)) {
+      misses.increment();
+      return null;
+    }
+    return currentTexts;
+  }
+
+  private Texts load() {
+    long t = System.currentTimeMillis();
+    Texts loadedTexts;
+    StatelessSession session = SessionFactoryController.getInstance()
+        .getSessionFactory()
+        .openStatelessSession();
+    Transaction tx = session.beginTransaction();
+    try {
+      //@formatter:off
+      String languagesHql =
+              "select l.language" +
+              "  from ADLanguage as l" +
+              " where l.systemLanguage = true" +
+              "    or l.baseLanguage = true";
+      String messagesHql =
+              "select m.id, m.searchKey, m.messageText, m.active" +
+              "  from ADMessage as m";
+      String messageTranslationsHql =
+              "select t.message.id, t.language.language, t.messageText" +
+              "  from ADMessageTrl as t" +
+              " where t.language.systemLanguage = true";
+      String elementsHql =
+              "select e.id, e.dBColumnName, e.name, e.active" +
+              "  from ADElement as e" +
+              " where e.dBColumnName is not null";
+      String elementTranslationsHql =
+              "select t.applicationElement.id, t.language.language, t.name" +
+              "  from ADElementTrl as t" +
+              " where t.language.systemLanguage = true";
+      //@formatter:on
+      loadedTexts = new Texts(new HashSet<>(query(session, languagesHql, String.class)),
+          index(query(session, messagesHql, Object[].class),
+              query(session, messageTranslationsHql, Object[].class)),
+          index(query(session, elementsHql, Object[].class),
+              query(session, elementTranslationsHql, Object[].class)));
+    } finally {
+      // nothing is written, the transaction is only used to read
+      tx.rollback();
+      session.close();
+    }
+    loads.increment();
+    log.debug("Loaded {} messages and {} elements in {} languages in {} ms",
+        loadedTexts.messageCount, loadedTexts.elementCount, loadedTexts.languages.size(),
+        System.currentTimeMillis() - t);
+    return loadedTexts;
+  }
+
+  private static <T> List<T> query(StatelessSession session, String hql, Class<T> type) {
+    return session.createQuery(hql, type).list();
+  }
+
+  private static Map<String, List<Text>> index(List<Object[]> rows, List<Object[]> translations) {
+    Map<String, Text> textsById = new HashMap<>(rows.size());
+    for (Object[] row : rows) {
+      textsById.put((String) row[0],
+          new Text((String) row[0], (String) row[1], (String) row[2], (Boolean) row[3]));
+    }
+    for (Object[] translation : translations) {
+      Text text = textsById.get(translation[0]);
+      if (text != null && translation[2] != null) {
+        text.translations.put((String) translation[1], (String) translation[2]);
+      }
+    }
+    Map<String, List<Text>> textsByCode = new HashMap<>(textsById.size());
+    for (Text text : textsById.values()) {
+      textsByCode.computeIfAbsent(getKey(text.code), k -> new ArrayList<>(1)).add(text);
+    }
+    // returns the same text every time for the codes that only differ in case
+    for (List<Text> sameCodeTexts : textsByCode.values()) {
+      sameCodeTexts.sort(Comparator.comparing(text -> text.id));
+    }
+    return textsByCode;
+  }
+
+  private static Text find(Map<String, List<Text>> textsByCode, String code, boolean ignoreCase,
+      boolean activeOnly) {
+    if (code == null) {
+      return null;
+    }
+    for (Text text : textsByCode.getOrDefault(getKey(code), Collections.emptyList())) {
+      if ((!activeOnly || text.active) && (ignoreCase || text.code.equals(code))) {
+        return text;
+      }
+    }
+    return null;
+  }
+
+  private static String getKey(String code) {
+    return code.toUpperCase(Locale.ROOT);
+  }
+
+  /**
+   * Marks that the current transaction changes messages or elements, so the codes are translated
+   * with the database until it completes.
+   */
+  public void textsChanged() {
+    if (enabled) {
+      changedInTransaction.set(Boolean.TRUE);
+    }
+  }
+
+  /**
+   * Invoked once the current transaction completes. If it committed changes in messages or
+   * elements, the cache is discarded in all the nodes of the cluster.
+   *
+   * @param committed
+   *          true if the transaction was committed, false if it was rolled back
+   */
+  public void transactionCompleted(boolean committed) {
+    boolean changed = changedInTransaction.get() != null;
+    changedInTransaction.remove();
+    if (changed && committed) {
+      invalidateLocally();
+      CacheInvalidationBus.getInstance().publish(MBEAN_NAME, null);
+    }
+  }
+
+  private synchronized void invalidateLocally() {
+    texts = null;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public int getMessages() {
+    Texts currentTexts = texts;
+    return currentTexts == null ? 0 : currentTexts.messageCount;
+  }
+
+  @Override
+  public int getElements() {
+    Texts currentTexts = texts;
+    return currentTexts == null ? 0 : currentTexts.elementCount;
+  }
+
+  @Override
+  public Set<String> getLanguages() {
+    Texts currentTexts = texts;
+    return currentTexts == null ? Collections.emptySet()
+        : Collections.unmodifiableSet(currentTexts.languages);
+  }
+
+  @Override
+  public long getLookups() {
+    return lookups.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public long getLoads() {
+    return loads.sum();
+  }
+
+  @Override
+  public void invalidate() {
+    invalidateLocally();
+  }
+
+  private static final class Texts {
+    private final Set<String> languages;
+    private final Map<String, List<Text>> messages;
+    private final Map<String, List<Text>> elements;
+    private final int messageCount;
+    private final int elementCount;
+
+    private Texts(Set<String> languages, Map<String, List<Text>> messages,
+        Map<String, List<Text>> elements) {
+      this.languages = languages;
+      this.messages = messages;
+      this.elements = elements;
+      messageCount = messages.values().stream().mapToInt(List::size).sum();
+      elementCount = elements.values().stream().mapToInt(List::size).sum();
+    }
+  }
+
+  /** The text of a message or element and its translations, by language code. */
+  private static final class Text {
+    private final String id;
+    private final String code;
+    private final String text;
+    private final boolean active;
+    private final Map<String, String> translations = new HashMap<>(2);
+
+    private Text(String id, String code, String text, Boolean active) {
+      this.id = id;
+      this.code = code;
+      this.text = text;
+      this.active = Boolean.TRUE.equals(active);
+    }
+
+    private String getText(String language) {
+      return translations.getOrDefault(language, text);
+    }
+  }
+}
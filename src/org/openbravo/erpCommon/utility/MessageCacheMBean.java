@@ -0,0 +1,53 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.utility;
+
+import java.util.Set;
+
+/** Exposes the statistics of the {@link MessageCache} as a JMX Bean. */
+public interface MessageCacheMBean {
+
+  /** Returns true if the messages are translated with the cache. */
+  boolean isEnabled();
+
+  /** Returns the number of messages kept in the cache, 0 if it is not loaded. */
+  int getMessages();
+
+  /** Returns the number of elements kept in the cache, 0 if it is not loaded. */
+  int getElements();
+
+  /** Returns the languages whose translations are kept in the cache. */
+  Set<String> getLanguages();
+
+  /** Returns the number of messages translated with the cache. */
+  long getLookups();
+
+  /**
+   * Returns the number of messages which were translated with the database because their language
+   * is not kept in the cache.
+   */
+  long getMisses();
+
+  /** Returns the number of times the cache has been loaded from the database. */
+  long getLoads();
+
+  /** Discards the cache of this node, it is loaded again the next time it is used. */
+  void invalidate();
+}
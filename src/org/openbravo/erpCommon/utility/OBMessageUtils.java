@@ -71,8 +71,25 @@ public class OBMessageUtils {
    */
 
   public static String messageBD(String strCode, boolean ignoreCase, boolean escape) {
+    final OBContext obContext = OBContext.getOBContext();
+    String strMessage = MessageCache.getInstance()
+        .getActiveText(strCode, ignoreCase, obContext.getLanguage().getLanguage(),
+            obContext.isTranslationInstalled());
+    if (strMessage == null) {
+      strMessage = getMessageFromDatabase(strCode, ignoreCase, obContext.getLanguage().getId());
+    }
+    if ("".equals(strMessage)) {
+      strMessage = strCode;
+    }
+    if (escape) {
+      strMessage = escape(strMessage);
+    }
+    return strMessage;
+  }
+
+  private static String getMessageFromDatabase(String strCode, boolean ignoreCase,
+      String strLanguageId) {
     String strMessage = "";
-    final String strLanguageId = OBContext.getOBContext().getLanguage().getId();
     // Search strCode in AD_Message table.
     try {
       OBContext.setAdminMode(false);
@@ -124,20 +141,18 @@ public class OBMessageUtils {
         OBContext.restorePreviousMode();
       }
     }
-    if ("".equals(strMessage)) {
-      strMessage = strCode;
-    }
-    if (escape) {
-      strMessage = Replace.replace(Replace.replace(strMessage, "\n", "\\n"), "\"", "&quot;");
-    }
     return strMessage;
   }
 
+  private static String escape(String message) {
+    return Replace.replace(Replace.replace(message, "\n", "\\n"), "\"", "&quot;");
+  }
+
   /**
    * @see OBMessageUtils#messageBD(ConnectionProvider, String, String, boolean)
    */
   public static String messageBD(ConnectionProvider conn, String strCode, String strLanguage) {
-    return BasicUtility.messageBD(conn, strCode, strLanguage, true);
+    return messageBD(conn, strCode, strLanguage, true);
   }
 
   /**
@@ -155,7 +170,19 @@ public class OBMessageUtils {
    */
   public static String messageBD(ConnectionProvider conn, String strCode, String strLanguage,
       boolean escape) {
-    return BasicUtility.messageBD(conn, strCode, strLanguage, escape);
+    String strMessage = MessageCache.getInstance()
+        .getText(strCode,
+            strLanguage == null || strLanguage.equals("") ? "en_US" : strLanguage);
+    if (strMessage == null) {
+      return BasicUtility.messageBD(conn, strCode, strLanguage, escape);
+    }
+    if ("".equals(strMessage)) {
+      strMessage = strCode;
+    }
+    if (escape) {
+      strMessage = escape(strMessage);
+    }
+    return strMessage;
   }
 
   /**
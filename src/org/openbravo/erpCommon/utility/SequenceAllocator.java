@@ -0,0 +1,470 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.utility;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbravo.base.session.OBPropertiesProvider;
+import org.openbravo.cache.CacheInvalidationBus;
+import org.openbravo.cache.CacheInvalidationListener;
+import org.openbravo.exception.NoConnectionAvailableException;
+import org.openbravo.jmx.MBeanRegistry;
+import org.openbravo.service.db.DalConnectionProvider;
+
+/**
+ * Hands out the numbers of the sequences which do not need to be gapless from blocks reserved in
+ * memory, so the documents which use them do not serialize on the lock of their AD_Sequence row
+ * until their transaction completes.
+ *
+ * Block allocation is disabled by default, it is enabled for the sequences whose ids are listed,
+ * separated by commas, in the sequence.blockAllocation property of Openbravo.properties. Each node
+ * reserves a block of sequence.blockAllocation.size numbers (100 by default) in a short separate
+ * transaction and hands them out without locking, so the numbers of different nodes are not
+ * consecutive and the numbers of a block not used when the node stops are lost. The rest of the
+ * sequences keep locking their row, which is the only way to get gapless numbers.
+ *
+ * The blocks of a sequence are discarded when its next number is changed through the DAL, in the
+ * node where the change is committed and, through the {@link CacheInvalidationBus}, in the rest of
+ * the cluster nodes. The reservation waits for the lock of the row of the sequence at most
+ * sequence.blockAllocation.lockTimeout milliseconds (1000 by default). If a block cannot be
+ * reserved because the row is kept locked, or because it is already locked by the current
+ * transaction, the number is obtained locking the row as if block allocation was disabled.
+ *
+ * The time spent reserving blocks and waiting for the lock of the sequences in row locking mode is
+ * exposed through JMX.
+ */
+public class SequenceAllocator implements SequenceAllocatorMBean {
+  private static final Logger log = LogManager.getLogger();
+
+  public static final String MBEAN_NAME = "SequenceAllocator";
+  private static final int DEFAULT_BLOCK_SIZE = 100;
+  private static final long DEFAULT_LOCK_TIMEOUT = 1000;
+
+  private static SequenceAllocator instance;
+
+  private final Set<String> blockAllocatedSequences;
+  private final int blockSize;
+  private final long lockTimeout;
+  private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+  private final Map<String, ReservationLock> reservationLocks = new ConcurrentHashMap<>();
+  private final ThreadLocal<Set<String>> changedSequences = new ThreadLocal<>();
+  private final ThreadLocal<Set<String>> lockedSequences = new ThreadLocal<>();
+  private final LongAdder blockNumbers = new LongAdder();
+  private final LongAdder reservations = new LongAdder();
+  private final LongAdder reservationTime = new LongAdder();
+  private final LongAccumulator maxReservationTime = new LongAccumulator(Long::max, 0);
+  private final LongAdder reservationConflicts = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+  private final LongAdder rowLocks = new LongAdder();
+  private final LongAdder rowLockWaitTime = new LongAdder();
+  private final LongAccumulator maxRowLockWaitTime = new LongAccumulator(Long::max, 0);
+
+  /**
+   * @return the sequence allocator of this node
+   */
+  public static synchronized SequenceAllocator getInstance() {
+    if (instance == null) {
+      instance = new SequenceAllocator();
+      MBeanRegistry.registerMBean(MBEAN_NAME, instance);
+      CacheInvalidationBus.getInstance().register(MBEAN_NAME, new CacheInvalidationListener() {
+        @Override
+        public void invalidate(String sequenceId) {
+          instance.blocks.remove(sequenceId);
+        }
+
+        @Override
+        public void invalidateAll() {
+          instance.blocks.clear();
+        }
+      });
+    }
+    return instance;
+  }
+
+  private SequenceAllocator() {
+    this(getBlockAllocatedSequencesProperty(),
+        Math.max(1, OBPropertiesProvider.getInstance()
+            .getIntProperty("sequence.blockAllocation.size", DEFAULT_BLOCK_SIZE)),
+        Math.max(1L, OBPropertiesProvider.getInstance()
+            .getLongProperty("sequence.blockAllocation.lockTimeout", DEFAULT_LOCK_TIMEOUT)));
+    if (!blockAllocatedSequences.isEmpty()) {
+      log.info("Block allocation of {} numbers enabled for sequences {}", blockSize,
+          blockAllocatedSequences);
+    }
+  }
+
+  /**
+   * Creates an allocator which is not shared with the rest of the application, to be used in tests.
+   *
+   * @param blockAllocatedSequences
+   *          the ids of the sequences whose numbers are allocated in blocks
+   * @param blockSize
+   *          the amount of numbers reserved in each block
+   * @param lockTimeout
+   *          the maximum time in milliseconds to wait for the lock of a sequence to reserve a block
+   */
+  SequenceAllocator(Set<String> blockAllocatedSequences, int blockSize, long lockTimeout) {
+    this.blockAllocatedSequences = Collections.unmodifiableSet(blockAllocatedSequences);
+    this.blockSize = blockSize;
+    this.lockTimeout = lockTimeout;
+  }
+
+  private static Set<String> getBlockAllocatedSequencesProperty() {
+    Properties properties = OBPropertiesProvider.getInstance().getOpenbravoProperties();
+    String sequenceIds = properties == null ? null
+        : properties.getProperty("sequence.blockAllocation");
+    Set<String> sequences = new HashSet<>();
+    if (sequenceIds != null) {
+      for (String sequenceId : sequenceIds.split(",")) {
+        if (StringUtils.isNotBlank(sequenceId)) {
+          sequences.add(sequenceId.trim());
+        }
+      }
+    }
+    return sequences;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return !blockAllocatedSequences.isEmpty();
+  }
+
+  /**
+   * @return true if the numbers of the given sequence are handed out from blocks reserved in memory
+   */
+  public boolean isBlockAllocated(String sequenceId) {
+    return blockAllocatedSequences.contains(sequenceId);
+  }
+
+  /**
+   * Returns the next number of a block allocated sequence, reserving a new block if the current one
+   * is exhausted.
+   *
+   * A new block is not reserved if the current transaction has already locked the row of the
+   * sequence, because the reservation would wait for it, nor if a reservation has failed while this
+   * thread was waiting for it.
+   *
+   * @return the next number, or null if a block could not be reserved, in which case the number
+   *         must be obtained locking the sequence
+   */
+  Long nextNumber(String sequenceId) {
+    Block block = blocks.get(sequenceId);
+    Long number = block == null ? null : block.next();
+    if (number == null) {
+      if (isLockedByCurrentTransaction(sequenceId)) {
+        fallbacks.increment();
+        return null;
+      }
+      final ReservationLock lock = reservationLocks.computeIfAbsent(sequenceId,
+          id -> new ReservationLock());
+      final int failures = lock.failures;
+      synchronized (lock) {
+        // another thread could have reserved a new block meanwhile
+        block = blocks.get(sequenceId);
+        number = block == null ? null : block.next();
+        if (number == null) {
+          if (lock.failures != failures) {
+            // a reservation failed while this thread was waiting, do not wait for the row again
+            fallbacks.increment();
+            return null;
+          }
+          block = reserve(sequenceId);
+          if (block == null) {
+            lock.failures++;
+            fallbacks.increment();
+            return null;
+          }
+          number = block.next();
+          blocks.put(sequenceId, block);
+        }
+      }
+    }
+    blockNumbers.increment();
+    return number;
+  }
+
+  /**
+   * @return the number that will be handed out next for a block allocated sequence, or null if
+   *         there is no block reserved for it
+   */
+  Long peekNumber(String sequenceId) {
+    Block block = blocks.get(sequenceId);
+    return block == null ? null : block.peek();
+  }
+
+  private boolean isLockedByCurrentTransaction(String sequenceId) {
+    Set<String> locked = lockedSequences.get();
+    Set<String> changed = changedSequences.get();
+    return locked != null && locked.contains(sequenceId)
+        || changed != null && changed.contains(sequenceId);
+  }
+
+  private Block reserve(String sequenceId) {
+    final DalConnectionProvider connectionProvider = new DalConnectionProvider(false);
+    final boolean oracle = "ORACLE".equals(connectionProvider.getRDBMS());
+    //@formatter:off
+    final String selectSql =
+            "SELECT CURRENTNEXT, INCREMENTNO" +
+            "  FROM AD_SEQUENCE" +
+            " WHERE AD_SEQUENCE_ID = ?" +
+            "   FOR UPDATE" + (oracle ? " WAIT " + Math.max(1, (lockTimeout + 999) / 1000) : "");
+    final String updateSql =
+            "UPDATE AD_SEQUENCE" +
+            "   SET CURRENTNEXT = ?" +
+            " WHERE AD_SEQUENCE_ID = ?";
+    //@formatter:on
+    long t = System.nanoTime();
+    Connection conn = null;
+    boolean committed = false;
+    try {
+      // the row is locked in a separate transaction, which is committed right away
+      conn = connectionProvider.getTransactionConnection();
+      if (!oracle) {
+        try (Statement st = conn.createStatement()) {
+          st.execute("SET LOCAL lock_timeout = " + lockTimeout);
+        }
+      }
+      long first;
+      long increment;
+      try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+        ps.setString(1, sequenceId);
+        try (ResultSet rs = ps.executeQuery()) {
+          if (!rs.next()) {
+            log.warn("Sequence {} not found, it cannot be block allocated", sequenceId);
+            return null;
+          }
+          first = rs.getLong(1);
+          increment = rs.getLong(2);
+        }
+      }
+      try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
+        ps.setLong(1, first + increment * blockSize);
+        ps.setString(2, sequenceId);
+        ps.executeUpdate();
+      }
+      connectionProvider.releaseCommitConnection(conn);
+      committed = true;
+
+      long elapsed = System.nanoTime() - t;
+      reservations.increment();
+      reservationTime.add(elapsed);
+      maxReservationTime.accumulate(elapsed);
+      log.debug("Reserved numbers {} to {} of sequence {} in {} ms", first,
+          first + increment * (blockSize - 1), sequenceId, elapsed / 1_000_000);
+      return new Block(first, increment, blockSize);
+    } catch (NoConnectionAvailableException | SQLException e) {
+      // the row is kept locked by another transaction longer than the lock timeout
+      reservationConflicts.increment();
+      log.warn("Could not reserve a block of sequence {}, locking its row instead", sequenceId);
+      log.debug("Reservation of a block of sequence {} failed", sequenceId, e);
+      return null;
+    } finally {
+      if (!committed && conn != null) {
+        try {
+          connectionProvider.releaseRollbackConnection(conn);
+        } catch (SQLException e) {
+          log.error("Could not roll back the reservation of a block of sequence {}", sequenceId,
+              e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Records the time spent waiting for the lock of the row of a sequence in row locking mode. No
+   * block of the sequence is reserved until the current transaction completes, as the reservation
+   * would wait for this lock.
+   *
+   * @param sequenceId
+   *          the id of the locked sequence
+   * @param nanos
+   *          the time waited in nanoseconds
+   */
+  void rowLocked(String sequenceId, long nanos) {
+    if (isBlockAllocated(sequenceId)) {
+      Set<String> sequenceIds = lockedSequences.get();
+      if (sequenceIds == null) {
+        sequenceIds = new HashSet<>();
+        lockedSequences.set(sequenceIds);
+      }
+      sequenceIds.add(sequenceId);
+    }
+    rowLocks.increment();
+    rowLockWaitTime.add(nanos);
+    maxRowLockWaitTime.accumulate(nanos);
+  }
+
+  /**
+   * Marks that the current transaction changes the next number of a block allocated sequence, so
+   * its blocks are discarded once it is committed.
+   */
+  public void sequenceChanged(String sequenceId) {
+    if (!isBlockAllocated(sequenceId)) {
+      return;
+    }
+    Set<String> sequenceIds = changedSequences.get();
+    if (sequenceIds == null) {
+      sequenceIds = new HashSet<>();
+      changedSequences.set(sequenceIds);
+    }
+    sequenceIds.add(sequenceId);
+  }
+
+  /**
+   * Invoked once the current transaction completes. If it committed changes in the next number of
+   * block allocated sequences, their blocks are discarded in all the nodes of the cluster.
+   *
+   * @param committed
+   *          true if the transaction was committed, false if it was rolled back
+   */
+  public void transactionCompleted(boolean committed) {
+    Set<String> sequenceIds = changedSequences.get();
+    changedSequences.remove();
+    lockedSequences.remove();
+    if (sequenceIds == null || !committed) {
+      return;
+    }
+    for (String sequenceId : sequenceIds) {
+      blocks.remove(sequenceId);
+      CacheInvalidationBus.getInstance().publish(MBEAN_NAME, sequenceId);
+    }
+  }
+
+  @Override
+  public Set<String> getBlockAllocatedSequences() {
+    return blockAllocatedSequences;
+  }
+
+  @Override
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  @Override
+  public long getBlockAllocatedNumbers() {
+    return blockNumbers.sum();
+  }
+
+  @Override
+  public long getReservations() {
+    return reservations.sum();
+  }
+
+  @Override
+  public long getAverageReservationTime() {
+    long count = reservations.sum();
+    return count == 0 ? 0 : reservationTime.sum() / count / 1000;
+  }
+
+  @Override
+  public long getMaxReservationTime() {
+    return maxReservationTime.get() / 1000;
+  }
+
+  @Override
+  public long getReservationConflicts() {
+    return reservationConflicts.sum();
+  }
+
+  @Override
+  public long getFallbacks() {
+    return fallbacks.sum();
+  }
+
+  @Override
+  public long getRowLocks() {
+    return rowLocks.sum();
+  }
+
+  @Override
+  public long getAverageRowLockWaitTime() {
+    long count = rowLocks.sum();
+    return count == 0 ? 0 : rowLockWaitTime.sum() / count / 1000;
+  }
+
+  @Override
+  public long getMaxRowLockWaitTime() {
+    return maxRowLockWaitTime.get() / 1000;
+  }
+
+  @Override
+  public void resetStatistics() {
+    blockNumbers.reset();
+    reservations.reset();
+    reservationTime.reset();
+    maxReservationTime.reset();
+    reservationConflicts.reset();
+    fallbacks.reset();
+    rowLocks.reset();
+    rowLockWaitTime.reset();
+    maxRowLockWaitTime.reset();
+  }
+
+  @Override
+  public void discardBlocks() {
+    blocks.clear();
+  }
+
+  /** Serializes the reservations of a sequence in this node. */
+  private static final class ReservationLock {
+    // reservations failed so far, read before waiting for the lock
+    private volatile int failures;
+  }
+
+  /** A block of consecutive numbers of a sequence reserved by this node. */
+  private static final class Block {
+    private final long first;
+    private final long increment;
+    private final int size;
+    private final AtomicInteger taken = new AtomicInteger();
+
+    private Block(long first, long increment, int size) {
+      this.first = first;
+      this.increment = increment;
+      this.size = size;
+    }
+
+    private Long next() {
+      int index = taken.getAndIncrement();
+      return index < size ? first + index * increment : null;
+    }
+
+    private Long peek() {
+      int index = taken.get();
+      return index < size ? first + index * increment : null;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.erpCommon.utility;
+
+import java.util.Set;
+
+/** Exposes the statistics of the {@link SequenceAllocator} as a JMX Bean. */
+public interface SequenceAllocatorMBean {
+
+  /** Returns true if the numbers of any sequence are handed out from blocks. */
+  boolean isEnabled();
+
+  /** Returns the ids of the sequences whose numbers are handed out from blocks. */
+  Set<String> getBlockAllocatedSequences();
+
+  /** Returns the number of sequence numbers reserved in each block. */
+  int getBlockSize();
+
+  /** Returns the number of sequence numbers handed out from blocks. */
+  long getBlockAllocatedNumbers();
+
+  /** Returns the number of blocks reserved. */
+  long getReservations();
+
+  /**
+   * Returns the average time in microseconds the row of a sequence is kept locked to reserve a
+   * block.
+   */
+  long getAverageReservationTime();
+
+  /**
+   * Returns the maximum time in microseconds the row of a sequence is kept locked to reserve a
+   * block.
+   */
+  long getMaxReservationTime();
+
+  /**
+   * Returns the number of attempts to reserve a block which could not lock the sequence row within
+   * the lock timeout.
+   */
+  long getReservationConflicts();
+
+  /**
+   * Returns the number of block allocated sequence numbers which were obtained locking the row of
+   * the sequence because a block could not be reserved.
+   */
+  long getFallbacks();
+
+  /** Returns the number of times the row of a sequence has been locked in row locking mode. */
+  long getRowLocks();
+
+  /**
+   * Returns the average time in microseconds waited to lock the row of a sequence in row locking
+   * mode. The lock is kept until the transaction completes.
+   */
+  long getAverageRowLockWaitTime();
+
+  /**
+   * Returns the maximum time in microseconds waited to lock the row of a sequence in row locking
+   * mode.
+   */
+  long getMaxRowLockWaitTime();
+
+  /** Resets the statistics. */
+  void resetStatistics();
+
+  /**
+   * Discards the blocks reserved by this node, the numbers not handed out yet from them are lost.
+   */
+  void discardBlocks();
+}
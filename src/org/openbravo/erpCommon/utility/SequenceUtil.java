@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2024 Openbravo SLU 
+ * All portions are Copyright (C) 2024-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -27,8 +27,10 @@ import org.hibernate.LockOptions;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
 import org.openbravo.base.exception.OBException;
+import org.openbravo.dal.core.OBContext;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.model.ad.utility.Sequence;
+import org.openbravo.model.common.enterprise.DocumentType;
 
 /**
  * Central place for sequence management. It is a pure Java implementation not based on the
@@ -105,6 +107,9 @@ public class SequenceUtil {
   /**
    * Retrieves the next document number from the specified sequence.
    * 
+   * If the numbers of the sequence are allocated in blocks by the {@link SequenceAllocator}, the
+   * number is taken from the block reserved by this node and the sequence is not locked.
+   * 
    * @param updatedNext
    *          When set to true, it updates and persists the next assigned number in the database.
    *          Use false when you want to retrieve the next document number without updating the
@@ -119,13 +124,29 @@ public class SequenceUtil {
     if (seq == null) {
       return null;
     }
-    Sequence sequence = getSequenceAndLockIfUpdateNext(updatedNext, seq);
+    final SequenceAllocator allocator = SequenceAllocator.getInstance();
+    Long blockNumber = null;
+    Sequence sequence;
+    if (allocator.isBlockAllocated(seq.getId())) {
+      final boolean autonumbering = CalculationMethod.AUTONUMERING.value
+          .equals(seq.getCalculationMethod());
+      if (autonumbering) {
+        blockNumber = updatedNext ? allocator.nextNumber(seq.getId())
+            : allocator.peekNumber(seq.getId());
+      }
+      // the sequence is locked only if a block could not be reserved
+      final boolean lock = autonumbering && updatedNext && blockNumber == null;
+      sequence = lock ? lockSequence(seq.getId()) : seq;
+    } else {
+      sequence = getSequenceAndLockIfUpdateNext(updatedNext, seq);
+    }
     final String calculationMethod = sequence.getCalculationMethod();
 
     final StringBuilder documentNo = new StringBuilder();
 
     if (CalculationMethod.AUTONUMERING.value.equals(calculationMethod)) {
-      documentNo.append(getNextDocNumberWithoutPrefixSuffix(updatedNext, sequence));
+      documentNo.append(blockNumber != null ? blockNumber.toString()
+          : getNextDocNumberWithoutPrefixSuffix(updatedNext, sequence));
     } else if (CalculationMethod.SEQUENCE.value.equals(calculationMethod)) {
       documentNo.append(getDocumentNo(updatedNext, sequence.getBaseSequence()));
     } else if (CalculationMethod.DOCUMENTNO_TABLENAME.value.equals(calculationMethod)) {
@@ -135,7 +156,10 @@ public class SequenceUtil {
     } else {
       throw new OBException("Calculation Method not supported: " + calculationMethod, true);
     }
+    return formatDocumentNo(sequence, documentNo);
+  }
 
+  private static String formatDocumentNo(final Sequence sequence, final StringBuilder documentNo) {
     if (SequenceNumberLength.FIXED.value.equals(sequence.getSequenceNumberLength())) {
       documentNo.replace(0, documentNo.length(), StringUtils.leftPad(documentNo.toString(),
           sequence.getSequenceLength().intValue(), SequenceNumberLength.FIXED.padLeftString));
@@ -149,6 +173,42 @@ public class SequenceUtil {
     return documentNo.toString();
   }
 
+  /**
+   * Retrieves the next document number of a document type whose sequence numbers are allocated in
+   * blocks by the {@link SequenceAllocator}, updating the sequence. It is equivalent to the
+   * AD_SEQUENCE_DOCTYPE PL/SQL procedure for those sequences.
+   * 
+   * @param docTypeId
+   *          The id of the document type.
+   * 
+   * @return The next document number, or null if the document type does not use a block allocated
+   *         sequence or a block could not be reserved, in which case it must be obtained in the
+   *         usual way.
+   */
+  public static String getBlockAllocatedDocumentNo(String docTypeId) {
+    final SequenceAllocator allocator = SequenceAllocator.getInstance();
+    if (!allocator.isEnabled() || StringUtils.isEmpty(docTypeId)) {
+      return null;
+    }
+    OBContext.setAdminMode(true);
+    try {
+      final DocumentType docType = OBDal.getInstance().get(DocumentType.class, docTypeId);
+      if (docType == null || !docType.isActive() || !docType.isSequencedDocument()) {
+        return null;
+      }
+      final Sequence seq = docType.getDocumentSequence();
+      if (seq == null || !seq.isActive() || !allocator.isBlockAllocated(seq.getId())
+          || !CalculationMethod.AUTONUMERING.value.equals(seq.getCalculationMethod())) {
+        return null;
+      }
+      final Long number = allocator.nextNumber(seq.getId());
+      // if a block could not be reserved, the sequence is locked in the usual way by the caller
+      return number == null ? null : formatDocumentNo(seq, new StringBuilder(number.toString()));
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+  }
+
   private static String getNextDocNumberWithoutPrefixSuffix(final boolean updateNext,
       final Sequence seq) {
     final Long nextDocNumber = seq.getNextAssignedNumber();
@@ -177,7 +237,10 @@ public class SequenceUtil {
     query.setParameter("id", sequenceId);
     query.setMaxResults(1);
     query.setLockOptions(LockOptions.UPGRADE);
-    return query.uniqueResult();
+    final long t = System.nanoTime();
+    final Sequence sequence = query.uniqueResult();
+    SequenceAllocator.getInstance().rowLocked(sequenceId, System.nanoTime() - t);
+    return sequence;
   }
 
   private static void incrementSeqIfUpdateNext(final boolean updateNext, final Sequence seq) {
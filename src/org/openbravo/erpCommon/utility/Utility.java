@@ -275,7 +275,7 @@ public class Utility {
    * @see OBMessageUtils#messageBD(ConnectionProvider, String, String, boolean)
    */
   public static String messageBD(ConnectionProvider conn, String strCode, String strLanguage) {
-    return BasicUtility.messageBD(conn, strCode, strLanguage, true);
+    return OBMessageUtils.messageBD(conn, strCode, strLanguage, true);
   }
 
   /**
@@ -283,7 +283,7 @@ public class Utility {
    */
   public static String messageBD(ConnectionProvider conn, String strCode, String strLanguage,
       boolean escape) {
-    return BasicUtility.messageBD(conn, strCode, strLanguage, escape);
+    return OBMessageUtils.messageBD(conn, strCode, strLanguage, escape);
   }
 
   /**
@@ -847,6 +847,13 @@ public class Utility {
       throw new UnsupportedOperationException("Utility.getDocumentNo - Cannot add System records");
     }
 
+    if (updateNext) {
+      final String documentNo = SequenceUtil.getBlockAllocatedDocumentNo(cDocTypeID);
+      if (documentNo != null) {
+        return documentNo;
+      }
+    }
+
     CSResponse cs = null;
     try {
       cs = DocumentNoData.nextDocType(conn, cDocTypeID, AD_Client_ID, (updateNext ? "Y" : "N"));
@@ -884,6 +891,13 @@ public class Utility {
       throw new UnsupportedOperationException("Utility.getDocumentNo - Cannot add System records");
     }
 
+    if (updateNext) {
+      final String documentNo = SequenceUtil.getBlockAllocatedDocumentNo(cDocTypeID);
+      if (documentNo != null) {
+        return documentNo;
+      }
+    }
+
     CSResponse cs = null;
     try {
 
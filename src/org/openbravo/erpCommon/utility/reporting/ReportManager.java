@@ -37,7 +37,10 @@ import org.apache.logging.log4j.Logger;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.openbravo.base.exception.OBException;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
 import org.openbravo.base.secureApp.VariablesSecureApp;
+import org.openbravo.base.structure.BaseOBObject;
 import org.openbravo.base.weld.WeldUtils;
 import org.openbravo.client.application.attachment.AttachImplementationManager;
 import org.openbravo.client.application.attachment.DocumentNotFoundException;
@@ -48,6 +51,7 @@ import org.openbravo.client.application.attachment.ReprintableOrder;
 import org.openbravo.client.application.attachment.ReprintableSourceDocument;
 import org.openbravo.client.application.attachment.ReprintableSubstitutiveInvoice;
 import org.openbravo.client.application.attachment.TransformerNotFoundException;
+import org.openbravo.client.application.report.ReportOutputCache;
 import org.openbravo.client.application.report.ReportingUtils;
 import org.openbravo.client.application.report.ReportingUtils.ExportType;
 import org.openbravo.client.application.report.language.ReportLanguageHandler;
@@ -116,13 +120,7 @@ public class ReportManager {
 
     setTargetDirectory(report);
     language = variables.getLanguage();
-    final String baseDesignPath = _prefix + "/" + _strBaseDesignPath + "/" + _strDefaultDesignPath;
-
-    String templateLocation = report.getTemplateInfo().getTemplateLocation();
-    templateLocation = Replace.replace(
-        Replace.replace(templateLocation, "@basedesign@", baseDesignPath), "@baseattach@",
-        _strAttachmentPath);
-    templateLocation = Replace.replace(templateLocation, "//", "/");
+    final String templateLocation = getTemplateLocation(report);
     final String templateFile = templateLocation + report.getTemplateInfo().getTemplateFilename();
 
     final HashMap<String, Object> designParameters = populateDesignParameters(variables, report);
@@ -152,6 +150,16 @@ public class ReportManager {
     return jasperPrint;
   }
 
+  private String getTemplateLocation(Report report) {
+    final String baseDesignPath = _prefix + "/" + _strBaseDesignPath + "/" + _strDefaultDesignPath;
+
+    String templateLocation = report.getTemplateInfo().getTemplateLocation();
+    templateLocation = Replace.replace(
+        Replace.replace(templateLocation, "@basedesign@", baseDesignPath), "@baseattach@",
+        _strAttachmentPath);
+    return Replace.replace(templateLocation, "//", "/");
+  }
+
   private String getAttachmentPath() {
     return _strAttachmentPath;
   }
@@ -171,8 +179,7 @@ public class ReportManager {
   public void saveTempReport(Report report, VariablesSecureApp vars) {
     try {
       if (!canReprint(report, vars)) {
-        JasperPrint jasperPrint = processReport(report, vars);
-        saveReport(report, jasperPrint);
+        generateReport(report, vars);
         return;
       }
       ReprintableDocumentManager reprintableManager = WeldUtils
@@ -268,16 +275,72 @@ public class ReportManager {
     }
   }
 
-  private void saveReport(Report report, JasperPrint jasperPrint) {
+  /**
+   * Generates the report in its target directory, reusing the output kept in the
+   * {@link ReportOutputCache} if the document was already printed and has not changed since then.
+   */
+  private void generateReport(Report report, VariablesSecureApp vars) throws ReportingException {
+    ReportOutputCache.Key cacheKey = getOutputCacheKey(report, vars);
+    setTargetDirectory(report);
+    if (ReportOutputCache.getInstance().restore(cacheKey, getTargetFile(report).toPath())) {
+      return;
+    }
+    JasperPrint jasperPrint = processReport(report, vars);
+    if (saveReport(report, jasperPrint)) {
+      ReportOutputCache.getInstance().store(cacheKey, getTargetFile(report).toPath());
+    }
+  }
+
+  /**
+   * Returns the key of the report output in the {@link ReportOutputCache}, built from the same
+   * values used to generate it in {@link #processReport(Report, VariablesSecureApp, Map)}. Draft
+   * documents are not cached because they are likely to be printed while they are being edited.
+   */
+  private ReportOutputCache.Key getOutputCacheKey(Report report, VariablesSecureApp vars) {
+    if (!ReportOutputCache.getInstance().isEnabled() || report.isDraft()
+        || report.getTemplateInfo() == null) {
+      return null;
+    }
+    try {
+      OBContext.setAdminMode(true);
+      Entity entity = ModelProvider.getInstance()
+          .getEntityByTableName(report.getDocumentType().getTableName());
+      BaseOBObject document = entity != null
+          ? OBDal.getInstance().get(entity.getName(), report.getDocumentId())
+          : null;
+      if (document == null) {
+        return null;
+      }
+      final String templateLocation = getTemplateLocation(report);
+      final HashMap<String, Object> designParameters = populateDesignParameters(vars, report);
+      designParameters.put("TEMPLATE_LOCATION", templateLocation);
+      // the report is identified by its document and template
+      return ReportOutputCache
+          .newKey(templateLocation + report.getTemplateInfo().getTemplateFilename(),
+              ExportType.PDF, vars.getLanguage())
+          .with("CHECK_SALES_ORDER", report.getCheckSalesOrder())
+          .withParameters(designParameters, "REPORT_PARAMETERS")
+          .withSourceDocument(document);
+    } finally {
+      OBContext.restorePreviousMode();
+    }
+  }
+
+  private File getTargetFile(Report report) {
     String separator = "";
     if (!report.getTargetDirectory().toString().endsWith("/")) {
       separator = "/";
     }
-    final String target = report.getTargetDirectory() + separator + report.getFilename();
+    return new File(report.getTargetDirectory() + separator + report.getFilename());
+  }
+
+  private boolean saveReport(Report report, JasperPrint jasperPrint) {
     try {
-      ReportingUtils.saveReport(jasperPrint, ExportType.PDF, null, new File(target));
+      ReportingUtils.saveReport(jasperPrint, ExportType.PDF, null, getTargetFile(report));
+      return true;
     } catch (final JRException e) {
       e.printStackTrace();
+      return false;
     }
   }
 
@@ -24,6 +24,7 @@ import javax.enterprise.event.Observes;
 
 import org.apache.commons.lang.StringUtils;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.openbravo.base.exception.OBException;
 import org.openbravo.base.model.Entity;
 import org.openbravo.base.model.ModelProvider;
@@ -32,9 +33,11 @@ import org.openbravo.client.kernel.event.EntityNewEvent;
 import org.openbravo.client.kernel.event.EntityPersistenceEvent;
 import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
 import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
 import org.openbravo.dal.service.OBCriteria;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.erpCommon.utility.OBMessageUtils;
+import org.openbravo.erpCommon.utility.SequenceAllocator;
 import org.openbravo.erpCommon.utility.SequenceUtil.CalculationMethod;
 import org.openbravo.erpCommon.utility.SequenceUtil.ControlDigit;
 import org.openbravo.erpCommon.utility.SequenceUtil.SequenceNumberLength;
@@ -51,6 +54,9 @@ import org.openbravo.model.ad.utility.Sequence;
  * 
  * Clear some fields based on the status of another field
  * 
+ * Discards the blocks reserved by the {@link SequenceAllocator} for a sequence when it is changed
+ * other than by consuming it.
+ * 
  */
 class ADSequenceEventHandler extends EntityPersistenceEventObserver {
   private static Entity[] entities = {
@@ -81,12 +87,18 @@ class ADSequenceEventHandler extends EntityPersistenceEventObserver {
       return;
     }
 
+    SequenceAllocator.getInstance().sequenceChanged(((Sequence) event.getTargetInstance()).getId());
     validateNoInfiniteLoopsInBaseSequence(event);
     validateModule10Configuration(event);
     clearSequenceLengthIfNotFixedLength(event);
     clearBaseSequenceIfCalculationMethodIsNotBasedOnSequence(event);
   }
 
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    SequenceAllocator.getInstance()
+        .transactionCompleted(event.getTransaction().getStatus() != TransactionStatus.ROLLED_BACK);
+  }
+
   /**
    * Returns true when the sequence is being updated because it is being consumed.
    * 
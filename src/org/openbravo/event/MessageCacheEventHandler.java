@@ -0,0 +1,80 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.event;
+
+import javax.enterprise.event.Observes;
+
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.client.kernel.event.EntityDeleteEvent;
+import org.openbravo.client.kernel.event.EntityNewEvent;
+import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
+import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
+import org.openbravo.erpCommon.utility.MessageCache;
+import org.openbravo.model.ad.ui.Element;
+import org.openbravo.model.ad.ui.ElementTrl;
+import org.openbravo.model.ad.ui.Message;
+import org.openbravo.model.ad.ui.MessageTrl;
+
+/**
+ * Keeps the {@link MessageCache} up to date with the changes in messages, elements and their
+ * translations: the codes are translated with the database within the transactions which change
+ * them and the cache is discarded in all the cluster nodes once they are committed.
+ */
+class MessageCacheEventHandler extends EntityPersistenceEventObserver {
+  private static Entity[] entities = {
+      ModelProvider.getInstance().getEntity(Message.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(MessageTrl.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(Element.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(ElementTrl.ENTITY_NAME) };
+
+  @Override
+  protected Entity[] getObservedEntities() {
+    return entities;
+  }
+
+  public void onNew(@Observes EntityNewEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    MessageCache.getInstance().textsChanged();
+  }
+
+  public void onUpdate(@Observes EntityUpdateEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    MessageCache.getInstance().textsChanged();
+  }
+
+  public void onDelete(@Observes EntityDeleteEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    MessageCache.getInstance().textsChanged();
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    MessageCache.getInstance()
+        .transactionCompleted(event.getTransaction().getStatus() != TransactionStatus.ROLLED_BACK);
+  }
+}
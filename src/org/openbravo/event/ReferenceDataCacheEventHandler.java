@@ -0,0 +1,92 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.event;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.event.Observes;
+
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.structure.BaseOBObject;
+import org.openbravo.client.kernel.event.EntityDeleteEvent;
+import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
+import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionBeginEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
+import org.openbravo.dal.cache.ReferenceDataCache;
+
+/**
+ * Sends to the rest of the cluster nodes the invalidation of the reference data records kept in
+ * the second-level cache which are updated or deleted in this node. The invalidations are sent once
+ * the transaction is committed, so the other nodes do not read again the previous values.
+ */
+class ReferenceDataCacheEventHandler extends EntityPersistenceEventObserver {
+  private static Entity[] entities = ReferenceDataCache.getInstance()
+      .getEntities()
+      .toArray(new Entity[0]);
+  private static ThreadLocal<Set<Map.Entry<String, String>>> changedRecords = new ThreadLocal<>();
+
+  @Override
+  protected Entity[] getObservedEntities() {
+    return entities;
+  }
+
+  public void onTransactionBegin(@Observes TransactionBeginEvent event) {
+    changedRecords.remove();
+  }
+
+  public void onUpdate(@Observes EntityUpdateEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    addChangedRecord(event.getTargetInstance());
+  }
+
+  public void onDelete(@Observes EntityDeleteEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    addChangedRecord(event.getTargetInstance());
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    Set<Map.Entry<String, String>> records = changedRecords.get();
+    changedRecords.remove();
+    if (records == null || event.getTransaction().getStatus() == TransactionStatus.ROLLED_BACK) {
+      return;
+    }
+    for (Map.Entry<String, String> changedRecord : records) {
+      ReferenceDataCache.getInstance()
+          .publishInvalidation(changedRecord.getKey(), changedRecord.getValue());
+    }
+  }
+
+  private void addChangedRecord(BaseOBObject bob) {
+    Set<Map.Entry<String, String>> records = changedRecords.get();
+    if (records == null) {
+      records = new HashSet<>();
+      changedRecords.set(records);
+    }
+    records.add(Map.entry(bob.getEntityName(), (String) bob.getId()));
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ *************************************************************************
+ * The contents of this file are subject to the Openbravo  Public  License
+ * Version  1.1  (the  "License"),  being   the  Mozilla   Public  License
+ * Version 1.1  with a permitted attribution clause; you may not  use this
+ * file except in compliance with the License. You  may  obtain  a copy of
+ * the License at http://www.openbravo.com/legal/license.html
+ * Software distributed under the License  is  distributed  on  an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific  language  governing  rights  and  limitations
+ * under the License.
+ * The Original Code is Openbravo ERP.
+ * The Initial Developer of the Original Code is Openbravo SLU
+ * All portions are Copyright (C) 2026 Openbravo SLU
+ * All Rights Reserved.
+ * Contributor(s):  ______________________________________.
+ ************************************************************************
+ */
+
+package org.openbravo.event;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.event.Observes;
+
+import org.openbravo.base.model.Entity;
+import org.openbravo.base.model.ModelProvider;
+import org.openbravo.base.model.Property;
+import org.openbravo.base.structure.BaseOBObject;
+import org.openbravo.client.application.Process;
+import org.openbravo.client.application.ProcessAccess;
+import org.openbravo.client.kernel.event.EntityDeleteEvent;
+import org.openbravo.client.kernel.event.EntityNewEvent;
+import org.openbravo.client.kernel.event.EntityPersistenceEventObserver;
+import org.openbravo.client.kernel.event.EntityUpdateEvent;
+import org.openbravo.client.kernel.event.TransactionBeginEvent;
+import org.openbravo.client.kernel.event.TransactionCompletedEvent;
+import org.openbravo.dal.security.EntityAccessChecker;
+import org.openbravo.model.ad.access.Role;
+import org.openbravo.model.ad.access.TableAccess;
+import org.openbravo.model.ad.access.WindowAccess;
+import org.openbravo.model.ad.datamodel.Table;
+import org.openbravo.model.ad.ui.Tab;
+
+/**
+ * Invalidates the entity access shared by the {@link EntityAccessChecker}s of a role when the role
+ * or its table or process access change, including the changes propagated by the role inheritance.
+ * The access of all the roles is invalidated when a table, tab, process or window access changes:
+ * automatic roles get their access from all the tables and processes, excluding the tables of the
+ * windows with an inactive access in any role. The access is invalidated as soon as the change is
+ * flushed, so it is seen by the contexts created in the same transaction, and again once the
+ * transaction completes, to discard the access computed in the meantime with data which was not
+ * committed yet.
+ */
+class RoleAccessEventHandler extends EntityPersistenceEventObserver {
+  private static Entity[] entities = { ModelProvider.getInstance().getEntity(Role.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(WindowAccess.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(TableAccess.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(ProcessAccess.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(Table.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(Tab.ENTITY_NAME),
+      ModelProvider.getInstance().getEntity(Process.ENTITY_NAME) };
+  private static ThreadLocal<Set<String>> changedRoles = new ThreadLocal<>();
+  private static ThreadLocal<Boolean> allRolesChanged = new ThreadLocal<>();
+
+  @Override
+  protected Entity[] getObservedEntities() {
+    return entities;
+  }
+
+  public void onTransactionBegin(@Observes TransactionBeginEvent event) {
+    changedRoles.remove();
+    allRolesChanged.remove();
+  }
+
+  public void onNew(@Observes EntityNewEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    addRoleOf(event.getTargetInstance());
+  }
+
+  public void onUpdate(@Observes EntityUpdateEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    BaseOBObject bob = event.getTargetInstance();
+    if (isSharedByAllRoles(bob)) {
+      setAllRolesChanged();
+      return;
+    }
+    if (!(bob instanceof Role)) {
+      // the access can be moved to another role
+      Property roleProperty = bob.getEntity().getProperty(WindowAccess.PROPERTY_ROLE);
+      addChangedRole((Role) event.getPreviousState(roleProperty));
+    }
+    addRoleOf(bob);
+  }
+
+  public void onDelete(@Observes EntityDeleteEvent event) {
+    if (!isValidEvent(event)) {
+      return;
+    }
+    addRoleOf(event.getTargetInstance());
+  }
+
+  public void onTransactionCompleted(@Observes TransactionCompletedEvent event) {
+    Set<String> roleIds = changedRoles.get();
+    boolean allRoles = Boolean.TRUE.equals(allRolesChanged.get());
+    changedRoles.remove();
+    allRolesChanged.remove();
+    if (allRoles) {
+      EntityAccessChecker.invalidateAllRoleAccess();
+      return;
+    }
+    if (roleIds == null) {
+      return;
+    }
+    for (String roleId : roleIds) {
+      EntityAccessChecker.invalidateRoleAccess(roleId);
+    }
+  }
+
+  private boolean isSharedByAllRoles(BaseOBObject bob) {
+    return bob instanceof Table || bob instanceof Tab || bob instanceof Process
+        || bob instanceof WindowAccess;
+  }
+
+  private void setAllRolesChanged() {
+    if (!Boolean.TRUE.equals(allRolesChanged.get())) {
+      allRolesChanged.set(true);
+      EntityAccessChecker.invalidateAllRoleAccess();
+    }
+  }
+
+  private void addRoleOf(BaseOBObject bob) {
+    if (isSharedByAllRoles(bob)) {
+      setAllRolesChanged();
+    } else if (bob instanceof Role) {
+      addChangedRole((Role) bob);
+    } else {
+      addChangedRole((Role) bob.get(WindowAccess.PROPERTY_ROLE));
+    }
+  }
+
+  private void addChangedRole(Role role) {
+    if (role == null) {
+      return;
+    }
+    Set<String> roleIds = changedRoles.get();
+    if (roleIds == null) {
+      roleIds = new HashSet<>();
+      changedRoles.set(roleIds);
+    }
+    if (roleIds.add(role.getId())) {
+      EntityAccessChecker.invalidateRoleAccess(role.getId());
+    }
+  }
+}
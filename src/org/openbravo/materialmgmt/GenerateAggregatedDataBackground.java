@@ -11,7 +11,7 @@
  * under the License.
  * The Original Code is Openbravo ERP.
  * The Initial Developer of the Original Code is Openbravo SLU
- * All portions are Copyright (C) 2016 Openbravo SLU
+ * All portions are Copyright (C) 2016-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  *************************************************************************
@@ -20,28 +20,42 @@
 package org.openbravo.materialmgmt;
 
 import java.text.DateFormat;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.criterion.Restrictions;
+import org.openbravo.base.exception.OBException;
+import org.openbravo.base.provider.OBProvider;
+import org.openbravo.base.session.OBPropertiesProvider;
 import org.openbravo.dal.core.OBContext;
 import org.openbravo.dal.security.OrganizationStructureProvider;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.erpCommon.utility.OBError;
 import org.openbravo.erpCommon.utility.OBMessageUtils;
+import org.openbravo.model.ad.domain.Preference;
 import org.openbravo.model.ad.system.Client;
 import org.openbravo.model.common.enterprise.Organization;
 import org.openbravo.model.financialmgmt.calendar.Period;
 import org.openbravo.scheduling.ProcessBundle;
 import org.openbravo.scheduling.ProcessLogger;
 import org.openbravo.service.db.DalBaseProcess;
+import org.openbravo.service.importprocess.ImportEntryManager.DaemonThreadFactory;
 
 public class GenerateAggregatedDataBackground extends DalBaseProcess {
 
   private static final Logger log4j = LogManager.getLogger();
+  private static final String WATERMARK_PREFERENCE = "ValuedStockAggregatedWatermark";
+  private static final String WATERMARK_FORMAT = "yyyy-MM-dd HH:mm:ss";
+  private static final long WATERMARK_OVERLAP = 60 * 60 * 1000L;
   private ProcessLogger logger;
 
   @Override
@@ -83,42 +97,14 @@ public class GenerateAggregatedDataBackground extends DalBaseProcess {
         return;
       }
 
-      for (Organization legalEntity : legalEntities) {
-
-        // Get Closed Periods that need to be aggregated
-        List<Period> periodList = ResetValuedStockAggregated.getClosedPeriodsToAggregate(new Date(),
-            legalEntity.getClient().getId(), legalEntity.getId());
-
-        DateFormat formatter = new SimpleDateFormat("dd-MM-yyyy");
-        Date startingDate = formatter.parse("01-01-0000");
-        int totalNumberOfPeriods = periodList.size();
-        int contPeriodNumber = 0;
-        long start = System.currentTimeMillis();
-
-        log4j.debug("[GenerateAggregatedDataBackground] Total number of Periods to aggregate: "
-            + totalNumberOfPeriods);
-
-        for (Period period : periodList) {
-          long startPeriod = System.currentTimeMillis();
-          // Aggregate Data for Valued Stock
-          if (ResetValuedStockAggregated.noAggregatedDataForPeriod(period)
-              && ResetValuedStockAggregated.costingRuleDefindedForPeriod(legalEntity, period)) {
-            ResetValuedStockAggregated.insertValuesIntoValuedStockAggregated(legalEntity, period,
-                startingDate);
-            startingDate = period.getEndingDate();
-
-            // Aggregate Data for other entities below this line
-          }
-          long elapsedTimePeriod = (System.currentTimeMillis() - startPeriod);
-          contPeriodNumber++;
-          log4j.debug("[GenerateAggregatedDataBackground] Periods processed: " + contPeriodNumber
-              + " of " + totalNumberOfPeriods);
-          log4j.debug(
-              "[GenerateAggregatedDataBackground] Time to process period: " + elapsedTimePeriod);
+      int threads = Math.min(OBPropertiesProvider.getInstance()
+          .getIntProperty("valuedstock.aggregation.threads", 1), legalEntities.size());
+      if (threads > 1) {
+        aggregateInParallel(legalEntities, threads);
+      } else {
+        for (Organization legalEntity : legalEntities) {
+          aggregateLegalEntity(legalEntity);
         }
-        long elapsedTime = (System.currentTimeMillis() - start);
-        log4j.debug(
-            "[GenerateAggregatedDataBackground] Time to process all periods: " + elapsedTime);
       }
 
       logger.logln(OBMessageUtils.messageBD("Success"));
@@ -142,4 +128,177 @@ public class GenerateAggregatedDataBackground extends DalBaseProcess {
     }
 
   }
+
+  /**
+   * Aggregates the data of the closed periods of the Legal Entity which are not aggregated yet.
+   *
+   * In incremental mode, the aggregated periods including transactions or transaction costs
+   * created or updated since the previous execution, tracked with a watermark, are aggregated
+   * again. As the data of each period is computed from the data of the previous one, the periods
+   * after them are aggregated again too.
+   */
+  private void aggregateLegalEntity(Organization legalEntity) throws Exception {
+    Date executionDate = new Date();
+    DateFormat formatter = new SimpleDateFormat("dd-MM-yyyy");
+    Date startingDate = formatter.parse("01-01-0000");
+
+    if (isIncremental()) {
+      Date watermark = getWatermark(legalEntity);
+      if (watermark != null) {
+        Date firstChangedDate = ResetValuedStockAggregated.getFirstChangedDate(legalEntity,
+            watermark);
+        if (firstChangedDate != null) {
+          log4j.debug("[GenerateAggregatedDataBackground] Data changed since " + watermark
+              + " from " + firstChangedDate + " for " + legalEntity.getIdentifier());
+          ResetValuedStockAggregated.deleteAggregatedValuesEndingFromDate(firstChangedDate,
+              legalEntity);
+        }
+      }
+      // continue from the last aggregated period instead of reading all the transactions
+      Date lastAggregatedDate = ResetValuedStockAggregated
+          .getLastDateToFromAggregatedTable(legalEntity);
+      if (lastAggregatedDate != null && lastAggregatedDate.after(formatter.parse("01-01-0001"))) {
+        startingDate = lastAggregatedDate;
+      }
+    }
+
+    // Get Closed Periods that need to be aggregated
+    List<Period> periodList = ResetValuedStockAggregated.getClosedPeriodsToAggregate(new Date(),
+        legalEntity.getClient().getId(), legalEntity.getId());
+
+    int totalNumberOfPeriods = periodList.size();
+    int contPeriodNumber = 0;
+    long start = System.currentTimeMillis();
+
+    log4j.debug("[GenerateAggregatedDataBackground] Total number of Periods to aggregate: "
+        + totalNumberOfPeriods);
+
+    for (Period period : periodList) {
+      long startPeriod = System.currentTimeMillis();
+      // Aggregate Data for Valued Stock
+      if (ResetValuedStockAggregated.noAggregatedDataForPeriod(period)
+          && ResetValuedStockAggregated.costingRuleDefindedForPeriod(legalEntity, period)) {
+        ResetValuedStockAggregated.insertValuesIntoValuedStockAggregated(legalEntity, period,
+            startingDate);
+        startingDate = period.getEndingDate();
+
+        // Aggregate Data for other entities below this line
+      }
+      long elapsedTimePeriod = (System.currentTimeMillis() - startPeriod);
+      contPeriodNumber++;
+      log4j.debug("[GenerateAggregatedDataBackground] Periods processed: " + contPeriodNumber
+          + " of " + totalNumberOfPeriods);
+      log4j.debug(
+          "[GenerateAggregatedDataBackground] Time to process period: " + elapsedTimePeriod);
+    }
+    long elapsedTime = (System.currentTimeMillis() - start);
+    log4j.debug("[GenerateAggregatedDataBackground] Time to process all periods: " + elapsedTime);
+
+    if (isIncremental()) {
+      // transactions committed after this execution can have an earlier update date
+      setWatermark(legalEntity, new Date(executionDate.getTime() - WATERMARK_OVERLAP));
+    }
+  }
+
+  /**
+   * Aggregates the data of each Legal Entity in a different thread, using its own connection and
+   * committing it once it is completed.
+   */
+  private void aggregateInParallel(List<Organization> legalEntities, int threads)
+      throws Exception {
+    OBContext obContext = OBContext.getOBContext();
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        new DaemonThreadFactory("Valued Stock Aggregation"));
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (Organization legalEntity : legalEntities) {
+        String legalEntityId = legalEntity.getId();
+        results.add(executor.submit(() -> {
+          OBContext.setOBContext(obContext);
+          OBContext.setAdminMode(true);
+          try {
+            long start = System.currentTimeMillis();
+            Organization org = OBDal.getInstance().get(Organization.class, legalEntityId);
+            aggregateLegalEntity(org);
+            OBDal.getInstance().commitAndClose();
+            synchronized (logger) {
+              logger.logln(
+                  org.getIdentifier() + ": " + (System.currentTimeMillis() - start) + " ms");
+            }
+            return null;
+          } catch (Exception e) {
+            OBDal.getInstance().rollbackAndClose();
+            throw e;
+          } finally {
+            OBContext.restorePreviousMode();
+            OBContext.setOBContext((OBContext) null);
+          }
+        }));
+      }
+      Exception error = null;
+      for (Future<Void> result : results) {
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          if (error == null) {
+            error = e.getCause() instanceof Exception ? (Exception) e.getCause()
+                : new OBException(e.getCause());
+          }
+        }
+      }
+      if (error != null) {
+        throw error;
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static boolean isIncremental() {
+    return OBPropertiesProvider.getInstance()
+        .getBooleanProperty("valuedstock.aggregation.incremental");
+  }
+
+  /**
+   * Returns the date since which the changes in the transactions of the Legal Entity have not been
+   * aggregated, kept in a preference of the Legal Entity.
+   */
+  private static Date getWatermark(Organization legalEntity) {
+    Preference preference = getWatermarkPreference(legalEntity);
+    if (preference == null || preference.getSearchKey() == null) {
+      return null;
+    }
+    try {
+      return new SimpleDateFormat(WATERMARK_FORMAT).parse(preference.getSearchKey());
+    } catch (ParseException e) {
+      log4j.warn("Invalid " + WATERMARK_PREFERENCE + " preference: " + preference.getSearchKey());
+      return null;
+    }
+  }
+
+  private static void setWatermark(Organization legalEntity, Date watermark) {
+    Preference preference = getWatermarkPreference(legalEntity);
+    if (preference == null) {
+      preference = OBProvider.getInstance().get(Preference.class);
+      preference.setClient(legalEntity.getClient());
+      preference.setOrganization(legalEntity);
+      preference.setVisibleAtOrganization(legalEntity);
+      preference.setAttribute(WATERMARK_PREFERENCE);
+      preference.setPropertyList(false);
+    }
+    preference.setSearchKey(new SimpleDateFormat(WATERMARK_FORMAT).format(watermark));
+    OBDal.getInstance().save(preference);
+    OBDal.getInstance().flush();
+  }
+
+  private static Preference getWatermarkPreference(Organization legalEntity) {
+    return (Preference) OBDal.getInstance()
+        .createCriteria(Preference.class)
+        .add(Restrictions.eq(Preference.PROPERTY_ATTRIBUTE, WATERMARK_PREFERENCE))
+        .add(Restrictions.eq(Preference.PROPERTY_VISIBLEATORGANIZATION, legalEntity))
+        .add(Restrictions.eq(Preference.PROPERTY_PROPERTYLIST, false))
+        .setFilterOnReadableOrganization(false)
+        .setMaxResults(1)
+        .uniqueResult();
+  }
 }
@@ -165,6 +165,75 @@ public class ResetValuedStockAggregated extends BaseProcessActionHandler {
     }
   }
 
+  /*
+   * Remove aggregated values for the selected Legal Entity of the periods ending on or after the
+   * selected date, as they include the transactions of that date
+   */
+  static void deleteAggregatedValuesEndingFromDate(final Date date,
+      final Organization legalEntity) {
+    final OrganizationStructureProvider osp = OBContext.getOBContext()
+        .getOrganizationStructureProvider(legalEntity.getClient().getId());
+    final Set<String> orgIds = osp.getNaturalTree(legalEntity.getId());
+
+    //@formatter:off
+    final String hqlDelete =
+                  "delete from ValuedStockAggregated" +
+                  " where endingDate >= :date" +
+                  "   and organization.id in :orgIds";
+    //@formatter:on
+
+    final int deleted = OBDal.getInstance()
+        .getSession()
+        .createQuery(hqlDelete)
+        .setParameter("date", date)
+        .setParameterList("orgIds", orgIds)
+        .executeUpdate();
+    log4j.debug(
+        "[ResetValuedStockAggregated] No. of records deleted from aggregated table: " + deleted);
+  }
+
+  /*
+   * Returns the earliest date of the transactions and transaction costs of the selected Legal
+   * Entity created or updated since the selected date, or null if there are none
+   */
+  static Date getFirstChangedDate(final Organization legalEntity, final Date changedSince) {
+    final OrganizationStructureProvider osp = OBContext.getOBContext()
+        .getOrganizationStructureProvider(legalEntity.getClient().getId());
+    final Set<String> orgIds = osp.getNaturalTree(legalEntity.getId());
+
+    //@formatter:off
+    final String hqlTransactions =
+                  "select min(trx.movementDate)" +
+                  "  from MaterialMgmtMaterialTransaction as trx" +
+                  " where trx.updated >= :changedSince" +
+                  "   and trx.organization.id in (:orgIds)";
+    final String hqlCosts =
+                  "select min(tc.accountingDate)" +
+                  "  from TransactionCost as tc" +
+                  "    join tc.inventoryTransaction as trx" +
+                  " where tc.updated >= :changedSince" +
+                  "   and trx.organization.id in (:orgIds)";
+    //@formatter:on
+
+    final Date firstTransactionDate = OBDal.getInstance()
+        .getSession()
+        .createQuery(hqlTransactions, Date.class)
+        .setParameter("changedSince", changedSince)
+        .setParameterList("orgIds", orgIds)
+        .uniqueResult();
+    final Date firstCostDate = OBDal.getInstance()
+        .getSession()
+        .createQuery(hqlCosts, Date.class)
+        .setParameter("changedSince", changedSince)
+        .setParameterList("orgIds", orgIds)
+        .uniqueResult();
+
+    if (firstTransactionDate == null || firstCostDate == null) {
+      return firstTransactionDate != null ? firstTransactionDate : firstCostDate;
+    }
+    return firstTransactionDate.before(firstCostDate) ? firstTransactionDate : firstCostDate;
+  }
+
   /*
    * Return true if there is not Aggregated data for the selected Period
    */
@@ -318,7 +387,7 @@ public class ResetValuedStockAggregated extends BaseProcessActionHandler {
   /*
    * Get last Date of for which the data has been aggregated for this Legal Entity
    */
-  private static Date getLastDateToFromAggregatedTable(final Organization legalEntity) {
+  static Date getLastDateToFromAggregatedTable(final Organization legalEntity) {
     Date dateTo = null;
     try {
       dateTo = (Date) OBDal.getInstance()
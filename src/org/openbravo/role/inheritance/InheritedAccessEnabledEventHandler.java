@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2015-2019 Openbravo SLU 
+ * All portions are Copyright (C) 2015-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -54,6 +54,12 @@ class InheritedAccessEnabledEventHandler extends EntityPersistenceEventObserver
     return entities;
   }
 
+  @Override
+  protected boolean observesEntity(Entity entity) {
+    final Class<?> mappingClass = entity.getMappingClass();
+    return mappingClass != null && InheritedAccessEnabled.class.isAssignableFrom(mappingClass);
+  }
+
   /**
    * Save event method launched when saving a class implementing the {@link InheritedAccessEnabled}
    * interface
@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2017 Openbravo SLU 
+ * All portions are Copyright (C) 2017-2026 Openbravo SLU 
  * All Rights Reserved. 
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -59,6 +59,14 @@ public class UserCtxCacheObserver extends EntityPersistenceEventObserver {
     return entities;
   }
 
+  @Override
+  protected boolean observesEntity(Entity entity) {
+    final Class<?> mappingClass = entity.getMappingClass();
+    return super.observesEntity(entity) || (mappingClass != null
+        && InheritedAccessEnabled.class.isAssignableFrom(mappingClass)
+        && !Preference.class.isAssignableFrom(mappingClass));
+  }
+
   @Override
   protected boolean isValidEvent(EntityPersistenceEvent event) {
     boolean valid = super.isValidEvent(event);
@@ -35,6 +35,7 @@ import org.openbravo.dal.core.SessionHandler;
 import org.openbravo.dal.service.OBDal;
 import org.openbravo.database.ConnectionProvider;
 import org.openbravo.database.ExternalConnectionPool;
+import org.openbravo.database.SessionInfo;
 import org.openbravo.exception.NoConnectionAvailableException;
 
 /**
@@ -162,6 +163,7 @@ public class DalConnectionProvider implements ConnectionProvider {
       return;
     }
     conn.rollback();
+    SessionInfo.contextInfoRolledBack(conn);
     closeConnection(conn);
   }
 
@@ -257,7 +257,7 @@ public class ImportEntryBuilder {
     OBDal.getInstance().save(importEntry);
     if (notify) {
       OBDal.getInstance().commitAndClose();
-      ImportEntryManager.getInstance().notifyNewImportEntryCreated();
+      ImportEntryManager.getInstance().notifyNewImportEntryCreated(importEntry.getId());
     }
   }
 
@@ -11,7 +11,7 @@
  * under the License. 
  * The Original Code is Openbravo ERP. 
  * The Initial Developer of the Original Code is Openbravo SLU 
- * All portions are Copyright (C) 2015-2024 Openbravo SLU
+ * All portions are Copyright (C) 2015-2026 Openbravo SLU
  * All Rights Reserved.
  * Contributor(s):  ______________________________________.
  ************************************************************************
@@ -23,14 +23,18 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -116,6 +120,19 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
    * 
    * For more information see the {@link ImportEntryProcessor}.
    * 
+   * When the import.push.dispatch property is set to true, the manager works in push dispatch
+   * mode: entries created in this node through {@link #createImportEntry(String, String, String)}
+   * (or the {@link ImportEntryBuilder} with notify manager enabled) are handed over to the {@link
+   * ImportEntryManagerThread} through {@link #notifyNewImportEntryCreated(String)}, which passes
+   * them to their {@link ImportEntryProcessor} right away, without querying all the types of data.
+   * In this mode the full query of the {@link ImportEntry} table is only done periodically (every
+   * import.wait.time seconds) to recover entries created in other nodes, entries that could not be
+   * assigned when pushed or entries left in 'Initial' status after a crash.
+   * 
+   * The end-to-end latency of the processed entries (from the creation of the entry until it is
+   * processed) is kept in the statistics of each type of data, so the latency of both modes can be
+   * compared.
+   * 
    * This class also provides methods for error handling and result processing: {@link
    * #setImportEntryProcessed(String)}, {@link #setImportEntryError(String, Throwable)}, {@link
    * #setImportEntryErrorIndependent(String, Throwable)}.
@@ -145,7 +162,7 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
 
   private Map<String, ImportEntryProcessor> importEntryProcessors = new HashMap<String, ImportEntryProcessor>();
 
-  private Map<String, ImportStatistics> stats = new HashMap<String, ImportEntryManager.ImportStatistics>();
+  private Map<String, ImportStatistics> stats = new ConcurrentHashMap<>();
 
   private boolean threadsStarted = false;
 
@@ -170,6 +187,13 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
 
   private boolean isShutDown = false;
 
+  // when enabled, entries created in this node are dispatched directly to their processors and the
+  // periodic query of the import entry table is only used to recover pending entries
+  private boolean pushDispatch = false;
+
+  // ids of the entries created in this node pending to be dispatched by the manager thread
+  private Queue<String> pushedEntries = new ConcurrentLinkedQueue<>();
+
   /**
    * @return {@code true} if the ImportEntryManager is shut down. Otherwise {@code false} is
    *         returned. The ImportEntryManager can be shut down because of any of these reasons:
@@ -207,6 +231,7 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
         managerWaitTime, 1);
     processingCapacityPerSecond = ImportProcessUtils.getCheckIntProperty(log,
         "import.processing.capacity.per.second", numberOfThreads * 30, 10);
+    pushDispatch = OBPropertiesProvider.getInstance().getBooleanProperty("import.push.dispatch");
 
     log.info("Import entry manager settings");
     log.info("  batch size: {}", importBatchSize);
@@ -214,6 +239,7 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
     log.info("  task queue size: {}", maxTaskQueueSize);
     log.info("  wait time: {} s", managerWaitTime);
     log.info("  processing capacity per second: {} entries", processingCapacityPerSecond);
+    log.info("  dispatch mode: {}", getDispatchMode());
 
     MBeanRegistry.registerMBean("ImportEntryManager", this);
   }
@@ -332,6 +358,7 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
       importEntryProcessor.shutdown();
     }
     importEntryArchiveManager.shutdown();
+    pushedEntries.clear();
     executorService = null;
     threadsStarted = false;
     managerThread = null;
@@ -383,24 +410,28 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
   }
 
   public void reportStats(String typeOfData, long timeForEntry) {
-    ImportStatistics importStatistics = stats.get(typeOfData);
-    if (importStatistics == null) {
-      createStatsEntry(typeOfData);
-      importStatistics = stats.get(typeOfData);
-    }
-    importStatistics.addTiming(timeForEntry);
-    if ((importStatistics.getCnt() % 100) == 0) {
-      importStatistics.log();
-    }
+    reportStats(typeOfData, timeForEntry, null);
   }
 
-  private void createStatsEntry(String typeOfData) {
-    if (stats.containsKey(typeOfData)) {
-      return;
+  /**
+   * Keeps the statistics of a processed entry.
+   * 
+   * @param typeOfData
+   *          type of data of the processed entry
+   * @param timeForEntry
+   *          time in milliseconds it took to process the entry
+   * @param createdTimestamp
+   *          creation time of the entry in milliseconds, used to compute the end-to-end latency of
+   *          the import. If {@code null} the latency is not taken into account.
+   */
+  public void reportStats(String typeOfData, long timeForEntry, Long createdTimestamp) {
+    ImportStatistics importStatistics = stats.computeIfAbsent(typeOfData, ImportStatistics::new);
+    long latency = createdTimestamp == null ? -1
+        : Math.max(0, System.currentTimeMillis() - createdTimestamp);
+    importStatistics.addTiming(timeForEntry, latency);
+    if ((importStatistics.getCnt() % 100) == 0) {
+      importStatistics.log(getDispatchMode());
     }
-    ImportStatistics importStatistics = new ImportStatistics();
-    importStatistics.setTypeOfData(typeOfData);
-    stats.put(typeOfData, importStatistics);
   }
 
   /**
@@ -419,6 +450,75 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
     }
   }
 
+  /**
+   * Is used to tell the import entry manager that the given entry was created and committed in the
+   * import entry table by this node. In push dispatch mode the entry is directly handed over to the
+   * manager thread to be assigned to its {@link ImportEntryProcessor}, otherwise it behaves as
+   * {@link #notifyNewImportEntryCreated()}.
+   * 
+   * @param importEntryId
+   *          the id of the new import entry, the transaction that created it must be already
+   *          committed
+   */
+  public void notifyNewImportEntryCreated(String importEntryId) {
+    if (!pushDispatch || importEntryId == null) {
+      notifyNewImportEntryCreated();
+      return;
+    }
+
+    if (!threadsStarted) {
+      start();
+    }
+
+    if (managerThread == null) {
+      return;
+    }
+
+    if (!isHandlingImportEntries() || pushedEntries.size() >= importBatchSize) {
+      // the entry will be picked up by the node handling the import entries or by the next query
+      // of the import entry table
+      managerThread.doNotify();
+      return;
+    }
+    pushedEntries.add(importEntryId);
+    managerThread.doNotifyPushed();
+  }
+
+  @Override
+  public String getDispatchMode() {
+    return pushDispatch ? "push" : "poll";
+  }
+
+  /** Internal API, this method is not private only because of testing purposes */
+  void setPushDispatch(boolean pushDispatch) {
+    this.pushDispatch = pushDispatch;
+  }
+
+  /** Internal API, this method is not private only because of testing purposes */
+  void setInitialWaitTime(long initialWaitTime) {
+    this.initialWaitTime = initialWaitTime;
+  }
+
+  @Override
+  public long getAverageEndToEndLatency() {
+    long cnt = 0;
+    long totalLatency = 0;
+    for (ImportStatistics importStatistics : stats.values()) {
+      synchronized (importStatistics) {
+        cnt += importStatistics.cntLatency;
+        totalLatency += importStatistics.totalLatency;
+      }
+    }
+    return cnt == 0 ? 0 : totalLatency / cnt;
+  }
+
+  @Override
+  public void logImportStatistics() {
+    for (ImportStatistics importStatistics : stats.values()) {
+      importStatistics.log(getDispatchMode());
+    }
+  }
+
   /**
    * Commits the current transaction if the current node is in charge of handling the import
    * entries. This method is intended to be used by those import entry processors which need to
@@ -583,6 +683,8 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
     return "Import Entry Manager\n" + //
         "* Active threads: " + getNumberOfActiveTasks() + "/" + numberOfThreads + "\n" + //
         "* Processor queue size: " + getNumberOfQueuedTasks() + "/" + maxTaskQueueSize + "\n" + //
+        "* Dispatch mode: " + getDispatchMode() + " (pushed entries pending: "
+        + pushedEntries.size() + ")\n" + //
         "* Current cycle: " + currentCycle + "\n" + //
         "* Blocked type keys in this cycle (" + blockedNewEntriesForKey.size() + "): "
         + blockedNewEntriesForKey + "\n" + //
@@ -605,12 +707,25 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
         + "where typeofdata = :typeOfData "
         + "  and importStatus = 'Initial' "
         + "order by creationDate, createdtimestamp";
+
+    private static final String PUSHED_IMPORT_ENTRY_QRY =
+          " from C_IMPORT_ENTRY "
+        + "where id in (:ids) "
+        + "  and importStatus = 'Initial' "
+        + "order by creationDate, createdtimestamp";
     // @formatter:on
 
+    // keeps the number of ids in the in clause of the pushed entries query below the limit of
+    // Oracle
+    private static final int MAX_PUSHED_ENTRIES_PER_QUERY = 1000;
+
     private boolean isRunning = false;
     private Object monitorObject = new Object();
     private boolean wasNotifiedInParallel = false;
 
+    // in push dispatch mode, time at which the next query of the import entry table is done
+    private long nextScanTime = 0;
+
     ImportEntryManagerThread(ImportEntryManager manager) {
       this.manager = manager;
     }
@@ -625,6 +740,12 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
       }
     }
 
+    private void doNotifyPushed() {
+      synchronized (monitorObject) {
+        monitorObject.notifyAll();
+      }
+    }
+
     private void doWait() {
       synchronized (monitorObject) {
         try {
@@ -640,6 +761,92 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
       }
     }
 
+    // push dispatch mode: waits until a new entry is pushed, a full query of the import entry table
+    // is requested or it is time to do the next query
+    private void doWaitForPushedEntries() {
+      synchronized (monitorObject) {
+        try {
+          long waitTime = nextScanTime - System.currentTimeMillis();
+          if (!wasNotifiedInParallel && manager.pushedEntries.isEmpty() && waitTime > 0) {
+            log.debug("Waiting for pushed import entries or next query for {} ms", waitTime);
+            monitorObject.wait(waitTime);
+            log.debug("Woken");
+          }
+        } catch (InterruptedException ignore) {
+        }
+      }
+    }
+
+    private boolean isScanRequired() {
+      synchronized (monitorObject) {
+        if (wasNotifiedInParallel || System.currentTimeMillis() >= nextScanTime) {
+          wasNotifiedInParallel = false;
+          return true;
+        }
+        return false;
+      }
+    }
+
+    /**
+     * Assigns the entries pushed by this node to their processors, reading them all from the
+     * database by id.
+     * 
+     * @return the number of pushed entries that could not be assigned, they are kept in the
+     *         database to be picked up by the next query of the import entry table
+     */
+    private int dispatchPushedEntries() {
+      int skippedEntries = 0;
+      List<String> ids = new ArrayList<>();
+      String id;
+      while ((id = manager.pushedEntries.poll()) != null) {
+        ids.add(id);
+        if (ids.size() == MAX_PUSHED_ENTRIES_PER_QUERY) {
+          skippedEntries += dispatchPushedEntries(ids);
+          ids.clear();
+        }
+      }
+      if (!ids.isEmpty()) {
+        skippedEntries += dispatchPushedEntries(ids);
+      }
+      return skippedEntries;
+    }
+
+    private int dispatchPushedEntries(List<String> ids) {
+      int entryCount = 0;
+      int skippedEntries = 0;
+      try {
+        final Query<ImportEntry> entriesQry = OBDal.getInstance()
+            .getSession()
+            .createQuery(PUSHED_IMPORT_ENTRY_QRY, ImportEntry.class)
+            .setParameterList("ids", ids);
+
+        for (ImportEntry entry : entriesQry.list()) {
+          if (!isHandlingImportEntries()) {
+            break;
+          }
+          log.trace("Handle pushed import entry {}", entry::getIdentifier);
+          try {
+            if (manager.handleImportEntry(entry)) {
+              entryCount++;
+            } else {
+              skippedEntries++;
+            }
+            OBDal.getInstance().getSession().evict(entry);
+          } catch (Throwable t) {
+            ImportProcessUtils.logError(log, t);
+            manager.setImportEntryError(entry.getId(), t);
+          }
+        }
+      } catch (Throwable t) {
+        ImportProcessUtils.logError(log, t);
+        skippedEntries++;
+      } finally {
+        OBDal.getInstance().commitAndClose();
+      }
+      log.debug("Dispatched {} pushed entries, {} skipped", entryCount, skippedEntries);
+      return skippedEntries;
+    }
+
     @Override
     public void run() {
       isRunning = true;
@@ -670,13 +877,15 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
             }
 
             if (shouldWait()) {
+              if (!isHandlingImportEntries()) {
+                // another node is in charge, it will pick up the pushed entries from the database
+                manager.pushedEntries.clear();
+              }
               doWait();
               // woken, re-start from beginning of loop
               continue;
             }
 
-            currentCycle += 1;
-
             // obcontext cleared or wrong obcontext, repair
             if (OBContext.getOBContext() == null
                 || !"0".equals(OBContext.getOBContext().getUser().getId())) {
@@ -684,6 +893,19 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
               OBContext.setOBContext("0", "0", "0", "0");
             }
 
+            if (manager.pushDispatch && !isScanRequired()) {
+              if (dispatchPushedEntries() > 0) {
+                // retry the skipped entries with the next query, giving time to the runnables
+                // currently processing entries with the same key to finish
+                long retryTime = System.currentTimeMillis() + (isTest ? 0 : 2_000);
+                nextScanTime = Math.min(nextScanTime, retryTime);
+              }
+              doWaitForPushedEntries();
+              continue;
+            }
+
+            currentCycle += 1;
+
             if (typesOfData == null) {
               typesOfData = ImportProcessUtils.getOrderedTypesOfData();
             }
@@ -750,7 +972,16 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
               blockedNewEntriesForKey.clear();
             }
 
-            if (entryCount > 0) {
+            if (manager.pushDispatch) {
+              // entries pushed while querying are dispatched right away, the next query is done
+              // after the same time that would be waited in poll mode
+              nextScanTime = System.currentTimeMillis() + (entryCount > 0
+                  ? Math.max(isTest ? 0 : 2_000,
+                      300 + ((1_000L * entryCount) / manager.processingCapacityPerSecond))
+                  : manager.managerWaitTime * 1_000L);
+              log.debug("{} entries have been handled, {} skipped. Next query in {} ms",
+                  entryCount, skippedEntries, nextScanTime - System.currentTimeMillis());
+            } else if (entryCount > 0) {
               // if there was data then just wait some time
               // give the threads time to process it all before trying
               // a next batch of entries to prevent retrieving from DB the same records we have just
@@ -848,26 +1079,54 @@ public class ImportEntryManager implements ImportEntryManagerMBean {
     private long totalTime;
     private long totalTimePartial;
 
-    public void setTypeOfData(String typeOfData) {
+    // end-to-end latency: from the creation of the entry until it is processed
+    private long cntLatency;
+    private long cntLatencyPartial;
+    private long totalLatency;
+    private long totalLatencyPartial;
+    private long maxLatencyPartial;
+
+    ImportStatistics(String typeOfData) {
       this.typeOfData = typeOfData;
     }
 
-    public long getCnt() {
+    public synchronized long getCnt() {
       return cnt;
     }
 
-    public synchronized void addTiming(long timeForEntry) {
+    public synchronized void addTiming(long timeForEntry, long latency) {
       cnt++;
       cntPartial++;
       totalTime += timeForEntry;
       totalTimePartial += timeForEntry;
+      if (latency >= 0) {
+        cntLatency++;
+        cntLatencyPartial++;
+        totalLatency += latency;
+        totalLatencyPartial += latency;
+        maxLatencyPartial = Math.max(maxLatencyPartial, latency);
+      }
     }
 
-    public synchronized void log() {
+    public synchronized void log(String dispatchMode) {
+      if (cnt == 0) {
+        return;
+      }
       log.info("Timings for {}. Partial [cnt: {}, avg: {} ms] - Total [cnt: {}, avg: {} ms]",
-          typeOfData, cntPartial, totalTimePartial / cntPartial, cnt, totalTime / cnt);
+          typeOfData, cntPartial, cntPartial == 0 ? 0 : totalTimePartial / cntPartial, cnt,
+          totalTime / cnt);
+      if (cntLatency > 0) {
+        log.info(
+            "End-to-end latency for {} ({} dispatch). Partial [cnt: {}, avg: {} ms, max: {} ms] - Total [cnt: {}, avg: {} ms]",
+            typeOfData, dispatchMode, cntLatencyPartial,
+            cntLatencyPartial == 0 ? 0 : totalLatencyPartial / cntLatencyPartial,
+            maxLatencyPartial, cntLatency, totalLatency / cntLatency);
+      }
       cntPartial = 0;
       totalTimePartial = 0;
+      cntLatencyPartial = 0;
+      totalLatencyPartial = 0;
+      maxLatencyPartial = 0;
     }
   }
 
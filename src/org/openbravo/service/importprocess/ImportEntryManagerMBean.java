@@ -30,4 +30,20 @@ public interface ImportEntryManagerMBean {
 
   /** Forces ImportEntryManager to start a new cycle if it was waiting idle. */
   void notifyNewImportEntryCreated();
+
+  /**
+   * Returns the dispatch mode of the ImportEntryManager: "push" if the entries created in this node
+   * are dispatched directly to their processors or "poll" if they are only read by querying the
+   * import entry table.
+   */
+  String getDispatchMode();
+
+  /**
+   * Returns the average time in milliseconds from the creation of an entry until it is processed,
+   * considering all the entries processed by this node.
+   */
+  long getAverageEndToEndLatency();
+
+  /** Logs the processing time and end-to-end latency statistics of each type of data. */
+  void logImportStatistics();
 }
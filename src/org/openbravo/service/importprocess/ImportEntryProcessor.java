@@ -535,7 +535,8 @@ public abstract class ImportEntryProcessor {
       cnt++;
       final long timeForEntry = (System.currentTimeMillis() - t0);
       totalT += timeForEntry;
-      importEntryManager.reportStats(typeOfData, timeForEntry);
+      importEntryManager.reportStats(typeOfData, timeForEntry,
+          localImportEntry.getCreatedtimestamp());
       if ((cnt % 100) == 0 && logger.isDebugEnabled()) {
         logger.debug("Runnable: " + key + ", processed " + cnt + " import entries in " + totalT
             + " millis, " + (totalT / cnt) + " per import entry, current queue size: "